@@ -0,0 +1,223 @@
+// ✅ files/CascadeDelete.java
+package files;
+
+import files.Classes.Change;
+import files.Storage.TableStorage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes a course / student / teacher and every line that points at it, as one transaction:
+ *
+ *   1. prepare: each dependent file is read once and what survives goes to <file>.txn (forced)
+ *   2. commit:  cascade.commit is written (forced, then moved into place): from here on the delete happens
+ *   3. apply:   the .txn files replace the originals, credentials/profiles go through UpsertStorage.delete,
+ *               the table storage follows, then the marker is removed
+ *
+ * recover() (at startup) finishes a committed delete that was cut short, or throws away
+ * the .txn files of one that never committed, so no half-deleted state survives a crash.
+ * Runs under the DataStore lock (see DataStore.delete), one delete at a time, with its files
+ * locked in WRITE mode (locks()) so no append or upsert lands in a file while it is being replaced.
+ */
+public final class CascadeDelete {
+
+    static final String MARKER = "cascade.commit";
+    private static final String TXN = ".txn";
+
+    /** A file with lines that reference the entity in one column (ANY: in any of them). */
+    private record Relation(String file, char separator, int column) {}
+
+    private static final int ANY = -1;
+
+    private static final Map<Change.Entity, List<Relation>> RELATIONS = Map.of(
+            Change.Entity.COURSE, List.of(
+                    new Relation("Courses.txt", ',', 0),
+                    new Relation("enrollments.txt", ',', 1),
+                    new Relation("StudentCourses.txt", ';', 1),
+                    new Relation("CourseApplications.txt", ';', 1),
+                    new Relation("AssignedCoursesTeacher.txt", ',', 1),
+                    new Relation("PendingEnrollment.txt", ',', 1),
+                    new Relation("deadlines.txt", ';', 0),
+                    new Relation("CourseAnnouncements.txt", ';', 0),
+                    new Relation("UploadedFiles.txt", ';', 0),
+                    new Relation("CourseRequirement.txt", ',', ANY)),   // course, prerequisite
+            Change.Entity.STUDENT, List.of(
+                    new Relation("enrollments.txt", ',', 0),
+                    new Relation("StudentCourses.txt", ';', 0),
+                    new Relation("CourseApplications.txt", ';', 0),
+                    new Relation("PendingEnrollment.txt", ',', 0)),
+            Change.Entity.TEACHER, List.of(
+                    new Relation("AssignedCoursesTeacher.txt", ',', 0)));
+
+    // one line per id: these go through the upsert storage (its log / mapped file may be ahead of the text)
+    private static final Map<Change.Entity, List<String>> UPSERT_FILES = Map.of(
+            Change.Entity.COURSE, List.of(),
+            Change.Entity.STUDENT, List.of("StudentCredentials.txt", "StudentProfiles.txt"),
+            Change.Entity.TEACHER, List.of("TeacherCredentials.txt", "TeacherProfiles.txt"));
+
+    private final Path dataDir;
+    private final UpsertStorage upserts;
+    private final TableStorage tables;
+
+    public CascadeDelete(Path dataDir, UpsertStorage upserts, TableStorage tables) {
+        this.dataDir = dataDir;
+        this.upserts = upserts;
+        this.tables = tables;
+    }
+
+    public static boolean supports(Change.Entity entity) {
+        return RELATIONS.containsKey(entity);
+    }
+
+    /** Every file a delete of this kind rewrites, in WRITE mode (for LockManager). */
+    public List<LockManager.Request> locks(Change.Entity entity) {
+        List<LockManager.Request> out = new ArrayList<>();
+        for (Relation r : RELATIONS.getOrDefault(entity, List.of())) {
+            out.add(LockManager.Request.file(dataDir.resolve(r.file()), LockManager.Mode.WRITE));
+        }
+        for (String file : UPSERT_FILES.getOrDefault(entity, List.of())) {
+            out.add(LockManager.Request.file(dataDir.resolve(file), LockManager.Mode.WRITE));
+        }
+        return out;
+    }
+
+    /** @return lines removed per file (upsert files not counted) */
+    public Map<String, Integer> run(Change.Entity entity, String key) throws IOException {
+        if (!supports(entity)) throw new IllegalArgumentException("Can't delete " + entity);
+        String k = key.trim();
+
+        // 1) PREPARE: one pass per file
+        Map<String, Integer> removed = new LinkedHashMap<>();
+        List<String> prepared = new ArrayList<>();
+        try {
+            for (Relation r : RELATIONS.get(entity)) {
+                int n = prepare(r, k);
+                if (n > 0) prepared.add(r.file());
+                removed.put(r.file(), n);
+            }
+        } catch (IOException e) {
+            for (String file : prepared) Files.deleteIfExists(txn(file));
+            throw e;
+        }
+
+        // 2) COMMIT
+        List<String> marker = new ArrayList<>();
+        marker.add(entity.name());
+        marker.add(k);
+        marker.addAll(prepared);
+        Path tmp = dataDir.resolve(MARKER + ".tmp");
+        Files.write(tmp, marker, StandardCharsets.UTF_8);
+        force(tmp);
+        Files.move(tmp, dataDir.resolve(MARKER), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // 3) APPLY
+        apply(entity, k, prepared);
+        return removed;
+    }
+
+    /** Finish (or drop) a delete interrupted by a crash. Call before the files are loaded. */
+    public void recover() throws IOException {
+        Path marker = dataDir.resolve(MARKER);
+        if (Files.exists(marker)) {
+            List<String> lines = Files.readAllLines(marker, StandardCharsets.UTF_8);
+            if (lines.size() >= 2) {
+                Change.Entity entity = Change.Entity.valueOf(lines.get(0).trim());
+                String key = lines.get(1).trim();
+                apply(entity, key, lines.subList(2, lines.size()));
+                System.out.println("⚠️ Finished interrupted delete of " + entity + " " + key);
+                return;
+            }
+            Files.delete(marker); // torn marker = never committed (it is moved into place whole)
+        }
+
+        // not committed: the originals are untouched, the prepared copies are garbage
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(dataDir, "*" + TXN)) {
+            for (Path p : dir) {
+                Files.deleteIfExists(p);
+                System.out.println("⚠️ Dropped uncommitted " + p.getFileName());
+            }
+        }
+        Files.deleteIfExists(dataDir.resolve(MARKER + ".tmp"));
+    }
+
+    // ----- steps -----
+
+    // lines not referencing key -> <file>.txn; returns how many were left out (0 = no .txn kept)
+    private int prepare(Relation r, String key) throws IOException {
+        Path file = dataDir.resolve(r.file());
+        if (!Files.exists(file)) return 0;
+
+        Path out = txn(r.file());
+        int removed = 0;
+        try (BufferedReader br = Files.newBufferedReader(file);
+             BufferedWriter bw = Files.newBufferedWriter(out)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (references(line, r, key)) {
+                    removed++;
+                    continue;
+                }
+                bw.write(line);
+                bw.newLine();
+            }
+        }
+
+        if (removed == 0) {
+            Files.delete(out);
+            return 0;
+        }
+        force(out);
+        return removed;
+    }
+
+    // idempotent: run again by recover() after a crash
+    private void apply(Change.Entity entity, String key, List<String> prepared) throws IOException {
+        for (String file : prepared) {
+            Path t = txn(file);
+            if (Files.exists(t)) {
+                Files.move(t, dataDir.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            tables.replaced(dataDir.resolve(file));
+        }
+        for (String file : UPSERT_FILES.get(entity)) {
+            Path p = dataDir.resolve(file);
+            if (Files.exists(p) || Files.exists(p.resolveSibling(file + ".wal"))
+                    || Files.exists(MappedRecordFile.dataPath(p))) {
+                upserts.delete(p, key);
+                tables.removed(p, key);
+            }
+        }
+        Files.deleteIfExists(dataDir.resolve(MARKER));
+    }
+
+    private static boolean references(String line, Relation r, String key) {
+        String[] p = line.split(r.separator() == ';' ? ";" : ",", -1);
+        if (r.column() == ANY) {
+            for (String field : p) {
+                if (field.trim().equalsIgnoreCase(key)) return true;
+            }
+            return false;
+        }
+        return r.column() < p.length && p[r.column()].trim().equalsIgnoreCase(key);
+    }
+
+    private Path txn(String file) {
+        return dataDir.resolve(file + TXN);
+    }
+
+    private static void force(Path p) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.WRITE)) {
+            ch.force(true);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+// ✅ files/ChangeLog.java
+package files;
+
+import files.Classes.Change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Bounded log of the last changes the DataStore published, so clients can ask
+ * "what changed since version N?" instead of pulling the whole graph on every refresh.
+ *
+ * - versions are consecutive; only the last `capacity` changes are kept
+ * - the epoch changes when the log can't describe the data any more (server restart,
+ *   or the store reloaded because files were edited without going through the server).
+ *   A client from another epoch gets a full snapshot.
+ *
+ * One writer (the DataStore, under its write lock); readers never block.
+ */
+public final class ChangeLog {
+
+    // ✅ -Dcoursesphere.changelog.capacity=N
+    public static final String CAPACITY_PROPERTY = "coursesphere.changelog.capacity";
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final ConcurrentSkipListMap<Long, Change> log = new ConcurrentSkipListMap<>();
+    private int size; // writer only
+
+    private volatile long epoch;
+
+    public ChangeLog(long epoch) {
+        this(epoch, Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    public ChangeLog(long epoch, int capacity) {
+        this.epoch = epoch;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    void append(Change c) {
+        log.put(c.version(), c);
+        if (++size > capacity) {
+            log.pollFirstEntry();
+            size--;
+        }
+    }
+
+    /** Forget everything; clients of the old epoch will get a full snapshot. */
+    void reset(long newEpoch) {
+        epoch = newEpoch;
+        log.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the changes in (afterVersion, upToVersion] of that epoch,
+     *         or null when the log can't answer (other epoch, or trimmed)
+     */
+    public List<Change> between(long clientEpoch, long afterVersion, long upToVersion) {
+        if (clientEpoch != epoch || afterVersion < 0 || afterVersion > upToVersion) return null;
+        if (afterVersion == upToVersion) return List.of();
+
+        List<Change> out = new ArrayList<>(log.subMap(afterVersion, false, upToVersion, true).values());
+
+        // ✅ versions are consecutive: a short list means some were trimmed (or the log was reset meanwhile)
+        if (out.size() != upToVersion - afterVersion || clientEpoch != epoch) return null;
+        return out;
+    }
+}
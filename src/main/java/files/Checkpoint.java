@@ -0,0 +1,145 @@
+// ✅ files/Checkpoint.java
+package files;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * A binary copy of what was parsed from the text files, so a start doesn't parse them again.
+ *
+ *   "CSCK", format, [name, mtime, size] of every source file, payload, CRC32 of all of it
+ *
+ * read() gives the payload back only if the checksum holds and every source file still has the
+ * size/mtime it had when the checkpoint was written (no file added or removed either); anything
+ * else means "parse the text". Written to a temp file and moved into place, so a crash leaves
+ * the old checkpoint or none.
+ */
+public final class Checkpoint {
+
+    // ✅ -Dcoursesphere.checkpoint=false : always start from the text files
+    public static final String PROPERTY = "coursesphere.checkpoint";
+
+    private static final int MAGIC = 0x4353434B; // "CSCK"
+    private static final int FORMAT = 1;
+
+    @FunctionalInterface
+    public interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Parser<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private Checkpoint() {}
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty(PROPERTY, "true"));
+    }
+
+    public static void write(Path file, Collection<Path> sources, Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+
+        Map<String, long[]> stamps = stamps(sources);
+        out.writeInt(stamps.size());
+        for (Map.Entry<String, long[]> e : stamps.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeLong(e.getValue()[0]);
+            out.writeLong(e.getValue()[1]);
+        }
+        body.write(out);
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, bytes.toByteArray());
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** @return null if there is no usable checkpoint for `sources` as they are now */
+    public static <T> T read(Path file, Collection<Path> sources, Parser<T> parser) {
+        if (!Files.exists(file)) return null;
+
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length < 12) return damaged(file, "too short");
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 4);
+            if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+                return damaged(file, "bad checksum");
+            }
+
+            DataInputStream in = new DataInputStream(new Bytes(bytes, bytes.length - 4));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) return damaged(file, "unknown format");
+
+            int n = in.readInt();
+            Map<String, long[]> written = new TreeMap<>();
+            for (int i = 0; i < n; i++) written.put(in.readUTF(), new long[] { in.readLong(), in.readLong() });
+            if (!sameStamps(written, stamps(sources))) return null; // text changed since: parse it
+
+            return parser.read(in);
+        } catch (IOException | RuntimeException e) {
+            return damaged(file, e.toString());
+        }
+    }
+
+    // name -> {mtime, size}, sorted by name
+    private static Map<String, long[]> stamps(Collection<Path> sources) throws IOException {
+        Map<String, long[]> out = new TreeMap<>();
+        for (Path p : sources) {
+            out.put(p.getFileName().toString(), new long[] { Files.getLastModifiedTime(p).toMillis(), Files.size(p) });
+        }
+        return out;
+    }
+
+    private static boolean sameStamps(Map<String, long[]> a, Map<String, long[]> b) {
+        if (!a.keySet().equals(b.keySet())) return false;
+        for (Map.Entry<String, long[]> e : a.entrySet()) {
+            if (!Arrays.equals(e.getValue(), b.get(e.getKey()))) return false;
+        }
+        return true;
+    }
+
+    // ByteArrayInputStream without the locking: the parser reads millions of small fields
+    private static final class Bytes extends InputStream {
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+
+        Bytes(byte[] buf, int end) {
+            this.buf = buf;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            return pos < end ? buf[pos++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (pos >= end) return -1;
+            int n = Math.min(len, end - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+
+    private static <T> T damaged(Path file, String why) {
+        System.out.println("⚠️ Ignoring checkpoint " + file + " (" + why + "), reading the text files");
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package files.Classes;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One entry of the server's change log (see files.ChangeLog).
+ * Applying the changes in order to the previous graph gives the server's current graph.
+ *
+ * key is the entity id (student/teacher/course id) or "studentId,courseId" /
+ * "teacherId,courseId" for links. fields depend on the entity:
+ *   STUDENT / TEACHER UPSERT  -> [name, password, imagePath]  (profile applied; imagePath "" = none)
+ *   COURSE UPSERT             -> [courseName, credit]
+ *   ENROLLMENT / ASSIGNMENT   -> [personId, courseId]
+ *   DELETE                    -> []  (a deleted student/teacher/course takes its links with it)
+ */
+public record Change(long version, Entity entity, Op op, String key, List<String> fields) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public enum Entity {
+        STUDENT,
+        TEACHER,
+        COURSE,
+        ENROLLMENT,
+        ASSIGNMENT
+    }
+
+    public enum Op {
+        UPSERT, // add, or replace if it exists
+        DELETE
+    }
+
+    public Change {
+        fields = fields == null ? List.of() : List.copyOf(fields);
+    }
+
+    public String field(int i) {
+        return i < fields.size() ? fields.get(i) : "";
+    }
+}
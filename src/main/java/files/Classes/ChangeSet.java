@@ -0,0 +1,51 @@
+package files.Classes;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reply to GET_CHANGES_SINCE.
+ *
+ * Either a delta (changes after the version the client asked for) or, when the
+ * server can't produce one (log trimmed, server restarted, files edited behind
+ * its back), a full snapshot. Both say which (epoch, version) the client is at afterwards.
+ */
+public final class ChangeSet implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long epoch;
+    private final long version;
+    private final ArrayList<Change> changes; // a concrete ArrayList: the field is serialized
+    private final DataSnapshot snapshot; // null = delta
+
+    public ChangeSet(long epoch, long version, List<Change> changes, DataSnapshot snapshot) {
+        this.epoch = epoch;
+        this.version = version;
+        this.changes = changes == null ? new ArrayList<>() : new ArrayList<>(changes);
+        this.snapshot = snapshot;
+    }
+
+    public static ChangeSet full(long epoch, long version, DataSnapshot snapshot) {
+        return new ChangeSet(epoch, version, List.of(), snapshot);
+    }
+
+    public long getEpoch() { return epoch; }
+    public long getVersion() { return version; }
+    public List<Change> getChanges() { return Collections.unmodifiableList(changes); }
+    public DataSnapshot getSnapshot() { return snapshot; }
+
+    public boolean isFull() {
+        return snapshot != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet{epoch=" + epoch + ", version=" + version
+                + (isFull() ? ", full=" + snapshot : ", changes=" + changes.size()) + "}";
+    }
+}
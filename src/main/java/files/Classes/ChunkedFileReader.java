@@ -0,0 +1,171 @@
+// ✅ files/Classes/ChunkedFileReader.java
+package files.Classes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Reads a big line file (enrollments.txt, CourseAnnouncements.txt) on every core.
+ *
+ * - the file is cut into byte ranges that end on a '\n'; each range is memory-mapped (read
+ *   into a heap buffer on Windows) and parsed on the fork-join common pool, with its own
+ *   RecordTokenizer and its own result
+ * - read() gives the results back one per range, in file order: the caller merges them,
+ *   so "first line wins" and insertion order come out as with one BufferedReader
+ * - lines are UTF-8 and passed without their "\n" / "\r\n"; blank lines are passed too
+ *
+ * Small files (one range) and -Dcoursesphere.load.parallel=false are parsed on the caller's thread.
+ * A file cut short while a range is mapped (a client truncating it) gives a fault on the mapped
+ * pages; that range is then parsed again from a heap copy of what the file holds now.
+ * The parser runs on several threads at once: it may only read shared state (lookups), not change it.
+ */
+public final class ChunkedFileReader {
+
+    // ✅ -Dcoursesphere.load.parallel=false : one range, on the caller's thread
+    public static final String PROPERTY = "coursesphere.load.parallel";
+    // ✅ -Dcoursesphere.load.chunkKb=N : smallest range worth its own task
+    public static final String CHUNK_PROPERTY = "coursesphere.load.chunkKb";
+
+    private static final long MAX_RANGE = 1L << 30; // one mapping is at most 2 GB
+
+    // ✅ Windows can't replace a file while a mapping of it is alive (CascadeDelete moves a new
+    // enrollments.txt over the old one, and mappings are only released by the GC): read instead
+    private static final boolean MAP = !System.getProperty("os.name", "").startsWith("Windows");
+
+    /** One line of one range: t is reset to the line, split on the reader's separator. */
+    @FunctionalInterface
+    public interface LineParser<A> {
+        void line(A chunk, RecordTokenizer t);
+    }
+
+    private ChunkedFileReader() {}
+
+    public static <A> List<A> read(Path file, char separator, Supplier<A> newChunk, LineParser<A> parser)
+            throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            boolean parallel = Boolean.parseBoolean(System.getProperty(PROPERTY, "true"))
+                    && Runtime.getRuntime().availableProcessors() > 1;
+            long[] bounds = bounds(ch, size, ranges(size, parallel));
+
+            List<A> out = new ArrayList<>(bounds.length - 1);
+            if (!parallel || bounds.length == 2) {
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    out.add(parse(ch, bounds[i], bounds[i + 1], separator, newChunk, parser));
+                }
+                return out;
+            }
+
+            List<ForkJoinTask<A>> tasks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                tasks.add(ForkJoinTask.adapt(() -> parse(ch, from, to, separator, newChunk, parser)));
+            }
+
+            try {
+                ForkJoinTask.invokeAll(tasks); // the caller's thread parses a range too
+            } catch (RuntimeException e) {
+                for (Throwable c = e; c != null; c = c.getCause()) {
+                    if (c instanceof IOException io) throw io;
+                }
+                throw e;
+            }
+            for (ForkJoinTask<A> t : tasks) out.add(t.join());
+            return out;
+        }
+    }
+
+    // =========================
+    // RANGES
+    // =========================
+    private static int ranges(long size, boolean parallel) {
+        long n = 1;
+        if (parallel) {
+            long minChunk = Math.max(1, Long.getLong(CHUNK_PROPERTY, 1024)) * 1024;
+            // a few per core, so one slow range doesn't hold up the rest
+            n = Math.min((size + minChunk - 1) / minChunk, Runtime.getRuntime().availableProcessors() * 4L);
+        }
+        return (int) Math.max(Math.max(1, n), (size + MAX_RANGE - 1) / MAX_RANGE);
+    }
+
+    // range i is [bounds[i], bounds[i + 1]): each cut moved forward to just after a '\n'
+    private static long[] bounds(FileChannel ch, long size, int ranges) throws IOException {
+        long[] bounds = new long[ranges + 1];
+        bounds[ranges] = size;
+        ByteBuffer buf = ByteBuffer.allocate(8 * 1024);
+        for (int i = 1; i < ranges; i++) {
+            long cut = Math.max(bounds[i - 1], size / ranges * i);
+            bounds[i] = lineStart(ch, cut, size, buf);
+        }
+        return bounds;
+    }
+
+    // first position >= pos that starts a line (or size)
+    private static long lineStart(FileChannel ch, long pos, long size, ByteBuffer buf) throws IOException {
+        if (pos == 0) return 0;
+        long at = pos - 1; // pos starts a line if the byte before it is '\n'
+        while (at < size) {
+            buf.clear();
+            int n = ch.read(buf, at);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') return at + i + 1;
+            }
+            at += n;
+        }
+        return size;
+    }
+
+    // =========================
+    // PARSE ONE RANGE
+    // =========================
+    private static <A> A parse(FileChannel ch, long from, long to, char separator,
+                               Supplier<A> newChunk, LineParser<A> parser) throws IOException {
+        if (to <= from) return newChunk.get();
+        if (MAP) {
+            try {
+                return parse(ch.map(FileChannel.MapMode.READ_ONLY, from, to - from), separator, newChunk.get(), parser);
+            } catch (InternalError e) {
+                // ⚠️ SIGBUS: the file got shorter than the mapping. The JVM reports it as an
+                // InternalError, which no caller's catch (Exception) would stop
+                System.out.println("⚠️ File changed while reading it mapped, reading it again: " + e.getMessage());
+            }
+        }
+        return parse(readRange(ch, from, to), separator, newChunk.get(), parser);
+    }
+
+    private static <A> A parse(ByteBuffer buf, char separator, A chunk, LineParser<A> parser) {
+        RecordTokenizer t = new RecordTokenizer();
+        int end = buf.limit();
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (buf.get(i) != '\n') continue;
+            line(buf, start, i, separator, t, chunk, parser);
+            start = i + 1;
+        }
+        if (start < end) line(buf, start, end, separator, t, chunk, parser); // no '\n' at the end
+        return chunk;
+    }
+
+    private static ByteBuffer readRange(FileChannel ch, long from, long to) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) (to - from));
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, from + buf.position()) < 0) break;
+        }
+        return buf.flip();
+    }
+
+    private static <A> void line(ByteBuffer buf, int from, int to, char separator,
+                                 RecordTokenizer t, A chunk, LineParser<A> parser) {
+        if (to > from && buf.get(to - 1) == '\r') to--;
+        parser.line(chunk, t.reset(buf, from, to, separator));
+    }
+}
@@ -3,8 +3,9 @@ package files.Classes;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Consumer;
 
-public class Course implements Serializable {
+public class Course implements Serializable, Watchable<Course> {
 
     @Serial
     private static final long serialVersionUID = 1L;
@@ -16,6 +17,14 @@ public class Course implements Serializable {
     private final List<Student> courseStudents = new ArrayList<>();
     private final List<Teacher> courseTeachers = new ArrayList<>();
 
+    // ✅ who is in the lists above, by id: membership without a scan. Derived from the lists
+    // (not serialized), rebuilt on first use, after a removal and after a setId() on one of them
+    private transient IntObjectMap<Student> studentIds;
+    private transient IntObjectMap<Teacher> teacherIds;
+
+    // ✅ lists / search indexes keeping this course by name: told about a rename
+    private transient volatile Owners<Course> owners;
+
     public Course(String courseID, String courseName, double credit){
         if (courseID == null || courseID.isBlank()) throw new IllegalArgumentException("courseID required");
         if (courseName == null || courseName.isBlank()) throw new IllegalArgumentException("courseName required");
@@ -32,7 +41,27 @@ public class Course implements Serializable {
 
     public void setCourseName(String courseName) {
         if (courseName == null || courseName.isBlank()) return;
-        this.courseName = courseName.trim();
+        String name = courseName.trim();
+        if (name.equals(this.courseName)) return;
+        this.courseName = name;
+        Owners<Course> o = owners;
+        if (o != null) o.changed(this);
+    }
+
+    @Override
+    public void watch(Object owner, Consumer<? super Course> onRename) {
+        owners().add(owner, onRename);
+    }
+
+    @Override
+    public void unwatch(Object owner) {
+        Owners<Course> o = owners;
+        if (o != null) o.remove(owner);
+    }
+
+    private synchronized Owners<Course> owners() {
+        if (owners == null) owners = new Owners<>();
+        return owners;
     }
 
     public void setCredit(double credit) {
@@ -49,8 +78,10 @@ public class Course implements Serializable {
 
     public boolean addStudent(Student s){
         if (s == null) return false;
-        if (!courseStudents.contains(s)) {
+        if (studentIds().get(s.getId()) == null) {
             courseStudents.add(s);
+            studentIds.put(s.getId(), s);
+            s.watch(this, this::personChanged);
             s.addCourses(this);
             return true;
         }
@@ -59,14 +90,78 @@ public class Course implements Serializable {
 
     public boolean addTeacher(Teacher t){
         if (t == null) return false;
-        if (!courseTeachers.contains(t)) {
+        if (teacherIds().get(t.getId()) == null) {
             courseTeachers.add(t);
+            teacherIds.put(t.getId(), t);
+            t.watch(this, this::personChanged);
             t.assignCourse(this);
             return true;
         }
         return false;
     }
 
+    public boolean removeStudent(Student s){
+        if (s == null) return false;
+        if (courseStudents.remove(s)) {
+            studentIds = null;
+            s.unwatch(this);
+            s.drop(this);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean removeTeacher(Teacher t){
+        if (t == null) return false;
+        if (courseTeachers.remove(t)) {
+            teacherIds = null;
+            t.unwatch(this);
+            t.unassignCourse(this);
+            return true;
+        }
+        return false;
+    }
+
+    private IntObjectMap<Student> studentIds() {
+        if (studentIds == null) studentIds = index(courseStudents);
+        return studentIds;
+    }
+
+    private IntObjectMap<Teacher> teacherIds() {
+        if (teacherIds == null) teacherIds = index(courseTeachers);
+        return teacherIds;
+    }
+
+    private <P extends Person> IntObjectMap<P> index(List<P> people) {
+        IntObjectMap<P> m = new IntObjectMap<>(people.size());
+        for (P p : people) {
+            p.watch(this, this::personChanged); // again after deserialization: owners aren't sent
+            m.putIfAbsent(p.getId(), p);
+        }
+        return m;
+    }
+
+    // a name change keeps the id maps; an id change drops the one holding the person
+    private void personChanged(Person p) {
+        if (p instanceof Student) {
+            IntObjectMap<Student> m = studentIds;
+            if (m != null && m.get(p.getId()) != p) studentIds = null;
+        } else {
+            IntObjectMap<Teacher> m = teacherIds;
+            if (m != null && m.get(p.getId()) != p) teacherIds = null;
+        }
+    }
+
+    /** What equals() compares ids by (equalsIgnoreCase): every char upper-, then lower-cased, no locale. */
+    static String key(String courseId) {
+        String id = courseId.trim();
+        char[] key = new char[id.length()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = Character.toLowerCase(Character.toUpperCase(id.charAt(i)));
+        }
+        return new String(key);
+    }
+
     public String displayLabel() {
         return courseID + " - " + courseName + " (" + credit + ")";
     }
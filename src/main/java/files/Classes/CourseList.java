@@ -11,6 +11,11 @@ public class CourseList implements Serializable {
 
     private final List<Course> courses = new ArrayList<>();
 
+    // ✅ id / name -> course, so lookups don't scan the list. Derived from `courses` (not serialized,
+    // rebuilt on first use); volatile because the parallel loaders look courses up from several threads
+    private transient volatile Map<String, Course> byId;
+    private transient volatile Map<String, Course> byName; // first course per name, what the old scan found
+
     // ✅ For UI: safe read-only view
     public List<Course> getCourses() {
         return Collections.unmodifiableList(courses);
@@ -18,29 +23,21 @@ public class CourseList implements Serializable {
 
     // ✅ For loaders: allow clearing safely
     public void clearCourses() {
+        for (Course c : courses) c.unwatch(this);
         courses.clear();
+        byId = null;
+        byName = null;
     }
 
     public Course searchCourse(String courseId) {
         if (courseId == null) return null;
-        String key = courseId.trim();
-        for (Course c : courses) {
-            if (c.getCourseID().equalsIgnoreCase(key)) return c;
-        }
-        return null;
+        return ids().get(Course.key(courseId));
     }
 
     // ✅ NEW: search by name (case-insensitive exact match)
     public Course searchCourseByName(String courseName) {
         if (courseName == null) return null;
-        String key = courseName.trim().toLowerCase();
-        for (Course c : courses) {
-            if (c.getCourseName() != null &&
-                    c.getCourseName().trim().toLowerCase().equals(key)) {
-                return c;
-            }
-        }
-        return null;
+        return names().get(nameKey(courseName));
     }
 
     public boolean addCourse(Course c) {
@@ -53,6 +50,9 @@ public class CourseList implements Serializable {
         if (searchCourseByName(c.getCourseName()) != null) return false;
 
         courses.add(c);
+        c.watch(this, this::renamed);
+        ids().put(Course.key(c.getCourseID()), c);
+        names().put(nameKey(c.getCourseName()), c);
         return true;
     }
 
@@ -60,7 +60,11 @@ public class CourseList implements Serializable {
     public boolean removeCourseById(String courseId) {
         Course c = searchCourse(courseId);
         if (c == null) return false;
-        return courses.remove(c);
+        boolean removed = courses.remove(c);
+        c.unwatch(this);
+        ids().remove(Course.key(c.getCourseID()));
+        byName = null; // a renamed course may share the name: rebuilt on the next lookup
+        return removed;
     }
 
     // ================= STUDENT =================
@@ -83,6 +87,41 @@ public class CourseList implements Serializable {
         if (c != null) c.addTeacher(teacher);
     }
 
+    // =========================
+    // INDEXES
+    // =========================
+    private Map<String, Course> ids() {
+        Map<String, Course> m = byId;
+        if (m == null) {
+            m = new HashMap<>();
+            for (Course c : courses) m.putIfAbsent(Course.key(c.getCourseID()), c);
+            byId = m;
+        }
+        return m;
+    }
+
+    private Map<String, Course> names() {
+        Map<String, Course> m = byName;
+        if (m == null) {
+            m = new HashMap<>();
+            for (Course c : courses) {
+                c.watch(this, this::renamed); // again after deserialization: owners aren't sent
+                if (c.getCourseName() != null) m.putIfAbsent(nameKey(c.getCourseName()), c);
+            }
+            byName = m;
+        }
+        return m;
+    }
+
+    // only this list's name index: rebuilt on the next lookup
+    private void renamed(Course c) {
+        byName = null;
+    }
+
+    private static String nameKey(String courseName) {
+        return courseName.trim().toLowerCase();
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("CourseList:\n");
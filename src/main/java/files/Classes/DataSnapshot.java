@@ -0,0 +1,34 @@
+package files.Classes;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Reply to GET_ALL_COORDINATED_DATA.
+ * The three lists travel in ONE message so students/teachers inside courses
+ * stay the same objects as in the lists (and are only serialized once).
+ */
+public final class DataSnapshot implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final StudentList studentList;
+    private final TeacherList teacherList;
+    private final CourseList courseList;
+
+    public DataSnapshot(StudentList studentList, TeacherList teacherList, CourseList courseList) {
+        this.studentList = studentList;
+        this.teacherList = teacherList;
+        this.courseList = courseList;
+    }
+
+    public StudentList getStudentList() { return studentList; }
+    public TeacherList getTeacherList() { return teacherList; }
+    public CourseList getCourseList() { return courseList; }
+
+    @Override
+    public String toString() {
+        return "DataSnapshot{" + studentList + ", " + teacherList + ", courses=" + courseList.getCourses().size() + "}";
+    }
+}
@@ -0,0 +1,117 @@
+// ✅ files/Classes/IntObjectMap.java
+package files.Classes;
+
+import java.util.Arrays;
+
+/**
+ * int -> object map for the people lists: open addressing, linear probing, no Integer boxing.
+ *
+ * - keys live in an int[], values in an Object[]; a null value marks a free slot (no null values)
+ * - removal shifts the following entries back, so there are no tombstones to clean up
+ * - at most half full, so a probe is short even for sequential ids (2023000000, 2023000001, ...)
+ *
+ * Not thread-safe for writes; reads may run in parallel once it is filled.
+ */
+final class IntObjectMap<V> {
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    IntObjectMap() {
+        this(16);
+    }
+
+    IntObjectMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        keys = new int[cap];
+        values = new Object[cap];
+        mask = cap - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            Object v = values[i];
+            if (v == null) return null;
+            if (keys[i] == key) return (V) v;
+        }
+    }
+
+    /** @return the value that was there, or null */
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (value == null) throw new IllegalArgumentException("null value");
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > values.length) grow();
+        return null;
+    }
+
+    /** Keeps the first value for a key, like the lists' "first one wins" scans. */
+    V putIfAbsent(int key, V value) {
+        V old = get(key);
+        return old != null ? old : put(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] != key) continue;
+
+            V old = (V) values[i];
+            // ✅ move later entries of the run back into the hole, so get() never stops early
+            int hole = i;
+            for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = slot(keys[j]);
+                // j may move to hole only if its home is not in (hole, j] (cyclically)
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            values[hole] = null;
+            size--;
+            return old;
+        }
+        return null;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9; // Fibonacci hashing: spreads runs of ids over the table
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = values.length - 1;
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) put(oldKeys[i], (V) oldValues[i]);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package files.Classes;
 
 import files.Request;
-import files.Server.SocketWrapper;
+import files.Server.ServerConnection;
+import files.StoreRecords;
 
 import java.io.*;
 import java.nio.file.*;
@@ -25,6 +26,10 @@ public class Loader {
     private static final String HOST = "127.0.0.1";
     private static final int PORT = 55555;
 
+    // ✅ where our lists are in the server's change log (-1 = never synced, ask for everything)
+    private static long syncEpoch = -1;
+    private static long syncVersion = -1;
+
     public static void loadAll() {
         reloadAll();
     }
@@ -35,9 +40,16 @@ public class Loader {
         if (!ok) {
             System.out.println("⚠️ Server not reachable. Loading from local files...");
             loadAllFromLocalFiles();
+            resetSync(); // local lists != server's, next server load must be full
         }
     }
 
+    /** Forget the sync position, so the next reload pulls a full snapshot. */
+    public static void resetSync() {
+        syncEpoch = -1;
+        syncVersion = -1;
+    }
+
     /**
      * ✅ If you add/remove courses locally (Admin), call this AFTER writing Courses.txt
      * so other pages show updated courses without server.
@@ -45,6 +57,7 @@ public class Loader {
     public static void reloadCoursesFromFile() {
         CourseList cl = loadCoursesLocal();
         courseList = cl;
+        resetSync();
 
         // optional: re-apply coordination if you need it locally
         coordinateStudentCoursesLocal();
@@ -55,19 +68,27 @@ public class Loader {
     // SERVER LOAD
     // ==========================================
     private static boolean tryLoadFromServer(String host, int port) {
-        SocketWrapper server = null;
         try {
-            server = new SocketWrapper(host, port);
-
-            server.write(new Request(Request.RequestType.GET_ALL_COORDINATED_DATA));
-
-            Object sObj = server.read();
-            Object tObj = server.read();
-            Object cObj = server.read();
+            // ✅ shared long-lived connection (no new socket per reload)
+            // ✅ only asks for what changed since the last load (server sends everything if it must)
+            Object reply = ServerConnection.get(host, port)
+                    .call(new Request(syncEpoch, syncVersion));
+
+            if (!(reply instanceof ChangeSet changes)) {
+                System.err.println("Unexpected reply from server: " + reply);
+                return false;
+            }
 
-            if (sObj instanceof StudentList sl) studentList = sl;
-            if (tObj instanceof TeacherList tl) teacherList = tl;
-            if (cObj instanceof CourseList cl)  courseList  = cl;
+            if (changes.isFull()) {
+                DataSnapshot snapshot = changes.getSnapshot();
+                studentList = snapshot.getStudentList();
+                teacherList = snapshot.getTeacherList();
+                courseList  = snapshot.getCourseList();
+            } else {
+                for (Change c : changes.getChanges()) applyChange(c);
+            }
+            syncEpoch = changes.getEpoch();
+            syncVersion = changes.getVersion();
 
             // ✅ Apply local approvals AFTER server load (safe)
             applyEnrollmentsFromFile();
@@ -77,11 +98,164 @@ public class Loader {
         } catch (Exception e) {
             System.err.println("Load from server failed: " + e.getMessage());
             return false;
+        }
+    }
+
+    // ==========================================
+    // DELTA APPLY (same rules as the server's full load)
+    // ==========================================
+    private static void applyChange(Change c) {
+        try {
+            switch (c.entity()) {
+                case STUDENT -> applyStudentChange(c);
+                case TEACHER -> applyTeacherChange(c);
+                case COURSE -> {
+                    Course existing = courseList.searchCourse(c.key());
+                    if (c.op() == Change.Op.DELETE) {
+                        if (existing != null) removeCourse(existing);
+                        return;
+                    }
+                    double credit = Double.parseDouble(c.field(1));
+                    if (existing == null) {
+                        courseList.addCourse(new Course(c.key(), c.field(0), credit));
+                    } else {
+                        existing.setCourseName(c.field(0));
+                        existing.setCredit(credit);
+                    }
+                }
+                case ENROLLMENT -> {
+                    Student s = studentList.searchStudent(Integer.parseInt(c.field(0)));
+                    if (s != null) courseList.addStudentToCourse(c.field(1), s);
+                }
+                case ASSIGNMENT -> {
+                    Teacher t = teacherList.searchTeacher(Integer.parseInt(c.field(0)));
+                    if (t != null) courseList.addTeacherToCourse(c.field(1), t);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Skipping bad change " + c + ": " + e.getMessage());
+        }
+    }
+
+    private static void removeCourse(Course course) {
+        for (Student s : new ArrayList<>(course.getCourseStudents())) course.removeStudent(s);
+        for (Teacher t : new ArrayList<>(course.getCourseTeachers())) course.removeTeacher(t);
+        courseList.removeCourseById(course.getCourseID());
+    }
+
+    private static void applyStudentChange(Change c) {
+        int id = Integer.parseInt(c.key());
+        Student s = studentList.searchStudent(id);
+
+        switch (c.op()) {
+            case UPSERT -> {
+                if (s == null) {
+                    s = new Student(c.field(0), id, c.field(1));
+                    studentList.addStudent(s);
+                } else {
+                    s.setName(c.field(0));
+                    s.setPassword(c.field(1));
+                }
+                s.setImagePath(c.field(2));
+            }
+            case DELETE -> {
+                if (s == null) return;
+                for (Course course : courseList.getCourses()) course.removeStudent(s);
+                studentList.removeStudentById(id);
+            }
+        }
+    }
+
+    private static void applyTeacherChange(Change c) {
+        int id = Integer.parseInt(c.key());
+        Teacher t = teacherList.searchTeacher(id);
+
+        switch (c.op()) {
+            case UPSERT -> {
+                if (t == null) {
+                    teacherList.addTeacher(new Teacher(c.field(0), id, c.field(1)));
+                } else {
+                    t.setName(c.field(0));
+                    t.setPassword(c.field(1));
+                }
+            }
+            case DELETE -> {
+                if (t == null) return;
+                for (Course course : courseList.getCourses()) course.removeTeacher(t);
+                teacherList.removeTeacherById(id);
+            }
+        }
+    }
+
+    // ==========================================
+    // TARGETED LOOKUPS (one object, not the whole graph)
+    // ==========================================
+    // The server answers from its indexes with a small copy (see DataStore):
+    //   fetchStudent  -> student + its courses (with their teachers)
+    //   fetchTeacher  -> teacher + its assigned courses
+    //   fetchCourseRoster / fetchCoursesForTeacher -> course(s) + students and teachers
+    // Copies are not part of studentList/courseList. If the server can't be reached,
+    // the answer comes from the lists already loaded here.
+
+    public static Student fetchStudent(int id) {
+        Object reply = lookup(Request.RequestType.GET_STUDENT, String.valueOf(id));
+        if (reply instanceof Student s) return s;
+        if (reply instanceof Boolean) return null;
+        return studentList.searchStudent(id);
+    }
+
+    public static Teacher fetchTeacher(int id) {
+        Object reply = lookup(Request.RequestType.GET_TEACHER, String.valueOf(id));
+        if (reply instanceof Teacher t) return t;
+        if (reply instanceof Boolean) return null;
+        return teacherList.searchTeacher(id);
+    }
+
+    public static Course fetchCourseRoster(String courseId) {
+        if (courseId == null || courseId.isBlank()) return null;
+        Object reply = lookup(Request.RequestType.GET_COURSE_ROSTER, courseId.trim());
+        if (reply instanceof Course c) return c;
+        if (reply instanceof Boolean) return null;
+        return courseList.searchCourse(courseId);
+    }
 
-        } finally {
-            if (server != null) {
-                try { server.closeConnection(); } catch (IOException ignored) {}
+    public static List<Course> fetchCoursesForTeacher(int id) {
+        Object reply = lookup(Request.RequestType.GET_COURSES_FOR_TEACHER, String.valueOf(id));
+        if (reply instanceof List<?> list) {
+            List<Course> out = new ArrayList<>(list.size());
+            for (Object o : list) {
+                if (o instanceof Course c) out.add(c);
             }
+            return out;
+        }
+        Teacher t = teacherList.searchTeacher(id);
+        return t == null ? new ArrayList<>() : new ArrayList<>(t.getCoursesAssigned());
+    }
+
+    /**
+     * One relation from the server's indexes (files.RelationIndex), e.g.
+     * fetchRelated(GET_APPLICANTS_OF_COURSE, "CSE 2101") -> student ids.
+     * @return null if the server can't be reached (caller reads the file itself)
+     */
+    public static List<String> fetchRelated(Request.RequestType type, String key) {
+        if (key == null || key.isBlank()) return new ArrayList<>();
+        Object reply = lookup(type, key.trim());
+        if (!(reply instanceof List<?> list)) return null;
+
+        List<String> out = new ArrayList<>(list.size());
+        for (Object o : list) {
+            if (o instanceof String s) out.add(s);
+        }
+        return out;
+    }
+
+    // null = server not reachable (caller falls back to the local lists)
+    private static Object lookup(Request.RequestType type, String key) {
+        try {
+            return ServerConnection.get(HOST, PORT).call(new Request(type, key));
+        } catch (Exception e) {
+            System.err.println("⚠️ " + type + " failed, using local data: " + e.getMessage());
+            return null;
         }
     }
 
@@ -89,6 +263,15 @@ public class Loader {
     // LOCAL LOAD (fallback / offline)
     // ==========================================
     private static void loadAllFromLocalFiles() {
+        // ✅ the server's checkpoint, if the files haven't changed since: no parsing at all
+        DataSnapshot checkpoint = StoreRecords.loadCheckpoint(Paths.get("database"));
+        if (checkpoint != null) {
+            studentList = checkpoint.getStudentList();
+            teacherList = checkpoint.getTeacherList();
+            courseList  = checkpoint.getCourseList();
+            return;
+        }
+
         courseList  = loadCoursesLocal();
         studentList = loadStudentsLocal();
         teacherList = loadTeachersLocal();
@@ -103,20 +286,18 @@ public class Loader {
         Path p = Paths.get(COURSES_FILE);
         if (!Files.exists(p)) return cl;
 
+        RecordTokenizer t = new RecordTokenizer();
         try (BufferedReader br = Files.newBufferedReader(p)) {
             String line;
             while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+                t.reset(line, ',');
+                if (t.isBlank() || t.fields() != 3) continue; // a 4th field never parsed as a credit
 
-                String[] parts = line.split(",", 3);
-                if (parts.length < 3) continue;
-
-                String id = parts[0].trim();
-                String name = parts[1].trim();
+                String id = t.next();
+                String name = t.next();
                 double credit;
 
-                try { credit = Double.parseDouble(parts[2].trim()); }
+                try { credit = t.nextDouble(); }
                 catch (Exception ex) { continue; }
 
                 // ✅ CourseList blocks duplicate id/name automatically now
@@ -135,22 +316,20 @@ public class Loader {
         Path p = Paths.get(STUDENT_CRED);
         if (!Files.exists(p)) return sl;
 
+        RecordTokenizer t = new RecordTokenizer();
         try (BufferedReader br = Files.newBufferedReader(p)) {
             String line;
             while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",", -1);
-                if (parts.length < 4) continue;
+                t.reset(line, ',');
+                if (t.isBlank() || t.fields() < 4) continue;
 
                 int id;
-                try { id = Integer.parseInt(parts[0].trim()); }
+                try { id = t.nextInt(); }
                 catch (Exception ex) { continue; }
 
-                String name = parts[1].trim();
-                String pass = parts[2].trim();
-                boolean approved = Boolean.parseBoolean(parts[3].trim());
+                String name = t.next();
+                String pass = t.next();
+                boolean approved = t.nextBoolean();
                 if (!approved) continue;
 
                 sl.addStudent(new Student(name, id, pass));
@@ -166,22 +345,20 @@ public class Loader {
         Path p = Paths.get(TEACHER_CRED);
         if (!Files.exists(p)) return tl;
 
+        RecordTokenizer t = new RecordTokenizer();
         try (BufferedReader br = Files.newBufferedReader(p)) {
             String line;
             while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",", -1);
-                if (parts.length < 4) continue;
+                t.reset(line, ',');
+                if (t.isBlank() || t.fields() < 4) continue;
 
                 int id;
-                try { id = Integer.parseInt(parts[0].trim()); }
+                try { id = t.nextInt(); }
                 catch (Exception ex) { continue; }
 
-                String name = parts[1].trim();
-                String pass = parts[2].trim();
-                boolean approved = Boolean.parseBoolean(parts[3].trim());
+                String name = t.next();
+                String pass = t.next();
+                boolean approved = t.nextBoolean();
                 if (!approved) continue;
 
                 tl.addTeacher(new Teacher(name, id, pass));
@@ -204,35 +381,39 @@ public class Loader {
         // supports BOTH:
         // StudentCourses.txt => studentId;courseId
         // enrollments.txt    => studentId,courseId
-        readStudentCourseMap(Paths.get(ENROLL_FILE), ";");
-        readStudentCourseMap(Paths.get(ENROLL_FILE2), ",");
+        readStudentCourseMap(Paths.get(ENROLL_FILE), ';');
+        readStudentCourseMap(Paths.get(ENROLL_FILE2), ',');
     }
 
-    private static void readStudentCourseMap(Path p, String delimiter) {
-        if (!Files.exists(p)) return;
+    private record Enrollment(Student student, Course course) {}
 
-        try (BufferedReader br = Files.newBufferedReader(p)) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+    private static void readStudentCourseMap(Path p, char delimiter) {
+        if (!Files.exists(p)) return;
 
-                String[] parts = line.split(delimiter, 2);
-                if (parts.length != 2) continue;
+        // ✅ lines are parsed and looked up on every core (the lists are only read there);
+        // enroll() changes them, so it runs here, range by range in file order
+        StudentList students = studentList;
+        CourseList courses = courseList;
+        try {
+            List<List<Enrollment>> ranges = ChunkedFileReader.read(p, delimiter, ArrayList::new, (found, t) -> {
+                if (t.isBlank() || t.fields() < 2) return;
 
                 int sid;
-                try { sid = Integer.parseInt(parts[0].trim()); }
-                catch (Exception ex) { continue; }
+                try { sid = t.nextInt(); }
+                catch (Exception ex) { return; }
 
-                String courseId = parts[1].trim();
-                if (courseId.isEmpty()) continue;
+                String courseId = t.rest();
+                if (courseId.isEmpty()) return;
 
-                Student s = studentList.searchStudent(sid);
-                Course  c = courseList.searchCourse(courseId);
+                Student s = students.searchStudent(sid);
+                Course  c = courses.searchCourse(courseId);
+                if (s != null && c != null) found.add(new Enrollment(s, c));
+            });
 
-                if (s != null && c != null) {
+            for (List<Enrollment> found : ranges) {
+                for (Enrollment e : found) {
                     // enroll() should prevent duplicates
-                    try { s.enroll(c); } catch (Exception ignored) {}
+                    try { e.student().enroll(e.course()); } catch (Exception ignored) {}
                 }
             }
         } catch (Exception e) {
@@ -244,20 +425,18 @@ public class Loader {
         Path p = Paths.get(ASSIGN_FILE);
         if (!Files.exists(p)) return;
 
+        RecordTokenizer tokens = new RecordTokenizer();
         try (BufferedReader br = Files.newBufferedReader(p)) {
             String line;
             while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",", 2);
-                if (parts.length != 2) continue;
+                tokens.reset(line, ',');
+                if (tokens.isBlank() || tokens.fields() < 2) continue;
 
                 int tid;
-                try { tid = Integer.parseInt(parts[0].trim()); }
+                try { tid = tokens.nextInt(); }
                 catch (Exception ex) { continue; }
 
-                String courseId = parts[1].trim();
+                String courseId = tokens.rest();
 
                 Teacher t = teacherList.searchTeacher(tid);
                 Course  c = courseList.searchCourse(courseId);
@@ -0,0 +1,44 @@
+// ✅ files/Classes/Owners.java
+package files.Classes;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The owners watching one Watchable and what to run for each. Usually one to a few, so a small
+ * array of (owner, callback) pairs. Synchronized: the parallel loaders build indexes from
+ * several threads; changed() runs the callbacks outside the lock.
+ */
+final class Owners<T> {
+
+    private Object[] slots = new Object[4]; // owner, callback, owner, callback, ...
+    private int size;
+
+    synchronized void add(Object owner, Consumer<? super T> onChange) {
+        for (int i = 0; i < size; i += 2) {
+            if (slots[i] == owner) return;
+        }
+        if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+        slots[size++] = owner;
+        slots[size++] = onChange;
+    }
+
+    synchronized void remove(Object owner) {
+        for (int i = 0; i < size; i += 2) {
+            if (slots[i] != owner) continue;
+            System.arraycopy(slots, i + 2, slots, i, size - i - 2);
+            slots[--size] = null;
+            slots[--size] = null;
+            return;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void changed(T item) {
+        Object[] now;
+        synchronized (this) {
+            now = Arrays.copyOf(slots, size);
+        }
+        for (int i = 1; i < now.length; i += 2) ((Consumer<? super T>) now[i]).accept(item);
+    }
+}
@@ -1,14 +1,22 @@
 package files.Classes;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.Objects;
+import java.util.function.Consumer;
 
-public abstract class Person implements Serializable {
+public abstract class Person implements Serializable, Watchable<Person> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     private String name;
     private int id;
     private String password;
 
+    // ✅ lists, courses and search indexes keeping this person by id / name: told about a change
+    private transient volatile Owners<Person> owners;
+
     protected Person(String name, int id, String password) {
         this.name = name;
         this.id = id;
@@ -16,11 +24,40 @@ public abstract class Person implements Serializable {
     }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        if (Objects.equals(this.name, name)) return;
+        this.name = name;
+        changed();
+    }
 
     // Primary (clean Java-style)
     public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
+    public void setId(int id) {
+        if (this.id == id) return;
+        this.id = id;
+        changed();
+    }
+
+    @Override
+    public void watch(Object owner, Consumer<? super Person> onChange) {
+        owners().add(owner, onChange);
+    }
+
+    @Override
+    public void unwatch(Object owner) {
+        Owners<Person> o = owners;
+        if (o != null) o.remove(owner);
+    }
+
+    private synchronized Owners<Person> owners() {
+        if (owners == null) owners = new Owners<>();
+        return owners;
+    }
+
+    private void changed() {
+        Owners<Person> o = owners;
+        if (o != null) o.changed(this);
+    }
 
     // 🔥 COMPATIBILITY METHOD (fixes your errors)
     public int getID() {
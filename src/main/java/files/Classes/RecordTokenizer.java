@@ -0,0 +1,340 @@
+// ✅ files/Classes/RecordTokenizer.java
+package files.Classes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the fields of one database line ("id,name,pass,true", "CSE 101;quiz;Exam;2025-05-01")
+ * in place, instead of line.split(...) + trim() on every field.
+ *
+ * - every field comes back trimmed, like the old parts[i].trim()
+ * - numbers and booleans are parsed straight from the line: no array, no substring
+ * - nextEquals() compares a field without making a String of it (filter lines by course id)
+ * - the line is a CharSequence (String, CharBuffer) or a byte range of a ByteBuffer (UTF-8,
+ *   e.g. a mapped file): separators are ASCII, so they can't show up inside a UTF-8 character
+ * - one tokenizer is reused for every line (reset()); it is not thread-safe
+ *
+ *   RecordTokenizer t = new RecordTokenizer();
+ *   t.reset(line, ',');
+ *   if (t.fields() != 4) continue;
+ *   int id = t.nextInt(); String name = t.next(); String pass = t.next(); boolean ok = t.nextBoolean();
+ */
+public final class RecordTokenizer {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private CharSequence chars; // one of these two is set
+    private String string;      // == chars when it is a String (the common case: indexOf, no interface call)
+    private ByteBuffer bytes;
+    private byte[] scratch = new byte[64];
+
+    private int start;
+    private int end;
+    private int pos;   // start of the next field; end + 1 once the last one was read
+    private char separator;
+
+    public RecordTokenizer reset(CharSequence line, char separator) {
+        this.chars = line;
+        this.string = line instanceof String s ? s : null;
+        this.bytes = null;
+        return at(0, line.length(), separator);
+    }
+
+    /** The line is bytes [from, to) of `buf` (absolute positions, buf's position is not used). */
+    public RecordTokenizer reset(ByteBuffer buf, int from, int to, char separator) {
+        this.chars = null;
+        this.string = null;
+        this.bytes = buf;
+        return at(from, to, separator);
+    }
+
+    private RecordTokenizer at(int from, int to, char separator) {
+        this.start = from;
+        this.end = to;
+        this.pos = from;
+        this.separator = separator;
+        return this;
+    }
+
+    /** Same line again, from its first field, split on another separator. */
+    public RecordTokenizer rewind(char separator) {
+        return at(start, end, separator);
+    }
+
+    // =========================
+    // SHAPE
+    // =========================
+    /** Number of fields, like line.split(sep, -1).length (and split(sep, n).length, capped at n). */
+    public int fields() {
+        int n = 1;
+        if (string != null) {
+            for (int i = string.indexOf(separator, start); i >= 0 && i < end; i = string.indexOf(separator, i + 1)) n++;
+            return n;
+        }
+        for (int i = start; i < end; i++) {
+            if (charAt(i) == separator) n++;
+        }
+        return n;
+    }
+
+    /** True if c shows up anywhere in the line (c is ASCII). */
+    public boolean contains(char c) {
+        if (string != null) {
+            int i = string.indexOf(c, start);
+            return i >= 0 && i < end;
+        }
+        for (int i = start; i < end; i++) {
+            if (charAt(i) == c) return true;
+        }
+        return false;
+    }
+
+    /** Like line.split(sep).length: empty fields at the end don't count ("a,b,,".split -> 2). */
+    public int splitLength() {
+        if (start == end) return 1; // "".split(",") is [""]
+        int n = fields();
+        int i = end;
+        while (n > 0 && (i == start || charAt(i - 1) == separator)) {
+            n--;
+            i--;
+        }
+        return n;
+    }
+
+    public boolean hasNext() {
+        return pos <= end;
+    }
+
+    /** True if the whole line is blank. */
+    public boolean isBlank() {
+        return trimStart(start, end) == end;
+    }
+
+    // =========================
+    // FIELDS
+    // =========================
+    public String next() {
+        int e = fieldEnd();
+        String s = text(pos, e);
+        pos = e + 1;
+        return s;
+    }
+
+    /** Everything left, separators included (the last part of split(sep, n)). */
+    public String rest() {
+        check();
+        String s = text(pos, end);
+        pos = end + 1;
+        return s;
+    }
+
+    public void skip() {
+        pos = fieldEnd() + 1;
+    }
+
+    /** Next field == s (both trimmed), without making a String of the field. */
+    public boolean nextEquals(String s) {
+        return nextEquals(s, false);
+    }
+
+    public boolean nextEqualsIgnoreCase(String s) {
+        return nextEquals(s, true);
+    }
+
+    private boolean nextEquals(String s, boolean ignoreCase) {
+        int e = fieldEnd();
+        int a = trimStart(pos, e);
+        int b = trimEnd(a, e);
+        pos = e + 1;
+
+        String t = s.trim();
+        if (bytes != null) {
+            // ✅ ASCII on both sides (course ids): byte per char, no String; otherwise decode
+            int ascii = asciiEquals(a, b, t, ignoreCase);
+            if (ascii >= 0) return ascii == 1;
+            String field = decode(a, b);
+            return ignoreCase ? field.equalsIgnoreCase(t) : field.equals(t);
+        }
+        if (b - a != t.length()) return false;
+        if (string != null) return string.regionMatches(ignoreCase, a, t, 0, t.length());
+        for (int i = 0; i < t.length(); i++) {
+            char x = chars.charAt(a + i);
+            char y = t.charAt(i);
+            if (x == y) continue;
+            if (!ignoreCase || Character.toLowerCase(Character.toUpperCase(x)) != Character.toLowerCase(Character.toUpperCase(y))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Integer.parseInt(field.trim()), without the substring. */
+    public int nextInt() {
+        int e = fieldEnd();
+        int a = trimStart(pos, e);
+        int b = trimEnd(a, e);
+        pos = e + 1;
+
+        long v = parseLong(a, b);
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) throw notANumber(a, b);
+        return (int) v;
+    }
+
+    public long nextLong() {
+        int e = fieldEnd();
+        int a = trimStart(pos, e);
+        int b = trimEnd(a, e);
+        pos = e + 1;
+        return parseLong(a, b);
+    }
+
+    /**
+     * Double.parseDouble(field.trim()). Plain decimals ("3", "3.0", "-1.25") are read in place;
+     * anything else (exponents, NaN, very long numbers) goes through Double.parseDouble.
+     */
+    public double nextDouble() {
+        int e = fieldEnd();
+        int a = trimStart(pos, e);
+        int b = trimEnd(a, e);
+        pos = e + 1;
+
+        int i = a;
+        boolean negative = false;
+        if (i < b && (charAt(i) == '-' || charAt(i) == '+')) {
+            negative = charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean plain = i < b;
+        for (; i < b; i++) {
+            char c = charAt(i);
+            if (c == '.' && !dot) {
+                dot = true;
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == 15) {
+                plain = false;
+                break;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            if (dot) scale++;
+        }
+
+        // ✅ < 10^15 is exact as a double, and one division rounds like parseDouble does
+        if (plain && digits > 0) {
+            double v = mantissa / POW10[scale];
+            return negative ? -v : v;
+        }
+        return Double.parseDouble(text(a, b));
+    }
+
+    /** Boolean.parseBoolean(field.trim()): "true" in any case, everything else is false. */
+    public boolean nextBoolean() {
+        int e = fieldEnd();
+        int a = trimStart(pos, e);
+        int b = trimEnd(a, e);
+        pos = e + 1;
+
+        if (b - a != 4) return false;
+        return (charAt(a) | 0x20) == 't' && (charAt(a + 1) | 0x20) == 'r'
+                && (charAt(a + 2) | 0x20) == 'u' && (charAt(a + 3) | 0x20) == 'e';
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+    private char charAt(int i) {
+        if (string != null) return string.charAt(i);
+        return chars != null ? chars.charAt(i) : (char) (bytes.get(i) & 0xFF);
+    }
+
+    private void check() {
+        if (pos > end) throw new NoSuchElementException("no more fields");
+    }
+
+    private int fieldEnd() {
+        check();
+        if (string != null) {
+            int i = string.indexOf(separator, pos);
+            return i < 0 || i > end ? end : i;
+        }
+        int i = pos;
+        while (i < end && charAt(i) != separator) i++;
+        return i;
+    }
+
+    // like String.trim(): anything <= ' ' (UTF-8 continuation bytes are >= 0x80, never trimmed)
+    private int trimStart(int a, int b) {
+        while (a < b && charAt(a) <= ' ') a++;
+        return a;
+    }
+
+    private int trimEnd(int a, int b) {
+        while (b > a && charAt(b - 1) <= ' ') b--;
+        return b;
+    }
+
+    // 1 = equal, 0 = not, -1 = not all ASCII (the caller decodes)
+    private int asciiEquals(int a, int b, String t, boolean ignoreCase) {
+        if (b - a != t.length()) {
+            // a different byte count still matches if the field has multi-byte chars
+            for (int i = a; i < b; i++) if (bytes.get(i) < 0) return -1;
+            for (int i = 0; i < t.length(); i++) if (t.charAt(i) >= 0x80) return -1;
+            return 0;
+        }
+        for (int i = 0; i < t.length(); i++) {
+            int x = bytes.get(a + i);
+            char y = t.charAt(i);
+            if (x < 0 || y >= 0x80) return -1;
+            if (x == y) continue;
+            if (!ignoreCase || (x | 0x20) != (y | 0x20) || (x | 0x20) < 'a' || (x | 0x20) > 'z') return 0;
+        }
+        return 1;
+    }
+
+    private String text(int from, int to) {
+        int a = trimStart(from, to);
+        int b = trimEnd(a, to);
+        if (string != null) return string.substring(a, b);
+        if (chars != null) return chars.subSequence(a, b).toString();
+        return decode(a, b);
+    }
+
+    private String decode(int a, int b) {
+        int n = b - a;
+        if (scratch.length < n) scratch = new byte[Math.max(n, scratch.length * 2)];
+        bytes.get(a, scratch, 0, n);
+        return new String(scratch, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private long parseLong(int a, int b) {
+        int i = a;
+        boolean negative = false;
+        if (i < b && (charAt(i) == '-' || charAt(i) == '+')) {
+            negative = charAt(i) == '-';
+            i++;
+        }
+        if (i >= b) throw notANumber(a, b);
+
+        long v = 0;
+        for (; i < b; i++) {
+            int d = charAt(i) - '0';
+            if (d < 0 || d > 9 || v > (Long.MAX_VALUE - d) / 10) throw notANumber(a, b);
+            v = v * 10 + d;
+        }
+        return negative ? -v : v;
+    }
+
+    private NumberFormatException notANumber(int a, int b) {
+        return new NumberFormatException("For input string: \"" + (chars != null ? chars.subSequence(a, b) : decode(a, b)) + "\"");
+    }
+}
@@ -1,11 +1,17 @@
 package files.Classes;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 
 public class Student extends Person implements Serializable {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final List<Course> courses = new ArrayList<>();
+    // ✅ Course.key() of every course above: enroll() without a scan (not serialized, rebuilt on use)
+    private transient Set<String> courseKeys;
     private String imagePath; // can be null
 
     public Student(String studentName, int studentId, String stdPass) {
@@ -39,7 +45,7 @@ public class Student extends Person implements Serializable {
 
     public boolean enroll(Course c) {
         if (c == null) return false;
-        if (!courses.contains(c)) {
+        if (courseKeys().add(Course.key(c.getCourseID()))) {
             courses.add(c);
             return true;
         }
@@ -48,7 +54,17 @@ public class Student extends Person implements Serializable {
 
     public boolean drop(Course c) {
         if (c == null) return false;
-        return courses.remove(c);
+        if (!courses.remove(c)) return false;
+        courseKeys = null;
+        return true;
+    }
+
+    private Set<String> courseKeys() {
+        if (courseKeys == null) {
+            courseKeys = new HashSet<>();
+            for (Course c : courses) courseKeys.add(Course.key(c.getCourseID()));
+        }
+        return courseKeys;
     }
 
     // Called from Course.addStudent (bidirectional)
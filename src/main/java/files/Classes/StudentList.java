@@ -1,12 +1,21 @@
 package files.Classes;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 
 public class StudentList implements Serializable {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final List<Student> students = new ArrayList<>();
 
+    // ✅ id -> student without a scan or boxing. Derived from `students`: not serialized, rebuilt on
+    // first use and after a setId() on one of them; volatile because the parallel loaders read it too
+    private transient volatile IntObjectMap<Student> byId;
+    private transient TrigramIndex<Student> byName; // built by the first searchByName(), then kept current
+
     public List<Student> getStudents() {
         return Collections.unmodifiableList(students);
     }
@@ -15,36 +24,62 @@ public class StudentList implements Serializable {
         if (s == null) return false;
         if (searchStudent(s.getId()) != null) return false;
         students.add(s);
+        s.watch(this, this::changed);
+        ids().put(s.getId(), s);
+        if (byName != null) byName.add(s);
         return true;
     }
 
     // ✅ ADD THIS (to match TeacherList)
     public boolean removeStudent(Student s) {
         if (s == null) return false;
-        return students.removeIf(existing -> existing.getId() == s.getId());
+        return removeStudentById(s.getId());
     }
 
     // keep ID-based removal if needed
     public boolean removeStudentById(int id) {
-        return students.removeIf(existing -> existing.getId() == id);
+        boolean removed = students.removeIf(existing -> {
+            if (existing.getId() != id) return false;
+            existing.unwatch(this);
+            if (byName != null) byName.remove(existing);
+            return true;
+        });
+        if (!removed) return false;
+        ids().remove(id);
+        return true;
     }
 
     public Student searchStudent(int enteredId) {
-        for (Student s : students) {
-            if (s.getId() == enteredId) return s;
-        }
-        return null;
+        return ids().get(enteredId);
     }
 
     // useful for JavaFX filtering
     public List<Student> searchByName(String text) {
         if (text == null) return List.of();
-        String q = text.trim().toLowerCase();
-        List<Student> result = new ArrayList<>();
-        for (Student s : students) {
-            if (s.getName().toLowerCase().contains(q)) result.add(s);
+        if (byName == null) {
+            byName = TrigramIndex.names();
+            byName.addAll(students);
         }
-        return result;
+        return byName.find(text);
+    }
+
+    private IntObjectMap<Student> ids() {
+        IntObjectMap<Student> m = byId;
+        if (m == null) {
+            m = new IntObjectMap<>(students.size());
+            for (Student p : students) {
+                p.watch(this, this::changed); // again after deserialization: owners aren't sent
+                m.putIfAbsent(p.getId(), p); // first one wins, like the old scan
+            }
+            byId = m;
+        }
+        return m;
+    }
+
+    // a name change keeps the id map; an id change drops it (this list's only)
+    private void changed(Person p) {
+        IntObjectMap<Student> m = byId;
+        if (m != null && m.get(p.getId()) != p) byId = null;
     }
 
     @Override
@@ -1,11 +1,17 @@
 package files.Classes;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 
 public class Teacher extends Person implements Serializable {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final List<Course> courseAssigned = new ArrayList<>();
+    // ✅ Course.key() of every course above: assignCourse() without a scan (not serialized, rebuilt on use)
+    private transient Set<String> courseKeys;
 
     public Teacher(String name, int id, String password) {
         super(name, id, password);
@@ -17,13 +23,27 @@ public class Teacher extends Person implements Serializable {
 
     public boolean assignCourse(Course c) {
         if (c == null) return false;
-        if (!courseAssigned.contains(c)) {
+        if (courseKeys().add(Course.key(c.getCourseID()))) {
             courseAssigned.add(c);
             return true;
         }
         return false;
     }
 
+    public boolean unassignCourse(Course c) {
+        if (!courseAssigned.remove(c)) return false;
+        courseKeys = null;
+        return true;
+    }
+
+    private Set<String> courseKeys() {
+        if (courseKeys == null) {
+            courseKeys = new HashSet<>();
+            for (Course c : courseAssigned) courseKeys.add(Course.key(c.getCourseID()));
+        }
+        return courseKeys;
+    }
+
     // called from Course.addTeacher (bidirectional)
     public void assignCourseFromCourse(Course c) {
         assignCourse(c);
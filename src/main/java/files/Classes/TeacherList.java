@@ -1,12 +1,20 @@
 package files.Classes;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 
 public class TeacherList implements Serializable {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final List<Teacher> teachers = new ArrayList<>();
 
+    // ✅ id -> teacher without a scan or boxing. Derived from `teachers`: not serialized, rebuilt on
+    // first use and after a setId() on one of them; volatile because the parallel loaders read it too
+    private transient volatile IntObjectMap<Teacher> byId;
+
     public List<Teacher> getTeachers() {
         return Collections.unmodifiableList(teachers);
     }
@@ -15,25 +23,50 @@ public class TeacherList implements Serializable {
         if (t == null) return false;
         if (searchTeacher(t.getId()) != null) return false;
         teachers.add(t);
+        t.watch(this, this::changed);
+        ids().put(t.getId(), t);
         return true;
     }
 
     // ✅ ADD THIS (used by controllers)
     public boolean removeTeacher(Teacher t) {
         if (t == null) return false;
-        return teachers.removeIf(existing -> existing.getId() == t.getId());
+        return removeTeacherById(t.getId());
     }
 
     // Keep this if you want ID-based removal
     public boolean removeTeacherById(int id) {
-        return teachers.removeIf(existing -> existing.getId() == id);
+        boolean removed = teachers.removeIf(existing -> {
+            if (existing.getId() != id) return false;
+            existing.unwatch(this);
+            return true;
+        });
+        if (!removed) return false;
+        ids().remove(id);
+        return true;
     }
 
     public Teacher searchTeacher(int enteredId) {
-        for (Teacher t : teachers) {
-            if (t.getId() == enteredId) return t;
+        return ids().get(enteredId);
+    }
+
+    private IntObjectMap<Teacher> ids() {
+        IntObjectMap<Teacher> m = byId;
+        if (m == null) {
+            m = new IntObjectMap<>(teachers.size());
+            for (Teacher p : teachers) {
+                p.watch(this, this::changed); // again after deserialization: owners aren't sent
+                m.putIfAbsent(p.getId(), p); // first one wins, like the old scan
+            }
+            byId = m;
         }
-        return null;
+        return m;
+    }
+
+    // a name change keeps the id map; an id change drops it (this list's only)
+    private void changed(Person p) {
+        IntObjectMap<Teacher> m = byId;
+        if (m != null && m.get(p.getId()) != p) byId = null;
     }
 
     @Override
@@ -0,0 +1,272 @@
+// ✅ files/Classes/TrigramIndex.java
+package files.Classes;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Substring search over people / courses without lower-casing every row per keystroke.
+ *
+ * - each item is found by a few texts (name, id, ...), stored once trimmed + lower-cased,
+ *   exactly what the old filters compared: field.trim().toLowerCase().contains(query)
+ * - every 3 chars of a text point at the items holding them (hashed; collisions are fine)
+ * - a query of 3+ chars walks the rarest of its trigrams and checks those items only;
+ *   shorter queries check every stored text (still no allocation per item)
+ * - add() / remove() keep it current; an item changed in place (a rename, a Person.setId())
+ *   tells the indexes holding it (Watchable), which index that item's new texts on the next search
+ *
+ * search() gives a Predicate for a FilteredList; find() gives the items in the order they were added.
+ * Not thread-safe: one index per list, used from one thread (the FX thread, or the list's owner).
+ */
+public final class TrigramIndex<T extends Watchable<? super T>> {
+
+    private static final int FEW_HITS = 4096; // up to this many hits, a Match keeps them in a set of its own
+
+    private final List<Function<T, String>> fields;
+    private final Queue<T> changed = new ConcurrentLinkedQueue<>(); // items changed in place (from any thread)
+
+    // doc = slot of an item, in the order items were added; a removed item leaves null
+    private Object[] items = new Object[16];
+    private String[] texts; // fields.size() per doc
+    private int docs;
+    private int live;
+    private final IdentityHashMap<T, Integer> docOf = new IdentityHashMap<>();
+    private final IntObjectMap<Postings> grams = new IntObjectMap<>(1024);
+
+    public TrigramIndex(List<Function<T, String>> fields) {
+        this.fields = List.copyOf(fields);
+        this.texts = new String[16 * this.fields.size()];
+    }
+
+    /** Students or teachers, by name and id (the admin tables' filter). */
+    public static <P extends Person> TrigramIndex<P> people() {
+        return new TrigramIndex<>(List.of(Person::getName, p -> String.valueOf(p.getId())));
+    }
+
+    /** People by name only (StudentList.searchByName). */
+    public static <P extends Person> TrigramIndex<P> names() {
+        return new TrigramIndex<>(List.of(Person::getName));
+    }
+
+    /** Courses by id and name. */
+    public static TrigramIndex<Course> courses() {
+        return new TrigramIndex<>(List.of(Course::getCourseID, Course::getCourseName));
+    }
+
+    public int size() {
+        return live;
+    }
+
+    public void add(T item) {
+        if (item == null || docOf.containsKey(item)) return;
+
+        int doc = docs++;
+        if (doc == items.length) {
+            items = Arrays.copyOf(items, doc * 2);
+            texts = Arrays.copyOf(texts, doc * 2 * fields.size());
+        }
+        items[doc] = item;
+        docOf.put(item, doc);
+        live++;
+        item.watch(this, c -> changed.add(item));
+
+        for (int f = 0; f < fields.size(); f++) {
+            String text = normalize(fields.get(f).apply(item));
+            texts[doc * fields.size() + f] = text;
+            for (int i = 0; i + 3 <= text.length(); i++) post(doc, text, i);
+        }
+    }
+
+    public void addAll(Collection<? extends T> all) {
+        for (T item : all) add(item);
+    }
+
+    public void remove(T item) {
+        Integer doc = item == null ? null : docOf.remove(item);
+        if (doc == null) return;
+
+        // ✅ postings still name the doc; searches skip empty slots, a rebuild drops them
+        item.unwatch(this);
+        items[doc] = null;
+        live--;
+        if (live < docs / 2 && docs > 64) rebuild();
+    }
+
+    public void clear() {
+        for (int doc = 0; doc < docs; doc++) {
+            if (items[doc] != null) ((Watchable<?>) items[doc]).unwatch(this);
+        }
+        reset();
+    }
+
+    // empty, items still watched
+    private void reset() {
+        Arrays.fill(items, 0, docs, null);
+        Arrays.fill(texts, 0, docs * fields.size(), null);
+        docs = 0;
+        live = 0;
+        docOf.clear();
+        grams.clear();
+        changed.clear();
+    }
+
+    // =========================
+    // SEARCH
+    // =========================
+    /** Items with a text containing `query` (trimmed, case-insensitive); everything for a blank query. */
+    public Match search(String query) {
+        refreshIfChanged();
+        String q = normalize(query);
+        if (q.isEmpty()) return new Match(null);
+
+        BitSet hits = new BitSet(docs);
+        if (q.length() < 3) {
+            for (int doc = 0; doc < docs; doc++) {
+                if (matches(doc, q)) hits.set(doc);
+            }
+            return new Match(hits);
+        }
+
+        // ✅ every hit holds all of the query's trigrams: check the items of the rarest one
+        Postings rarest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings p = grams.get(gram(q, i));
+            if (p == null) return new Match(hits); // a trigram nobody has
+            if (rarest == null || p.size < rarest.size) rarest = p;
+        }
+        for (int i = 0; i < rarest.size; i++) {
+            int doc = rarest.docs[i];
+            if (matches(doc, q)) hits.set(doc);
+        }
+        return new Match(hits);
+    }
+
+    /** search(), as a list in the order the items were added. */
+    @SuppressWarnings("unchecked")
+    public List<T> find(String query) {
+        Match m = search(query);
+        List<T> out = new ArrayList<>();
+        if (m.hits == null) {
+            for (int doc = 0; doc < docs; doc++) if (items[doc] != null) out.add((T) items[doc]);
+            return out;
+        }
+        for (int doc = m.hits.nextSetBit(0); doc >= 0; doc = m.hits.nextSetBit(doc + 1)) out.add((T) items[doc]);
+        return out;
+    }
+
+    /** The result of one search: test(item) is one lookup, no allocation. Search again after the index changes. */
+    public final class Match implements Predicate<T> {
+        private final BitSet hits; // null = everything
+        // ✅ few hits: their own small identity set, so testing every row of a big table
+        // doesn't walk the index-wide docOf map (cache misses on every row)
+        private final Set<Object> few;
+
+        @SuppressWarnings("unchecked")
+        private Match(BitSet hits) {
+            this.hits = hits;
+            int n = hits == null ? 0 : hits.cardinality();
+            if (hits == null || n > FEW_HITS) {
+                few = null;
+                return;
+            }
+            few = Collections.newSetFromMap(new IdentityHashMap<>(n));
+            for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) few.add(items[doc]);
+        }
+
+        @Override
+        public boolean test(T item) {
+            if (hits == null) return true;
+            if (few != null) return few.contains(item);
+            Integer doc = docOf.get(item);
+            return doc != null && hits.get(doc);
+        }
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+    private boolean matches(int doc, String q) {
+        if (items[doc] == null) return false;
+        int base = doc * fields.size();
+        for (int f = 0; f < fields.size(); f++) {
+            if (texts[base + f].contains(q)) return true;
+        }
+        return false;
+    }
+
+    private void refreshIfChanged() {
+        for (T item; (item = changed.poll()) != null; ) reindex(item);
+    }
+
+    // ✅ one item's texts read again in its own slot (order kept); nothing else is touched.
+    // Postings of trigrams it no longer has stay: matches() checks the text, a rebuild drops them
+    private void reindex(T item) {
+        Integer doc = docOf.get(item);
+        if (doc == null) return; // removed since
+
+        int base = doc * fields.size();
+        String[] before = Arrays.copyOfRange(texts, base, base + fields.size());
+        for (int f = 0; f < fields.size(); f++) {
+            String text = normalize(fields.get(f).apply(item));
+            if (text.equals(texts[base + f])) continue;
+            texts[base + f] = text;
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                if (!hadGram(before, text, i)) post(doc, text, i);
+            }
+        }
+    }
+
+    // the doc is in this trigram's postings already
+    private static boolean hadGram(String[] before, String text, int i) {
+        for (String s : before) {
+            for (int j = 0; j + 3 <= s.length(); j++) {
+                if (s.regionMatches(j, text, i, 3)) return true;
+            }
+        }
+        return false;
+    }
+
+    private void post(int doc, String text, int i) {
+        int g = gram(text, i);
+        Postings p = grams.get(g);
+        if (p == null) grams.put(g, p = new Postings());
+        p.add(doc);
+    }
+
+    // texts read again, removed slots dropped, order kept
+    @SuppressWarnings("unchecked")
+    private void rebuild() {
+        List<T> all = new ArrayList<>(live);
+        for (int doc = 0; doc < docs; doc++) {
+            if (items[doc] != null) all.add((T) items[doc]);
+        }
+        reset();
+        addAll(all);
+    }
+
+    // like the old filters' safe(): null -> "", trimmed, lower-cased
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase();
+    }
+
+    // 3 chars -> one int: exact for ASCII, hashed (bit 30 set) otherwise
+    private static int gram(String s, int i) {
+        char a = s.charAt(i), b = s.charAt(i + 1), c = s.charAt(i + 2);
+        if ((a | b | c) < 0x80) return a << 14 | b << 7 | c;
+        return 1 << 30 | (((a * 31 + b) * 31 + c) & 0x3FFFFFFF);
+    }
+
+    // docs holding one trigram, each once; ascending except for items re-indexed after a change
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return; // same doc, another field / position
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+    }
+}
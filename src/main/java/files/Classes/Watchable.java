@@ -0,0 +1,19 @@
+// ✅ files/Classes/Watchable.java
+package files.Classes;
+
+import java.util.function.Consumer;
+
+/**
+ * Something lists, courses and search indexes keep by a field it can change in place (a person's
+ * id or name, a course's name). The setter tells the owners watching it, so each of them fixes
+ * its own index and nothing else in the JVM rebuilds.
+ *
+ * Owners are not serialized: an owner watches the objects again when it builds its index.
+ */
+public interface Watchable<T> {
+
+    /** `onChange` runs after every in-place change; one registration per owner (watching again keeps the first). */
+    void watch(Object owner, Consumer<? super T> onChange);
+
+    void unwatch(Object owner);
+}
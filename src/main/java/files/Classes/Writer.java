@@ -1,9 +1,12 @@
 package files.Classes;
 
 import files.Request;
-import files.Server.SocketWrapper;
+import files.Server.NoReplyException;
+import files.Server.ServerConnection;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class Writer {
 
@@ -12,27 +15,99 @@ public final class Writer {
 
     private Writer() {}
 
-    public static boolean writeToFile(String line, String path) {
-        SocketWrapper server = null;
+    /** How a server write ended. Only UNREACHABLE means the server never saw it (a local fallback is safe). */
+    public enum Outcome {
+        DONE,        // the server applied it
+        REFUSED,     // the server answered no (not found, or not applied)
+        UNREACHABLE, // never sent: the server is down
+        NO_REPLY     // sent, no answer in time: the server may still apply it, don't redo it locally
+    }
 
-        try {
-            server = new SocketWrapper(HOST, PORT);
+    /** A batch's status per item (all false unless the outcome is DONE). */
+    public record BatchResult(Outcome outcome, boolean[] status) {}
 
+    /** Blocks until the server confirms the line was written. */
+    public static boolean writeToFile(String line, String path) {
+        try {
             // ✅ Use the existing constructor: Request(String path, String line)
-            server.write(new Request(path, line));
-
-            return true;
+            Object reply = ServerConnection.get(HOST, PORT).call(new Request(path, line));
+            return Boolean.TRUE.equals(reply);
 
         } catch (IOException e) {
             System.err.println("Save failed: " + e.getMessage());
             return false;
+        }
+    }
 
-        } finally {
-            if (server != null) {
-                try {
-                    server.closeConnection();
-                } catch (IOException ignored) {}
+    /**
+     * Doesn't wait: several writes can be in flight on the shared connection.
+     * Completes with true once the server confirms, false on any failure.
+     */
+    public static CompletableFuture<Boolean> writeToFileAsync(String line, String path) {
+        try {
+            return ServerConnection.get(HOST, PORT)
+                    .send(new Request(path, line))
+                    .handle((reply, error) -> {
+                        if (error != null) System.err.println("Save failed: " + error.getMessage());
+                        return error == null && Boolean.TRUE.equals(reply);
+                    });
+        } catch (IOException e) {
+            System.err.println("Save failed: " + e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Many writes (any files) in one request; the server touches each file once.
+     * @return status per item, same order, and whether the server saw the batch at all
+     */
+    public static BatchResult writeBatch(List<Request.WriteItem> items) {
+        if (items.isEmpty()) return new BatchResult(Outcome.DONE, new boolean[0]);
+        Outcome outcome = Outcome.REFUSED;
+        try {
+            Object reply = ServerConnection.get(HOST, PORT).call(new Request(items));
+            if (reply instanceof boolean[] status && status.length == items.size()) {
+                return new BatchResult(Outcome.DONE, status);
             }
+            System.err.println("Unexpected batch reply: " + reply);
+        } catch (IOException e) {
+            System.err.println("Batch save failed: " + e.getMessage());
+            outcome = failure(e);
         }
+        return new BatchResult(outcome, new boolean[items.size()]);
+    }
+
+    // ==========================================
+    // CASCADING DELETES (one transaction on the server)
+    // ==========================================
+    // The entity and every line that points at it (enrollments, applications,
+    // assignments, profiles, ...) are removed together. REFUSED = unknown id (or the
+    // server couldn't delete it); only UNREACHABLE may be followed by a local delete.
+
+    public static Outcome deleteCourse(String courseId) {
+        return delete(Request.RequestType.DELETE_COURSE, courseId);
+    }
+
+    public static Outcome deleteStudent(int studentId) {
+        return delete(Request.RequestType.DELETE_STUDENT, String.valueOf(studentId));
+    }
+
+    public static Outcome deleteTeacher(int teacherId) {
+        return delete(Request.RequestType.DELETE_TEACHER, String.valueOf(teacherId));
+    }
+
+    private static Outcome delete(Request.RequestType type, String key) {
+        if (key == null || key.isBlank()) return Outcome.REFUSED;
+        try {
+            Object reply = ServerConnection.get(HOST, PORT).call(new Request(type, key.trim()));
+            return Boolean.TRUE.equals(reply) ? Outcome.DONE : Outcome.REFUSED;
+        } catch (IOException e) {
+            System.err.println("Delete failed: " + e.getMessage());
+            return failure(e);
+        }
+    }
+
+    private static Outcome failure(IOException e) {
+        return e instanceof NoReplyException ? Outcome.NO_REPLY : Outcome.UNREACHABLE;
     }
 }
@@ -2,25 +2,18 @@ package files.Controllers;
 
 import files.Classes.Course;
 import files.Classes.Loader;
+import files.Classes.Writer;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Predicate;
 
 public class AddCourseController {
 
     private static final String COURSES_FILE = "database/Courses.txt";
 
-    private static final String ENROLL_FILE_COMMA = "database/enrollments.txt";        // studentId,courseId
-    private static final String ENROLL_FILE_SEMI  = "database/StudentCourses.txt";     // studentId;courseId
-    private static final String APPLY_FILE        = "database/CourseApplications.txt"; // studentId;courseId
-    private static final String ASSIGN_FILE       = "database/AssignedCoursesTeacher.txt"; // teacherId,courseId
-
     @FXML private TextField courseIdField;
     @FXML private TextField courseNameField;
     @FXML private ComboBox<Double> courseCreditCombo;
@@ -130,10 +123,11 @@ public class AddCourseController {
         confirmation.setContentText(
                 "Course ID: " + id +
                         "\n\nThis will also remove it from:\n" +
-                        "• enrollments.txt\n" +
-                        "• StudentCourses.txt\n" +
+                        "• enrollments.txt, StudentCourses.txt, PendingEnrollment.txt\n" +
                         "• CourseApplications.txt\n" +
-                        "• AssignedCoursesTeacher.txt"
+                        "• AssignedCoursesTeacher.txt\n" +
+                        "• deadlines.txt, CourseAnnouncements.txt, UploadedFiles.txt\n" +
+                        "• CourseRequirement.txt (as a course or as a prerequisite)"
         );
 
         confirmation.showAndWait().ifPresent(resp -> {
@@ -142,40 +136,19 @@ public class AddCourseController {
             setStatus("Removing...", true);
 
             new Thread(() -> {
-                boolean removedMain = removeLines(COURSES_FILE, line -> {
-                    String[] p = line.split(",", 2);
-                    return p.length >= 1 && p[0].trim().equalsIgnoreCase(id);
-                });
-
-                if (!removedMain) {
-                    Platform.runLater(() -> setStatus("Course ID not found in Courses.txt", false));
+                // ✅ one server transaction: Courses.txt and every file pointing at the course
+                Writer.Outcome outcome = Writer.deleteCourse(id);
+
+                if (outcome != Writer.Outcome.DONE) {
+                    String msg = switch (outcome) {
+                        case REFUSED -> "Course ID not found (nothing removed)";
+                        case UNREACHABLE -> "Server unreachable: nothing removed, try again when it is up";
+                        default -> "No reply from the server ⚠️ Reload before trying again";
+                    };
+                    Platform.runLater(() -> setStatus(msg, false));
                     return;
                 }
 
-                // remove from enrollments.txt (comma)
-                removeLines(ENROLL_FILE_COMMA, line -> {
-                    String[] p = line.split(",", 2);
-                    return p.length == 2 && p[1].trim().equalsIgnoreCase(id);
-                });
-
-                // remove from StudentCourses.txt (semicolon)
-                removeLines(ENROLL_FILE_SEMI, line -> {
-                    String[] p = line.split(";", 2);
-                    return p.length == 2 && p[1].trim().equalsIgnoreCase(id);
-                });
-
-                // remove from applications (semicolon)
-                removeLines(APPLY_FILE, line -> {
-                    String[] p = line.split(";", 2);
-                    return p.length == 2 && p[1].trim().equalsIgnoreCase(id);
-                });
-
-                // remove teacher assignment (comma)
-                removeLines(ASSIGN_FILE, line -> {
-                    String[] p = line.split(",", 2);
-                    return p.length == 2 && p[1].trim().equalsIgnoreCase(id);
-                });
-
                 Platform.runLater(() -> {
                     Loader.reloadCoursesFromFile(); // refresh memory from file
                     setStatus("Course removed successfully ✅", true);
@@ -233,40 +206,6 @@ public class AddCourseController {
         }
     }
 
-    private boolean removeLines(String path, Predicate<String> removeIf) {
-        File f = new File(path);
-        if (!f.exists()) return false; // not removed
-
-        try {
-            List<String> out = new ArrayList<>();
-            boolean removedSomething = false;
-
-            try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String t = line.trim();
-                    if (t.isEmpty()) continue;
-
-                    if (removeIf.test(t)) {
-                        removedSomething = true;
-                        continue;
-                    }
-                    out.add(line);
-                }
-            }
-
-            try (PrintWriter pw = new PrintWriter(new FileWriter(f, false))) {
-                for (String l : out) pw.println(l);
-            }
-
-            return removedSomething;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-
     // =========================================================
     // UI HELPERS
     // =========================================================
@@ -2,6 +2,8 @@ package files.Controllers;
 
 import files.Classes.Loader;
 import files.Classes.Student;
+import files.Classes.Writer;
+import files.Request;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -86,10 +88,43 @@ public class AddStudentApprovalController {
 
     @FXML
     private void approveAll() {
-        for (Student s : new ArrayList<>(pendingStudents)) {
-            updateStudent(s, true);
-        }
-        pendingStudents.clear();
+        List<Student> targets = new ArrayList<>(pendingStudents);
+        if (targets.isEmpty()) return;
+
+        new Thread(() -> {
+            // ✅ one WRITE_BATCH: the server rewrites the credentials file once, not once per student
+            List<Request.WriteItem> items = new ArrayList<>();
+            for (Student s : targets) {
+                items.add(new Request.WriteItem(PENDING_FILE,
+                        s.getID() + "," + s.getName() + "," + s.getPassword() + ",true"));
+            }
+            Writer.BatchResult result = Writer.writeBatch(items);
+            boolean[] status = result.status();
+
+            List<Student> approved = new ArrayList<>();
+            List<Student> failed = new ArrayList<>();
+            for (int i = 0; i < targets.size(); i++) {
+                if (status[i]) {
+                    approved.add(targets.get(i));
+                    Loader.studentList.addStudent(targets.get(i));
+                } else {
+                    failed.add(targets.get(i));
+                }
+            }
+
+            Platform.runLater(() -> {
+                pendingStudents.removeAll(approved);
+                statusLabel.setText("Approved " + approved.size() + " student(s) ✅");
+
+                // ⚠️ sent but no reply: the server may still approve them, a local write would do it twice
+                if (result.outcome() == Writer.Outcome.NO_REPLY) {
+                    statusLabel.setText("No reply from the server ⚠️ Reload before approving again.");
+                    return;
+                }
+                // server unreachable (or refused) -> old local path
+                for (Student s : failed) updateStudent(s, true);
+            });
+        }).start();
     }
 
     // ================= DELETE =================
@@ -114,6 +149,21 @@ public class AddStudentApprovalController {
 
     private void updateStudent(Student student, boolean approve) {
         new Thread(() -> {
+            // ✅ delete through the server first (one transaction); the local rewrite is the fallback
+            Writer.Outcome deleted = approve ? null : Writer.deleteStudent(student.getID());
+            if (deleted == Writer.Outcome.DONE) {
+                Platform.runLater(() -> {
+                    pendingStudents.remove(student);
+                    statusLabel.setText("Student deleted 🗑");
+                });
+                return;
+            }
+            if (deleted == Writer.Outcome.NO_REPLY) {
+                // ⚠️ the server may still delete it: don't rewrite the file as well
+                Platform.runLater(() -> statusLabel.setText("No reply from the server ⚠️ Reload before trying again."));
+                return;
+            }
+
             Path path = Paths.get(PENDING_FILE);
 
             try {
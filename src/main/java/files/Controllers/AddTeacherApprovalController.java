@@ -2,6 +2,8 @@ package files.Controllers;
 
 import files.Classes.Loader;
 import files.Classes.Teacher;
+import files.Classes.Writer;
+import files.Request;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -148,9 +150,16 @@ public class AddTeacherApprovalController {
         setStatus(approve ? "Approving..." : "Deleting...", true);
 
         new Thread(() -> {
-            boolean ok = updateFile(target, approve);
+            Writer.Outcome viaServer = approve ? approveViaServer(target) : deleteViaServer(target);
+            // local file if the server is down; not after NO_REPLY (the server may still apply it)
+            boolean ok = viaServer == Writer.Outcome.DONE
+                    || viaServer != Writer.Outcome.NO_REPLY && updateFile(target, approve);
 
             Platform.runLater(() -> {
+                if (viaServer == Writer.Outcome.NO_REPLY) {
+                    setStatus("No reply from the server. Reload before trying again.", false);
+                    return;
+                }
                 if (!ok) {
                     setStatus("Operation failed. Try again.", false);
                     return;
@@ -171,6 +180,33 @@ public class AddTeacherApprovalController {
         }).start();
     }
 
+    /** ✅ One WRITE_BATCH upsert for all teachers (single rewrite of the credentials file). */
+    private Writer.Outcome approveViaServer(List<Teacher> target) {
+        List<Request.WriteItem> items = new ArrayList<>();
+        for (Teacher t : target) {
+            items.add(new Request.WriteItem(FILE_PATH,
+                    t.getID() + "," + t.getName() + "," + t.getPassword() + ",true"));
+        }
+
+        Writer.BatchResult result = Writer.writeBatch(items);
+        if (result.outcome() != Writer.Outcome.DONE) return result.outcome();
+        for (boolean ok : result.status()) {
+            if (!ok) return Writer.Outcome.REFUSED;
+        }
+        return Writer.Outcome.DONE;
+    }
+
+    /** ✅ DELETE_TEACHER per teacher (credentials, profile and assignments in one server transaction). */
+    private Writer.Outcome deleteViaServer(List<Teacher> target) {
+        Writer.Outcome worst = Writer.Outcome.DONE;
+        for (Teacher t : target) {
+            Writer.Outcome o = Writer.deleteTeacher(t.getID());
+            if (o == Writer.Outcome.NO_REPLY) return o; // don't send more into a server that isn't answering
+            if (o != Writer.Outcome.DONE) worst = o;
+        }
+        return worst;
+    }
+
     private boolean updateFile(List<Teacher> target, boolean approve) {
         Path path = Paths.get(FILE_PATH);
 
@@ -1,8 +1,10 @@
 package files.Controllers;
 
 import files.Classes.*;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
@@ -13,14 +15,11 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
-import java.io.*;
+import java.io.IOException;
 import java.net.URL;
-import java.nio.file.*;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.ResourceBundle;
-import java.util.function.Predicate;
 
 public class AdminDashboardController implements Initializable {
 
@@ -69,6 +68,12 @@ public class AdminDashboardController implements Initializable {
     private FilteredList<Teacher> filteredTeacherList;
     private FilteredList<Course>  filteredCourseList;
 
+    // ✅ search indexes over the sources: a keystroke doesn't lower-case every row
+    private static final Duration SEARCH_DELAY = Duration.millis(150);
+    private final TrigramIndex<Student> studentIndex = TrigramIndex.people();
+    private final TrigramIndex<Teacher> teacherIndex = TrigramIndex.people();
+    private final TrigramIndex<Course>  courseIndex  = TrigramIndex.courses();
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
@@ -203,37 +208,31 @@ public class AdminDashboardController implements Initializable {
     // =================== SEARCH FILTERING ===================
 
     private void setupSearchFiltering() {
+        // name or id contains the text (courses: id or name), case-insensitive
+        bindSearch(ADstudentSearchField, studentSource, studentIndex, filteredStudentList);
+        bindSearch(ADteacherSearchField, teacherSource, teacherIndex, filteredTeacherList);
+        bindSearch(ADcourseSearchField, courseSource, courseIndex, filteredCourseList);
+    }
 
-        ADstudentSearchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            String filter = safe(newVal);
-            filteredStudentList.setPredicate(student -> {
-                if (filter.isEmpty()) return true;
-                return safe(student.getName()).contains(filter)
-                        || String.valueOf(student.getID()).contains(filter);
-            });
-        });
-
-        ADteacherSearchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            String filter = safe(newVal);
-            filteredTeacherList.setPredicate(teacher -> {
-                if (filter.isEmpty()) return true;
-                return safe(teacher.getName()).contains(filter)
-                        || String.valueOf(teacher.getID()).contains(filter);
-            });
-        });
-
-        ADcourseSearchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            String filter = safe(newVal);
-            filteredCourseList.setPredicate(course -> {
-                if (filter.isEmpty()) return true;
-                return safe(course.getCourseID()).contains(filter)
-                        || safe(course.getCourseName()).contains(filter);
-            });
+    private <T extends Watchable<? super T>> void bindSearch(TextField field, ObservableList<T> source,
+                                                            TrigramIndex<T> index, FilteredList<T> filtered) {
+        index.addAll(source);
+        Runnable apply = () -> filtered.setPredicate(index.search(field.getText()));
+
+        // ✅ the index follows the table's rows (reloads, removals); the filter runs again on the new rows
+        source.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                if (change.getRemovedSize() > 0 && change.getRemovedSize() == index.size()) index.clear(); // setAll
+                else change.getRemoved().forEach(index::remove);
+                if (change.wasAdded()) index.addAll(change.getAddedSubList());
+            }
+            apply.run();
         });
-    }
 
-    private String safe(String s) {
-        return (s == null) ? "" : s.trim().toLowerCase();
+        // ✅ debounce: fast typing runs one search, SEARCH_DELAY after the last key
+        PauseTransition pause = new PauseTransition(SEARCH_DELAY);
+        pause.setOnFinished(e -> apply.run());
+        field.textProperty().addListener((obs, oldVal, newVal) -> pause.playFromStart());
     }
 
     // =================== BUTTONS ===================
@@ -329,89 +328,49 @@ public class AdminDashboardController implements Initializable {
         confirmation.setContentText(
                 "Course: " + course.getCourseID() + " - " + course.getCourseName() +
                         "\n\nThis will also remove it from:\n" +
-                        "• enrollments.txt\n" +
+                        "• enrollments.txt, StudentCourses.txt, PendingEnrollment.txt\n" +
                         "• CourseApplications.txt\n" +
-                        "• AssignedCoursesTeacher.txt"
+                        "• AssignedCoursesTeacher.txt\n" +
+                        "• deadlines.txt, CourseAnnouncements.txt, UploadedFiles.txt\n" +
+                        "• CourseRequirement.txt (as a course or as a prerequisite)"
         );
 
         confirmation.showAndWait().ifPresent(resp -> {
             if (resp != ButtonType.OK) return;
 
             new Thread(() -> {
-                boolean ok = removeCourseEverywhere(course.getCourseID());
+                // ✅ one server transaction: the course and every line pointing at it
+                Writer.Outcome outcome = Writer.deleteCourse(course.getCourseID());
                 Platform.runLater(() -> {
-                    if (ok) {
+                    if (outcome == Writer.Outcome.DONE) {
                         Loader.reloadAll();
                         reloadSourcesFromLoader();
                         updateCounts();
                         showAlert(Alert.AlertType.INFORMATION, "Success",
                                 "Course removed: " + course.getCourseID());
                     } else {
-                        showAlert(Alert.AlertType.ERROR, "Failed",
-                                "Could not remove course. Check file formats/permissions.");
+                        showAlert(Alert.AlertType.ERROR, "Failed", deleteFailed(outcome, "Course " + course.getCourseID()));
                     }
                 });
             }).start();
         });
     }
 
-    private boolean removeCourseEverywhere(String courseId) {
-
-        boolean okMain = removeLines("database/Courses.txt", line -> {
-            String[] p = line.split(",", 2);
-            return p.length >= 1 && p[0].trim().equalsIgnoreCase(courseId);
-        });
-        if (!okMain) return false;
-
-        removeLines("database/enrollments.txt", line -> {
-            String[] p = line.split(",", 2);
-            return p.length == 2 && p[1].trim().equalsIgnoreCase(courseId);
-        });
-
-        removeLines("database/CourseApplications.txt", line -> {
-            String[] p = line.split(";", 2);
-            return p.length == 2 && p[1].trim().equalsIgnoreCase(courseId);
-        });
-
-        removeLines("database/AssignedCoursesTeacher.txt", line -> {
-            String[] p = line.split(",", 2);
-            return p.length == 2 && p[1].trim().equalsIgnoreCase(courseId);
-        });
-
-        return true;
-    }
-
-    private boolean removeLines(String path, Predicate<String> removeIf) {
-        File f = new File(path);
-        if (!f.exists()) return true;
-
-        try {
-            List<String> out = new ArrayList<>();
-            try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String t = line.trim();
-                    if (t.isEmpty()) continue;
-                    if (removeIf.test(t)) continue;
-                    out.add(line);
-                }
-            }
-            try (PrintWriter pw = new PrintWriter(new FileWriter(f, false))) {
-                for (String l : out) pw.println(l);
-            }
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+    // why a server delete didn't happen, for the error alert
+    private static String deleteFailed(Writer.Outcome outcome, String what) {
+        return switch (outcome) {
+            case REFUSED -> what + " was not found on the server. Nothing was removed.";
+            case UNREACHABLE -> "The server is unreachable. Nothing was removed; try again when it is up.";
+            default -> "No reply from the server ⚠️ Reload to see whether " + what + " was removed before trying again.";
+        };
     }
 
     // =================== STUDENT FEATURES ===================
 
     private void openStudentCoursesWindow(int studentID) {
         try {
-            Loader.reloadAll();
-            Student student = Loader.studentList.searchStudent(studentID);
+            // ✅ just this student and its courses, not a full reload
+            Student student = Loader.fetchStudent(studentID);
             if (student == null) {
                 showAlert(Alert.AlertType.ERROR, "Student Not Found",
                         "Student not found in list: " + studentID);
@@ -447,106 +406,25 @@ public class AdminDashboardController implements Initializable {
             if (response != ButtonType.OK) return;
 
             new Thread(() -> {
-                boolean removedFromList = Loader.studentList.removeStudent(selectedStudent);
-                boolean removedFromFile = removedFromList && removeStudentFromFile(selectedStudent.getID());
-
-                if (removedFromFile) removeStudentFromEnrollments(selectedStudent.getID());
-                else if (removedFromList) Loader.studentList.addStudent(selectedStudent);
+                // ✅ one server transaction: credentials, profile, enrollments, applications
+                Writer.Outcome outcome = Writer.deleteStudent(selectedStudent.getID());
 
                 Platform.runLater(() -> {
-                    if (removedFromFile) {
+                    if (outcome == Writer.Outcome.DONE) {
+                        Loader.reloadAll();
                         reloadSourcesFromLoader();
                         updateCounts();
                         showAlert(Alert.AlertType.INFORMATION, "Success",
                                 "Student removed successfully: " + selectedStudent.getName());
                     } else {
                         showAlert(Alert.AlertType.ERROR, "Failed",
-                                "Could not remove student from file. Please try again.");
+                                deleteFailed(outcome, "Student " + selectedStudent.getID()));
                     }
                 });
             }).start();
         });
     }
 
-    private boolean removeStudentFromFile(int studentID) {
-        Path input = Paths.get("database/StudentCredentials.txt");
-        Path temp  = Paths.get("database/StudentCredentials_temp.txt");
-
-        try {
-            if (!Files.exists(input)) return false;
-
-            List<String> lines = Files.readAllLines(input);
-            List<String> updated = new ArrayList<>();
-            boolean found = false;
-
-            for (String raw : lines) {
-                if (raw == null) continue;
-                String line = raw.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",", -1);
-                if (parts.length < 1 || parts[0].trim().isEmpty()) {
-                    updated.add(raw);
-                    continue;
-                }
-
-                int id;
-                try { id = Integer.parseInt(parts[0].trim()); }
-                catch (NumberFormatException ex) { updated.add(raw); continue; }
-
-                if (id == studentID) { found = true; continue; }
-                updated.add(raw);
-            }
-
-            if (!found) return false;
-
-            Files.write(temp, updated, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            Files.move(temp, input, StandardCopyOption.REPLACE_EXISTING);
-            return true;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-
-    private void removeStudentFromEnrollments(int studentID) {
-        Path input = Paths.get("database/enrollments.txt");
-        Path temp  = Paths.get("database/enrollments_temp.txt");
-
-        try {
-            if (!Files.exists(input)) return;
-
-            List<String> lines = Files.readAllLines(input);
-            List<String> updated = new ArrayList<>();
-
-            for (String raw : lines) {
-                if (raw == null) continue;
-                String line = raw.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",", -1);
-                if (parts.length < 1 || parts[0].trim().isEmpty()) {
-                    updated.add(raw);
-                    continue;
-                }
-
-                int id;
-                try { id = Integer.parseInt(parts[0].trim()); }
-                catch (NumberFormatException ex) { updated.add(raw); continue; }
-
-                if (id == studentID) continue;
-                updated.add(raw);
-            }
-
-            Files.write(temp, updated, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            Files.move(temp, input, StandardCopyOption.REPLACE_EXISTING);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
     // =================== TEACHER FEATURES ===================
 
     private void openTeacherCoursesWindow(int teacherID) {
@@ -1,6 +1,7 @@
 package files.Controllers;
 
 import files.Classes.*;
+import files.Request;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -160,6 +161,10 @@ public class AssignCourseToTeacherController implements Initializable {
     }
 
     private boolean isAssignmentAlreadySaved(int teacherId, String courseId) {
+        // ✅ server index: this teacher's courses (the file only if the server can't be reached)
+        List<String> assigned = Loader.fetchRelated(Request.RequestType.GET_COURSE_IDS_OF_TEACHER, String.valueOf(teacherId));
+        if (assigned != null) return assigned.contains(courseId.trim());
+
         try (BufferedReader br = new BufferedReader(new FileReader(ASSIGN_FILE))) {
             String line;
             String key = teacherId + "," + courseId;
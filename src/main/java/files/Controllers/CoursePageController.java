@@ -1,8 +1,12 @@
 package files.Controllers;
 
+import files.Classes.ChunkedFileReader;
 import files.Classes.Course;
+import files.Classes.Loader;
+import files.Classes.RecordTokenizer;
 import files.Classes.Student;
 import files.Main;
+import files.Request;
 import files.Server.Deadline;
 import files.Server.Notification;
 import files.Server.SocketWrapper;
@@ -141,20 +145,19 @@ public class CoursePageController implements Initializable {
 
             String courseId = course.getCourseID().trim();
 
-            try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-
-                    // ✅ safe split
-                    String[] parts = line.split(";", 4);
-                    if (parts.length == 4 && parts[0].trim().equals(courseId)) {
-                        String teacher = parts[1].trim();
-                        String msg = parts[2].trim();
-                        String time = parts[3].trim();
-
-                        lines.add("• " + teacher + ": " + msg + "  (" + time + ")");
+            try {
+                // ✅ the file holds every course's announcements: scanned in ranges on every core,
+                // other courses' lines are skipped without splitting them
+                List<List<String>> ranges = ChunkedFileReader.read(f.toPath(), ';', ArrayList::new, (found, t) -> {
+                    if (t.fields() >= 4 && t.nextEquals(courseId)) {
+                        String teacher = t.next();
+                        String msg = t.next();
+                        String time = t.rest();
+
+                        found.add("• " + teacher + ": " + msg + "  (" + time + ")");
                     }
-                }
+                });
+                for (List<String> found : ranges) lines.addAll(found);
             } catch (IOException ignored) {}
 
             Platform.runLater(() -> {
@@ -246,40 +249,48 @@ public class CoursePageController implements Initializable {
             String courseId = course.getCourseID().trim();
             List<HBox> rows = new ArrayList<>();
 
-            File record = new File(UPLOAD_RECORD_FILE);
-            if (!record.exists()) {
-                Platform.runLater(() -> {
-                    if (fileListBox != null) fileListBox.getChildren().clear();
-                });
-                return;
-            }
+            // ✅ server index first (this course's files only), the record file if offline
+            List<String> filenames = Loader.fetchRelated(Request.RequestType.GET_FILES_OF_COURSE, courseId);
+            if (filenames == null) {
+                File record = new File(UPLOAD_RECORD_FILE);
+                if (!record.exists()) {
+                    Platform.runLater(() -> {
+                        if (fileListBox != null) fileListBox.getChildren().clear();
+                    });
+                    return;
+                }
 
-            try (BufferedReader br = new BufferedReader(new FileReader(record))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] parts = line.split(";", 2);
-                    if (parts.length != 2) continue;
+                filenames = new ArrayList<>();
+                RecordTokenizer t = new RecordTokenizer();
+                try (BufferedReader br = new BufferedReader(new FileReader(record))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        t.reset(line, ';');
+                        if (t.fields() < 2) continue;
 
-                    if (!parts[0].trim().equals(courseId)) continue;
-                    String filename = parts[1].trim();
+                        if (!t.nextEquals(courseId)) continue;
+                        filenames.add(t.rest());
+                    }
+                } catch (IOException ignored) {}
+            }
 
-                    Label name = new Label(filename);
-                    name.getStyleClass().add("file-name");
+            for (String filename : filenames) {
+                Label name = new Label(filename);
+                name.getStyleClass().add("file-name");
 
-                    Button openBtn = new Button("Open");
-                    openBtn.getStyleClass().addAll("action-button");
-                    openBtn.setOnAction(e ->
-                            openFile(new File("uploaded_files/" + courseId + "/" + filename))
-                    );
+                Button openBtn = new Button("Open");
+                openBtn.getStyleClass().addAll("action-button");
+                openBtn.setOnAction(e ->
+                        openFile(new File("uploaded_files/" + courseId + "/" + filename))
+                );
 
-                    Region spacer = new Region();
-                    HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
+                Region spacer = new Region();
+                HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
 
-                    HBox row = new HBox(12, name, spacer, openBtn);
-                    row.getStyleClass().add("file-row");
-                    rows.add(row);
-                }
-            } catch (IOException ignored) {}
+                HBox row = new HBox(12, name, spacer, openBtn);
+                row.getStyleClass().add("file-row");
+                rows.add(row);
+            }
 
             Platform.runLater(() -> {
                 if (fileListBox == null) return;
@@ -322,18 +333,19 @@ public class CoursePageController implements Initializable {
                 return;
             }
 
+            RecordTokenizer t = new RecordTokenizer();
             try (BufferedReader reader = Files.newBufferedReader(f.toPath())) {
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(";");
-                    if (parts.length != 4) continue;
+                    t.reset(line, ';');
+                    if (t.splitLength() != 4) continue;
 
-                    String courseId = parts[0].trim();
+                    String courseId = t.next();
                     if (!course.getCourseID().trim().equals(courseId)) continue;
 
-                    String taskName = parts[1].trim();
-                    String type = parts[2].trim();
-                    LocalDate dueDate = LocalDate.parse(parts[3].trim());
+                    String taskName = t.next();
+                    String type = t.next();
+                    LocalDate dueDate = LocalDate.parse(t.next());
 
                     deadlines.add(new Deadline(courseId, taskName, type, dueDate));
                 }
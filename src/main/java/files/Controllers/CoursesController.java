@@ -1,7 +1,9 @@
 package files.Controllers;
 
+import files.Classes.Loader;
 import files.Classes.Student;
 import files.Main;
+import files.Request;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -324,6 +326,15 @@ public class CoursesController {
     }
 
     private boolean isAlreadyInApplyFile(String studentId, String courseId) {
+        // ✅ server index first (one student's applications), the file if offline
+        List<String> applied = Loader.fetchRelated(Request.RequestType.GET_APPLICATIONS_OF_STUDENT, studentId);
+        if (applied != null) {
+            for (String cid : applied) {
+                if (cid.equalsIgnoreCase(courseId)) return true;
+            }
+            return false;
+        }
+
         File f = new File(APPLY_FILE);
         if (!f.exists()) return false;
 
@@ -346,6 +357,12 @@ public class CoursesController {
         if (student == null) return;
 
         String studentId = String.valueOf(student.getId()).trim();
+        List<String> applied = Loader.fetchRelated(Request.RequestType.GET_APPLICATIONS_OF_STUDENT, studentId);
+        if (applied != null) {
+            appliedCourseIds.addAll(applied);
+            return;
+        }
+
         File f = new File(APPLY_FILE);
         if (!f.exists()) return;
 
@@ -148,11 +148,7 @@ public class LoginController implements Initializable {
     @FXML
     public void onSubmit(ActionEvent actionEvent) {
 
-        // ok to reload here
-        Loader.reloadAll();
-        students = Loader.studentList;
-        teachers = Loader.teacherList;
-
+        // ✅ no full reload here: login asks the server for just this user (see loginStudent/loginTeacher)
         errorLabel.setText("");
 
         String role = roleBox.getValue();
@@ -186,7 +182,7 @@ public class LoginController implements Initializable {
     }
 
     private void loginStudent(int id, String pass) throws IOException {
-        Student s = students.searchStudent(id);
+        Student s = Loader.fetchStudent(id); // + its courses
         if (s == null) {
             errorLabel.setText("Student ID not found");
             return;
@@ -204,7 +200,7 @@ public class LoginController implements Initializable {
     }
 
     private void loginTeacher(int id, String pass) throws IOException {
-        Teacher t = teachers.searchTeacher(id);
+        Teacher t = Loader.fetchTeacher(id);
         if (t == null) {
             errorLabel.setText("Teacher ID not found");
             return;
@@ -214,6 +210,13 @@ public class LoginController implements Initializable {
             return;
         }
 
+        // ✅ teacher pages show rosters: take the teacher from its courses (they come with students)
+        for (Course c : Loader.fetchCoursesForTeacher(id)) {
+            for (Teacher ct : c.getCourseTeachers()) {
+                if (ct.getId() == id) t = ct;
+            }
+        }
+
         Session.setTeacher(t);
         Session.setStudent(null);
 
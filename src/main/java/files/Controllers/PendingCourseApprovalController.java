@@ -121,10 +121,10 @@ public class PendingCourseApprovalController {
         // ✅ Add to memory (Course should do bidirectional addStudent -> student.addCourses)
         boolean added = realCourse.addStudent(student);
 
-        // ✅ Save enrollment to file
+        // ✅ Save enrollment to file (async: approveAll pipelines these on one connection)
         if (added) {
             String enrollLine = student.getID() + "," + realCourse.getCourseID();
-            Writer.writeToFile(enrollLine, ENROLL_FILE);
+            Writer.writeToFileAsync(enrollLine, ENROLL_FILE);
         }
 
         // ✅ Remove from pending file ALWAYS after approval attempt
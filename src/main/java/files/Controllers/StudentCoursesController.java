@@ -41,14 +41,11 @@ public class StudentCoursesController {
         displayCourses();
     }
 
-    // ✅ Always get fresh student object from Loader
+    // ✅ Always get fresh student object (asks the server for this student only)
     private void reloadCoursesFromLoader() {
         if (student == null) return;
 
-        // Optional: if your Loader reads from file, this ensures latest profile/course state
-        try { Loader.reloadAll(); } catch (Exception ignored) {}
-
-        Student updated = Loader.studentList.searchStudent(student.getID());
+        Student updated = Loader.fetchStudent(student.getID());
         if (updated != null) {
             student = updated;
             courses = new ArrayList<>(student.getCourses());
@@ -110,7 +107,9 @@ public class StudentCoursesController {
             System.out.println("⚠️ Could not connect to server: " + e.getMessage());
         }
 
-        controller.setCourse(course);
+        // ✅ course list entries have no roster; the page shows one, so fetch it
+        Course roster = Loader.fetchCourseRoster(course.getCourseID());
+        controller.setCourse(roster != null ? roster : course);
         controller.setStudent(student);
         controller.display();
 
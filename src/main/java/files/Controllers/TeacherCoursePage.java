@@ -1,6 +1,7 @@
 package files.Controllers;
 
 import files.Classes.Course;
+import files.Classes.RecordTokenizer;
 import files.Classes.Student;
 import files.Classes.Teacher;
 import files.Main;
@@ -165,19 +166,20 @@ public class TeacherCoursePage {
 
         boolean found = false;
         String courseId = course.getCourseID().trim();
+        RecordTokenizer tokens = new RecordTokenizer();
 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = br.readLine()) != null) {
-                // split limit=4
-                String[] parts = line.split(";", 4);
+                // courseId;teacher;message;time (the message's own ';' stay in place)
+                tokens.reset(line, ';');
 
-                if (parts.length == 4 && parts[0].trim().equals(courseId)) {
+                if (tokens.fields() >= 4 && tokens.nextEquals(courseId)) {
                     found = true;
 
-                    String teacherName = parts[1].trim();
-                    String msg = parts[2].trim();
-                    String time = parts[3].trim();
+                    String teacherName = tokens.next();
+                    String msg = tokens.next();
+                    String time = tokens.rest();
 
                     Label lbl = new Label("• " + teacherName + ": " + msg + "  (" + time + ")");
                     lbl.setWrapText(true);
@@ -306,18 +308,17 @@ public class TeacherCoursePage {
 
         String courseId = course.getCourseID().trim();
         boolean found = false;
+        RecordTokenizer tokens = new RecordTokenizer();
 
         try (BufferedReader br = new BufferedReader(new FileReader(record))) {
             String line;
             while ((line = br.readLine()) != null) {
                 // format: courseId;fileName
-                String[] parts = line.split(";", 2);
-                if (parts.length < 2) continue;
+                tokens.reset(line, ';');
+                if (tokens.fields() < 2) continue;
 
-                String cid = parts[0].trim();
-                String fname = parts[1].trim();
-
-                if (!cid.equals(courseId)) continue;
+                if (!tokens.nextEquals(courseId)) continue;
+                String fname = tokens.rest();
 
                 found = true;
                 uploadedFilesBox.getChildren().add(buildFileRow(courseId, fname));
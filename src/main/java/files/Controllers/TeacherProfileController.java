@@ -65,8 +65,7 @@ public class TeacherProfileController {
 
         // ✅ FIX: ensures assigned course count is correct everywhere
         if (reloadFromLoader) {
-            Loader.reloadAll();
-            Teacher updated = Loader.teacherList.searchTeacher(teacher.getId());
+            Teacher updated = Loader.fetchTeacher(teacher.getId());
             if (updated != null) teacher = updated;
         }
 
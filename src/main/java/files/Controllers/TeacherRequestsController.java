@@ -1,8 +1,10 @@
 package files.Controllers;
 
 import files.Classes.Course;
+import files.Classes.Loader;
 import files.Classes.Teacher;
 import files.Main;
+import files.Request;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -98,6 +100,20 @@ public class TeacherRequestsController {
 
     // Reads: studentId;courseId  (ONLY for this teacher's assigned courses)
     private List<String[]> readRequestsFiltered() {
+        // ✅ server index: the applicants of each assigned course, no scan of the whole file
+        if (!assignedCourseIds.isEmpty()) {
+            List<String[]> fromServer = new ArrayList<>();
+            for (String cid : assignedCourseIds) {
+                List<String> applicants = Loader.fetchRelated(Request.RequestType.GET_APPLICANTS_OF_COURSE, cid);
+                if (applicants == null) {
+                    fromServer = null; // offline: read the file below
+                    break;
+                }
+                for (String sid : applicants) fromServer.add(new String[]{sid, cid});
+            }
+            if (fromServer != null) return fromServer;
+        }
+
         List<String[]> list = new ArrayList<>();
         File f = new File(APPLY_FILE);
         if (!f.exists()) return list;
@@ -0,0 +1,1168 @@
+// ✅ files/DataStore.java
+package files;
+
+import files.Classes.*;
+import files.Server.CachedPayload;
+import files.Storage.TableStorage;
+import files.StoreRecords.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static files.StoreRecords.*;
+
+/**
+ * The server's one copy of students / teachers / courses, shared by every connection.
+ *
+ * - loaded from the database files once, at startup, or from the binary checkpoint
+ *   (database/coursesphere.ckpt) when the files haven't changed since it was written
+ * - the current State is immutable and published through a volatile field:
+ *   readers (GET_ALL, GET_CHANGES_SINCE) never take a lock
+ * - a data write goes through write(): the file is written (the caller holds the record's
+ *   LockManager locks, so writes to other records and files go on at the same time), then
+ *   under the store lock the lines are applied to a copy of the State, the effective
+ *   Changes go to the ChangeLog and the new State is published
+ * - the Student/Teacher/Course graph clients get is built lazily, once per State.
+ *   It must be treated as read-only (it is shared by all readers of that State).
+ *   Its encoded form is cached the same way (CachedPayload), so a burst of GET_ALLs
+ *   against unchanged data encodes it once per codec, not once per request
+ * - targeted lookups (GET_STUDENT, GET_COURSE_ROSTER, ...) go through an Index
+ *   (person -> courses, course -> people) and return a small copy with just that slice,
+ *   so a client screen doesn't need the whole graph. A write updates the Index for the
+ *   links it adds or removes (copy-on-write) instead of rebuilding it
+ * - deletes (DELETE_COURSE / DELETE_STUDENT / DELETE_TEACHER) go through delete(): the entity and
+ *   everything pointing at it leave the files in one CascadeDelete transaction and the store in one step
+ * - if a data file is changed by someone else (controllers still rewrite some files
+ *   locally, admins edit them by hand), only that file is parsed again. The DatabaseWatcher
+ *   reloads it in the background, but events come late: every read still compares the
+ *   files' size/mtime, so a client's request right after its own edit never gets the old data
+ */
+public final class DataStore {
+
+    // ✅ -Dcoursesphere.store.recheckMs=N : at most one "edited outside the server?" check per N ms
+    public static final String RECHECK_PROPERTY = "coursesphere.store.recheckMs";
+
+    // ✅ holder: created on first use, after all the static constants above/below are set
+    private static final class Shared {
+        static final DataStore INSTANCE = create();
+
+        private static DataStore create() {
+            DataStore s = new DataStore(Paths.get("database"));
+            s.watch(DatabaseWatcher.shared());
+            // ✅ the next start reads the state as it is at shutdown
+            Runtime.getRuntime().addShutdownHook(new Thread(s::saveCheckpoint, "store-checkpoint"));
+            return s;
+        }
+    }
+
+    public static DataStore shared() {
+        return Shared.INSTANCE;
+    }
+
+    /** Write to a file; runs under the store lock. */
+    @FunctionalInterface
+    public interface FileWrite {
+        void run() throws IOException;
+    }
+
+    private final Path dataDir;
+    private final long recheckNanos;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ChangeLog changes;
+
+    private volatile State state;
+
+    // written under writeLock, read by readers without it: replaced, never changed in place
+    private volatile Map<String, Stamp> stamps;
+    // guarded by writeLock
+    private final Map<String, Integer> inFlight = new HashMap<>(); // data files being written right now
+    private volatile long nextRecheck;
+
+    public DataStore(Path dataDir) {
+        this.dataDir = dataDir;
+        this.recheckNanos = Long.getLong(RECHECK_PROPERTY, 0L) * 1_000_000L;
+
+        // ✅ a delete cut short by a crash is finished (or dropped) before anything is read
+        try {
+            new CascadeDelete(dataDir, UpsertStorage.shared(), TableStorage.shared()).recover();
+        } catch (Exception e) {
+            System.out.println("❌ DataStore couldn't recover an interrupted delete: " + e.getMessage());
+        }
+
+        long epoch = System.currentTimeMillis();
+        this.changes = new ChangeLog(epoch);
+        this.stamps = currentStamps();
+
+        long start = System.nanoTime();
+        State fromCheckpoint = Checkpoint.enabled() ? readCheckpoint(dataDir, epoch) : null;
+        if (fromCheckpoint != null) {
+            this.state = fromCheckpoint;
+            System.out.printf("✅ DataStore loaded from %s: %d student / %d teacher credentials, %d courses (%.1f ms)%n",
+                    CHECKPOINT_FILE, state.studentCreds.size(), state.teacherCreds.size(), state.courses.size(),
+                    (System.nanoTime() - start) / 1e6);
+        } else {
+            this.state = load(epoch, 0);
+            saveCheckpoint();
+        }
+        this.nextRecheck = System.nanoTime();
+    }
+
+    public Path dataDir() {
+        return dataDir;
+    }
+
+    /**
+     * Let `w` reload outside edits in the background, so reads rarely have to. Reads still
+     * check the files' stamps: an event may arrive after the request that follows the edit.
+     */
+    public void watch(DatabaseWatcher w) {
+        if (w == null) return;
+        w.addListener(this::filesChanged);
+        filesChanged(null); // anything edited before the listener was added
+    }
+
+    // =========================
+    // READS (lock-free)
+    // =========================
+    public DataSnapshot snapshot() {
+        reloadIfEditedOutside();
+        return state.graph();
+    }
+
+    /** Same as snapshot(), but as a reply that is encoded once per version and codec. */
+    public CachedPayload snapshotReply() {
+        reloadIfEditedOutside();
+        return state.snapshotReply();
+    }
+
+    /** Delta after (epoch, version), or a full snapshot when the log can't answer. */
+    public ChangeSet changesSince(long clientEpoch, long clientVersion) {
+        Object reply = changesSinceReply(clientEpoch, clientVersion);
+        return reply instanceof CachedPayload full ? (ChangeSet) full.getMessage() : (ChangeSet) reply;
+    }
+
+    /** A delta ChangeSet, or the (cached) full one of the current version. */
+    public Object changesSinceReply(long clientEpoch, long clientVersion) {
+        reloadIfEditedOutside();
+
+        State s = state;
+        List<Change> delta = changes.between(clientEpoch, clientVersion, s.version);
+        if (delta != null && clientEpoch == s.epoch) return new ChangeSet(s.epoch, s.version, delta, null);
+        return s.fullChangesReply();
+    }
+
+    // =========================
+    // LOOKUPS (lock-free, trimmed copies)
+    // =========================
+    /** The student with its courses (each with its teachers, no student rosters), or null. */
+    public Student student(int id) {
+        reloadIfEditedOutside();
+        State s = state;
+        Slice slice = new Slice(s);
+        Student st = slice.student(id);
+        if (st == null) return null;
+
+        Index index = s.index();
+        for (CourseRec rec : index.students.courses(id)) {
+            Course c = slice.course(rec);
+            st.enroll(c); // one way: the roster stays empty
+            for (int tid : index.teachers.people(key(rec.id()))) {
+                c.addTeacher(slice.teacher(tid));
+            }
+        }
+        return st;
+    }
+
+    /** The teacher with its assigned courses (no rosters), or null. */
+    public Teacher teacher(int id) {
+        reloadIfEditedOutside();
+        State s = state;
+        Slice slice = new Slice(s);
+        Teacher t = slice.teacher(id);
+        if (t == null) return null;
+
+        for (CourseRec rec : s.index().teachers.courses(id)) {
+            slice.course(rec).addTeacher(t);
+        }
+        return t;
+    }
+
+    /** The course with its students and teachers (their other courses left out), or null. */
+    public Course courseRoster(String courseId) {
+        if (courseId == null) return null;
+        reloadIfEditedOutside();
+        State s = state;
+        CourseRec rec = s.courses.get(key(courseId));
+        return rec == null ? null : new Slice(s).roster(rec);
+    }
+
+    /** Every course of the teacher with its roster; empty if the teacher is unknown. */
+    public List<Course> coursesForTeacher(int id) {
+        reloadIfEditedOutside();
+        State s = state;
+        if (s.teacher(id) == null) return new ArrayList<>();
+
+        Slice slice = new Slice(s);
+        List<Course> out = new ArrayList<>();
+        for (CourseRec rec : s.index().teachers.courses(id)) {
+            out.add(slice.roster(rec));
+        }
+        return out;
+    }
+
+    /** Builds the objects of one lookup reply; the same id gives the same object. */
+    private static final class Slice {
+        private final State state;
+        private final Map<Integer, Student> students = new HashMap<>();
+        private final Map<Integer, Teacher> teachers = new HashMap<>();
+        private final Map<String, Course> courses = new HashMap<>();
+
+        Slice(State state) {
+            this.state = state;
+        }
+
+        Student student(int id) {
+            Student st = students.get(id);
+            if (st == null) {
+                PersonView v = state.student(id);
+                if (v == null) return null;
+                st = new Student(v.name(), id, v.password());
+                st.setImagePath(v.imagePath());
+                students.put(id, st);
+            }
+            return st;
+        }
+
+        Teacher teacher(int id) {
+            Teacher t = teachers.get(id);
+            if (t == null) {
+                PersonView v = state.teacher(id);
+                if (v == null) return null;
+                t = new Teacher(v.name(), id, v.password());
+                teachers.put(id, t);
+            }
+            return t;
+        }
+
+        Course course(CourseRec rec) {
+            return courses.computeIfAbsent(key(rec.id()), k -> new Course(rec.id(), rec.name(), rec.credit()));
+        }
+
+        Course roster(CourseRec rec) {
+            Course c = course(rec);
+            Index index = state.index();
+            for (int sid : index.students.people(key(rec.id()))) c.addStudent(student(sid));
+            for (int tid : index.teachers.people(key(rec.id()))) c.addTeacher(teacher(tid));
+            return c;
+        }
+    }
+
+    // =========================
+    // WRITES
+    // =========================
+    public boolean isDataFile(Path p) {
+        Path name = p.getFileName();
+        if (name == null || !DATA_FILES.contains(name.toString().toLowerCase())) return false;
+
+        Path parent = p.getParent() == null ? Paths.get("") : p.getParent();
+        return parent.toAbsolutePath().normalize().equals(dataDir.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Run `write` (which puts `lines` into data file `p`) and apply the same lines to the store.
+     * The caller holds the LockManager locks for the lines' records (RequestHandler.locksFor):
+     * that is what keeps two writes of one record in the same order in the file and in the store.
+     */
+    public void write(Path p, List<String> lines, FileWrite write) throws IOException {
+        String name = p.getFileName().toString().toLowerCase();
+
+        writeLock.lock();
+        try {
+            // ✅ pick up outside edits BEFORE ours, or we'd take them for our own
+            reloadEditedOutside();
+            inFlight.merge(name, 1, Integer::sum);
+        } finally {
+            writeLock.unlock();
+        }
+
+        // ✅ the file write itself runs outside the store lock
+        boolean written = false;
+        try {
+            write.run();
+            written = true;
+        } finally {
+            writeLock.lock();
+            try {
+                inFlight.computeIfPresent(name, (k, n) -> n > 1 ? n - 1 : null);
+                if (written) {
+                    restamp(Map.of(name, stamp(p)));
+
+                    Mutation m = new Mutation(state);
+                    for (String line : lines) m.apply(name, line);
+
+                    if (!m.changes.isEmpty()) {
+                        for (Change c : m.changes) changes.append(c);
+                        state = m.result();
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove a course / student / teacher and its links from the store; `write` removes them from the files.
+     * @return false (nothing run) if the store doesn't know it
+     */
+    public boolean delete(Change.Entity entity, String key, FileWrite write) throws IOException {
+        writeLock.lock();
+        try {
+            reloadEditedOutside();
+
+            Mutation m = new Mutation(state);
+            if (!m.remove(entity, key)) return false;
+
+            write.run();
+            stamps = currentStamps(); // several files were replaced
+
+            for (Change c : m.changes) changes.append(c);
+            state = m.result();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * For a rewrite that doesn't change the data (upsert log compaction / export): runs under the lock
+     * and restamps, so it isn't taken for an outside edit.
+     * @return false (nothing run) if the files were edited outside since the last look
+     */
+    public boolean rewriteQuietly(FileWrite write) throws IOException {
+        writeLock.lock();
+        try {
+            if (reloadEditedOutside()) return false;
+            write.run();
+            stamps = currentStamps();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // =========================
+    // CHECKPOINT
+    // =========================
+    /**
+     * Writes the current State to database/coursesphere.ckpt. Skipped while a write is in
+     * progress or when the files moved on from the State (the next start parses the text then).
+     */
+    public void saveCheckpoint() {
+        if (!Checkpoint.enabled()) return;
+
+        writeLock.lock();
+        try {
+            if (!inFlight.isEmpty() || !editedOutside().isEmpty()) return;
+
+            StoreRecords.writeCheckpoint(dataDir, state.tables());
+
+            // ✅ edited while we stamped: the checkpoint may hold the old data under the new stamps
+            if (!editedOutside().isEmpty()) Files.deleteIfExists(dataDir.resolve(CHECKPOINT_FILE));
+        } catch (IOException e) {
+            System.out.println("❌ DataStore couldn't write " + CHECKPOINT_FILE + ": " + e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static State readCheckpoint(Path dataDir, long epoch) {
+        Tables t = StoreRecords.readCheckpoint(dataDir);
+        if (t == null) return null;
+        return new State(epoch, 0, t.studentCreds(), t.teacherCreds(), t.studentProfiles(), t.teacherProfiles(),
+                t.courses(), t.enrollments(), t.assignments());
+    }
+
+    // =========================
+    // OUTSIDE EDITS
+    // =========================
+    private void reloadIfEditedOutside() {
+        long now = System.nanoTime();
+        if (now - nextRecheck < 0) return;
+        nextRecheck = now + recheckNanos;
+
+        // ✅ lock-free look first: a reader only waits for the lock when a file really moved on
+        // (usually it's the watcher's reload it waits for, and then it gets the new data)
+        if (currentStamps().equals(stamps)) return;
+
+        writeLock.lock();
+        try {
+            reloadEditedOutside();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // watcher thread; files == null: anything may have changed
+    private void filesChanged(Set<String> files) {
+        if (files != null && Collections.disjoint(files, DATA_FILES)) return;
+
+        writeLock.lock();
+        try {
+            reloadEditedOutside();
+            nextRecheck = System.nanoTime() + recheckNanos; // just looked: covers the readers as a check of theirs would
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // writeLock held
+    private void restamp(Map<String, Stamp> changed) {
+        Map<String, Stamp> next = new HashMap<>(stamps);
+        next.putAll(changed);
+        stamps = next;
+    }
+
+    // writeLock held. true if something was reloaded
+    private boolean reloadEditedOutside() {
+        Set<String> edited = editedOutside();
+        if (edited.isEmpty()) return false;
+        reload(edited);
+        return true;
+    }
+
+    // writeLock held. A file with a write in progress is skipped: its writer restamps it when done
+    private Set<String> editedOutside() {
+        Set<String> out = new HashSet<>();
+        for (Map.Entry<String, Stamp> e : currentStamps().entrySet()) {
+            if (!inFlight.containsKey(e.getKey()) && !e.getValue().equals(stamps.get(e.getKey()))) out.add(e.getKey());
+        }
+        return out;
+    }
+
+    // writeLock held. Parses just the edited files again; the rest of the State is kept as it is
+    private void reload(Set<String> edited) {
+        // both enrollment files feed one set: reread them together
+        List<List<String>> groups = new ArrayList<>();
+        for (String name : LOAD_ORDER) {
+            if (name.equals(STUDENT_COURSES)) continue;
+            List<String> group = name.equals(ENROLLMENTS) ? List.of(ENROLLMENTS, STUDENT_COURSES) : List.of(name);
+            if (!Collections.disjoint(group, edited)) groups.add(group);
+        }
+
+        // ✅ stamped before reading: a file changed while we read it is read again next time
+        Map<String, Stamp> before = currentStamps();
+        Map<String, Path> files = listFiles();
+        if (files == null) return; // every file would look deleted
+        long epoch = Math.max(System.currentTimeMillis(), state.epoch + 1);
+        State next = state.withEpoch(epoch);
+        List<String> reread = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+
+        for (List<String> group : groups) {
+            Mutation m = new Mutation(next);
+            boolean ok = true;
+            for (String name : group) m.clear(name);
+            for (String name : group) ok &= read(m, name, files);
+
+            // ❌ a file that couldn't be read keeps its old data and its old stamp, so it's tried again
+            if (!ok) {
+                failed.addAll(group);
+                continue;
+            }
+            next = m.result();
+            Map<String, Stamp> now = new HashMap<>();
+            for (String name : group) now.put(name, before.get(name));
+            restamp(now);
+            reread.addAll(group);
+        }
+
+        if (!failed.isEmpty()) System.out.println("❌ DataStore kept the old data of " + failed + ", will read them again");
+        if (reread.isEmpty()) return;
+        changes.reset(epoch);
+        state = next;
+        System.out.println("⚠️ Data files changed outside the server, reloaded " + reread + " (epoch " + epoch + ")");
+    }
+
+    private record Stamp(long modified, long size) {}
+
+    private static final Stamp MISSING = new Stamp(-1, -1);
+
+    // one directory listing; names on disk keep their case (Courses.txt, ...)
+    private Map<String, Stamp> currentStamps() {
+        Map<String, Stamp> out = new HashMap<>();
+        for (String name : DATA_FILES) out.put(name, MISSING);
+
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(dataDir)) {
+            for (Path p : dir) {
+                String name = p.getFileName().toString().toLowerCase();
+                if (DATA_FILES.contains(name)) out.put(name, stamp(p));
+            }
+        } catch (IOException ignored) {}
+        return out;
+    }
+
+    private static Stamp stamp(Path p) {
+        try {
+            return new Stamp(Files.getLastModifiedTime(p).toMillis(), Files.size(p));
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    // =========================
+    // LOAD
+    // =========================
+    private State load(long epoch, long version) {
+        Map<String, Path> files = listFiles();
+        if (files == null) {
+            files = Map.of();
+            stamps = Map.of();
+        }
+        Mutation m = new Mutation(State.empty(epoch, version));
+        for (String name : LOAD_ORDER) m.clear(name);
+        for (String name : LOAD_ORDER) {
+            if (read(m, name, files)) continue;
+            Map<String, Stamp> unread = new HashMap<>(stamps);
+            unread.remove(name); // unstamped: read again on the next check
+            stamps = unread;
+        }
+
+        State s = m.result();
+        System.out.println("✅ DataStore loaded: " + s.studentCreds.size() + " student / "
+                + s.teacherCreds.size() + " teacher credentials, " + s.courses.size() + " courses");
+        return s;
+    }
+
+    // lower-case name -> file as it is named on disk; null if the directory can't be listed
+    private Map<String, Path> listFiles() {
+        Map<String, Path> files = new HashMap<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(dataDir)) {
+            for (Path p : dir) files.put(p.getFileName().toString().toLowerCase(), p);
+        } catch (IOException e) {
+            System.out.println("❌ DataStore can't list " + dataDir + ": " + e.getMessage());
+            return null;
+        }
+        return files;
+    }
+
+    // false if the file is there but couldn't be read (what was read of it is in m)
+    private static boolean read(Mutation m, String name, Map<String, Path> files) {
+        Path p = files.get(name);
+        Path log = files.get(name + ".wal");
+        if (p == null && log != null) p = log.resolveSibling(log.getFileName().toString().replaceFirst("(?i)\\.wal$", ""));
+        if (p == null) return true;
+
+        try {
+            // ✅ upsert files may have writes not yet compacted into the text file
+            if (UpsertStorage.isUpsertFile(p.getFileName().toString())) {
+                for (String line : UpsertStorage.shared().lines(p)) m.load(name, line);
+                return true;
+            }
+            // ✅ the link files are the big ones: parsed in ranges on every core, added in file order
+            if (name.equals(ENROLLMENTS) || name.equals(STUDENT_COURSES) || name.equals(ASSIGNMENTS)) {
+                for (List<Link> links : ChunkedFileReader.<List<Link>>read(p, ',', ArrayList::new, (links, t) -> {
+                    Link l = parseLink(t);
+                    if (l != null) links.add(l);
+                })) {
+                    m.loadLinks(name, links);
+                }
+                return true;
+            }
+            try (BufferedReader br = Files.newBufferedReader(p)) {
+                String line;
+                while ((line = br.readLine()) != null) m.load(name, line);
+            }
+            return true;
+        } catch (Exception | InternalError e) { // InternalError: a fault on a mapped file
+            System.out.println("❌ DataStore error loading " + p + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // =========================
+    // STATE (immutable)
+    // =========================
+    /**
+     * Who is in which course, for the lookups. Only links the graph would keep
+     * (approved person, existing course), in link order; course keys are lower-case.
+     *
+     * Built once from a State, then carried from State to State: a Mutation edits a copy
+     * (IndexEdit) that shares every list and set it doesn't change, so a write costs what it
+     * touches. A link that becomes visible later (its person approved, or its course added,
+     * after it) goes to the end of the lists, as it does for a client applying the deltas.
+     */
+    private static final class Index {
+        static final Index EMPTY = new Index(Side.EMPTY, Side.EMPTY);
+
+        final Side students;
+        final Side teachers;
+
+        Index(Side students, Side teachers) {
+            this.students = students;
+            this.teachers = teachers;
+        }
+
+        static Index build(State s) {
+            IndexEdit e = new IndexEdit(EMPTY);
+            for (Link l : s.enrollments) {
+                if (s.student(l.personId()) != null) e.students.add(l.personId(), s.courses.get(key(l.courseId())));
+            }
+            for (Link l : s.assignments) {
+                if (s.teacher(l.personId()) != null) e.teachers.add(l.personId(), s.courses.get(key(l.courseId())));
+            }
+            return e.result();
+        }
+    }
+
+    /** Students (or teachers) and their courses, both ways. Never changed once in a State. */
+    private record Side(PersistentMap<Integer, List<CourseRec>> coursesOf, PersistentMap<String, Set<Integer>> peopleOf) {
+        static final Side EMPTY = new Side(PersistentMap.empty(), PersistentMap.empty());
+
+        List<CourseRec> courses(int id) {
+            return coursesOf.getOrDefault(id, List.of());
+        }
+
+        Set<Integer> people(String courseKey) {
+            return peopleOf.getOrDefault(courseKey, Set.of());
+        }
+    }
+
+    /** Copy-on-write edit of an Index (one per Mutation). */
+    private static final class IndexEdit {
+        final SideEdit students;
+        final SideEdit teachers;
+
+        IndexEdit(Index base) {
+            students = new SideEdit(base.students);
+            teachers = new SideEdit(base.teachers);
+        }
+
+        Index result() {
+            return new Index(students.result(), teachers.result());
+        }
+    }
+
+    /** Each change makes new versions of the maps sharing the rest; each list / set is copied the first time it changes. */
+    private static final class SideEdit {
+        private final Side base;
+        private PersistentMap<Integer, List<CourseRec>> coursesOf;
+        private PersistentMap<String, Set<Integer>> peopleOf;
+        private final Set<Object> own = Collections.newSetFromMap(new IdentityHashMap<>()); // made by this edit
+
+        SideEdit(Side base) {
+            this.base = base;
+            this.coursesOf = base.coursesOf;
+            this.peopleOf = base.peopleOf;
+        }
+
+        void add(int id, CourseRec c) {
+            if (c == null) return;
+            // ✅ "CSE101" and "cse101" are one course (like CourseList.searchCourse)
+            if (people(key(c.id())).add(id)) courses(id).add(c);
+        }
+
+        void removePerson(int id) {
+            List<CourseRec> courses = coursesOf.get(id);
+            if (courses == null) return;
+            for (CourseRec c : courses) {
+                String k = key(c.id());
+                Set<Integer> people = people(k);
+                people.remove(id);
+                if (people.isEmpty()) peopleOf = peopleOf.without(k);
+            }
+            coursesOf = coursesOf.without(id);
+        }
+
+        void removeCourse(String k) {
+            Set<Integer> people = peopleOf.get(k);
+            if (people == null) return;
+            for (int id : people) {
+                List<CourseRec> courses = courses(id);
+                courses.removeIf(c -> key(c.id()).equals(k));
+                if (courses.isEmpty()) coursesOf = coursesOf.without(id);
+            }
+            peopleOf = peopleOf.without(k);
+        }
+
+        Side result() {
+            return coursesOf == base.coursesOf && peopleOf == base.peopleOf ? base : new Side(coursesOf, peopleOf);
+        }
+
+        private Set<Integer> people(String k) {
+            Set<Integer> s = peopleOf.get(k);
+            if (s == null || !own.contains(s)) {
+                s = s == null ? new LinkedHashSet<>() : new LinkedHashSet<>(s);
+                own.add(s);
+                peopleOf = peopleOf.with(k, s);
+            }
+            return s;
+        }
+
+        private List<CourseRec> courses(int id) {
+            List<CourseRec> l = coursesOf.get(id);
+            if (l == null || !own.contains(l)) {
+                l = l == null ? new ArrayList<>() : new ArrayList<>(l);
+                own.add(l);
+                coursesOf = coursesOf.with(id, l);
+            }
+            return l;
+        }
+    }
+
+    private static final class State {
+        final long epoch;
+        final long version;
+        final PersistentMap<Integer, Cred> studentCreds;
+        final PersistentMap<Integer, Cred> teacherCreds;
+        final PersistentMap<Integer, Profile> studentProfiles;
+        final PersistentMap<Integer, Profile> teacherProfiles;
+        final PersistentMap<String, CourseRec> courses; // lower-case id -> course, file order
+        final PersistentSet<Link> enrollments;
+        final PersistentSet<Link> assignments;
+
+        private volatile DataSnapshot graph; // built on first read
+        private volatile Index index;        // same, or carried over from the State before (Mutation)
+
+        // ✅ encoded replies for this version (dropped with the State when data changes)
+        private volatile CachedPayload snapshotReply;
+        private volatile CachedPayload fullChangesReply;
+
+        State(long epoch, long version,
+              Map<Integer, Cred> studentCreds, Map<Integer, Cred> teacherCreds,
+              Map<Integer, Profile> studentProfiles, Map<Integer, Profile> teacherProfiles,
+              Map<String, CourseRec> courses, Set<Link> enrollments, Set<Link> assignments) {
+            this.epoch = epoch;
+            this.version = version;
+            // ✅ a no-op for a Mutation's tables; the checkpoint's are converted once
+            this.studentCreds = PersistentMap.copyOf(studentCreds);
+            this.teacherCreds = PersistentMap.copyOf(teacherCreds);
+            this.studentProfiles = PersistentMap.copyOf(studentProfiles);
+            this.teacherProfiles = PersistentMap.copyOf(teacherProfiles);
+            this.courses = PersistentMap.copyOf(courses);
+            this.enrollments = PersistentSet.copyOf(enrollments);
+            this.assignments = PersistentSet.copyOf(assignments);
+        }
+
+        static State empty(long epoch, long version) {
+            return new State(epoch, version, PersistentMap.empty(), PersistentMap.empty(), PersistentMap.empty(),
+                    PersistentMap.empty(), PersistentMap.empty(), PersistentSet.empty(), PersistentSet.empty());
+        }
+
+        /** Same data, new epoch (a reload: clients can't get a delta across it). */
+        State withEpoch(long epoch) {
+            State s = new State(epoch, version, studentCreds, teacherCreds, studentProfiles, teacherProfiles,
+                    courses, enrollments, assignments);
+            s.index = index;
+            return s;
+        }
+
+        PersonView student(int id) {
+            return view(studentCreds.get(id), studentProfiles.get(id));
+        }
+
+        PersonView teacher(int id) {
+            return view(teacherCreds.get(id), teacherProfiles.get(id));
+        }
+
+        // ✅ two threads may build it at the same time; both results are equal, one wins
+        DataSnapshot graph() {
+            DataSnapshot g = graph;
+            if (g == null) {
+                g = tables().graph();
+                graph = g;
+            }
+            return g;
+        }
+
+        Index index() {
+            Index i = index;
+            if (i == null) {
+                i = Index.build(this);
+                index = i;
+            }
+            return i;
+        }
+
+        CachedPayload snapshotReply() {
+            CachedPayload r = snapshotReply;
+            if (r == null) {
+                synchronized (this) {
+                    if ((r = snapshotReply) == null) snapshotReply = r = new CachedPayload(graph());
+                }
+            }
+            return r;
+        }
+
+        CachedPayload fullChangesReply() {
+            CachedPayload r = fullChangesReply;
+            if (r == null) {
+                synchronized (this) {
+                    if ((r = fullChangesReply) == null) {
+                        fullChangesReply = r = new CachedPayload(ChangeSet.full(epoch, version, graph()));
+                    }
+                }
+            }
+            return r;
+        }
+
+        Tables tables() {
+            return new Tables(studentCreds, teacherCreds, studentProfiles, teacherProfiles,
+                    courses, enrollments, assignments);
+        }
+    }
+
+    // =========================
+    // MUTATION (copy-on-write)
+    // =========================
+    /**
+     * Applies file lines to a copy of a State. Only the maps that are touched get copied.
+     * In write mode it also records the Changes a client needs to end up with the same graph.
+     */
+    private static final class Mutation {
+        private final State base;
+        private final List<Change> changes = new ArrayList<>();
+        private final RecordTokenizer tokens = new RecordTokenizer(); // one per Mutation: one thread
+
+        // ✅ start as the base's tables; each change makes a new version sharing the rest with it
+        private PersistentMap<Integer, Cred> studentCreds;
+        private PersistentMap<Integer, Cred> teacherCreds;
+        private PersistentMap<Integer, Profile> studentProfiles;
+        private PersistentMap<Integer, Profile> teacherProfiles;
+        private PersistentMap<String, CourseRec> courses;
+        private PersistentSet<Link> enrollments;
+        private PersistentSet<Link> assignments;
+
+        // ✅ load() fills plain collections, one per table clear() emptied; result() makes each
+        // persistent in one pass (a with() per loaded line would copy a path per line)
+        private final Map<String, Object> loading = new HashMap<>();
+
+        // the base's lookup index, edited along (null: the result builds its own when first asked)
+        private IndexEdit index;
+        private boolean reloading; // load() / clear(): the result builds its index from the new data
+
+        Mutation(State base) {
+            this.base = base;
+            studentCreds = base.studentCreds;
+            teacherCreds = base.teacherCreds;
+            studentProfiles = base.studentProfiles;
+            teacherProfiles = base.teacherProfiles;
+            courses = base.courses;
+            enrollments = base.enrollments;
+            assignments = base.assignments;
+        }
+
+        /** Startup load / reload of a file clear() emptied: same "first approved line wins" rules as before. */
+        void load(String file, String line) {
+            reloading = true;
+            if (line == null || line.isBlank()) return;
+
+            switch (file) {
+                case STUDENT_CRED, TEACHER_CRED -> {
+                    Map.Entry<Integer, Cred> e = parseCred(tokens, line);
+                    if (e == null) return;
+                    Map<Integer, Cred> creds = loading(file);
+                    Cred old = creds.get(e.getKey());
+                    if (old == null || !old.approved()) creds.put(e.getKey(), e.getValue());
+                }
+                case STUDENT_PROFILES, TEACHER_PROFILES -> {
+                    Map.Entry<Integer, Profile> e = parseProfile(tokens, line);
+                    if (e == null) return;
+                    this.<Map<Integer, Profile>>loading(file).put(e.getKey(), e.getValue());
+                }
+                case COURSES -> {
+                    CourseRec c = parseCourse(tokens, line);
+                    if (c != null) this.<Map<String, CourseRec>>loading(COURSES).putIfAbsent(c.id().toLowerCase(), c);
+                }
+                case ENROLLMENTS, STUDENT_COURSES -> {
+                    Link l = parseLink(tokens, line);
+                    if (l != null) this.<Set<Link>>loading(ENROLLMENTS).add(l);
+                }
+                case ASSIGNMENTS -> {
+                    Link l = parseLink(tokens, line);
+                    if (l != null) this.<Set<Link>>loading(ASSIGNMENTS).add(l);
+                }
+                default -> { }
+            }
+        }
+
+        /** Same as load(), for a range of a link file (already parsed). */
+        void loadLinks(String file, List<Link> links) {
+            reloading = true;
+            this.<Set<Link>>loading(file.equals(ASSIGNMENTS) ? ASSIGNMENTS : ENROLLMENTS).addAll(links);
+        }
+
+        /** Before loading a file: forget what was loaded from it (the enrollment files share one set). */
+        void clear(String file) {
+            reloading = true;
+            switch (file) {
+                case STUDENT_CRED, TEACHER_CRED, COURSES -> loading.put(file, new LinkedHashMap<>());
+                case STUDENT_PROFILES, TEACHER_PROFILES -> loading.put(file, new HashMap<>());
+                case ENROLLMENTS, STUDENT_COURSES -> loading.put(ENROLLMENTS, new LinkedHashSet<>());
+                case ASSIGNMENTS -> loading.put(ASSIGNMENTS, new LinkedHashSet<>());
+                default -> { }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T loading(String table) {
+            Object t = loading.get(table);
+            if (t == null) throw new IllegalStateException(table + " loaded without clear()");
+            return (T) t;
+        }
+
+        /** A line the server just wrote (upsert for credentials/profiles, append for the rest). */
+        void apply(String file, String line) {
+            if (line == null || line.isBlank()) return;
+
+            switch (file) {
+                case STUDENT_CRED, STUDENT_PROFILES -> {
+                    boolean cred = file.equals(STUDENT_CRED);
+                    Integer id = cred ? idOf(parseCred(tokens, line)) : idOf(parseProfile(tokens, line));
+                    if (id == null) return;
+
+                    PersonView before = view(Change.Entity.STUDENT, id);
+                    if (cred) studentCreds = studentCreds.with(id, parseCred(tokens, line).getValue());
+                    else studentProfiles = studentProfiles.with(id, parseProfile(tokens, line).getValue());
+                    personChanged(Change.Entity.STUDENT, id, before);
+                }
+                case TEACHER_CRED, TEACHER_PROFILES -> {
+                    boolean cred = file.equals(TEACHER_CRED);
+                    Integer id = cred ? idOf(parseCred(tokens, line)) : idOf(parseProfile(tokens, line));
+                    if (id == null) return;
+
+                    PersonView before = view(Change.Entity.TEACHER, id);
+                    if (cred) teacherCreds = teacherCreds.with(id, parseCred(tokens, line).getValue());
+                    else teacherProfiles = teacherProfiles.with(id, parseProfile(tokens, line).getValue());
+                    personChanged(Change.Entity.TEACHER, id, before);
+                }
+                case COURSES -> {
+                    // appended line: an id that already exists is ignored by the loader too
+                    CourseRec c = parseCourse(tokens, line);
+                    if (c == null || courses.containsKey(c.id().toLowerCase())) return;
+                    courses = courses.with(c.id().toLowerCase(), c);
+                    change(Change.Entity.COURSE, Change.Op.UPSERT, c.id(), c.name(), Double.toString(c.credit()));
+
+                    // links that were waiting for this course
+                    for (Link l : enrollments) {
+                        if (!l.courseId().equalsIgnoreCase(c.id())) continue;
+                        linkChange(Change.Entity.ENROLLMENT, l);
+                        index(Change.Entity.STUDENT, l);
+                    }
+                    for (Link l : assignments) {
+                        if (!l.courseId().equalsIgnoreCase(c.id())) continue;
+                        linkChange(Change.Entity.ASSIGNMENT, l);
+                        index(Change.Entity.TEACHER, l);
+                    }
+                }
+                case ENROLLMENTS, STUDENT_COURSES -> {
+                    Link l = parseLink(tokens, line);
+                    if (l != null && !enrollments.contains(l)) {
+                        enrollments = enrollments.with(l);
+                        linkChange(Change.Entity.ENROLLMENT, l);
+                        index(Change.Entity.STUDENT, l);
+                    }
+                }
+                case ASSIGNMENTS -> {
+                    Link l = parseLink(tokens, line);
+                    if (l != null && !assignments.contains(l)) {
+                        assignments = assignments.with(l);
+                        linkChange(Change.Entity.ASSIGNMENT, l);
+                        index(Change.Entity.TEACHER, l);
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        /** Delete with everything that points at it. false = not there. */
+        boolean remove(Change.Entity entity, String key) {
+            if (key == null || key.isBlank()) return false;
+
+            switch (entity) {
+                case COURSE -> {
+                    String k = key(key);
+                    CourseRec c = courses.get(k);
+                    if (c == null) return false;
+
+                    courses = courses.without(k);
+                    enrollments = enrollments.withoutIf(l -> key(l.courseId()).equals(k));
+                    assignments = assignments.withoutIf(l -> key(l.courseId()).equals(k));
+                    IndexEdit e = indexEdit();
+                    if (e != null) {
+                        e.students.removeCourse(k);
+                        e.teachers.removeCourse(k);
+                    }
+                    change(Change.Entity.COURSE, Change.Op.DELETE, c.id()); // clients drop its links with it
+                    return true;
+                }
+                case STUDENT, TEACHER -> {
+                    Integer id = parseId(key);
+                    boolean student = entity == Change.Entity.STUDENT;
+                    Map<Integer, Cred> creds = student ? studentCreds : teacherCreds;
+                    if (id == null || !creds.containsKey(id)) return false;
+
+                    PersonView before = view(entity, id);
+                    if (student) {
+                        studentCreds = studentCreds.without(id);
+                        studentProfiles = studentProfiles.without(id);
+                        enrollments = enrollments.withoutIf(l -> l.personId() == id);
+                    } else {
+                        teacherCreds = teacherCreds.without(id);
+                        teacherProfiles = teacherProfiles.without(id);
+                        assignments = assignments.withoutIf(l -> l.personId() == id);
+                    }
+                    personChanged(entity, id, before); // DELETE if clients could see it
+                    return true;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        private void personChanged(Change.Entity entity, int id, PersonView before) {
+            PersonView after = view(entity, id);
+            if (Objects.equals(before, after)) return;
+
+            String key = Integer.toString(id);
+            if (after == null) {
+                change(entity, Change.Op.DELETE, key);
+                IndexEdit e = indexEdit();
+                if (e != null) (entity == Change.Entity.STUDENT ? e.students : e.teachers).removePerson(id);
+                return;
+            }
+            change(entity, Change.Op.UPSERT, key, after.name(), after.password(),
+                    after.imagePath() == null ? "" : after.imagePath());
+
+            if (before == null) {
+                // ✅ newly visible person: send the links the client skipped while it didn't know them
+                Set<Link> links = entity == Change.Entity.STUDENT ? enrollments : assignments;
+                Change.Entity linkEntity = entity == Change.Entity.STUDENT ? Change.Entity.ENROLLMENT : Change.Entity.ASSIGNMENT;
+                for (Link l : links) {
+                    if (l.personId() != id) continue;
+                    linkChange(linkEntity, l);
+                    index(entity, l);
+                }
+            }
+        }
+
+        private PersonView view(Change.Entity entity, int id) {
+            return entity == Change.Entity.STUDENT
+                    ? StoreRecords.view(studentCreds.get(id), studentProfiles.get(id))
+                    : StoreRecords.view(teacherCreds.get(id), teacherProfiles.get(id));
+        }
+
+        // a link the lookups can see now: its person is approved and its course exists
+        private void index(Change.Entity person, Link l) {
+            IndexEdit e = indexEdit();
+            if (e == null || view(person, l.personId()) == null) return;
+            CourseRec c = courses.get(key(l.courseId()));
+            (person == Change.Entity.STUDENT ? e.students : e.teachers).add(l.personId(), c);
+        }
+
+        private IndexEdit indexEdit() {
+            if (index == null && !reloading && base.index != null) index = new IndexEdit(base.index);
+            return reloading ? null : index;
+        }
+
+        private void linkChange(Change.Entity entity, Link l) {
+            String personId = Integer.toString(l.personId());
+            change(entity, Change.Op.UPSERT, personId + "," + l.courseId(), personId, l.courseId());
+        }
+
+        private void change(Change.Entity entity, Change.Op op, String key, String... fields) {
+            changes.add(new Change(base.version + changes.size() + 1, entity, op, key, List.of(fields)));
+        }
+
+        State result() {
+            if (loading.containsKey(STUDENT_CRED)) studentCreds = PersistentMap.copyOf(loading(STUDENT_CRED));
+            if (loading.containsKey(TEACHER_CRED)) teacherCreds = PersistentMap.copyOf(loading(TEACHER_CRED));
+            if (loading.containsKey(STUDENT_PROFILES)) studentProfiles = PersistentMap.copyOf(loading(STUDENT_PROFILES));
+            if (loading.containsKey(TEACHER_PROFILES)) teacherProfiles = PersistentMap.copyOf(loading(TEACHER_PROFILES));
+            if (loading.containsKey(COURSES)) courses = PersistentMap.copyOf(loading(COURSES));
+            if (loading.containsKey(ENROLLMENTS)) enrollments = PersistentSet.copyOf(loading(ENROLLMENTS));
+            if (loading.containsKey(ASSIGNMENTS)) assignments = PersistentSet.copyOf(loading(ASSIGNMENTS));
+            loading.clear();
+
+            State s = new State(base.epoch, base.version + changes.size(), studentCreds, teacherCreds,
+                    studentProfiles, teacherProfiles, courses, enrollments, assignments);
+            if (!reloading) s.index = index != null ? index.result() : base.index;
+            return s;
+        }
+    }
+
+    // =========================
+    // LINE PARSING (same formats the controllers write)
+    // =========================
+    // id,name,pass,approved
+    private static Map.Entry<Integer, Cred> parseCred(RecordTokenizer t, String line) {
+        t.reset(line, ',');
+        if (t.splitLength() != 4) return null;
+        Integer id = parseId(t);
+        if (id == null) return null;
+        return Map.entry(id, new Cred(t.next(), t.next(), t.nextBoolean()));
+    }
+
+    // id,name,pass,imagePath  (blank = keep the credential value; the image path may hold commas)
+    private static Map.Entry<Integer, Profile> parseProfile(RecordTokenizer t, String line) {
+        t.reset(line, ',');
+        if (t.fields() < 2) return null;
+        Integer id = parseId(t);
+        if (id == null) return null;
+        String name = t.next();
+        String password = t.hasNext() ? t.next() : "";
+        String imagePath = t.hasNext() ? t.rest() : "";
+        return Map.entry(id, new Profile(name, password, imagePath));
+    }
+
+    // courseId,courseName,credit
+    private static CourseRec parseCourse(RecordTokenizer t, String line) {
+        t.reset(line, ',');
+        if (t.splitLength() != 3) return null;
+        try {
+            Course c = new Course(t.next(), t.next(), t.nextDouble()); // validates
+            return new CourseRec(c.getCourseID(), c.getCourseName(), c.getCredit());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // personId,courseId  (StudentCourses.txt uses ';')
+    private static Link parseLink(RecordTokenizer t, String line) {
+        return parseLink(t.reset(line, ','));
+    }
+
+    // t is at the start of the line
+    private static Link parseLink(RecordTokenizer t) {
+        if (t.contains(';')) t.rewind(';');
+        if (t.fields() < 2) return null;
+        Integer id = parseId(t);
+        if (id == null) return null;
+        String courseId = t.rest();
+        return courseId.isEmpty() ? null : new Link(id, courseId);
+    }
+
+    private static Integer parseId(RecordTokenizer t) {
+        try {
+            return t.nextInt();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseId(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <V> Integer idOf(Map.Entry<Integer, V> e) {
+        return e == null ? null : e.getKey();
+    }
+}
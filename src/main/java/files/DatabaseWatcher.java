@@ -0,0 +1,145 @@
+// ✅ files/DatabaseWatcher.java
+package files;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Tells the server's caches (DataStore, RelationIndex) which database files changed, so
+ * they reread them in the background rather than in a request. It is only a hint: events
+ * come debounceMs late, so requests still compare the files' size/mtime.
+ *
+ * - events are debounced: a burst on one file (an editor saving, a script appending line
+ *   by line) is reported once, debounceMs after the last event; a steady stream is still
+ *   reported at least every 10 x debounceMs
+ * - names are reported lower-case; null means events were lost (OVERFLOW): check everything
+ * - the server's own writes are reported too: listeners compare stamps and skip what they wrote
+ * - if the directory can't be watched, or stops being watchable, isRunning() turns false
+ *   and edits are reread by the request that notices them
+ */
+public final class DatabaseWatcher implements Closeable {
+
+    // ✅ -Dcoursesphere.watch=false : no watcher, edits are reread by the request that notices them
+    public static final String PROPERTY = "coursesphere.watch";
+    // ✅ -Dcoursesphere.watch.debounceMs=N : quiet time before a burst of changes is reported
+    public static final String DEBOUNCE_PROPERTY = "coursesphere.watch.debounceMs";
+
+    /** Changed files (lower-case names), or null if anything may have changed. */
+    @FunctionalInterface
+    public interface Listener {
+        void changed(Set<String> files);
+    }
+
+    private static final class Shared {
+        static final DatabaseWatcher INSTANCE = Boolean.parseBoolean(System.getProperty(PROPERTY, "true"))
+                ? start(Paths.get("database"), Long.getLong(DEBOUNCE_PROPERTY, 200))
+                : null;
+    }
+
+    /** The watcher of database/, or null if it is turned off or can't run. */
+    public static DatabaseWatcher shared() {
+        return Shared.INSTANCE;
+    }
+
+    private final Path dir;
+    private final WatchService service;
+    private final long debounceNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    private DatabaseWatcher(Path dir, WatchService service, long debounceMs) {
+        this.dir = dir;
+        this.service = service;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, debounceMs));
+    }
+
+    /** @return null if `dir` can't be watched */
+    public static DatabaseWatcher start(Path dir, long debounceMs) {
+        try {
+            WatchService service = dir.getFileSystem().newWatchService();
+            dir.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+            DatabaseWatcher w = new DatabaseWatcher(dir, service, debounceMs);
+            Thread t = new Thread(w::run, "database-watcher");
+            t.setDaemon(true);
+            t.start();
+            System.out.println("✅ Watching " + dir + " for outside edits (debounce " + debounceMs + " ms)");
+            return w;
+        } catch (IOException | UnsupportedOperationException e) {
+            System.out.println("⚠️ Can't watch " + dir + ", data files are checked per request: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        service.close();
+    }
+
+    // =========================
+    // WATCH LOOP
+    // =========================
+    private void run() {
+        try {
+            while (running) {
+                Set<String> changed = new HashSet<>();
+                boolean overflow = drain(service.take(), changed);
+
+                // ✅ debounce: report once the directory has been quiet for debounceNanos
+                long deadline = System.nanoTime() + debounceNanos * 10;
+                while (running) {
+                    long wait = Math.min(debounceNanos, deadline - System.nanoTime());
+                    if (wait <= 0) break;
+                    WatchKey more = service.poll(wait, TimeUnit.NANOSECONDS);
+                    if (more == null) break;
+                    overflow |= drain(more, changed);
+                }
+
+                notifyListeners(overflow || !running ? null : changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        } finally {
+            running = false;
+        }
+    }
+
+    // true if events were lost; a key that can't be reset (directory gone) stops the watcher
+    private boolean drain(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> e : key.pollEvents()) {
+            if (e.kind() == OVERFLOW) overflow = true;
+            else if (e.context() instanceof Path p) changed.add(p.getFileName().toString().toLowerCase());
+        }
+        if (!key.reset()) {
+            System.out.println("⚠️ " + dir + " can't be watched any more, data files are checked per request");
+            running = false;
+        }
+        return overflow;
+    }
+
+    private void notifyListeners(Set<String> changed) {
+        Set<String> files = changed == null ? null : Collections.unmodifiableSet(changed);
+        for (Listener l : listeners) {
+            try {
+                l.changed(files);
+            } catch (RuntimeException | InternalError e) { // InternalError: a fault on a mapped file
+                System.out.println("❌ Database watcher listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+// ✅ files/LockManager.java
+package files;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read/write locks for server writes, per file and per record (a line's first field).
+ *
+ * - a record lock also takes its file in READ mode: writes to different records of one file
+ *   run side by side, while a whole-file operation (a rewrite upsert, a cascading delete)
+ *   takes the file in WRITE mode and waits for them
+ * - records share a fixed set of striped locks (hash of file + key), so nothing grows with
+ *   the data; two keys on the same stripe just wait for each other
+ * - everything one operation needs is taken in ONE acquire(), always in the same order
+ *   (files by path, then stripes by number), so multi-file operations can't deadlock.
+ *   Don't call acquire() again while holding a Held.
+ */
+public final class LockManager {
+
+    // ✅ -Dcoursesphere.locks.stripes=N : record lock stripes
+    public static final String STRIPES_PROPERTY = "coursesphere.locks.stripes";
+
+    public enum Mode { READ, WRITE }
+
+    /** One thing to lock; key == null means the whole file. */
+    public record Request(Path file, String key, Mode mode) {
+
+        public static Request file(Path file, Mode mode) {
+            return new Request(file, null, mode);
+        }
+
+        public static Request record(Path file, String key, Mode mode) {
+            return new Request(file, key == null ? "" : key, mode);
+        }
+    }
+
+    /** The locks of one acquire(); close() releases them all. */
+    public interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Shared {
+        static final LockManager INSTANCE = new LockManager(Integer.getInteger(STRIPES_PROPERTY, 64));
+    }
+
+    public static LockManager shared() {
+        return Shared.INSTANCE;
+    }
+
+    private final Map<Path, ReentrantReadWriteLock> files = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] stripes;
+
+    public LockManager(int stripeCount) {
+        stripes = new ReentrantReadWriteLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new ReentrantReadWriteLock();
+    }
+
+    public Held acquire(Request... requests) {
+        return acquire(Arrays.asList(requests));
+    }
+
+    public Held acquire(Collection<Request> requests) {
+        // ✅ one mode per lock (WRITE wins): a READ can't be upgraded later, so merge up front
+        TreeMap<String, Mode> fileModes = new TreeMap<>();
+        Map<String, Path> paths = new HashMap<>();
+        TreeMap<Integer, Mode> stripeModes = new TreeMap<>();
+
+        for (Request r : requests) {
+            Path p = r.file().toAbsolutePath().normalize();
+            String f = p.toString();
+            paths.putIfAbsent(f, p);
+            if (r.key() == null) {
+                fileModes.merge(f, r.mode(), LockManager::stronger);
+            } else {
+                fileModes.merge(f, Mode.READ, LockManager::stronger);
+                stripeModes.merge(stripe(f, r.key()), r.mode(), LockManager::stronger);
+            }
+        }
+
+        List<Lock> taken = new ArrayList<>(fileModes.size() + stripeModes.size());
+        try {
+            for (Map.Entry<String, Mode> e : fileModes.entrySet()) {
+                ReentrantReadWriteLock rw = files.computeIfAbsent(paths.get(e.getKey()), k -> new ReentrantReadWriteLock());
+                take(rw, e.getValue(), taken);
+            }
+            for (Map.Entry<Integer, Mode> e : stripeModes.entrySet()) {
+                take(stripes[e.getKey()], e.getValue(), taken);
+            }
+        } catch (RuntimeException | Error e) {
+            release(taken);
+            throw e;
+        }
+
+        return new Held() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                if (closed) return;
+                closed = true;
+                release(taken);
+            }
+        };
+    }
+
+    private int stripe(String file, String key) {
+        int h = file.hashCode() * 31 + key.trim().toLowerCase().hashCode();
+        h ^= h >>> 16;
+        return Math.floorMod(h, stripes.length);
+    }
+
+    private static void take(ReentrantReadWriteLock rw, Mode mode, List<Lock> taken) {
+        Lock l = mode == Mode.WRITE ? rw.writeLock() : rw.readLock();
+        l.lock();
+        taken.add(l);
+    }
+
+    private static void release(List<Lock> taken) {
+        for (int i = taken.size() - 1; i >= 0; i--) taken.get(i).unlock();
+    }
+
+    private static Mode stronger(Mode a, Mode b) {
+        return a == Mode.WRITE || b == Mode.WRITE ? Mode.WRITE : Mode.READ;
+    }
+}
@@ -0,0 +1,426 @@
+// ✅ files/LogUpsertStorage.java
+package files;
+
+import files.Server.GroupCommitWriter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Upserts / deletes go to an append-only log next to the file (StudentCredentials.txt.wal),
+ * so a write costs one append however big the file is. The text file is brought up to
+ * date by a background compactor.
+ *
+ *   record = [int length][byte op][UTF-8 line (UPSERT) or key (DELETE)]   (length = 1 + bytes)
+ *
+ * - in memory, per file: id -> offset of its newest record (plus ids deleted since the
+ *   last compaction); lines() = text file + those records, same rules as a rewrite
+ * - compaction: merge into a temp file without blocking writers, then (through the
+ *   guard, under the store lock) swap it in and cut the merged part off the log.
+ *   If the text file changed meanwhile it gives up and tries again next time
+ * - a crash between the swap and the cut only replays records that are already in
+ *   the file; upserts and deletes are idempotent, so the result is the same
+ * - a torn record at the end of the log (crash while appending) is dropped on open
+ * - durability follows -Dcoursesphere.append.durability: with force, an upsert / delete
+ *   returns only after the log is forced to disk, and compaction forces the new text file
+ *   before the log is cut; with flush (default), once the OS has the bytes
+ *
+ * Readers that open the text file directly (instead of lines()) see the writes only after
+ * the next compaction, at most compactMs later.
+ */
+public final class LogUpsertStorage implements UpsertStorage {
+
+    // ✅ -Dcoursesphere.upsert.compactMs=N : how often the compactor looks at the logs
+    public static final String COMPACT_MS_PROPERTY = "coursesphere.upsert.compactMs";
+    // ✅ -Dcoursesphere.upsert.compactRecords=N : compact right away once a log has N records
+    public static final String COMPACT_RECORDS_PROPERTY = "coursesphere.upsert.compactRecords";
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final int MAX_RECORD = 1 << 20;
+
+    private final Guard guard;
+    private final int compactRecords;
+    private final boolean force;
+    private final Map<Path, Log> logs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService compactor;
+
+    public LogUpsertStorage(Guard guard) {
+        this(guard, Long.getLong(COMPACT_MS_PROPERTY, 5_000L), Integer.getInteger(COMPACT_RECORDS_PROPERTY, 50_000),
+                GroupCommitWriter.configuredDurability());
+    }
+
+    public LogUpsertStorage(Guard guard, long compactMs, int compactRecords, GroupCommitWriter.Durability durability) {
+        this.guard = guard;
+        this.compactRecords = Math.max(1, compactRecords);
+        this.force = durability == GroupCommitWriter.Durability.FORCE;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "upsert-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(10, compactMs);
+        compactor.scheduleWithFixedDelay(this::compactAll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void upsert(Path file, List<String> lines) throws IOException {
+        Log log = log(file);
+        if (log.append(lines) >= compactRecords) compactor.execute(() -> compactQuietly(log));
+    }
+
+    @Override
+    public void delete(Path file, String key) throws IOException {
+        log(file).delete(key);
+    }
+
+    @Override
+    public List<String> lines(Path file) throws IOException {
+        return log(file).lines();
+    }
+
+    /** Stops the compactor and writes everything back to the text files. */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Log log : logs.values()) {
+            log.compact();
+            log.closeChannel();
+        }
+    }
+
+    private Log log(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        try {
+            return logs.computeIfAbsent(key, k -> {
+                try {
+                    return new Log(k);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void compactAll() {
+        for (Log log : logs.values()) compactQuietly(log);
+    }
+
+    private void compactQuietly(Log log) {
+        try {
+            log.compact();
+        } catch (Exception e) {
+            System.out.println("❌ Compaction of " + log.file + " failed: " + e.getMessage());
+        }
+    }
+
+    // =========================
+    // ONE FILE
+    // =========================
+    private final class Log {
+        final Path file;
+        final Path wal;
+        final ReentrantLock lock = new ReentrantLock();
+
+        // guarded by lock
+        FileChannel ch;                                         // null until the first record
+        long end;
+        int records;
+        long fileWrites;                                        // our own appends to the text file
+        final LinkedHashMap<String, Long> latest = new LinkedHashMap<>(); // id -> newest UPSERT offset
+        final Set<String> deleted = new HashSet<>();            // ids deleted since the last compaction
+
+        Log(Path file) throws IOException {
+            this.file = file;
+            this.wal = file.resolveSibling(file.getFileName() + ".wal");
+            if (Files.exists(wal)) {
+                open();
+                recover();
+            }
+        }
+
+        private void open() throws IOException {
+            ch = FileChannel.open(wal, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        void closeChannel() throws IOException {
+            lock.lock();
+            try {
+                if (ch != null) ch.close();
+                ch = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** @return records in the log after this append */
+        int append(List<String> lines) throws IOException {
+            lock.lock();
+            try {
+                List<String> unkeyed = new ArrayList<>();
+                List<String> keys = new ArrayList<>(lines.size());
+                List<byte[]> bodies = new ArrayList<>(lines.size());
+                int size = 0;
+                for (String line : lines) {
+                    String key = UpsertStorage.firstField(line);
+                    if (key.isBlank()) {
+                        unkeyed.add(line); // nothing to replace: plain append, like the rewrite does
+                        continue;
+                    }
+                    byte[] body = line.getBytes(StandardCharsets.UTF_8);
+                    keys.add(key);
+                    bodies.add(body);
+                    size += Integer.BYTES + 1 + body.length;
+                }
+
+                if (!bodies.isEmpty()) {
+                    ByteBuffer buf = ByteBuffer.allocate(size);
+                    long[] offsets = new long[bodies.size()];
+                    for (int i = 0; i < bodies.size(); i++) {
+                        offsets[i] = end + buf.position();
+                        buf.putInt(1 + bodies.get(i).length).put(UPSERT).put(bodies.get(i));
+                    }
+                    writeAtEnd(buf.flip());
+                    for (int i = 0; i < offsets.length; i++) latest.put(keys.get(i), offsets[i]);
+                    records += offsets.length;
+                }
+
+                if (!unkeyed.isEmpty()) {
+                    Files.write(file, unkeyed, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    if (force) forceFile(file);
+                    fileWrites++;
+                }
+                return records;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void delete(String key) throws IOException {
+            if (key == null || key.isBlank()) return;
+            lock.lock();
+            try {
+                byte[] body = key.trim().getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buf = ByteBuffer.allocate(Integer.BYTES + 1 + body.length);
+                buf.putInt(1 + body.length).put(DELETE).put(body).flip();
+                writeAtEnd(buf);
+                latest.remove(key.trim());
+                deleted.add(key.trim());
+                records++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // lock held
+        private void writeAtEnd(ByteBuffer buf) throws IOException {
+            if (ch == null) open();
+            long pos = end;
+            while (buf.hasRemaining()) pos += ch.write(buf, pos);
+            // ✅ before the caller acknowledges the write
+            if (force) ch.force(false);
+            end = pos;
+        }
+
+        List<String> lines() throws IOException {
+            lock.lock();
+            try {
+                return merged(new ArrayList<>(latest.values()), new HashSet<>(deleted));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // text file without the deleted ids, then the newest record of every id upserted on top
+        private List<String> merged(List<Long> offsets, Set<String> deletedIds) throws IOException {
+            List<String> base = new ArrayList<>();
+            if (Files.exists(file)) {
+                for (String line : Files.readAllLines(file)) {
+                    if (deletedIds.isEmpty() || !deletedIds.contains(UpsertStorage.firstField(line))) base.add(line);
+                }
+            }
+            List<String> upserts = new ArrayList<>(offsets.size());
+            for (long off : offsets) upserts.add(readLine(off));
+            return RewriteUpsertStorage.merge(base, upserts);
+        }
+
+        private String readLine(long offset) throws IOException {
+            ByteBuffer head = ByteBuffer.allocate(Integer.BYTES + 1);
+            readFully(head, offset);
+            int length = head.flip().getInt();
+            ByteBuffer body = ByteBuffer.allocate(length - 1);
+            readFully(body, offset + Integer.BYTES + 1);
+            return new String(body.array(), StandardCharsets.UTF_8);
+        }
+
+        private void readFully(ByteBuffer buf, long pos) throws IOException {
+            while (buf.hasRemaining()) {
+                int n = ch.read(buf, pos);
+                if (n < 0) throw new EOFException("Upsert log " + wal + " ends at " + pos);
+                pos += n;
+            }
+        }
+
+        /** Merge the log into the text file and drop the merged records. */
+        void compact() throws IOException {
+            long upTo;
+            List<Long> offsets;
+            Set<String> deletedIds;
+            long writesBefore;
+            lock.lock();
+            try {
+                if (records == 0) return;
+                upTo = end;
+                offsets = new ArrayList<>(latest.values());
+                deletedIds = new HashSet<>(deleted);
+                writesBefore = fileWrites;
+            } finally {
+                lock.unlock();
+            }
+
+            // ✅ the slow part (read + merge + write) runs while writers keep appending
+            long t0 = System.nanoTime();
+            Stamp before = Stamp.of(file);
+            List<String> out = merged(offsets, deletedIds);
+            Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+            Files.write(tmp, out);
+            // the log is cut after the swap: the merged file must be on disk first
+            if (force) forceFile(tmp);
+
+            boolean[] swapped = {false};
+            boolean ran = guard.run(() -> {
+                lock.lock();
+                try {
+                    if (fileWrites != writesBefore || !Stamp.of(file).equals(before)) return; // changed: next time
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    cutHead(upTo);
+                    swapped[0] = true;
+                } finally {
+                    lock.unlock();
+                }
+            });
+
+            if (!ran || !swapped[0]) {
+                Files.deleteIfExists(tmp);
+                System.out.println("⚠️ " + file.getFileName() + " changed during compaction, will retry");
+                return;
+            }
+            System.out.printf("🧹 Compacted %s: %d lines, %d records left in log (%.1f ms)%n",
+                    file.getFileName(), out.size(), records, (System.nanoTime() - t0) / 1e6);
+        }
+
+        // lock held: keep only the records after upTo (appended during the merge)
+        private void cutHead(long upTo) throws IOException {
+            if (upTo == end) {
+                // ✅ nothing came in meanwhile: no log file left behind
+                ch.close();
+                ch = null;
+                Files.deleteIfExists(wal);
+                latest.clear();
+                deleted.clear();
+                records = 0;
+                end = 0;
+                return;
+            }
+
+            Path tmp = wal.resolveSibling(wal.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long pos = upTo;
+                while (pos < end) pos += ch.transferTo(pos, end - pos, out);
+                if (force) out.force(false);
+            }
+            ch.close();
+            Files.move(tmp, wal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+            recover();
+        }
+
+        // lock held (or constructor): rebuild the index from the log, drop a torn tail
+        private void recover() throws IOException {
+            latest.clear();
+            deleted.clear();
+            records = 0;
+
+            long size = ch.size();
+            long pos = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(streamFrom(ch)))) {
+                while (pos + Integer.BYTES + 1 <= size) {
+                    int length = in.readInt();
+                    if (length < 1 || length > MAX_RECORD || pos + Integer.BYTES + length > size) break;
+                    byte op = in.readByte();
+                    byte[] body = new byte[length - 1];
+                    in.readFully(body);
+                    String text = new String(body, StandardCharsets.UTF_8);
+
+                    if (op == UPSERT) {
+                        latest.put(UpsertStorage.firstField(text), pos);
+                    } else if (op == DELETE) {
+                        latest.remove(text);
+                        deleted.add(text);
+                    } else {
+                        break;
+                    }
+                    records++;
+                    pos += Integer.BYTES + length;
+                }
+            }
+
+            if (pos < size) {
+                System.out.println("⚠️ Dropping " + (size - pos) + " torn bytes at the end of " + wal);
+                ch.truncate(pos);
+            }
+            end = pos;
+            if (records > 0) System.out.println("✅ Recovered " + records + " records from " + wal.getFileName());
+        }
+    }
+
+    private record Stamp(long modified, long size) {
+        static Stamp of(Path p) {
+            try {
+                return new Stamp(Files.getLastModifiedTime(p).toMillis(), Files.size(p));
+            } catch (IOException e) {
+                return new Stamp(-1, -1);
+            }
+        }
+    }
+
+    private static void forceFile(Path p) throws IOException {
+        try (FileChannel c = FileChannel.open(p, StandardOpenOption.WRITE)) {
+            c.force(true);
+        }
+    }
+
+    // a stream over the channel from position 0 that leaves the channel open
+    private static InputStream streamFrom(FileChannel ch) {
+        return new InputStream() {
+            private long pos;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = ch.read(ByteBuffer.wrap(b, off, len), pos);
+                if (n > 0) pos += n;
+                return n;
+            }
+        };
+    }
+}
@@ -0,0 +1,584 @@
+// ✅ files/MappedRecordFile.java
+package files;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A "one line per id" file (credentials, profiles) kept as fixed-width slots in a
+ * memory-mapped file, plus an on-disk open-addressing index id -> slot.
+ * Reading or replacing one id touches one index probe and one slot, not the whole file.
+ *
+ *   StudentCredentials.dat = [header 64][slot 0][slot 1]...
+ *                   slot   = [byte state][short length][UTF-8 line][padding to slotSize]
+ *   StudentCredentials.idx = [header 32][entry 0][entry 1]...      (linear probing)
+ *                   entry  = [int id][int slot + 1]   (0 = empty, -1 = removed)
+ *
+ * Same rules as rewriting the text file: a line replaces the first line with its id
+ * (in place), new ids go at the end, lines() gives them back in file order.
+ * Duplicate ids / non-numeric keys from the text file are kept as unindexed slots.
+ * The length is a short, so a line is at most MAX_LINE bytes; longer ones are refused.
+ * The index is derived data: if it's missing or doesn't match the slots, it's rebuilt.
+ * remove() only marks slots REMOVED; reimport() starts from fresh slots and compact()
+ * (after an export) moves the live ones down, so removed slots don't pile up.
+ *
+ * Not thread-safe; MappedUpsertStorage locks around it.
+ *
+ * Migration tool:
+ *   java files.MappedRecordFile import [dir=database]   text files -> .dat/.idx
+ *   java files.MappedRecordFile export [dir=database]   .dat -> text files
+ *   java files.MappedRecordFile get <file.txt> <id>
+ */
+public final class MappedRecordFile implements Closeable {
+
+    public static final int DEFAULT_SLOT_SIZE = 256;
+
+    private static final int DAT_MAGIC = 0x43535246; // "CSRF"
+    private static final int IDX_MAGIC = 0x43534958; // "CSIX"
+    private static final int VERSION = 1;
+
+    // .dat header
+    private static final int HEADER = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOT_SIZE = 8;
+    private static final int H_COUNT = 12;        // slots used (live + removed)
+    private static final int H_TEXT_MODIFIED = 16; // text file stamp at the last import/export
+    private static final int H_TEXT_SIZE = 24;
+    private static final int H_DIRTY = 32;        // 1 = changed since the last export
+    private static final int H_UNINDEXED = 36;    // live slots not in the index
+
+    // .idx header
+    private static final int IDX_HEADER = 32;
+    private static final int X_MAGIC = 0;
+    private static final int X_CAPACITY = 4;
+    private static final int X_SIZE = 8;
+    private static final int X_REMOVED = 12;
+    private static final int X_DAT_COUNT = 16;    // H_COUNT when the index was last written
+
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+    private static final int SLOT_HEAD = 3;       // state + length
+    public static final int MAX_LINE = 0xffff;    // what the short length holds
+    private static final int MAX_SLOT = SLOT_HEAD + MAX_LINE;
+
+    private final Path datPath;
+    private final Path idxPath;
+
+    private FileChannel dat;
+    private FileChannel idx;
+    private MappedByteBuffer d;
+    private MappedByteBuffer x;
+    private int slotSize;
+    private int capacity;  // slots mapped
+    private int idxCap;    // entries, power of two
+
+    private MappedRecordFile(Path datPath) {
+        this.datPath = datPath;
+        this.idxPath = sibling(datPath, ".idx");
+    }
+
+    /** StudentCredentials.txt -> StudentCredentials.dat (same directory). */
+    public static Path dataPath(Path textFile) {
+        return sibling(textFile, ".dat");
+    }
+
+    private static Path sibling(Path p, String ext) {
+        String name = p.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return p.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + ext);
+    }
+
+    // =========================
+    // OPEN / CREATE
+    // =========================
+    /** Opens an existing .dat (and its .idx, rebuilt if needed). */
+    public static MappedRecordFile open(Path datPath) throws IOException {
+        MappedRecordFile f = new MappedRecordFile(datPath);
+        f.dat = FileChannel.open(datPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = f.dat.size();
+            if (size < HEADER) throw new IOException(datPath + " is too short");
+            f.d = f.dat.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (f.d.getInt(H_MAGIC) != DAT_MAGIC || f.d.getInt(H_VERSION) != VERSION) {
+                throw new IOException(datPath + " is not a v" + VERSION + " record file");
+            }
+            f.slotSize = f.d.getInt(H_SLOT_SIZE);
+            f.capacity = (int) ((size - HEADER) / Math.max(1, f.slotSize));
+            if (f.slotSize <= SLOT_HEAD || f.slotSize > MAX_SLOT || f.count() > f.capacity) throw new IOException(datPath + " has a bad header");
+            f.openIndex();
+        } catch (IOException | RuntimeException e) {
+            f.close();
+            throw e;
+        }
+        return f;
+    }
+
+    /** Creates (or overwrites) the .dat/.idx from a text file; blank lines are dropped. */
+    public static MappedRecordFile importText(Path textFile, Path datPath, int slotSize) throws IOException {
+        MappedRecordFile f = new MappedRecordFile(datPath);
+        f.dat = FileChannel.open(datPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            f.slotSize = slotSize;
+            f.reimport(textFile);
+        } catch (IOException | RuntimeException e) {
+            f.close();
+            throw e;
+        }
+        return f;
+    }
+
+    /** Replace everything with the text file's lines (it was edited outside the server); removed slots are gone. */
+    public void reimport(Path textFile) throws IOException {
+        List<String> lines = Files.exists(textFile) ? Files.readAllLines(textFile) : List.of();
+        int longest = longest(lines);
+        if (longest > MAX_LINE) throw tooLong(textFile.getFileName().toString(), longest);
+        reset(lines, Math.max(slotSize, longest + SLOT_HEAD));
+        setTextStamp(textFile);
+        clearDirty();
+        force();
+    }
+
+    // ✅ rewrites the content inside the existing files: they only ever grow, never get
+    // truncated or replaced while mapped (Windows refuses that for mapped files)
+    private void reset(List<String> lines, int newSlotSize) throws IOException {
+        slotSize = newSlotSize;
+        long need = HEADER + (long) Math.max(1024, lines.size() + lines.size() / 4) * slotSize;
+        if (d == null || d.capacity() < need) d = dat.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(need, dat.size()));
+        capacity = (d.capacity() - HEADER) / slotSize;
+
+        for (int pos = 0; pos < HEADER; pos += 8) d.putLong(pos, 0L);
+        d.putInt(H_MAGIC, DAT_MAGIC).putInt(H_VERSION, VERSION).putInt(H_SLOT_SIZE, slotSize);
+        newIndex(tableSize(lines.size()));
+        for (String line : lines) {
+            if (line != null && !line.isBlank()) add(line);
+        }
+    }
+
+    private static int longest(List<String> lines) {
+        int max = 0;
+        for (String line : lines) {
+            if (line != null) max = Math.max(max, line.getBytes(StandardCharsets.UTF_8).length);
+        }
+        return max;
+    }
+
+    // =========================
+    // READ
+    // =========================
+    public String get(int id) {
+        int slot = find(id);
+        return slot < 0 ? null : readSlot(slot);
+    }
+
+    /** By first field; non-numeric keys are a scan (they never come up in these files). */
+    public String get(String key) {
+        Integer id = parseId(key);
+        if (id != null) return get(id);
+        int slot = scan(key);
+        return slot < 0 ? null : readSlot(slot);
+    }
+
+    /** Live lines in file order. */
+    public List<String> lines() {
+        int n = count();
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (d.get(slotPos(i)) == LIVE) out.add(readSlot(i));
+        }
+        return out;
+    }
+
+    public int size() {
+        return idxSize() + d.getInt(H_UNINDEXED);
+    }
+
+    // =========================
+    // WRITE
+    // =========================
+    /** Upsert by first field: replace the first line with that id in place, or add at the end. */
+    public void put(String line) throws IOException {
+        if (line == null) return;
+        int length = line.getBytes(StandardCharsets.UTF_8).length;
+        if (length > MAX_LINE) throw tooLong(datPath.getFileName().toString(), length);
+        if (length + SLOT_HEAD > slotSize) {
+            resize(Math.min(MAX_SLOT, Math.max(slotSize * 2, length + SLOT_HEAD)));
+        }
+
+        String key = UpsertStorage.firstField(line);
+        Integer id = parseId(key);
+        int slot = id != null ? find(id) : key.isBlank() ? -1 : scan(key);
+        if (slot >= 0) {
+            writeSlot(slot, LIVE, line);
+        } else {
+            add(line);
+        }
+        markDirty();
+    }
+
+    /** Remove every line with this first field. */
+    public boolean remove(String key) {
+        if (key == null || key.isBlank()) return false;
+        key = key.trim();
+        boolean removed = false;
+
+        Integer id = parseId(key);
+        if (id != null) {
+            int slot = find(id);
+            if (slot >= 0) {
+                d.put(slotPos(slot), REMOVED);
+                indexRemove(id);
+                removed = true;
+            }
+        }
+
+        // ✅ duplicates / non-numeric keys aren't in the index
+        if (d.getInt(H_UNINDEXED) > 0) {
+            int slot;
+            while ((slot = scan(key)) >= 0) {
+                d.put(slotPos(slot), REMOVED);
+                d.putInt(H_UNINDEXED, d.getInt(H_UNINDEXED) - 1);
+                removed = true;
+            }
+        }
+        if (removed) markDirty();
+        return removed;
+    }
+
+    /**
+     * Drops the REMOVED slots (live ones move down, file order kept) and rebuilds the index.
+     * Only when everything is exported (not dirty): a crash halfway leaves a .dat that doesn't
+     * match the text file, so the next open imports the text file again.
+     *
+     * @return false if there was nothing to do
+     */
+    public boolean compact(Path textFile) throws IOException {
+        int n = count();
+        if (isDirty() || n == size()) return false;
+
+        d.putLong(H_TEXT_MODIFIED, Long.MIN_VALUE).putLong(H_TEXT_SIZE, Long.MIN_VALUE);
+        d.force();
+
+        byte[] bytes = new byte[slotSize];
+        int live = 0;
+        for (int i = 0; i < n; i++) {
+            int pos = slotPos(i);
+            if (d.get(pos) != LIVE) continue;
+            if (live != i) {
+                d.get(pos, bytes);
+                d.put(slotPos(live), bytes);
+            }
+            live++;
+        }
+        d.putInt(H_COUNT, live);
+        rebuildIndex(tableSize(live));
+
+        setTextStamp(textFile);
+        force();
+        return true;
+    }
+
+    // append a slot; indexed unless its id is already there (duplicate) or not a number
+    private void add(String line) throws IOException {
+        int slot = count();
+        if (slot == capacity) grow();
+        writeSlot(slot, LIVE, line);
+        d.putInt(H_COUNT, slot + 1);
+
+        Integer id = parseId(UpsertStorage.firstField(line));
+        if (id != null && find(id) < 0) {
+            indexPut(id, slot);
+        } else {
+            d.putInt(H_UNINDEXED, d.getInt(H_UNINDEXED) + 1);
+        }
+        x.putInt(X_DAT_COUNT, slot + 1);
+    }
+
+    // ❌ the slot length wouldn't hold it: refuse rather than store a cut line
+    private static IOException tooLong(String file, int length) {
+        return new IOException(file + ": line of " + length + " bytes, at most " + MAX_LINE + " fit in a slot");
+    }
+
+    private void grow() throws IOException {
+        capacity = Math.max(1024, capacity * 2);
+        d = dat.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * slotSize);
+    }
+
+    // a line longer than a slot: rewrite everything with bigger slots (rare)
+    private void resize(int newSlotSize) throws IOException {
+        List<String> lines = lines();
+        long modified = d.getLong(H_TEXT_MODIFIED);
+        long size = d.getLong(H_TEXT_SIZE);
+        reset(lines, newSlotSize);
+        d.putLong(H_TEXT_MODIFIED, modified).putLong(H_TEXT_SIZE, size);
+        markDirty();
+        System.out.println("⚠️ " + datPath.getFileName() + " slots grown to " + newSlotSize + " bytes");
+    }
+
+    // =========================
+    // TEXT FILE SYNC STATE
+    // =========================
+    /** True if the text file's size/mtime is still what it was at the last import/export. */
+    public boolean matchesText(Path textFile) {
+        long[] s = stamp(textFile);
+        return s[0] == d.getLong(H_TEXT_MODIFIED) && s[1] == d.getLong(H_TEXT_SIZE);
+    }
+
+    public void setTextStamp(Path textFile) {
+        long[] s = stamp(textFile);
+        d.putLong(H_TEXT_MODIFIED, s[0]).putLong(H_TEXT_SIZE, s[1]);
+    }
+
+    public boolean isDirty() {
+        return d.getInt(H_DIRTY) != 0;
+    }
+
+    public void markDirty() {
+        d.putInt(H_DIRTY, 1);
+    }
+
+    public void clearDirty() {
+        d.putInt(H_DIRTY, 0);
+    }
+
+    /** Writes the mapped pages to disk. */
+    public void force() {
+        d.force();
+        x.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        d = null;
+        x = null;
+        try {
+            if (dat != null) dat.close();
+        } finally {
+            if (idx != null) idx.close();
+        }
+    }
+
+    private static long[] stamp(Path p) {
+        try {
+            return new long[] {Files.getLastModifiedTime(p).toMillis(), Files.size(p)};
+        } catch (IOException e) {
+            return new long[] {-1, -1};
+        }
+    }
+
+    // =========================
+    // SLOTS
+    // =========================
+    private int count() {
+        return d.getInt(H_COUNT);
+    }
+
+    private long slotPosLong(int slot) {
+        return HEADER + (long) slot * slotSize;
+    }
+
+    private int slotPos(int slot) {
+        return Math.toIntExact(slotPosLong(slot));
+    }
+
+    private String readSlot(int slot) {
+        int pos = slotPos(slot);
+        int length = d.getShort(pos + 1) & 0xffff;
+        byte[] bytes = new byte[length];
+        d.get(pos + SLOT_HEAD, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeSlot(int slot, byte state, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int pos = slotPos(slot);
+        d.put(pos + SLOT_HEAD, bytes);
+        d.putShort(pos + 1, (short) bytes.length);
+        d.put(pos, state);
+    }
+
+    // first live slot whose first field is key (slow path)
+    private int scan(String key) {
+        int n = count();
+        for (int i = 0; i < n; i++) {
+            if (d.get(slotPos(i)) == LIVE && UpsertStorage.firstField(readSlot(i)).equals(key)) return i;
+        }
+        return -1;
+    }
+
+    // =========================
+    // INDEX (open addressing)
+    // =========================
+    private void openIndex() throws IOException {
+        boolean ok = false;
+        if (Files.exists(idxPath)) {
+            idx = FileChannel.open(idxPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = idx.size();
+            if (size >= IDX_HEADER) {
+                x = idx.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                idxCap = x.getInt(X_CAPACITY);
+                ok = x.getInt(X_MAGIC) == IDX_MAGIC && idxCap > 0 && Integer.bitCount(idxCap) == 1
+                        && size >= IDX_HEADER + (long) idxCap * 8 && x.getInt(X_DAT_COUNT) == count();
+            }
+        }
+        if (!ok) {
+            System.out.println("⚠️ Rebuilding index " + idxPath.getFileName());
+            rebuildIndex(tableSize(count()));
+        }
+    }
+
+    private void newIndex(int cap) throws IOException {
+        if (idx == null) {
+            idx = FileChannel.open(idxPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        long size = IDX_HEADER + (long) cap * 8;
+        if (x == null || x.capacity() < size) x = idx.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, idx.size()));
+        for (int pos = 0; pos < size; pos += 8) x.putLong(pos, 0L);
+        idxCap = cap;
+        x.putInt(X_MAGIC, IDX_MAGIC).putInt(X_CAPACITY, cap);
+    }
+
+    // from the slots: the first live slot of an id is the indexed one, the rest are unindexed
+    private void rebuildIndex(int cap) throws IOException {
+        newIndex(cap);
+        int n = count();
+        int unindexed = 0;
+        for (int i = 0; i < n; i++) {
+            if (d.get(slotPos(i)) != LIVE) continue;
+            Integer id = parseId(UpsertStorage.firstField(readSlot(i)));
+            if (id != null && find(id) < 0) {
+                indexPut(id, i);
+            } else {
+                unindexed++;
+            }
+        }
+        d.putInt(H_UNINDEXED, unindexed);
+        x.putInt(X_DAT_COUNT, n);
+    }
+
+    // load factor <= 1/2 after a rebuild
+    private static int tableSize(int entries) {
+        return Math.max(64, Integer.highestOneBit(Math.max(1, entries) * 2) << 1);
+    }
+
+    private int idxSize() {
+        return x.getInt(X_SIZE);
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int entryPos(int i) {
+        return IDX_HEADER + i * 8;
+    }
+
+    private int find(int id) {
+        int mask = idxCap - 1;
+        for (int i = hash(id) & mask, probes = 0; probes < idxCap; i = (i + 1) & mask, probes++) {
+            int v = x.getInt(entryPos(i) + 4);
+            if (v == 0) return -1;
+            if (v > 0 && x.getInt(entryPos(i)) == id) return v - 1;
+        }
+        return -1;
+    }
+
+    // id must not be in the table yet
+    private void indexPut(int id, int slot) throws IOException {
+        if ((idxSize() + x.getInt(X_REMOVED) + 1) * 4L > idxCap * 3L) {
+            rebuildIndex(tableSize(idxSize() + 1));
+            if (find(id) >= 0) return; // the slot was already written: the rebuild indexed it
+        }
+        int mask = idxCap - 1;
+        int i = hash(id) & mask;
+        while (x.getInt(entryPos(i) + 4) > 0) i = (i + 1) & mask;
+
+        if (x.getInt(entryPos(i) + 4) < 0) x.putInt(X_REMOVED, x.getInt(X_REMOVED) - 1);
+        x.putInt(entryPos(i), id);
+        x.putInt(entryPos(i) + 4, slot + 1);
+        x.putInt(X_SIZE, idxSize() + 1);
+    }
+
+    private void indexRemove(int id) {
+        int mask = idxCap - 1;
+        for (int i = hash(id) & mask, probes = 0; probes < idxCap; i = (i + 1) & mask, probes++) {
+            int v = x.getInt(entryPos(i) + 4);
+            if (v == 0) return;
+            if (v > 0 && x.getInt(entryPos(i)) == id) {
+                x.putInt(entryPos(i) + 4, -1);
+                x.putInt(X_SIZE, idxSize() - 1);
+                x.putInt(X_REMOVED, x.getInt(X_REMOVED) + 1);
+                return;
+            }
+        }
+    }
+
+    private static Integer parseId(String s) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // =========================
+    // MIGRATION TOOL
+    // =========================
+    public static void main(String[] args) throws IOException {
+        String cmd = args.length > 0 ? args[0] : "import";
+        switch (cmd) {
+            case "import", "export" -> {
+                Path dir = Paths.get(args.length > 1 ? args[1] : "database");
+                List<Path> files = new ArrayList<>();
+                try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.txt")) {
+                    for (Path p : ds) {
+                        if (UpsertStorage.isUpsertFile(p.getFileName().toString())) files.add(p);
+                    }
+                }
+                for (Path txt : files) {
+                    long t0 = System.nanoTime();
+                    if (cmd.equals("import")) {
+                        try (MappedRecordFile f = importText(txt, dataPath(txt), DEFAULT_SLOT_SIZE)) {
+                            System.out.printf("✅ %s -> %s: %d records (%.1f ms)%n", txt.getFileName(),
+                                    f.datPath.getFileName(), f.size(), (System.nanoTime() - t0) / 1e6);
+                        }
+                    } else {
+                        Path datPath = dataPath(txt);
+                        if (!Files.exists(datPath)) continue;
+                        try (MappedRecordFile f = open(datPath)) {
+                            List<String> lines = f.lines();
+                            Files.write(txt, lines);
+                            f.setTextStamp(txt);
+                            f.clearDirty();
+                            f.force();
+                            f.compact(txt);
+                            System.out.printf("✅ %s -> %s: %d lines (%.1f ms)%n", datPath.getFileName(),
+                                    txt.getFileName(), lines.size(), (System.nanoTime() - t0) / 1e6);
+                        }
+                    }
+                }
+            }
+            case "get" -> {
+                if (args.length < 3) {
+                    System.out.println("Usage: java files.MappedRecordFile get <file.txt> <id>");
+                    return;
+                }
+                try (MappedRecordFile f = open(dataPath(Paths.get(args[1])))) {
+                    long t0 = System.nanoTime();
+                    String line = f.get(args[2]);
+                    System.out.printf("%s (%.3f ms)%n", line == null ? "❌ not found" : line, (System.nanoTime() - t0) / 1e6);
+                }
+            }
+            default -> System.out.println("Usage: java files.MappedRecordFile import|export [dir] | get <file.txt> <id>");
+        }
+    }
+}
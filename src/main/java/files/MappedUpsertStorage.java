@@ -0,0 +1,259 @@
+// ✅ files/MappedUpsertStorage.java
+package files;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Upsert files kept in MappedRecordFiles (StudentCredentials.dat/.idx next to the .txt):
+ * a write replaces one slot in place (or adds one), found through the on-disk id index.
+ *
+ * - first use: the .dat is opened, or imported from the text file if there is none
+ *   (or run the migration tool first: java files.MappedRecordFile import)
+ * - the text file is still written, in the background (exportMs), for everything
+ *   that reads it directly. The export goes through the guard like a log compaction
+ * - the .dat remembers the text file's size/mtime at the last import/export; if they
+ *   differ, someone edited the text file: it is imported again and the server writes
+ *   not exported yet are applied on top (the same way the log's records win)
+ * - once an export leaves nothing unexported, the removed slots are compacted away
+ */
+public final class MappedUpsertStorage implements UpsertStorage {
+
+    // ✅ -Dcoursesphere.upsert.exportMs=N : how often changed .dat files are written back as text
+    public static final String EXPORT_MS_PROPERTY = "coursesphere.upsert.exportMs";
+
+    private final Guard guard;
+    private final Map<Path, Store> stores = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService exporter;
+
+    public MappedUpsertStorage(Guard guard) {
+        this(guard, Long.getLong(EXPORT_MS_PROPERTY, 5_000L));
+    }
+
+    public MappedUpsertStorage(Guard guard, long exportMs) {
+        this.guard = guard;
+        this.exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "upsert-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(10, exportMs);
+        exporter.scheduleWithFixedDelay(this::exportAll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void upsert(Path file, List<String> lines) throws IOException {
+        store(file).upsert(lines);
+    }
+
+    @Override
+    public void delete(Path file, String key) throws IOException {
+        store(file).delete(key);
+    }
+
+    @Override
+    public List<String> lines(Path file) throws IOException {
+        return store(file).lines();
+    }
+
+    /** Point read by id, without touching the rest of the file. */
+    public String line(Path file, String key) throws IOException {
+        return store(file).line(key);
+    }
+
+    /** Stops the exporter, writes every changed file back as text and closes the maps. */
+    @Override
+    public void close() throws IOException {
+        exporter.shutdown();
+        try {
+            exporter.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Store s : stores.values()) {
+            s.export();
+            s.close();
+        }
+    }
+
+    private Store store(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        try {
+            return stores.computeIfAbsent(key, k -> {
+                try {
+                    return new Store(k);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportAll() {
+        for (Store s : stores.values()) {
+            try {
+                s.export();
+            } catch (Exception e) {
+                System.out.println("❌ Export of " + s.text + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // =========================
+    // ONE FILE
+    // =========================
+    private final class Store {
+        final Path text;
+        final ReentrantLock lock = new ReentrantLock();
+
+        // guarded by lock
+        MappedRecordFile data;
+        long writes;                                        // our writes so far
+        final Map<String, Long> unexported = new HashMap<>(); // key -> writes when last changed
+
+        Store(Path text) throws IOException {
+            this.text = text;
+            Path datPath = MappedRecordFile.dataPath(text);
+            if (Files.exists(datPath)) {
+                try {
+                    data = MappedRecordFile.open(datPath);
+                } catch (IOException e) {
+                    System.out.println("⚠️ " + datPath.getFileName() + " unreadable (" + e.getMessage() + "), importing the text file");
+                }
+            }
+            if (data == null) {
+                data = MappedRecordFile.importText(text, datPath, MappedRecordFile.DEFAULT_SLOT_SIZE);
+                System.out.println("✅ Imported " + text.getFileName() + " into " + datPath.getFileName()
+                        + " (" + data.size() + " records)");
+            }
+        }
+
+        void upsert(List<String> lines) throws IOException {
+            lock.lock();
+            try {
+                syncFromText();
+                writes++;
+                for (String line : lines) {
+                    data.put(line);
+                    unexported.put(UpsertStorage.firstField(line), writes);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void delete(String key) throws IOException {
+            if (key == null || key.isBlank()) return;
+            lock.lock();
+            try {
+                syncFromText();
+                writes++;
+                if (data.remove(key)) unexported.put(key.trim(), writes);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<String> lines() throws IOException {
+            lock.lock();
+            try {
+                syncFromText();
+                return data.lines();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String line(String key) throws IOException {
+            lock.lock();
+            try {
+                syncFromText();
+                return data.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // lock held: the text file was edited by someone else -> import it, keep our unexported writes
+        private void syncFromText() throws IOException {
+            if (data.matchesText(text)) return;
+
+            Map<String, String> ours = new LinkedHashMap<>();
+            for (String key : unexported.keySet()) ours.put(key, data.get(key)); // null = deleted
+            if (ours.isEmpty() && data.isDirty()) {
+                System.out.println("⚠️ " + text.getFileName() + " edited outside the server; "
+                        + "changes not exported before the last shutdown are replaced by it");
+            }
+
+            data.reimport(text);
+            for (Map.Entry<String, String> e : ours.entrySet()) {
+                if (e.getValue() != null) data.put(e.getValue());
+                else data.remove(e.getKey());
+            }
+            System.out.println("⚠️ " + text.getFileName() + " edited outside the server: re-imported ("
+                    + ours.size() + " unexported server writes kept)");
+        }
+
+        /** Write the text file from the .dat if it changed since the last export. */
+        void export() throws IOException {
+            List<String> lines;
+            long upTo;
+            lock.lock();
+            try {
+                if (!data.isDirty()) return;
+                syncFromText();
+                lines = data.lines();
+                upTo = writes;
+            } finally {
+                lock.unlock();
+            }
+
+            // ✅ the text write runs while writers keep going; the swap is checked under the lock
+            long t0 = System.nanoTime();
+            Path tmp = text.resolveSibling(text.getFileName() + ".export");
+            Files.write(tmp, lines);
+
+            boolean[] swapped = {false};
+            boolean ran = guard.run(() -> {
+                lock.lock();
+                try {
+                    if (!data.matchesText(text)) return; // edited outside meanwhile: next time
+                    Files.move(tmp, text, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    data.setTextStamp(text);
+                    unexported.values().removeIf(w -> w <= upTo);
+                    if (writes == upTo) {
+                        data.clearDirty();
+                        data.compact(text); // everything is in the text file now: drop removed slots
+                    }
+                    data.force();
+                    swapped[0] = true;
+                } finally {
+                    lock.unlock();
+                }
+            });
+
+            if (!ran || !swapped[0]) {
+                Files.deleteIfExists(tmp);
+                System.out.println("⚠️ " + text.getFileName() + " changed during export, will retry");
+                return;
+            }
+            System.out.printf("🧹 Exported %s: %d lines (%.1f ms)%n",
+                    text.getFileName(), lines.size(), (System.nanoTime() - t0) / 1e6);
+        }
+
+        void close() throws IOException {
+            lock.lock();
+            try {
+                data.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
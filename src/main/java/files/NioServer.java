@@ -0,0 +1,290 @@
+// ✅ files/NioServer.java
+package files;
+
+import files.Server.CachedPayload;
+import files.Server.Codecs;
+import files.Server.Frames;
+import files.Server.MessageCodec;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Non-blocking front end for port 55555 (RealServer mode "nio").
+ *
+ * - one acceptor thread hands new channels to a small fixed set of event loops
+ * - each event loop owns a Selector and does all reads/writes for its channels
+ * - each connection starts with the codec hello (see Codecs), then
+ *   requests are decoded from length-prefixed frames (see Frames) and handled on
+ *   worker (virtual) threads, one at a time per connection so replies keep their order
+ *
+ * An idle client costs a channel + a small read buffer, no thread.
+ */
+public class NioServer {
+
+    private static final int INITIAL_READ_BUFFER = 4 * 1024;
+    private static final int MAX_GATHER = 64;
+
+    private final int port;
+    private final EventLoop[] eventLoops;
+    private final Semaphore connectionPermits; // null = no cap
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public NioServer(int port, int eventLoopCount, int maxConnections) throws IOException {
+        this.port = port;
+        this.connectionPermits = maxConnections > 0 ? new Semaphore(maxConnections) : null;
+
+        this.eventLoops = new EventLoop[Math.max(1, eventLoopCount)];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new EventLoop();
+            Thread.ofPlatform().name("NioEventLoop-" + i).daemon(true).start(eventLoops[i]);
+        }
+    }
+
+    /** Accept loop; runs forever on the calling thread. */
+    public void run(int backlog) throws IOException, InterruptedException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port), backlog);
+            System.out.println("✅ NioServer started on port " + port + " (" + eventLoops.length + " event loops)");
+
+            int next = 0;
+            while (true) {
+                // ✅ blocking accept is fine here: this is the only thread doing it
+                if (connectionPermits != null) connectionPermits.acquire();
+
+                SocketChannel channel;
+                try {
+                    channel = server.accept();
+                } catch (IOException e) {
+                    releasePermit();
+                    throw e;
+                }
+
+                channel.configureBlocking(false);
+                channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+
+                eventLoops[next].register(channel);
+                next = (next + 1) % eventLoops.length;
+            }
+        }
+    }
+
+    private void releasePermit() {
+        if (connectionPermits != null) connectionPermits.release();
+    }
+
+    // =========================
+    // EVENT LOOP
+    // =========================
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            execute(() -> {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    Connection c = new Connection(this, channel, key);
+                    key.attach(c);
+                    c.enqueueWrite(ByteBuffer.wrap(Codecs.hello()));
+                } catch (IOException e) {
+                    System.out.println("❌ NioServer register failed: " + e.getMessage());
+                    closeQuietly(channel);
+                    releasePermit();
+                }
+            });
+        }
+
+        /** Run a task on this loop's thread (channel/key state is only touched there). */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) task.run();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+
+                        Connection c = (Connection) key.attachment();
+                        if (c == null || !key.isValid()) continue;
+
+                        try {
+                            if (key.isReadable()) c.onReadable();
+                            if (key.isValid() && key.isWritable()) c.onWritable();
+                        } catch (IOException | CancelledKeyException e) {
+                            c.close();
+                        }
+                    }
+                } catch (Exception e) {
+                    System.out.println("❌ NioServer event loop error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // =========================
+    // CONNECTION
+    // =========================
+    private final class Connection {
+
+        private final EventLoop loop;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final RequestHandler handler = new RequestHandler();
+
+        private MessageCodec codec; // null until the peer's hello arrived
+        private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+        private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+
+        // ✅ requests of one client run one after another (replies stay in order)
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private boolean closed;
+
+        Connection(EventLoop loop, SocketChannel channel, SelectionKey key) {
+            this.loop = loop;
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void onReadable() throws IOException {
+            int n = channel.read(readBuffer);
+            if (n < 0) {
+                close();
+                return;
+            }
+
+            readBuffer.flip();
+            if (codec == null && !readHello()) {
+                readBuffer.compact();
+                return;
+            }
+
+            while (readBuffer.remaining() >= Frames.HEADER_BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                Frames.checkLength(length);
+
+                if (readBuffer.remaining() < Frames.HEADER_BYTES + length) {
+                    ensureCapacity(Frames.HEADER_BYTES + length);
+                    break;
+                }
+
+                readBuffer.getInt();
+                long requestId = readBuffer.getLong();
+                byte[] payload = new byte[length];
+                readBuffer.get(payload);
+                dispatch(requestId, payload);
+            }
+            readBuffer.compact();
+        }
+
+        /** @return true once the hello is consumed and the codec is chosen */
+        private boolean readHello() throws IOException {
+            int start = readBuffer.position();
+            if (readBuffer.remaining() < Integer.BYTES + 1) return false;
+
+            if (readBuffer.getInt(start) != Codecs.MAGIC) {
+                throw new java.io.StreamCorruptedException("Not a CourseSphere peer (bad hello)");
+            }
+            int count = Codecs.checkCount(readBuffer.get(start + Integer.BYTES) & 0xFF);
+            if (readBuffer.remaining() < Integer.BYTES + 1 + count) return false;
+
+            readBuffer.position(start + Integer.BYTES + 1);
+            byte[] peerIds = new byte[count];
+            readBuffer.get(peerIds);
+            codec = Codecs.choose(peerIds);
+            return true;
+        }
+
+        // called with readBuffer in "read" (flipped) mode
+        private void ensureCapacity(int frameBytes) {
+            if (readBuffer.capacity() >= frameBytes) return;
+            ByteBuffer bigger = ByteBuffer.allocate(frameBytes);
+            bigger.put(readBuffer);
+            bigger.flip();
+            readBuffer = bigger;
+        }
+
+        private void dispatch(long requestId, byte[] payload) {
+            tail = tail.thenRunAsync(() -> {
+                try {
+                    Object msg = codec.decode(payload);
+                    if (!(msg instanceof Request request)) {
+                        System.out.println("⚠️ Unknown object from client: " +
+                                (msg == null ? "null" : msg.getClass().getName()));
+                        return;
+                    }
+
+                    Object reply = handler.handle(request);
+                    if (reply != null) {
+                        ByteBuffer[] frame = Frames.toFrame(requestId, CachedPayload.encode(codec, reply));
+                        loop.execute(() -> enqueueWrite(frame));
+                    }
+                } catch (Exception e) {
+                    System.out.println("❌ NioServer request failed: " + e.getMessage());
+                }
+            }, workers);
+        }
+
+        void enqueueWrite(ByteBuffer... buffers) {
+            if (closed) return;
+            for (ByteBuffer b : buffers) pendingWrites.add(b);
+            try {
+                onWritable();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void onWritable() throws IOException {
+            while (!pendingWrites.isEmpty()) {
+                // ✅ gathering write: frame header + payload (+ whatever is queued) in one syscall
+                int n = Math.min(pendingWrites.size(), MAX_GATHER);
+                ByteBuffer[] batch = new ByteBuffer[n];
+                Iterator<ByteBuffer> it = pendingWrites.iterator();
+                for (int i = 0; i < n; i++) batch[i] = it.next();
+
+                channel.write(batch);
+                while (!pendingWrites.isEmpty() && !pendingWrites.peek().hasRemaining()) pendingWrites.poll();
+                if (batch[n - 1].hasRemaining()) break; // socket buffer full, wait for OP_WRITE
+            }
+
+            if (!key.isValid()) return;
+            key.interestOps(pendingWrites.isEmpty()
+                    ? SelectionKey.OP_READ
+                    : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            key.cancel();
+            closeQuietly(channel);
+            releasePermit();
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        try { channel.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,349 @@
+// ✅ files/PersistentMap.java
+package files;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An immutable map in insertion order (like a LinkedHashMap nobody writes to) whose with() /
+ * without() return a new map sharing everything but one path of nodes with the old one.
+ * A DataStore write makes the next State from the last one this way, so it copies what it
+ * changes (O(log n) nodes), not the whole table.
+ *
+ * - key -> position: a hash array mapped trie (32 ways per level, path copying)
+ * - position -> entry: a 32-way trie in insertion order; without() leaves a hole there, and
+ *   the holes are squeezed out when they outnumber the entries
+ * - replacing a key's value keeps its position, as LinkedHashMap.put does
+ *
+ * Keys and values must not be null. Read-only as a java.util.Map (put/remove throw).
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, new Object[WIDTH], 0, 0, 0);
+
+    private final Node keys;       // null = empty
+    private final Object[] order;  // trie of Map.Entry (null = hole), `shift` bits above the leaves
+    private final int shift;
+    private final int length;      // positions used, holes included
+    private final int size;
+
+    private PersistentMap(Node keys, Object[] order, int shift, int length, int size) {
+        this.keys = keys;
+        this.order = order;
+        this.shift = shift;
+        this.length = length;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /** `m` itself if it is one already, else its entries in its iteration order. */
+    static <K, V> PersistentMap<K, V> copyOf(Map<K, V> m) {
+        if (m instanceof PersistentMap<K, V> p) return p;
+        return ofDistinct(m.entrySet());
+    }
+
+    // ✅ built bottom-up in one pass (a load, a checkpoint): no path copied per entry
+    static <K, V> PersistentMap<K, V> ofDistinct(Collection<? extends Map.Entry<K, V>> entries) {
+        int n = entries.size();
+        if (n == 0) return empty();
+
+        Object[] level = new Object[(n + MASK) >>> BITS];
+        List<Leaf> leaves = new ArrayList<>(n);
+        int pos = 0;
+        for (Map.Entry<K, V> e : entries) {
+            K key = Objects.requireNonNull(e.getKey());
+            Map.Entry<K, V> entry = Map.entry(key, Objects.requireNonNull(e.getValue()));
+            if ((pos & MASK) == 0) level[pos >>> BITS] = new Object[WIDTH];
+            ((Object[]) level[pos >>> BITS])[pos & MASK] = entry;
+            leaves.add(new Leaf(key, spread(key.hashCode()), pos));
+            pos++;
+        }
+
+        int shift = 0;
+        while (level.length > 1) {
+            Object[] up = new Object[(level.length + MASK) >>> BITS];
+            for (int i = 0; i < level.length; i++) {
+                if ((i & MASK) == 0) up[i >>> BITS] = new Object[WIDTH];
+                ((Object[]) up[i >>> BITS])[i & MASK] = level[i];
+            }
+            level = up;
+            shift += BITS;
+        }
+        Object keys = build(leaves, 0);
+        Node root = keys instanceof Node node ? node : new Node(1 << (hashOf(keys) & MASK), new Object[] {keys});
+        return new PersistentMap<>(root, (Object[]) level[0], shift, n, n);
+    }
+
+    // =========================
+    // READ
+    // =========================
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && position(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) return null;
+        int pos = position(key);
+        return pos < 0 ? null : entry(pos).getValue();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new Iterator<>() {
+                    private int pos = -1;
+                    private Object[] leaf;
+                    private Map.Entry<K, V> next = advance();
+
+                    @SuppressWarnings("unchecked")
+                    private Map.Entry<K, V> advance() {
+                        while (++pos < length) {
+                            if (leaf == null || (pos & MASK) == 0) leaf = leafFor(pos);
+                            Object e = leaf[pos & MASK];
+                            if (e != null) return (Map.Entry<K, V>) e;
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        if (next == null) throw new NoSuchElementException();
+                        Map.Entry<K, V> e = next;
+                        next = advance();
+                        return e;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // =========================
+    // WRITE (new maps)
+    // =========================
+    /** This map with key -> value; a new key goes last. */
+    PersistentMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int pos = position(key);
+        if (pos >= 0) {
+            if (entry(pos).getValue() == value) return this;
+            return new PersistentMap<>(keys, set(pos, Map.entry(key, value)), shift, length, size);
+        }
+
+        Object[] root = order;
+        int s = shift;
+        if (length == WIDTH << s) { // full: one more level on top
+            root = new Object[WIDTH];
+            root[0] = order;
+            s += BITS;
+        }
+        root = set(root, s, length, Map.entry(key, value));
+        Node k = put(keys, key, spread(key.hashCode()), length, 0);
+        return new PersistentMap<>(k, root, s, length + 1, size + 1);
+    }
+
+    PersistentMap<K, V> without(Object key) {
+        int pos = key == null ? -1 : position(key);
+        if (pos < 0) return this;
+        if (size == 1) return empty();
+
+        PersistentMap<K, V> out = new PersistentMap<>(remove(keys, key, spread(key.hashCode()), 0),
+                set(pos, null), shift, length, size - 1);
+        // ✅ holes outnumber the entries: rebuild (paid for by the removals that made them)
+        return out.length - out.size > Math.max(WIDTH, out.size) ? out.withoutIf(e -> false) : out;
+    }
+
+    /** This map without the entries matching `drop` (one pass, order kept). */
+    PersistentMap<K, V> withoutIf(Predicate<? super Map.Entry<K, V>> drop) {
+        List<Map.Entry<K, V>> kept = new ArrayList<>(size);
+        for (Map.Entry<K, V> e : entrySet()) {
+            if (!drop.test(e)) kept.add(e);
+        }
+        return kept.size() == size && length == size ? this : ofDistinct(kept);
+    }
+
+    // =========================
+    // ORDER TRIE
+    // =========================
+    private Object[] leafFor(int pos) {
+        Object[] node = order;
+        for (int s = shift; s > 0; s -= BITS) node = (Object[]) node[(pos >>> s) & MASK];
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map.Entry<K, V> entry(int pos) {
+        return (Map.Entry<K, V>) leafFor(pos)[pos & MASK];
+    }
+
+    private Object[] set(int pos, Object value) {
+        return set(order, shift, pos, value);
+    }
+
+    // path copy down to pos; missing nodes (an append past the last leaf) are created
+    private static Object[] set(Object[] node, int shift, int pos, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (shift == 0) {
+            copy[pos & MASK] = value;
+        } else {
+            int i = (pos >>> shift) & MASK;
+            copy[i] = set((Object[]) copy[i], shift - BITS, pos, value);
+        }
+        return copy;
+    }
+
+    // =========================
+    // KEY TRIE
+    // =========================
+    /** One key and its position in the order trie. */
+    private record Leaf(Object key, int hash, int pos) {}
+
+    /** Keys whose whole 32-bit hash is the same. */
+    private record Collision(int hash, Leaf[] leaves) {}
+
+    /** `bitmap` says which of the 32 slots are used; `slots` holds them packed (Leaf, Collision or Node). */
+    private record Node(int bitmap, Object[] slots) {}
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int hashOf(Object leafOrCollision) {
+        return leafOrCollision instanceof Leaf l ? l.hash : ((Collision) leafOrCollision).hash;
+    }
+
+    // leaves with distinct keys, all in the same slot down to `shift`
+    private static Object build(List<Leaf> leaves, int shift) {
+        Leaf first = leaves.get(0);
+        if (leaves.size() == 1) return first;
+        if (leaves.stream().allMatch(l -> l.hash == first.hash)) return new Collision(first.hash, leaves.toArray(Leaf[]::new));
+
+        @SuppressWarnings("unchecked")
+        List<Leaf>[] buckets = new List[WIDTH];
+        for (Leaf l : leaves) {
+            int i = (l.hash >>> shift) & MASK;
+            if (buckets[i] == null) buckets[i] = new ArrayList<>();
+            buckets[i].add(l);
+        }
+        int bitmap = 0;
+        List<Object> slots = new ArrayList<>();
+        for (int i = 0; i < WIDTH; i++) {
+            if (buckets[i] == null) continue;
+            bitmap |= 1 << i;
+            slots.add(build(buckets[i], shift + BITS));
+        }
+        return new Node(bitmap, slots.toArray());
+    }
+
+    private int position(Object key) {
+        int hash = spread(key.hashCode());
+        Object o = keys;
+        for (int s = 0; o instanceof Node n; s += BITS) {
+            int bit = 1 << ((hash >>> s) & MASK);
+            if ((n.bitmap & bit) == 0) return -1;
+            o = n.slots[Integer.bitCount(n.bitmap & (bit - 1))];
+        }
+        if (o instanceof Leaf l) return l.hash == hash && l.key.equals(key) ? l.pos : -1;
+        if (o instanceof Collision c && c.hash == hash) {
+            for (Leaf l : c.leaves) {
+                if (l.key.equals(key)) return l.pos;
+            }
+        }
+        return -1;
+    }
+
+    // key is not in the trie yet
+    private static Node put(Node n, Object key, int hash, int pos, int shift) {
+        Leaf leaf = new Leaf(key, hash, pos);
+        if (n == null) return new Node(1 << ((hash >>> shift) & MASK), new Object[] {leaf});
+
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int i = Integer.bitCount(n.bitmap & (bit - 1));
+        if ((n.bitmap & bit) == 0) {
+            Object[] slots = new Object[n.slots.length + 1];
+            System.arraycopy(n.slots, 0, slots, 0, i);
+            slots[i] = leaf;
+            System.arraycopy(n.slots, i, slots, i + 1, n.slots.length - i);
+            return new Node(n.bitmap | bit, slots);
+        }
+
+        Object old = n.slots[i];
+        Object merged;
+        if (old instanceof Node child) {
+            merged = put(child, key, hash, pos, shift + BITS);
+        } else if (old instanceof Collision c) {
+            if (c.hash == hash) {
+                Leaf[] leaves = Arrays.copyOf(c.leaves, c.leaves.length + 1);
+                leaves[c.leaves.length] = leaf;
+                merged = new Collision(hash, leaves);
+            } else {
+                merged = put(new Node(1 << ((c.hash >>> (shift + BITS)) & MASK), new Object[] {c}), key, hash, pos, shift + BITS);
+            }
+        } else {
+            Leaf l = (Leaf) old;
+            merged = l.hash == hash
+                    ? new Collision(hash, new Leaf[] {l, leaf})
+                    : put(new Node(1 << ((l.hash >>> (shift + BITS)) & MASK), new Object[] {l}), key, hash, pos, shift + BITS);
+        }
+        Object[] slots = n.slots.clone();
+        slots[i] = merged;
+        return new Node(n.bitmap, slots);
+    }
+
+    // key is in the trie; null = nothing left
+    private static Node remove(Node n, Object key, int hash, int shift) {
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int i = Integer.bitCount(n.bitmap & (bit - 1));
+        Object old = n.slots[i];
+
+        Object left; // what stays in the slot (null: the slot goes)
+        if (old instanceof Node child) {
+            Node c = remove(child, key, hash, shift + BITS);
+            // ✅ a lone leaf / collision moves up, so lookups don't walk a chain of one-slot nodes
+            left = c != null && c.slots.length == 1 && !(c.slots[0] instanceof Node) ? c.slots[0] : c;
+        } else if (old instanceof Collision c) {
+            Leaf[] leaves = Arrays.stream(c.leaves).filter(l -> !l.key.equals(key)).toArray(Leaf[]::new);
+            left = leaves.length == 1 ? leaves[0] : new Collision(hash, leaves);
+        } else {
+            left = null;
+        }
+
+        if (left != null) {
+            Object[] slots = n.slots.clone();
+            slots[i] = left;
+            return new Node(n.bitmap, slots);
+        }
+        if (n.slots.length == 1) return null;
+        Object[] slots = new Object[n.slots.length - 1];
+        System.arraycopy(n.slots, 0, slots, 0, i);
+        System.arraycopy(n.slots, i + 1, slots, i, n.slots.length - i - 1);
+        return new Node(n.bitmap & ~bit, slots);
+    }
+}
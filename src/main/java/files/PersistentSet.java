@@ -0,0 +1,65 @@
+// ✅ files/PersistentSet.java
+package files;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * PersistentMap's set: immutable, insertion order, with() / without() share all but one path
+ * with the old set. Read-only as a java.util.Set.
+ */
+final class PersistentSet<E> extends AbstractSet<E> {
+
+    private static final PersistentSet<?> EMPTY = new PersistentSet<>(PersistentMap.empty());
+
+    private final PersistentMap<E, Boolean> map;
+
+    private PersistentSet(PersistentMap<E, Boolean> map) {
+        this.map = map;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentSet<E> empty() {
+        return (PersistentSet<E>) EMPTY;
+    }
+
+    /** `s` itself if it is one already, else its elements in its iteration order. */
+    static <E> PersistentSet<E> copyOf(Collection<E> s) {
+        if (s instanceof PersistentSet<E> p) return p;
+        List<Map.Entry<E, Boolean>> entries = new ArrayList<>(s.size());
+        for (E e : s instanceof Set<E> ? s : new LinkedHashSet<>(s)) entries.add(Map.entry(e, Boolean.TRUE));
+        return new PersistentSet<>(PersistentMap.ofDistinct(entries));
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keySet().iterator();
+    }
+
+    /** This set with e (last, if it's new). */
+    PersistentSet<E> with(E e) {
+        PersistentMap<E, Boolean> m = map.with(e, Boolean.TRUE);
+        return m == map ? this : new PersistentSet<>(m);
+    }
+
+    PersistentSet<E> without(Object e) {
+        PersistentMap<E, Boolean> m = map.without(e);
+        return m == map ? this : new PersistentSet<>(m);
+    }
+
+    /** This set without the elements matching `drop` (one pass, order kept). */
+    PersistentSet<E> withoutIf(Predicate<? super E> drop) {
+        PersistentMap<E, Boolean> m = map.withoutIf(entry -> drop.test(entry.getKey()));
+        return m == map ? this : new PersistentSet<>(m);
+    }
+}
@@ -7,25 +7,88 @@ import files.Server.SocketWrapper;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 
 public class RealServer {
 
     public static final int PORT = 55555;
 
+    // ✅ -Dcoursesphere.server.mode=platform|virtual|nio
+    public static final String MODE_PROPERTY = "coursesphere.server.mode";
+    // ✅ -Dcoursesphere.server.maxConnections=N (0 = unlimited)
+    public static final String MAX_CONNECTIONS_PROPERTY = "coursesphere.server.maxConnections";
+    // ✅ -Dcoursesphere.server.eventLoops=N (nio mode only)
+    public static final String EVENT_LOOPS_PROPERTY = "coursesphere.server.eventLoops";
+
+    // ✅ default backlog is 50: a login burst overflows it and clients sit in SYN retries
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    /**
+     * How each client connection is run.
+     * PLATFORM = one OS thread for reading + one for writing (original behaviour)
+     * VIRTUAL  = same two loops, but on virtual threads (cheap, thousands are fine)
+     * NIO      = selector event loops, no thread per client at all (see NioServer)
+     */
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL,
+        NIO;
+
+        static Mode fromProperty() {
+            String raw = System.getProperty(MODE_PROPERTY, "platform").trim();
+            try {
+                return Mode.valueOf(raw.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Unknown server mode '" + raw + "', using PLATFORM");
+                return PLATFORM;
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final Semaphore connectionPermits; // null = no cap
+
     private ServerSocket serverSocket;
 
     public RealServer() {
+        this(Mode.fromProperty(), Integer.getInteger(MAX_CONNECTIONS_PROPERTY, 0));
+    }
+
+    public RealServer(Mode mode, int maxConnections) {
+        this.mode = mode;
+        this.connectionPermits = maxConnections > 0 ? new Semaphore(maxConnections) : null;
+
         try {
             // start notification server (port 44444) in background
             startNotificationServer();
 
-            serverSocket = new ServerSocket(PORT);
-            System.out.println("✅ RealServer started on port " + PORT);
+            // ✅ read the database files once, before the first client (see DataStore)
+            DataStore.shared();
+
+            if (mode == Mode.NIO) {
+                int loops = Integer.getInteger(EVENT_LOOPS_PROPERTY,
+                        Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+                new NioServer(PORT, loops, maxConnections).run(ACCEPT_BACKLOG); // runs forever
+                return;
+            }
+
+            serverSocket = new ServerSocket(PORT, ACCEPT_BACKLOG);
+            System.out.println("✅ RealServer started on port " + PORT + " (mode=" + mode
+                    + ", maxConnections=" + (maxConnections > 0 ? maxConnections : "unlimited") + ")");
 
             while (true) {
-                Socket clientSocket = serverSocket.accept();
+                // ✅ over the cap: stop accepting, extra clients wait in the OS backlog
+                if (connectionPermits != null) connectionPermits.acquire();
+
+                Socket clientSocket;
+                try {
+                    clientSocket = serverSocket.accept();
+                } catch (IOException e) {
+                    releasePermit();
+                    throw e;
+                }
                 System.out.println("✅ Client connected from: " + clientSocket.getInetAddress());
 
                 serve(clientSocket);
@@ -38,17 +101,37 @@ public class RealServer {
     }
 
     private void serve(Socket clientSocket) {
-        try {
-            Queue<Object> messageQueue = new LinkedList<>();
-            SocketWrapper wrappedClientSocket = new SocketWrapper(clientSocket);
+        // ✅ codec hello happens in the SocketWrapper constructor: don't let a slow client block accept()
+        Thread.ofVirtual().name("ClientSetup").start(() -> {
+            try {
+                BlockingQueue<Object> messageQueue = new LinkedBlockingQueue<>();
+                SocketWrapper wrappedClientSocket = new SocketWrapper(clientSocket);
 
-            new ServerReadThread(wrappedClientSocket, messageQueue);
-            new ServerWriteThread(wrappedClientSocket, messageQueue);
+                new ServerReadThread(wrappedClientSocket, messageQueue, readThreadBuilder());
+                new ServerWriteThread(wrappedClientSocket, messageQueue, writeThreadBuilder(), this::releasePermit);
 
-        } catch (IOException e) {
-            System.err.println("❌ Error setting up client: " + e.getMessage());
-            e.printStackTrace();
-        }
+            } catch (IOException e) {
+                System.err.println("❌ Error setting up client: " + e.getMessage());
+                try { clientSocket.close(); } catch (IOException ignored) {}
+                releasePermit();
+            }
+        });
+    }
+
+    private Thread.Builder readThreadBuilder() {
+        return mode == Mode.VIRTUAL
+                ? Thread.ofVirtual().name("ServerReadThread")
+                : Thread.ofPlatform().name("ServerReadThread"); // ✅ don't set daemon for a server thread
+    }
+
+    private Thread.Builder writeThreadBuilder() {
+        return mode == Mode.VIRTUAL
+                ? Thread.ofVirtual().name("ServerWriteThread")
+                : Thread.ofPlatform().name("ServerWriteThread").daemon(true);
+    }
+
+    private void releasePermit() {
+        if (connectionPermits != null) connectionPermits.release();
     }
 
     private void startNotificationServer() {
@@ -0,0 +1,244 @@
+// ✅ files/RelationIndex.java
+package files;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary indexes over the relation files, both ways:
+ *
+ *   enrollments.txt + StudentCourses.txt   student -> courses,          course -> students
+ *   CourseApplications.txt                 student -> applied courses,  course -> applicants
+ *   AssignedCoursesTeacher.txt             teacher -> courses,          course -> teachers
+ *   UploadedFiles.txt                      course -> file names
+ *
+ * - built from the files on first use
+ * - every server write adds its pairs in place (written())
+ * - a file replaced or edited by someone else (a cascading delete, the controllers'
+ *   local rewrites such as a withdrawn application) is noticed from its size/mtime by
+ *   the next query and read again; a DatabaseWatcher rereads it in the background first
+ * - a query copies just its answer: O(result) instead of a scan of the file
+ *
+ * Keys match ignoring case; values come back as written, first-seen order, no duplicates.
+ * These are the raw lines: unlike DataStore's lookups, unapproved people are not filtered out.
+ */
+public final class RelationIndex {
+
+    public enum Relation {
+        COURSES_OF_STUDENT(Group.ENROLLMENTS, true),
+        STUDENTS_OF_COURSE(Group.ENROLLMENTS, false),
+        APPLICATIONS_OF_STUDENT(Group.APPLICATIONS, true),
+        APPLICANTS_OF_COURSE(Group.APPLICATIONS, false),
+        COURSES_OF_TEACHER(Group.ASSIGNMENTS, true),
+        TEACHERS_OF_COURSE(Group.ASSIGNMENTS, false),
+        FILES_OF_COURSE(Group.UPLOADS, true);
+
+        private final Group group;
+        private final boolean forward; // first column -> second
+
+        Relation(Group group, boolean forward) {
+            this.group = group;
+            this.forward = forward;
+        }
+    }
+
+    /** One line of a relation file: first column, separator, second column. */
+    private record Source(String file, char separator) {}
+
+    private enum Group {
+        ENROLLMENTS(new Source("enrollments.txt", ','), new Source("StudentCourses.txt", ';')),
+        APPLICATIONS(new Source("CourseApplications.txt", ';')),
+        ASSIGNMENTS(new Source("AssignedCoursesTeacher.txt", ',')),
+        UPLOADS(new Source("UploadedFiles.txt", ';'));
+
+        private final List<Source> sources;
+
+        Group(Source... sources) {
+            this.sources = List.of(sources);
+        }
+    }
+
+    private record Stamp(long size, long modified) {}
+
+    private static final Stamp MISSING = new Stamp(-1, -1);
+
+    // ✅ holder: one index per process, like DataStore
+    private static final class Shared {
+        static final RelationIndex INSTANCE = create();
+
+        private static RelationIndex create() {
+            RelationIndex index = new RelationIndex(Paths.get("database"));
+            index.watch(DatabaseWatcher.shared());
+            return index;
+        }
+    }
+
+    public static RelationIndex shared() {
+        return Shared.INSTANCE;
+    }
+
+    private final Path dataDir;
+    private final Map<Group, Pairs> groups = new EnumMap<>(Group.class);
+
+    public RelationIndex(Path dataDir) {
+        this.dataDir = dataDir.toAbsolutePath().normalize();
+        for (Group g : Group.values()) groups.put(g, new Pairs(g));
+    }
+
+    /**
+     * Let `w` reread the loaded groups it reports in the background. Queries still check the
+     * stamps themselves: the event may come after the query that follows the edit.
+     */
+    public void watch(DatabaseWatcher w) {
+        if (w == null) return;
+        w.addListener(files -> {
+            for (Pairs p : groups.values()) {
+                if (p.loaded && (files == null
+                        || p.group.sources.stream().anyMatch(src -> files.contains(src.file().toLowerCase())))) {
+                    p.refreshIfStale();
+                }
+            }
+        });
+    }
+
+    /** The values related to key, e.g. (STUDENTS_OF_COURSE, "CSE 2101") -> student ids. */
+    public List<String> query(Relation r, String key) {
+        Pairs p = groups.get(r.group);
+        p.refreshIfStale();
+
+        p.lock.readLock().lock();
+        try {
+            Set<String> values = (r.forward ? p.forward : p.backward).get(norm(key));
+            return values == null ? new ArrayList<>() : new ArrayList<>(values);
+        } finally {
+            p.lock.readLock().unlock();
+        }
+    }
+
+    /** Lines the server just appended to `file` (any file; the rest are ignored). */
+    public void written(Path file, List<String> lines) {
+        Path p = file.toAbsolutePath().normalize();
+        if (!dataDir.equals(p.getParent())) return;
+
+        String name = p.getFileName().toString();
+        for (Pairs pairs : groups.values()) {
+            for (Source s : pairs.group.sources) {
+                if (s.file().equalsIgnoreCase(name)) pairs.added(s, lines);
+            }
+        }
+    }
+
+    // =========================
+    // ONE GROUP
+    // =========================
+    private final class Pairs {
+        final Group group;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // guarded by lock
+        final Map<String, LinkedHashSet<String>> forward = new HashMap<>();
+        final Map<String, LinkedHashSet<String>> backward = new HashMap<>();
+        final Map<String, Stamp> stamps = new HashMap<>(); // empty = not loaded
+        volatile boolean loaded; // a query asked for it: worth rereading in the background
+
+        Pairs(Group group) {
+            this.group = group;
+        }
+
+        // ✅ one or two stats per query: a size/mtime that moved on means someone else wrote the file
+        void refreshIfStale() {
+            lock.readLock().lock();
+            try {
+                if (!stale()) return;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (stale()) load();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // lock held
+        private boolean stale() {
+            if (stamps.isEmpty()) return true;
+            for (Source s : group.sources) {
+                if (!stampOf(s).equals(stamps.get(s.file()))) return true;
+            }
+            return false;
+        }
+
+        // write lock held
+        private void load() {
+            forward.clear();
+            backward.clear();
+            stamps.clear();
+            long t0 = System.nanoTime();
+            int lines = 0;
+            for (Source s : group.sources) {
+                Path p = dataDir.resolve(s.file());
+                stamps.put(s.file(), stampOf(s));
+                if (!Files.exists(p)) continue;
+
+                try (BufferedReader br = Files.newBufferedReader(p)) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        add(s, line);
+                        lines++;
+                    }
+                } catch (IOException e) {
+                    System.out.println("❌ RelationIndex can't read " + s.file() + ": " + e.getMessage());
+                }
+            }
+            loaded = true;
+            System.out.printf("✅ Indexed %s: %d lines, %d keys (%.1f ms)%n",
+                    group, lines, forward.size(), (System.nanoTime() - t0) / 1e6);
+        }
+
+        void added(Source s, List<String> lines) {
+            lock.writeLock().lock();
+            try {
+                if (stamps.isEmpty()) return; // not loaded yet: the first query reads the file anyway
+                for (String line : lines) add(s, line);
+                stamps.put(s.file(), stampOf(s));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // write lock held
+        private void add(Source s, String line) {
+            if (line == null) return;
+            int i = line.indexOf(s.separator());
+            if (i < 0) return;
+
+            String a = line.substring(0, i).trim();
+            String b = line.substring(i + 1).trim();
+            if (a.isEmpty() || b.isEmpty()) return;
+
+            forward.computeIfAbsent(norm(a), k -> new LinkedHashSet<>()).add(b);
+            backward.computeIfAbsent(norm(b), k -> new LinkedHashSet<>()).add(a);
+        }
+
+        private Stamp stampOf(Source s) {
+            Path p = dataDir.resolve(s.file());
+            try {
+                return new Stamp(Files.size(p), Files.getLastModifiedTime(p).toMillis());
+            } catch (IOException e) {
+                return MISSING;
+            }
+        }
+    }
+
+    private static String norm(String key) {
+        return key == null ? "" : key.trim().toLowerCase();
+    }
+}
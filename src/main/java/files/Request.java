@@ -2,6 +2,9 @@ package files;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class Request implements Serializable {
 
@@ -10,7 +13,34 @@ public class Request implements Serializable {
 
     public enum RequestType {
         GET_ALL_COORDINATED_DATA,
-        WRITE_TO_FILE
+        WRITE_TO_FILE,
+        WRITE_BATCH,
+        GET_CHANGES_SINCE,
+
+        // targeted lookups (key = id), reply holds only what was asked for
+        GET_STUDENT,             // Student (+ its courses and their teachers) or null
+        GET_TEACHER,             // Teacher (+ its assigned courses) or null
+        GET_COURSE_ROSTER,       // Course (+ its students and teachers) or null
+        GET_COURSES_FOR_TEACHER, // List<Course> (+ rosters), empty if unknown
+
+        // cascading deletes (key = id): the entity and every line that points at it, in one transaction
+        DELETE_COURSE,           // Boolean: false if unknown or failed
+        DELETE_STUDENT,          // Boolean
+        DELETE_TEACHER,          // Boolean
+
+        // relation queries (key = id), answered from the server's indexes: List<String>, empty if none
+        GET_COURSE_IDS_OF_STUDENT,    // enrollments.txt + StudentCourses.txt
+        GET_STUDENT_IDS_OF_COURSE,    // same files, other way
+        GET_APPLICATIONS_OF_STUDENT,  // CourseApplications.txt: course ids
+        GET_APPLICANTS_OF_COURSE,     // CourseApplications.txt: student ids
+        GET_COURSE_IDS_OF_TEACHER,    // AssignedCoursesTeacher.txt
+        GET_FILES_OF_COURSE           // UploadedFiles.txt: file names
+    }
+
+    /** One (path, line) write inside a WRITE_BATCH. Same rules as a single WRITE_TO_FILE. */
+    public record WriteItem(String path, String line) implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
     }
 
     private final RequestType requestType;
@@ -19,11 +49,25 @@ public class Request implements Serializable {
     private final String path;
     private final String line;
 
+    // only for WRITE_BATCH (a concrete ArrayList: the field is serialized)
+    private final ArrayList<WriteItem> items;
+
+    // only for GET_CHANGES_SINCE (the client's last known position, -1 = none)
+    private final long epoch;
+    private final long version;
+
+    // only for the lookups (GET_STUDENT, ...), the deletes (DELETE_COURSE, ...) and the relation queries
+    private final String key;
+
     // for GET_ALL_COORDINATED_DATA
     public Request(RequestType requestType) {
         this.requestType = requestType;
         this.path = null;
         this.line = null;
+        this.items = null;
+        this.epoch = -1;
+        this.version = -1;
+        this.key = null;
     }
 
     // for WRITE_TO_FILE
@@ -31,6 +75,43 @@ public class Request implements Serializable {
         this.requestType = RequestType.WRITE_TO_FILE;
         this.path = path;
         this.line = line;
+        this.items = null;
+        this.epoch = -1;
+        this.version = -1;
+        this.key = null;
+    }
+
+    // for WRITE_BATCH (reply: boolean[] status, one per item, same order)
+    public Request(List<WriteItem> items) {
+        this.requestType = RequestType.WRITE_BATCH;
+        this.path = null;
+        this.line = null;
+        this.items = new ArrayList<>(items);
+        this.epoch = -1;
+        this.version = -1;
+        this.key = null;
+    }
+
+    // for GET_CHANGES_SINCE (reply: ChangeSet, a full snapshot if the server can't give a delta)
+    public Request(long epoch, long version) {
+        this.requestType = RequestType.GET_CHANGES_SINCE;
+        this.path = null;
+        this.line = null;
+        this.items = null;
+        this.epoch = epoch;
+        this.version = version;
+        this.key = null;
+    }
+
+    // for the targeted lookups, the deletes and the relation queries (student/teacher id, or course id)
+    public Request(RequestType requestType, String key) {
+        this.requestType = requestType;
+        this.path = null;
+        this.line = null;
+        this.items = null;
+        this.epoch = -1;
+        this.version = -1;
+        this.key = key;
     }
 
     public RequestType getRequestType() {
@@ -45,8 +126,33 @@ public class Request implements Serializable {
         return line;
     }
 
+    public List<WriteItem> getItems() {
+        return items == null ? List.of() : Collections.unmodifiableList(items);
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
     @Override
     public String toString() {
+        if (requestType == RequestType.WRITE_BATCH) {
+            return "Request{type=" + requestType + ", items=" + getItems().size() + "}";
+        }
+        if (key != null) {
+            return "Request{type=" + requestType + ", key='" + key + "'}";
+        }
+        if (requestType == RequestType.GET_CHANGES_SINCE) {
+            return "Request{type=" + requestType + ", epoch=" + epoch + ", version=" + version + "}";
+        }
         return "Request{type=" + requestType + ", path='" + path + "', line='" + line + "'}";
     }
 }
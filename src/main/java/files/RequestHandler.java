@@ -0,0 +1,281 @@
+// ✅ files/RequestHandler.java
+package files;
+
+import files.Classes.Change;
+import files.Server.CachedPayload;
+import files.Server.GroupCommitWriter;
+import files.Storage.TableStorage;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Turns one Request into its reply. Shared by the blocking ServerWriteThread
+ * and the NioServer so both front ends behave the same.
+ * Data comes from the shared DataStore; writes to its files go through it.
+ */
+public class RequestHandler {
+
+    // ✅ one store for the whole server (loaded once, shared by all connections)
+    private final DataStore store;
+
+    // ✅ credential / profile files: rewrite, log or mapped (-Dcoursesphere.upsert.storage)
+    private final UpsertStorage upserts;
+
+    // ✅ text only, or also the paged store (-Dcoursesphere.storage)
+    private final TableStorage tables;
+
+    // ✅ DELETE_COURSE / DELETE_STUDENT / DELETE_TEACHER
+    private final CascadeDelete cascade;
+
+    // ✅ writes to the same record wait for each other, the rest run side by side
+    private final LockManager locks;
+
+    // ✅ student <-> course, course -> applicants / files ... (the GET_..._OF_... queries)
+    private final RelationIndex relations;
+
+    public RequestHandler() {
+        this(DataStore.shared(), UpsertStorage.shared(), TableStorage.shared(), LockManager.shared(),
+                RelationIndex.shared());
+    }
+
+    public RequestHandler(DataStore store, UpsertStorage upserts, TableStorage tables, LockManager locks,
+                          RelationIndex relations) {
+        this.store = store;
+        this.upserts = upserts;
+        this.tables = tables;
+        this.locks = locks;
+        this.relations = relations;
+        this.cascade = new CascadeDelete(store.dataDir(), upserts, tables);
+    }
+
+    /**
+     * @return the object to send back (GET_ALL -> DataSnapshot, WRITE_TO_FILE -> Boolean,
+     *         WRITE_BATCH -> boolean[] per item, GET_CHANGES_SINCE -> ChangeSet,
+     *         GET_STUDENT / GET_TEACHER / GET_COURSE_ROSTER -> the object or Boolean.FALSE if unknown,
+     *         GET_COURSES_FOR_TEACHER -> List<Course>, DELETE_* -> Boolean, GET_..._OF_... -> List<String>),
+     *         or null when the request has no reply.
+     *         Snapshots come wrapped in a CachedPayload (already encoded, shared by all clients).
+     */
+    public Object handle(Request request) {
+        return switch (request.getRequestType()) {
+            case GET_ALL_COORDINATED_DATA -> handleGetAll();
+            case WRITE_TO_FILE -> handleWriteToFile(request);
+            case WRITE_BATCH -> handleWriteBatch(request);
+            case GET_CHANGES_SINCE -> handleGetChangesSince(request);
+            case GET_STUDENT -> found(parseId(request.getKey()) instanceof Integer id ? store.student(id) : null);
+            case GET_TEACHER -> found(parseId(request.getKey()) instanceof Integer id ? store.teacher(id) : null);
+            case GET_COURSE_ROSTER -> found(store.courseRoster(request.getKey()));
+            case GET_COURSES_FOR_TEACHER -> parseId(request.getKey()) instanceof Integer id
+                    ? store.coursesForTeacher(id) : new ArrayList<>();
+            case DELETE_COURSE -> handleDelete(Change.Entity.COURSE, request.getKey());
+            case DELETE_STUDENT -> handleDelete(Change.Entity.STUDENT, request.getKey());
+            case DELETE_TEACHER -> handleDelete(Change.Entity.TEACHER, request.getKey());
+            case GET_COURSE_IDS_OF_STUDENT -> relations.query(RelationIndex.Relation.COURSES_OF_STUDENT, request.getKey());
+            case GET_STUDENT_IDS_OF_COURSE -> relations.query(RelationIndex.Relation.STUDENTS_OF_COURSE, request.getKey());
+            case GET_APPLICATIONS_OF_STUDENT -> relations.query(RelationIndex.Relation.APPLICATIONS_OF_STUDENT, request.getKey());
+            case GET_APPLICANTS_OF_COURSE -> relations.query(RelationIndex.Relation.APPLICANTS_OF_COURSE, request.getKey());
+            case GET_COURSE_IDS_OF_TEACHER -> relations.query(RelationIndex.Relation.COURSES_OF_TEACHER, request.getKey());
+            case GET_FILES_OF_COURSE -> relations.query(RelationIndex.Relation.FILES_OF_COURSE, request.getKey());
+        };
+    }
+
+    // =========================
+    // GET ALL DATA
+    // =========================
+    private CachedPayload handleGetAll() {
+        // ✅ no file reading here any more: the store already has it (and its bytes)
+        return store.snapshotReply();
+    }
+
+    // =========================
+    // GET CHANGES SINCE
+    // =========================
+    private Object handleGetChangesSince(Request request) {
+        return store.changesSinceReply(request.getEpoch(), request.getVersion());
+    }
+
+    // =========================
+    // LOOKUPS
+    // =========================
+    // ✅ null would mean "no reply" to the servers, so "not found" goes back as FALSE
+    private static Object found(Object o) {
+        return o != null ? o : Boolean.FALSE;
+    }
+
+    private static Integer parseId(String key) {
+        if (key == null) return null;
+        try {
+            return Integer.parseInt(key.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // =========================
+    // CASCADING DELETE
+    // =========================
+    private Boolean handleDelete(Change.Entity entity, String key) {
+        if (key == null || key.isBlank()) return false;
+
+        try {
+            Map<String, Integer> removed = new LinkedHashMap<>();
+            boolean ok;
+            LockManager.Held held = locks.acquire(cascade.locks(entity));
+            try {
+                ok = store.delete(entity, key, () -> removed.putAll(cascade.run(entity, key)));
+            } finally {
+                held.close();
+            }
+            if (ok) System.out.println("✅ Deleted " + entity + " " + key.trim() + " " + removed);
+            return ok;
+        } catch (Exception e) {
+            System.out.println("❌ DELETE " + entity + " " + key + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // =========================
+    // WRITE TO FILE (FIXED)
+    // =========================
+    private Boolean handleWriteToFile(Request request) {
+        if (request.getPath() == null || request.getPath().isBlank()) return false;
+        if (request.getLine() == null) return false;
+
+        try {
+            Path p = Paths.get(request.getPath());
+            List<String> lines = List.of(request.getLine());
+            CompletableFuture<Void> durable;
+            LockManager.Held held = locks.acquire(locksFor(p, lines));
+            try {
+                durable = writeLines(p, lines);
+            } finally {
+                held.close();
+            }
+            GroupCommitWriter.await(durable);
+            return true;
+        } catch (Exception e) {
+            System.out.println("❌ WRITE_TO_FILE failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // =========================
+    // WRITE BATCH
+    // =========================
+    /**
+     * ✅ Groups items by file and applies each file's lines in ONE pass
+     * (one append, or one read+rewrite for upsert files). Order inside a file is kept.
+     */
+    private boolean[] handleWriteBatch(Request request) {
+        List<Request.WriteItem> items = request.getItems();
+        boolean[] status = new boolean[items.size()];
+
+        Map<Path, List<Integer>> byFile = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Request.WriteItem item = items.get(i);
+            if (item == null || item.path() == null || item.path().isBlank() || item.line() == null) continue;
+
+            try {
+                Path p = Paths.get(item.path()).normalize();
+                byFile.computeIfAbsent(p, k -> new ArrayList<>()).add(i);
+            } catch (InvalidPathException e) {
+                System.out.println("❌ WRITE_BATCH bad path: " + item.path());
+            }
+        }
+
+        Map<Path, List<String>> linesByFile = new LinkedHashMap<>();
+        List<LockManager.Request> needed = new ArrayList<>();
+        for (Map.Entry<Path, List<Integer>> e : byFile.entrySet()) {
+            List<String> lines = new ArrayList<>(e.getValue().size());
+            for (int idx : e.getValue()) lines.add(items.get(idx).line());
+            linesByFile.put(e.getKey(), lines);
+            needed.addAll(locksFor(e.getKey(), lines));
+        }
+
+        // ✅ write every file first (all of the batch's locks taken at once, in order),
+        // then wait for the disk once (the forces overlap)
+        Map<Path, CompletableFuture<Void>> durable = new LinkedHashMap<>();
+        LockManager.Held held = locks.acquire(needed);
+        try {
+            for (Map.Entry<Path, List<String>> e : linesByFile.entrySet()) {
+                try {
+                    durable.put(e.getKey(), writeLines(e.getKey(), e.getValue()));
+                } catch (Exception ex) {
+                    System.out.println("❌ WRITE_BATCH failed for " + e.getKey() + ": " + ex.getMessage());
+                }
+            }
+        } finally {
+            held.close();
+        }
+
+        for (Map.Entry<Path, CompletableFuture<Void>> e : durable.entrySet()) {
+            boolean ok;
+            try {
+                GroupCommitWriter.await(e.getValue());
+                ok = true;
+            } catch (IOException ex) {
+                System.out.println("❌ WRITE_BATCH failed for " + e.getKey() + ": " + ex.getMessage());
+                ok = false;
+            }
+            for (int idx : byFile.get(e.getKey())) status[idx] = ok;
+        }
+        return status;
+    }
+
+    /**
+     * What a write of these lines must hold: each line's record (first field) in WRITE mode,
+     * or the whole file when the upsert storage rewrites it.
+     */
+    private List<LockManager.Request> locksFor(Path p, List<String> lines) {
+        String fileName = p.getFileName() == null ? "" : p.getFileName().toString();
+        if (UpsertStorage.isUpsertFile(fileName) && !upserts.perRecord()) {
+            return List.of(LockManager.Request.file(p, LockManager.Mode.WRITE));
+        }
+
+        char sep = TableStorage.separator(fileName);
+        List<LockManager.Request> out = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            out.add(LockManager.Request.record(p, TableStorage.firstField(line, sep), LockManager.Mode.WRITE));
+        }
+        return out;
+    }
+
+    /**
+     * Caller holds locksFor(p, newLines).
+     * @return completes when the lines are durable (see GroupCommitWriter); written already on return
+     */
+    private CompletableFuture<Void> writeLines(Path p, List<String> newLines) throws IOException {
+        Path parent = p.getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        // ✅ data files: written under the store lock, and the store is updated with the same lines.
+        // Only "written" is waited for under the lock; the force is waited for outside it.
+        if (store.isDataFile(p)) {
+            List<CompletableFuture<Void>> durable = new ArrayList<>(1);
+            store.write(p, newLines, () -> durable.add(writeFileLines(p, newLines)));
+            return durable.get(0);
+        }
+        return writeFileLines(p, newLines);
+    }
+
+    private CompletableFuture<Void> writeFileLines(Path p, List<String> newLines) throws IOException {
+        String fileName = p.getFileName().toString();
+
+        // ✅ UPSERT for profile + credential files (replace by id, don't append forever)
+        if (UpsertStorage.isUpsertFile(fileName)) {
+            upserts.upsert(p, newLines);
+            tables.written(p, newLines);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // default: append (for enrollments, course applications, etc.), grouped with other connections' appends
+        GroupCommitWriter.Append append = GroupCommitWriter.forFile(p).append(newLines);
+        GroupCommitWriter.await(append.written());
+        tables.written(p, newLines);
+        relations.written(p, newLines);
+        return append.durable();
+    }
+}
@@ -0,0 +1,83 @@
+// ✅ files/RewriteUpsertStorage.java
+package files;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * The original way: every write reads the whole file, replaces the lines and rewrites it.
+ * O(file size) per call; RequestHandler at least batches all lines for one file into one call.
+ */
+public final class RewriteUpsertStorage implements UpsertStorage {
+
+    /**
+     * ✅ Replace a line where first field (ID) matches, otherwise add.
+     * Works for comma-separated files that start with id.
+     * All newLines are applied in one read + one rewrite of the file.
+     */
+    @Override
+    public void upsert(Path path, List<String> newLines) throws IOException {
+        List<String> out = merge(readLines(path), newLines);
+        Files.write(path, out, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void delete(Path path, String key) throws IOException {
+        List<String> lines = readLines(path);
+        List<String> out = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line == null || line.isBlank() || UpsertStorage.firstField(line).equals(key)) continue;
+            out.add(line);
+        }
+        if (out.size() != lines.size()) {
+            Files.write(path, out, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+    }
+
+    @Override
+    public List<String> lines(Path path) throws IOException {
+        return Files.exists(path) ? Files.readAllLines(path) : new ArrayList<>();
+    }
+
+    // every write rewrites the whole file: it needs the file to itself
+    @Override
+    public boolean perRecord() {
+        return false;
+    }
+
+    private static List<String> readLines(Path path) throws IOException {
+        Files.createDirectories(path.getParent() == null ? Paths.get(".") : path.getParent());
+        if (!Files.exists(path)) Files.createFile(path);
+        return Files.readAllLines(path);
+    }
+
+    /** Same rules as always: first line with the id is replaced, new ids are added in order. */
+    static List<String> merge(List<String> lines, List<String> newLines) {
+        List<String> out = new ArrayList<>(lines.size() + newLines.size());
+        Map<String, Integer> positionByKey = new HashMap<>();
+        for (String line : lines) {
+            if (line == null || line.isBlank()) continue;
+
+            positionByKey.putIfAbsent(UpsertStorage.firstField(line), out.size());
+            out.add(line);
+        }
+
+        for (String newLine : newLines) {
+            String newKey = UpsertStorage.firstField(newLine);
+            Integer pos = newKey.isBlank() ? null : positionByKey.get(newKey);
+
+            if (pos != null) {
+                out.set(pos, newLine);
+            } else {
+                // new id (or key we can't parse -> plain append)
+                if (!newKey.isBlank()) positionByKey.put(newKey, out.size());
+                out.add(newLine);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,639 @@
+// ✅ files/Server/BinaryCodec.java
+package files.Server;
+
+import files.Classes.*;
+import files.Request;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Hand-written, length-prefixed binary format for the messages we actually send.
+ *
+ *   payload = [byte FORMAT_VERSION][value]
+ *   value   = [byte tag][fields...]
+ *
+ * Sizes, table indexes and string lengths are unsigned varints (7 bits per byte),
+ * so the many small numbers in a graph cost 1-2 bytes instead of 4.
+ * Strings are [varint byteLength+1 (0 = null)][UTF-8]. Lists are [varint size][values].
+ *
+ * Students / teachers / courses are written as a GRAPH: tables of people and courses
+ * once each, then the links as table indexes, then what the root object was.
+ * Object identity (the same Student in a course roster and in the StudentList)
+ * survives the round trip, like it does with Java serialization.
+ *
+ * Anything not listed here still works: it goes as TAG_JAVA (Java-serialized bytes, read back
+ * through JavaSerializationCodec.FILTER, so only files.* and the JDK collections/values it lists).
+ * New fields/tags must bump FORMAT_VERSION; a reader refuses versions newer than its own.
+ */
+public final class BinaryCodec implements MessageCodec {
+
+    public static final byte ID = 2;
+
+    private static final byte FORMAT_VERSION = 3; // v2: GET_CHANGES_SINCE, TAG_CHANGE_SET; v3: lookup keys, ROOT_COURSES
+
+    // ===== value tags =====
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_BOOLEAN_ARRAY = 3;
+    private static final byte TAG_LIST = 4;
+    private static final byte TAG_REQUEST = 5;
+    private static final byte TAG_NOTIFICATION = 6;
+    private static final byte TAG_DEADLINE = 7;
+    private static final byte TAG_FILE_PACKET = 8;
+    private static final byte TAG_GET_DEADLINES = 9;
+    private static final byte TAG_GRAPH = 10;
+    private static final byte TAG_CHANGE_SET = 11;
+    private static final byte TAG_JAVA = 127;
+
+    // ===== graph roots =====
+    private static final byte ROOT_SNAPSHOT = 1;
+    private static final byte ROOT_STUDENT_LIST = 2;
+    private static final byte ROOT_TEACHER_LIST = 3;
+    private static final byte ROOT_COURSE_LIST = 4;
+    private static final byte ROOT_STUDENT = 5;
+    private static final byte ROOT_TEACHER = 6;
+    private static final byte ROOT_COURSE = 7;
+    private static final byte ROOT_COURSES = 8; // List<Course> (GET_COURSES_FOR_TEACHER)
+
+    private final JavaSerializationCodec fallback = new JavaSerializationCodec();
+
+    @Override
+    public byte id() { return ID; }
+
+    @Override
+    public String name() { return "binary"; }
+
+    @Override
+    public byte[] encode(Object message) throws IOException {
+        Out out = new Out(512);
+        out.writeByte(FORMAT_VERSION);
+        writeValue(out, message);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] payload) throws IOException, ClassNotFoundException {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        try {
+            int version = in.get() & 0xFF;
+            if (version > FORMAT_VERSION) {
+                throw new StreamCorruptedException("Binary format v" + version + " is newer than v" + FORMAT_VERSION);
+            }
+            return readValue(in);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Truncated binary payload");
+        }
+    }
+
+    // =========================
+    // VALUES
+    // =========================
+    private void writeValue(Out out, Object v) throws IOException {
+        if (v == null) {
+            out.writeByte(TAG_NULL);
+        } else if (v instanceof String s) {
+            out.writeByte(TAG_STRING);
+            writeString(out, s);
+        } else if (v instanceof Boolean b) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (v instanceof boolean[] arr) {
+            out.writeByte(TAG_BOOLEAN_ARRAY);
+            writeVarInt(out, arr.length);
+            for (boolean b : arr) out.writeBoolean(b);
+        } else if (v instanceof Request r) {
+            out.writeByte(TAG_REQUEST);
+            writeRequest(out, r);
+        } else if (v instanceof Notification n) {
+            out.writeByte(TAG_NOTIFICATION);
+            writeString(out, n.getNotification());
+        } else if (v instanceof Deadline d) {
+            out.writeByte(TAG_DEADLINE);
+            writeString(out, d.getCourseId());
+            writeString(out, d.getTaskName());
+            writeString(out, d.getType());
+            out.writeBoolean(d.getDueDate() != null);
+            if (d.getDueDate() != null) out.writeLong(d.getDueDate().toEpochDay());
+        } else if (v instanceof FilePacket p) {
+            out.writeByte(TAG_FILE_PACKET);
+            writeString(out, p.getCourseId());
+            writeString(out, p.getFileName());
+            byte[] data = p.getFileData();
+            out.writeInt(data == null ? -1 : data.length);
+            if (data != null) out.write(data);
+        } else if (v instanceof GetDeadlinesRequest g) {
+            out.writeByte(TAG_GET_DEADLINES);
+            writeString(out, g.getCourseId());
+        } else if (v instanceof ChangeSet cs) {
+            out.writeByte(TAG_CHANGE_SET);
+            writeChangeSet(out, cs);
+        } else if (isGraphRoot(v)) {
+            out.writeByte(TAG_GRAPH);
+            new GraphWriter().write(out, v);
+        } else if (v instanceof List<?> list) {
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, list.size());
+            for (Object o : list) writeValue(out, o);
+        } else {
+            // ✅ unknown type: still send it, just not compactly
+            byte[] java = fallback.encode(v);
+            out.writeByte(TAG_JAVA);
+            out.writeInt(java.length);
+            out.write(java);
+        }
+    }
+
+    private Object readValue(ByteBuffer in) throws IOException, ClassNotFoundException {
+        byte tag = in.get();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_STRING -> readString(in);
+            case TAG_BOOLEAN -> (in.get() != 0);
+            case TAG_BOOLEAN_ARRAY -> {
+                boolean[] arr = new boolean[count(in, 1)];
+                for (int i = 0; i < arr.length; i++) arr[i] = (in.get() != 0);
+                yield arr;
+            }
+            case TAG_REQUEST -> readRequest(in);
+            case TAG_NOTIFICATION -> new Notification(readString(in));
+            case TAG_DEADLINE -> {
+                String courseId = readString(in);
+                String taskName = readString(in);
+                String type = readString(in);
+                LocalDate due = (in.get() != 0) ? LocalDate.ofEpochDay(in.getLong()) : null;
+                yield new Deadline(courseId, taskName, type, due);
+            }
+            case TAG_FILE_PACKET -> {
+                String courseId = readString(in);
+                String fileName = readString(in);
+                int len = in.getInt();
+                byte[] data = null;
+                if (len >= 0) {
+                    data = new byte[bytes(in, len)];
+                    in.get(data);
+                }
+                yield new FilePacket(courseId, fileName, data);
+            }
+            case TAG_GET_DEADLINES -> new GetDeadlinesRequest(readString(in));
+            case TAG_GRAPH -> new GraphReader().read(in);
+            case TAG_CHANGE_SET -> readChangeSet(in);
+            case TAG_LIST -> {
+                int size = count(in, 1); // a tag at least
+                List<Object> list = new ArrayList<>();
+                for (int i = 0; i < size; i++) list.add(readValue(in));
+                yield list;
+            }
+            case TAG_JAVA -> {
+                byte[] java = new byte[bytes(in, in.getInt())];
+                in.get(java);
+                yield fallback.decode(java);
+            }
+            default -> throw new StreamCorruptedException("Unknown binary tag " + tag);
+        };
+    }
+
+    // =========================
+    // REQUEST
+    // =========================
+    private void writeRequest(Out out, Request r) throws IOException {
+        writeString(out, r.getRequestType().name());
+        switch (r.getRequestType()) {
+            case WRITE_TO_FILE -> {
+                writeString(out, r.getPath());
+                writeString(out, r.getLine());
+            }
+            case WRITE_BATCH -> {
+                List<Request.WriteItem> items = r.getItems();
+                writeVarInt(out, items.size());
+                for (Request.WriteItem item : items) {
+                    writeString(out, item.path());
+                    writeString(out, item.line());
+                }
+            }
+            case GET_CHANGES_SINCE -> {
+                out.writeLong(r.getEpoch());
+                out.writeLong(r.getVersion());
+            }
+            case GET_STUDENT, GET_TEACHER, GET_COURSE_ROSTER, GET_COURSES_FOR_TEACHER,
+                 DELETE_COURSE, DELETE_STUDENT, DELETE_TEACHER,
+                 GET_COURSE_IDS_OF_STUDENT, GET_STUDENT_IDS_OF_COURSE, GET_APPLICATIONS_OF_STUDENT,
+                 GET_APPLICANTS_OF_COURSE, GET_COURSE_IDS_OF_TEACHER, GET_FILES_OF_COURSE -> writeString(out, r.getKey());
+            default -> { }
+        }
+    }
+
+    private Request readRequest(ByteBuffer in) throws IOException {
+        Request.RequestType type;
+        try {
+            type = Request.RequestType.valueOf(readString(in));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new StreamCorruptedException("Unknown request type");
+        }
+
+        return switch (type) {
+            case WRITE_TO_FILE -> new Request(readString(in), readString(in));
+            case WRITE_BATCH -> {
+                int size = count(in, 2); // two strings
+                List<Request.WriteItem> items = new ArrayList<>();
+                for (int i = 0; i < size; i++) items.add(new Request.WriteItem(readString(in), readString(in)));
+                yield new Request(items);
+            }
+            case GET_CHANGES_SINCE -> new Request(in.getLong(), in.getLong());
+            case GET_STUDENT, GET_TEACHER, GET_COURSE_ROSTER, GET_COURSES_FOR_TEACHER,
+                 DELETE_COURSE, DELETE_STUDENT, DELETE_TEACHER,
+                 GET_COURSE_IDS_OF_STUDENT, GET_STUDENT_IDS_OF_COURSE, GET_APPLICATIONS_OF_STUDENT,
+                 GET_APPLICANTS_OF_COURSE, GET_COURSE_IDS_OF_TEACHER, GET_FILES_OF_COURSE -> new Request(type, readString(in));
+            default -> new Request(type);
+        };
+    }
+
+    // =========================
+    // CHANGE SET
+    // =========================
+    // [long epoch][long version][varint n][changes...][value snapshot or TAG_NULL]
+    private void writeChangeSet(Out out, ChangeSet cs) throws IOException {
+        out.writeLong(cs.getEpoch());
+        out.writeLong(cs.getVersion());
+        writeVarInt(out, cs.getChanges().size());
+        for (Change c : cs.getChanges()) {
+            out.writeLong(c.version());
+            out.writeByte(c.entity().ordinal());
+            out.writeByte(c.op().ordinal());
+            writeString(out, c.key());
+            writeVarInt(out, c.fields().size());
+            for (String f : c.fields()) writeString(out, f);
+        }
+        writeValue(out, cs.getSnapshot());
+    }
+
+    private ChangeSet readChangeSet(ByteBuffer in) throws IOException, ClassNotFoundException {
+        long epoch = in.getLong();
+        long version = in.getLong();
+        int size = count(in, 12); // version, entity, op, key, field count
+
+        Change.Entity[] entities = Change.Entity.values();
+        Change.Op[] ops = Change.Op.values();
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            long v = in.getLong();
+            Change.Entity entity = entities[checkIndex(in.get() & 0xFF, entities.length)];
+            Change.Op op = ops[checkIndex(in.get() & 0xFF, ops.length)];
+            String key = readString(in);
+            int n = count(in, 1);
+            List<String> fields = new ArrayList<>();
+            for (int f = 0; f < n; f++) fields.add(readString(in));
+            changes.add(new Change(v, entity, op, key, fields));
+        }
+
+        Object snapshot = readValue(in);
+        if (snapshot != null && !(snapshot instanceof DataSnapshot)) {
+            throw new StreamCorruptedException("ChangeSet snapshot is " + snapshot.getClass().getName());
+        }
+        return new ChangeSet(epoch, version, changes, (DataSnapshot) snapshot);
+    }
+
+    // =========================
+    // GRAPH (students / teachers / courses)
+    // =========================
+    private static boolean isGraphRoot(Object v) {
+        return v instanceof DataSnapshot || v instanceof StudentList || v instanceof TeacherList
+                || v instanceof CourseList || v instanceof Person || v instanceof Course || isCourses(v);
+    }
+
+    // a plain non-empty List of only courses: one graph, so shared rosters are written once
+    private static boolean isCourses(Object v) {
+        if (!(v instanceof List<?> list) || list.isEmpty()) return false;
+        for (Object o : list) {
+            if (!(o instanceof Course)) return false;
+        }
+        return true;
+    }
+
+    private static final class GraphWriter {
+        private final IdentityHashMap<Student, Integer> studentIdx = new IdentityHashMap<>();
+        private final IdentityHashMap<Teacher, Integer> teacherIdx = new IdentityHashMap<>();
+        private final IdentityHashMap<Course, Integer> courseIdx = new IdentityHashMap<>();
+        private final List<Student> students = new ArrayList<>();
+        private final List<Teacher> teachers = new ArrayList<>();
+        private final List<Course> courses = new ArrayList<>();
+
+        // ✅ iterative walk (a recursive one overflows the stack on big rosters)
+        private final ArrayDeque<Object> work = new ArrayDeque<>();
+
+        void write(Out out, Object root) throws IOException {
+            collectRoot(root);
+            drain();
+
+            writeVarInt(out, students.size());
+            for (Student s : students) {
+                out.writeInt(s.getId());
+                writeString(out, s.getName());
+                writeString(out, s.getPassword());
+                writeString(out, s.getImagePath());
+            }
+            writeVarInt(out, teachers.size());
+            for (Teacher t : teachers) {
+                out.writeInt(t.getId());
+                writeString(out, t.getName());
+                writeString(out, t.getPassword());
+            }
+            writeVarInt(out, courses.size());
+            for (Course c : courses) {
+                writeString(out, c.getCourseID());
+                writeString(out, c.getCourseName());
+                out.writeDouble(c.getCredit());
+            }
+
+            // links, as table indexes
+            for (Student s : students) writeIndexes(out, s.getCourses(), courseIdx);
+            for (Teacher t : teachers) writeIndexes(out, t.getCoursesAssigned(), courseIdx);
+            for (Course c : courses) {
+                writeIndexes(out, c.getCourseStudents(), studentIdx);
+                writeIndexes(out, c.getCourseTeachers(), teacherIdx);
+            }
+
+            writeRoot(out, root);
+        }
+
+        private void collectRoot(Object root) {
+            if (root instanceof DataSnapshot d) {
+                d.getStudentList().getStudents().forEach(this::visit);
+                d.getTeacherList().getTeachers().forEach(this::visit);
+                d.getCourseList().getCourses().forEach(this::visit);
+            } else if (root instanceof StudentList sl) {
+                sl.getStudents().forEach(this::visit);
+            } else if (root instanceof TeacherList tl) {
+                tl.getTeachers().forEach(this::visit);
+            } else if (root instanceof CourseList cl) {
+                cl.getCourses().forEach(this::visit);
+            } else if (root instanceof List<?> list) {
+                list.forEach(this::visit);
+            } else {
+                visit(root);
+            }
+        }
+
+        private void visit(Object o) {
+            if (o instanceof Student s) {
+                if (studentIdx.putIfAbsent(s, students.size()) == null) { students.add(s); work.add(s); }
+            } else if (o instanceof Teacher t) {
+                if (teacherIdx.putIfAbsent(t, teachers.size()) == null) { teachers.add(t); work.add(t); }
+            } else if (o instanceof Course c) {
+                if (courseIdx.putIfAbsent(c, courses.size()) == null) { courses.add(c); work.add(c); }
+            }
+        }
+
+        private void drain() {
+            Object o;
+            while ((o = work.poll()) != null) {
+                if (o instanceof Student s) {
+                    s.getCourses().forEach(this::visit);
+                } else if (o instanceof Teacher t) {
+                    t.getCoursesAssigned().forEach(this::visit);
+                } else if (o instanceof Course c) {
+                    c.getCourseStudents().forEach(this::visit);
+                    c.getCourseTeachers().forEach(this::visit);
+                }
+            }
+        }
+
+        private void writeRoot(Out out, Object root) throws IOException {
+            if (root instanceof DataSnapshot d) {
+                out.writeByte(ROOT_SNAPSHOT);
+                writeIndexes(out, d.getStudentList().getStudents(), studentIdx);
+                writeIndexes(out, d.getTeacherList().getTeachers(), teacherIdx);
+                writeIndexes(out, d.getCourseList().getCourses(), courseIdx);
+            } else if (root instanceof StudentList sl) {
+                out.writeByte(ROOT_STUDENT_LIST);
+                writeIndexes(out, sl.getStudents(), studentIdx);
+            } else if (root instanceof TeacherList tl) {
+                out.writeByte(ROOT_TEACHER_LIST);
+                writeIndexes(out, tl.getTeachers(), teacherIdx);
+            } else if (root instanceof CourseList cl) {
+                out.writeByte(ROOT_COURSE_LIST);
+                writeIndexes(out, cl.getCourses(), courseIdx);
+            } else if (root instanceof Student s) {
+                out.writeByte(ROOT_STUDENT);
+                writeVarInt(out, studentIdx.get(s));
+            } else if (root instanceof Teacher t) {
+                out.writeByte(ROOT_TEACHER);
+                writeVarInt(out, teacherIdx.get(t));
+            } else if (root instanceof Course c) {
+                out.writeByte(ROOT_COURSE);
+                writeVarInt(out, courseIdx.get(c));
+            } else if (isCourses(root)) {
+                out.writeByte(ROOT_COURSES);
+                @SuppressWarnings("unchecked")
+                List<Course> list = (List<Course>) root;
+                writeIndexes(out, list, courseIdx);
+            } else {
+                throw new NotSerializableException(root.getClass().getName());
+            }
+        }
+
+        private static <T> void writeIndexes(Out out, List<? extends T> items,
+                                             IdentityHashMap<T, Integer> index) throws IOException {
+            writeVarInt(out, items.size());
+            for (T item : items) writeVarInt(out, index.get(item));
+        }
+    }
+
+    private static final class GraphReader {
+        private Student[] students;
+        private Teacher[] teachers;
+        private Course[] courses;
+
+        Object read(ByteBuffer in) throws IOException {
+            students = new Student[count(in, 7)]; // id, three strings
+            for (int i = 0; i < students.length; i++) {
+                int id = in.getInt();
+                students[i] = new Student(readString(in), id, readString(in));
+                students[i].setImagePath(readString(in));
+            }
+            teachers = new Teacher[count(in, 6)];
+            for (int i = 0; i < teachers.length; i++) {
+                int id = in.getInt();
+                teachers[i] = new Teacher(readString(in), id, readString(in));
+            }
+            courses = new Course[count(in, 10)]; // two strings, credit
+            for (int i = 0; i < courses.length; i++) {
+                try {
+                    courses[i] = new Course(readString(in), readString(in), in.getDouble());
+                } catch (IllegalArgumentException e) {
+                    throw new StreamCorruptedException("Bad course: " + e.getMessage());
+                }
+            }
+
+            // ✅ person-side lists first (keeps their own order), then rosters;
+            // Course.addStudent/addTeacher won't duplicate what's already there
+            for (Student s : students) {
+                for (int idx : readIndexes(in, courses.length)) s.enroll(courses[idx]);
+            }
+            for (Teacher t : teachers) {
+                for (int idx : readIndexes(in, courses.length)) t.assignCourse(courses[idx]);
+            }
+            for (Course c : courses) {
+                for (int idx : readIndexes(in, students.length)) c.addStudent(students[idx]);
+                for (int idx : readIndexes(in, teachers.length)) c.addTeacher(teachers[idx]);
+            }
+
+            return readRoot(in);
+        }
+
+        private Object readRoot(ByteBuffer in) throws IOException {
+            byte kind = in.get();
+            return switch (kind) {
+                case ROOT_SNAPSHOT -> new DataSnapshot(readStudentList(in), readTeacherList(in), readCourseList(in));
+                case ROOT_STUDENT_LIST -> readStudentList(in);
+                case ROOT_TEACHER_LIST -> readTeacherList(in);
+                case ROOT_COURSE_LIST -> readCourseList(in);
+                case ROOT_STUDENT -> students[checkIndex(readVarInt(in), students.length)];
+                case ROOT_TEACHER -> teachers[checkIndex(readVarInt(in), teachers.length)];
+                case ROOT_COURSE -> courses[checkIndex(readVarInt(in), courses.length)];
+                case ROOT_COURSES -> {
+                    List<Course> list = new ArrayList<>();
+                    for (int idx : readIndexes(in, courses.length)) list.add(courses[idx]);
+                    yield list;
+                }
+                default -> throw new StreamCorruptedException("Unknown graph root " + kind);
+            };
+        }
+
+        private StudentList readStudentList(ByteBuffer in) throws IOException {
+            StudentList list = new StudentList();
+            for (int idx : readIndexes(in, students.length)) list.addStudent(students[idx]);
+            return list;
+        }
+
+        private TeacherList readTeacherList(ByteBuffer in) throws IOException {
+            TeacherList list = new TeacherList();
+            for (int idx : readIndexes(in, teachers.length)) list.addTeacher(teachers[idx]);
+            return list;
+        }
+
+        private CourseList readCourseList(ByteBuffer in) throws IOException {
+            CourseList list = new CourseList();
+            for (int idx : readIndexes(in, courses.length)) list.addCourse(courses[idx]);
+            return list;
+        }
+
+        private static int[] readIndexes(ByteBuffer in, int bound) throws IOException {
+            int[] idx = new int[count(in, 1)];
+            for (int i = 0; i < idx.length; i++) idx[i] = checkIndex(readVarInt(in), bound);
+            return idx;
+        }
+    }
+
+    // =========================
+    // PRIMITIVES
+    // =========================
+
+    /** Growable byte array writer (DataOutputStream over ByteArrayOutputStream locks on every byte). */
+    private static final class Out {
+        private byte[] buf;
+        private int size;
+
+        Out(int initialCapacity) {
+            buf = new byte[initialCapacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeBoolean(boolean b) {
+            writeByte(b ? 1 : 0);
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            buf[size++] = (byte) (v >>> 24);
+            buf[size++] = (byte) (v >>> 16);
+            buf[size++] = (byte) (v >>> 8);
+            buf[size++] = (byte) v;
+        }
+
+        void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+
+        void writeDouble(double v) {
+            writeLong(Double.doubleToLongBits(v));
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+    }
+    private static void writeString(Out out, String s) throws IOException {
+        if (s == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + 1);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int len = readVarInt(in) - 1;
+        if (len < 0) return null;
+        byte[] utf8 = new byte[bytes(in, len)];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(Out out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = (in.get() & 0xFF);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new StreamCorruptedException("Varint too long");
+    }
+
+    // ✅ a count is checked against what is left of the payload before anything is allocated for it:
+    // each element takes at least minBytes, so a few bytes can't ask for a huge array
+    private static int count(ByteBuffer in, int minBytes) throws IOException {
+        int size = readVarInt(in);
+        if (size < 0 || size > in.remaining() / minBytes) throw new StreamCorruptedException("Bad count " + size);
+        return size;
+    }
+
+    private static int bytes(ByteBuffer in, int len) throws IOException {
+        if (len < 0 || len > in.remaining()) throw new StreamCorruptedException("Bad length " + len);
+        return len;
+    }
+
+    private static int checkIndex(int idx, int bound) throws IOException {
+        if (idx < 0 || idx >= bound) throw new StreamCorruptedException("Bad index " + idx);
+        return idx;
+    }
+}
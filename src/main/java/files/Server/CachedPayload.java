@@ -0,0 +1,79 @@
+// ✅ files/Server/CachedPayload.java
+package files.Server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reply that is sent many times unchanged (the GET_ALL snapshot of one data version).
+ *
+ * Encoded once per codec (by name, so "binary" and "binary+deflate1" are separate),
+ * then the same byte[] goes to every client that asks
+ * (SocketWrapper / NioServer call bytes() instead of codec.encode()).
+ * Never modified after encoding, so sharing the array between sockets is safe.
+ * Whoever creates it drops it when the data changes (the DataStore makes one per version).
+ */
+public final class CachedPayload {
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private final Object message;
+    private final Map<String, byte[]> byCodec = new ConcurrentHashMap<>(4);
+
+    public CachedPayload(Object message) {
+        this.message = message;
+    }
+
+    public Object getMessage() {
+        return message;
+    }
+
+    /** Encoded message for this codec; the first caller encodes, the others wait and reuse. */
+    public byte[] bytes(MessageCodec codec) throws IOException {
+        byte[] cached = byCodec.get(codec.name());
+        if (cached != null) {
+            HITS.incrementAndGet();
+            return cached;
+        }
+
+        try {
+            return byCodec.computeIfAbsent(codec.name(), name -> {
+                try {
+                    byte[] encoded = codec.encode(message);
+                    long misses = MISSES.incrementAndGet();
+                    System.out.println("🧊 Payload cache miss: " + message.getClass().getSimpleName()
+                            + " (" + codec.name() + ", " + encoded.length + " bytes) hits=" + HITS.get()
+                            + " misses=" + misses
+                            + (codec instanceof DeflateCodec ? " [" + DeflateCodec.stats() + "]" : ""));
+                    return encoded;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Encode any reply, using the cache when it is a CachedPayload. */
+    public static byte[] encode(MessageCodec codec, Object reply) throws IOException {
+        return reply instanceof CachedPayload cached ? cached.bytes(codec) : codec.encode(reply);
+    }
+
+    public static long hits() {
+        return HITS.get();
+    }
+
+    public static long misses() {
+        return MISSES.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CachedPayload{" + message.getClass().getSimpleName() + "}";
+    }
+}
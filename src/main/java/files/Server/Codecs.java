@@ -0,0 +1,134 @@
+// ✅ files/Server/Codecs.java
+package files.Server;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Codec registry + the hello exchanged when a connection opens.
+ *
+ * Hello (both sides send one, no client/server roles):
+ *
+ *   [int MAGIC][byte count][count codec ids]
+ *
+ * Each side then picks the first codec in PREFERENCE that both offered,
+ * so both ends land on the same codec without another round trip.
+ *
+ * -Dcoursesphere.codecs=binary,java limits what this process offers
+ * (e.g. "java" to force the old format).
+ *
+ * -Dcoursesphere.compression=fast|best also offers FEATURE_DEFLATE; when both sides
+ * offer it, payloads of -Dcoursesphere.compression.threshold bytes or more are
+ * deflated (see DeflateCodec). Peers that don't know the feature id just ignore it.
+ */
+public final class Codecs {
+
+    public static final int MAGIC = 0x43535048; // "CSPH"
+    public static final String PROPERTY = "coursesphere.codecs";
+    public static final String COMPRESSION_PROPERTY = "coursesphere.compression";
+    public static final String COMPRESSION_THRESHOLD_PROPERTY = "coursesphere.compression.threshold";
+
+    // ✅ feature ids sit above the codec ids in the same hello list
+    public static final byte FEATURE_DEFLATE = (byte) 0x81;
+
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 4 * 1024;
+
+    private static final int MAX_OFFERED = 16;
+
+    // ✅ best first
+    private static final List<MessageCodec> PREFERENCE = List.of(
+            new BinaryCodec(),
+            new JavaSerializationCodec()
+    );
+
+    private Codecs() {}
+
+    /** Codecs this process is willing to use, best first. */
+    public static List<MessageCodec> offered() {
+        String raw = System.getProperty(PROPERTY);
+        if (raw == null || raw.isBlank()) return PREFERENCE;
+
+        List<String> wanted = new ArrayList<>();
+        for (String name : raw.split(",")) wanted.add(name.trim().toLowerCase(Locale.ROOT));
+
+        List<MessageCodec> result = new ArrayList<>();
+        for (MessageCodec c : PREFERENCE) {
+            if (wanted.contains(c.name())) result.add(c);
+        }
+        return result.isEmpty() ? PREFERENCE : result;
+    }
+
+    public static MessageCodec byName(String name) {
+        for (MessageCodec c : PREFERENCE) {
+            if (c.name().equalsIgnoreCase(name)) return c;
+        }
+        throw new IllegalArgumentException("Unknown codec: " + name);
+    }
+
+    /** Deflate level from -Dcoursesphere.compression, or -1 when compression is off. */
+    static int compressionLevel() {
+        String raw = System.getProperty(COMPRESSION_PROPERTY, "off").trim().toLowerCase(Locale.ROOT);
+        return switch (raw) {
+            case "fast", "true", "on" -> Deflater.BEST_SPEED;
+            case "best" -> Deflater.BEST_COMPRESSION;
+            default -> -1;
+        };
+    }
+
+    public static byte[] hello() {
+        List<MessageCodec> offered = offered();
+        boolean deflate = compressionLevel() != -1;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(offered.size() + (deflate ? 1 : 0));
+            for (MessageCodec c : offered) out.writeByte(c.id());
+            if (deflate) out.writeByte(FEATURE_DEFLATE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory, can't happen
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Picks the codec both sides offered (deflate-wrapped if both want it); fails if there is none. */
+    public static MessageCodec choose(byte[] peerIds) throws IOException {
+        List<MessageCodec> ours = offered();
+        for (MessageCodec c : PREFERENCE) {
+            if (ours.contains(c) && contains(peerIds, c.id())) {
+                int level = compressionLevel();
+                if (level == -1 || !contains(peerIds, FEATURE_DEFLATE)) return c;
+                return new DeflateCodec(c, level,
+                        Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY, DEFAULT_COMPRESSION_THRESHOLD));
+            }
+        }
+        throw new StreamCorruptedException("No common codec with peer");
+    }
+
+    private static boolean contains(byte[] ids, byte id) {
+        for (byte b : ids) {
+            if (b == id) return true;
+        }
+        return false;
+    }
+
+    /** Blocking handshake for SocketWrapper. */
+    public static MessageCodec handshake(DataOutputStream out, DataInputStream in) throws IOException {
+        out.write(hello());
+        out.flush();
+
+        int magic = in.readInt();
+        if (magic != MAGIC) throw new StreamCorruptedException("Not a CourseSphere peer (bad hello)");
+
+        byte[] peerIds = new byte[checkCount(in.readUnsignedByte())];
+        in.readFully(peerIds);
+        return choose(peerIds);
+    }
+
+    public static int checkCount(int count) throws IOException {
+        if (count < 1 || count > MAX_OFFERED) throw new StreamCorruptedException("Bad codec count: " + count);
+        return count;
+    }
+}
@@ -0,0 +1,142 @@
+// ✅ files/Server/DeflateCodec.java
+package files.Server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wraps the agreed codec and deflates payloads of at least `threshold` bytes.
+ * Only used when both ends offered it in the hello (see Codecs).
+ *
+ *   payload = [byte RAW][inner payload]
+ *           | [byte DEFLATED][int innerLength][deflate bytes]
+ *
+ * Snapshots are mostly repeated course ids / names, so they shrink a lot;
+ * small replies (Boolean, status arrays) go as RAW and only pay one byte.
+ */
+public final class DeflateCodec implements MessageCodec {
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    // ✅ metrics for every DeflateCodec in this process
+    private static final AtomicLong MESSAGES = new AtomicLong();
+    private static final AtomicLong RAW_BYTES = new AtomicLong();
+    private static final AtomicLong DEFLATED_BYTES = new AtomicLong();
+    private static final AtomicLong DEFLATE_NANOS = new AtomicLong();
+    private static final AtomicLong INFLATED = new AtomicLong();
+    private static final AtomicLong INFLATE_NANOS = new AtomicLong();
+
+    private final MessageCodec inner;
+    private final int level;
+    private final int threshold;
+
+    public DeflateCodec(MessageCodec inner, int level, int threshold) {
+        this.inner = inner;
+        this.level = level;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte id() { return inner.id(); }
+
+    @Override
+    public String name() { return inner.name() + "+deflate" + level; }
+
+    @Override
+    public byte[] encode(Object message) throws IOException {
+        byte[] raw = inner.encode(message);
+        if (raw.length < threshold) return raw(raw);
+
+        long t0 = System.nanoTime();
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            byte[] buf = new byte[Math.max(64, raw.length / 2)];
+            int n = 0;
+            while (!deflater.finished()) {
+                if (n == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                n += deflater.deflate(buf, n, buf.length - n);
+            }
+            long nanos = System.nanoTime() - t0;
+
+            // ✅ incompressible: don't make it bigger
+            if (n + Integer.BYTES >= raw.length) return raw(raw);
+
+            MESSAGES.incrementAndGet();
+            RAW_BYTES.addAndGet(raw.length);
+            DEFLATED_BYTES.addAndGet(n);
+            DEFLATE_NANOS.addAndGet(nanos);
+            ByteBuffer out = ByteBuffer.allocate(1 + Integer.BYTES + n);
+            out.put(DEFLATED).putInt(raw.length).put(buf, 0, n);
+            return out.array();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public Object decode(byte[] payload) throws IOException, ClassNotFoundException {
+        if (payload.length == 0) throw new EOFException("Empty payload");
+
+        if (payload[0] == RAW) {
+            return inner.decode(Arrays.copyOfRange(payload, 1, payload.length));
+        }
+        if (payload[0] != DEFLATED || payload.length < 1 + Integer.BYTES) {
+            throw new StreamCorruptedException("Bad compression header " + payload[0]);
+        }
+
+        int rawLength = ByteBuffer.wrap(payload, 1, Integer.BYTES).getInt();
+        Frames.checkLength(rawLength); // ✅ no zip bombs: same cap as a frame
+
+        long t0 = System.nanoTime();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload, 1 + Integer.BYTES, payload.length - 1 - Integer.BYTES);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int k = inflater.inflate(raw, n, rawLength - n);
+                if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += k;
+            }
+            if (n != rawLength) throw new StreamCorruptedException("Inflated " + n + " of " + rawLength + " bytes");
+            INFLATED.incrementAndGet();
+            INFLATE_NANOS.addAndGet(System.nanoTime() - t0);
+            return inner.decode(raw);
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("Bad deflate data: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] raw(byte[] body) {
+        byte[] out = new byte[1 + body.length];
+        out[0] = RAW;
+        System.arraycopy(body, 0, out, 1, body.length);
+        return out;
+    }
+
+    /** Totals for this process: messages deflated, overall ratio, time per message. */
+    public static String stats() {
+        long deflated = MESSAGES.get();
+        long inflated = INFLATED.get();
+        long raw = RAW_BYTES.get();
+        return String.format("deflated=%d ratio=%.2f deflateMs/msg=%.2f inflated=%d inflateMs/msg=%.2f",
+                deflated,
+                raw == 0 ? 1.0 : (double) DEFLATED_BYTES.get() / raw,
+                deflated == 0 ? 0.0 : DEFLATE_NANOS.get() / 1e6 / deflated,
+                inflated,
+                inflated == 0 ? 0.0 : INFLATE_NANOS.get() / 1e6 / inflated);
+    }
+}
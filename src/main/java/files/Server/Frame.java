@@ -0,0 +1,7 @@
+package files.Server;
+
+/**
+ * One decoded message plus the request id from its frame header.
+ */
+public record Frame(long requestId, Object message) {
+}
@@ -0,0 +1,45 @@
+// ✅ files/Server/Frames.java
+package files.Server;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format shared by SocketWrapper (blocking) and NioServer (selector):
+ *
+ *   [int length][long requestId][length bytes of payload]
+ *
+ * The payload is one message encoded with the codec both ends agreed on
+ * in the connection hello (see Codecs). Every message is self-contained,
+ * so a non-blocking reader only has to wait for length + HEADER_BYTES.
+ * A reply carries the requestId of its request, which lets one connection
+ * have many requests in flight (see ServerConnection). 0 = no id.
+ */
+public final class Frames {
+
+    public static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    public static final long NO_ID = 0L;
+
+    // ✅ refuse absurd lengths (corrupt stream / wrong protocol) instead of allocating them
+    public static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+    private Frames() {}
+
+    /**
+     * Header + payload as two buffers, ready to be written to a channel.
+     * The payload is wrapped, not copied (a cached payload is shared by many frames).
+     */
+    public static ByteBuffer[] toFrame(long requestId, byte[] payload) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(payload.length).putLong(requestId).flip();
+        return new ByteBuffer[] { header, ByteBuffer.wrap(payload) };
+    }
+
+    public static void checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new StreamCorruptedException("Bad frame length: " + length);
+        }
+    }
+}
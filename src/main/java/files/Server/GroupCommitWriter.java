@@ -0,0 +1,288 @@
+// ✅ files/Server/GroupCommitWriter.java
+package files.Server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * One writer thread per append-only file (enrollments.txt, CourseApplications.txt,
+ * CourseAnnouncements.txt, deadlines.txt, ...). Any thread can append; whatever queued up
+ * while the previous write ran goes out as ONE write (and one force), instead of one
+ * open/write/close per line.
+ *
+ *   -Dcoursesphere.append.durability=flush   done when the OS has the bytes (default, same as before)
+ *   -Dcoursesphere.append.durability=force   done after FileChannel.force, which runs as soon as
+ *                                            nothing else is queued, and at least every forceMs
+ *                                            or forceRecords lines while appends keep coming
+ *
+ * append() returns two futures: written (readers of the file can see the lines) and
+ * durable (per the mode above). Callers holding a lock wait for written under it and
+ * for durable after, so several callers share one force.
+ *
+ * The file is reopened when it was replaced (controllers rewrite some of these files
+ * through a temp file + move); where the OS gives no file key (Windows) it is reopened
+ * for every batch.
+ */
+public final class GroupCommitWriter implements Closeable {
+
+    // ✅ -Dcoursesphere.append.durability=flush|force
+    public static final String DURABILITY_PROPERTY = "coursesphere.append.durability";
+    // ✅ -Dcoursesphere.append.forceMs=N / -Dcoursesphere.append.forceRecords=N
+    public static final String FORCE_MS_PROPERTY = "coursesphere.append.forceMs";
+    public static final String FORCE_RECORDS_PROPERTY = "coursesphere.append.forceRecords";
+
+    private static final int MAX_BATCH = 1024;
+
+    public enum Durability {
+        FLUSH,
+        FORCE
+    }
+
+    /** What the caller waits for; both fail with the write's IOException. */
+    public record Append(CompletableFuture<Void> written, CompletableFuture<Void> durable) {}
+
+    private record Pending(byte[] bytes, int lines, Append append) {}
+
+    private static final Pending STOP = new Pending(new byte[0], 0, null);
+
+    // ✅ one writer per file for the whole process (RequestHandler and NotificationServer share them)
+    private static final Map<Path, GroupCommitWriter> WRITERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(GroupCommitWriter::closeAll, "append-writers-close"));
+    }
+
+    public static GroupCommitWriter forFile(Path file) {
+        return WRITERS.computeIfAbsent(file.toAbsolutePath().normalize(), p -> new GroupCommitWriter(p,
+                configuredDurability(),
+                Long.getLong(FORCE_MS_PROPERTY, 10L),
+                Integer.getInteger(FORCE_RECORDS_PROPERTY, 256)));
+    }
+
+    /** -Dcoursesphere.append.durability (also used by the upsert log). */
+    public static Durability configuredDurability() {
+        return "force".equalsIgnoreCase(System.getProperty(DURABILITY_PROPERTY, "flush").trim())
+                ? Durability.FORCE : Durability.FLUSH;
+    }
+
+    public static void closeAll() {
+        for (GroupCommitWriter w : WRITERS.values()) w.close();
+    }
+
+    /** Waits for one of the Append futures; failures come back as the IOException they were. */
+    public static void await(CompletableFuture<Void> f) throws IOException {
+        try {
+            f.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private final Path file;
+    private final Durability durability;
+    private final long forceNanos;
+    private final int forceRecords;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // writer thread only
+    private FileChannel ch;
+    private Object openKey;
+    private final List<Pending> unforced = new ArrayList<>();
+    private int unforcedLines;
+    private long forceDeadline;
+
+    public GroupCommitWriter(Path file, Durability durability, long forceMs, int forceRecords) {
+        this.file = file;
+        this.durability = durability;
+        this.forceNanos = Math.max(0, forceMs) * 1_000_000L;
+        this.forceRecords = Math.max(1, forceRecords);
+        this.thread = new Thread(this::run, "append-" + file.getFileName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public Append append(String line) {
+        return append(List.of(line));
+    }
+
+    /** Queue the lines (each followed by a line separator, like BufferedWriter.newLine). */
+    public Append append(List<String> lines) {
+        Append a = new Append(new CompletableFuture<>(), new CompletableFuture<>());
+        if (closed) {
+            fail(a, closedError());
+            return a;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) sb.append(line).append(System.lineSeparator());
+        Pending p = new Pending(sb.toString().getBytes(StandardCharsets.UTF_8), lines.size(), a);
+        queue.add(p);
+
+        // ✅ closed between the check and the add: the writer may already have drained for the
+        // last time. Whoever takes it out of the queue answers it: the writer, or us here.
+        if (closed && queue.remove(p)) fail(a, closedError());
+        return a;
+    }
+
+    private IOException closedError() {
+        return new IOException("Writer for " + file.getFileName() + " is closed");
+    }
+
+    /** Writes and forces what is queued, then stops the thread. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        queue.add(STOP);
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =========================
+    // WRITER THREAD
+    // =========================
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                Pending first;
+                if (unforced.isEmpty()) {
+                    first = queue.take();
+                } else {
+                    first = queue.poll(Math.max(0, forceDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    stop = batch.remove(STOP);
+                    if (!batch.isEmpty()) write(batch);
+                    batch.clear();
+                }
+
+                // ✅ nothing else waiting: force now; under load, what queues during a force shares the next one
+                if (!unforced.isEmpty() && (stop || queue.isEmpty() || unforcedLines >= forceRecords
+                        || System.nanoTime() - forceDeadline >= 0)) {
+                    force();
+                }
+            } catch (InterruptedException e) {
+                stop = true;
+            }
+        }
+
+        // ✅ appends that got in before close() set `closed` are written; the rest are failed by append()
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(STOP);
+        if (!rest.isEmpty()) write(rest);
+        if (!unforced.isEmpty()) force();
+        closeChannel();
+    }
+
+    private void write(List<Pending> batch) {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(batch.get(i).bytes());
+            total += buffers[i].remaining();
+        }
+
+        try {
+            ensureOpen();
+            long done = 0;
+            while (done < total) done += ch.write(buffers);
+        } catch (IOException e) {
+            System.out.println("❌ Append to " + file.getFileName() + " failed: " + e.getMessage());
+            if (!unforced.isEmpty()) force();
+            closeChannel(); // reopen next time
+            for (Pending p : batch) fail(p.append(), e);
+            return;
+        }
+
+        for (Pending p : batch) p.append().written().complete(null);
+        if (durability == Durability.FLUSH) {
+            for (Pending p : batch) p.append().durable().complete(null);
+            return;
+        }
+
+        if (unforced.isEmpty()) forceDeadline = System.nanoTime() + forceNanos;
+        unforced.addAll(batch);
+        for (Pending p : batch) unforcedLines += p.lines();
+    }
+
+    private void force() {
+        try {
+            if (ch == null) throw new IOException("file closed before force");
+            ch.force(false);
+            for (Pending p : unforced) p.append().durable().complete(null);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("❌ Force of " + file.getFileName() + " failed: " + e.getMessage());
+            IOException io = e instanceof IOException x ? x : new IOException(e.getMessage(), e);
+            for (Pending p : unforced) p.append().durable().completeExceptionally(io);
+        }
+        unforced.clear();
+        unforcedLines = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        Object key = fileKey();
+        if (ch != null && (key == null || !key.equals(openKey))) {
+            // ✅ replaced (or can't tell): what went to the old file must be on disk before we move on
+            if (!unforced.isEmpty()) force();
+            closeChannel();
+        }
+        if (ch == null) {
+            Path parent = file.getParent();
+            if (parent != null) Files.createDirectories(parent);
+            ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            openKey = fileKey();
+        }
+    }
+
+    private Object fileKey() {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            if (ch != null) ch.close();
+        } catch (IOException ignored) {}
+        ch = null;
+        openKey = null;
+    }
+
+    private static void fail(Append a, IOException e) {
+        a.written().completeExceptionally(e);
+        a.durable().completeExceptionally(e);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitWriter{" + file.getFileName() + ", " + durability + "}";
+    }
+}
@@ -0,0 +1,61 @@
+package files.Server;
+
+import java.io.*;
+
+/**
+ * Default Java serialization, one ObjectOutputStream per message.
+ * Works for anything Serializable; kept as the fallback codec.
+ *
+ * The bytes come off the network, so decode() only builds our own classes (files.*), the
+ * few JDK collections / boxed values / dates we send, within size limits: anything else is
+ * rejected before it is instantiated (no deserialization gadgets, no huge allocations).
+ */
+public final class JavaSerializationCodec implements MessageCodec {
+
+    public static final byte ID = 1;
+
+    // ✅ allow-list: our classes and the exact JDK collections / values that are sent (List.of and
+    // copyOf go as java.util.CollSer and come back as List12 / ListN, a HashMap reads its table as
+    // Map$Entry[]), nothing else.
+    // Arrays are checked by their element type, primitive arrays pass. Limits sized to one frame:
+    // an array longer than 1/16 of a frame, more objects than a quarter of its bytes, or a graph
+    // deeper than a real snapshot's walk (about 4 levels per course) is refused before allocation
+    static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "maxbytes=" + Frames.MAX_FRAME_BYTES
+            + ";maxarray=" + Frames.MAX_FRAME_BYTES / 16
+            + ";maxrefs=" + Frames.MAX_FRAME_BYTES / 4
+            + ";maxdepth=10000"
+            + ";files.**"
+            + ";java.util.ArrayList;java.util.LinkedList;java.util.HashMap;java.util.LinkedHashMap"
+            + ";java.util.Map$Entry;java.util.HashSet;java.util.LinkedHashSet"
+            + ";java.util.CollSer;java.util.ImmutableCollections$List12;java.util.ImmutableCollections$ListN"
+            + ";java.util.Collections$UnmodifiableCollection;java.util.Collections$UnmodifiableList"
+            + ";java.util.Collections$UnmodifiableRandomAccessList;java.util.Collections$EmptyList"
+            + ";java.lang.Object;java.lang.String;java.lang.Enum;java.lang.Number;java.lang.Boolean"
+            + ";java.lang.Integer;java.lang.Long;java.lang.Double"
+            + ";java.time.Ser;java.time.LocalDate"
+            + ";!*");
+
+    @Override
+    public byte id() { return ID; }
+
+    @Override
+    public String name() { return "java"; }
+
+    @Override
+    public byte[] encode(Object message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] payload) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            ois.setObjectInputFilter(FILTER);
+            return ois.readObject();
+        }
+    }
+}
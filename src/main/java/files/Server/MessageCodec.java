@@ -0,0 +1,19 @@
+package files.Server;
+
+import java.io.IOException;
+
+/**
+ * Turns one message object into frame payload bytes and back.
+ * Both ends agree on a codec when the connection opens (see Codecs).
+ */
+public interface MessageCodec {
+
+    /** Wire id sent in the connection hello. Never reuse an id for a different format. */
+    byte id();
+
+    String name();
+
+    byte[] encode(Object message) throws IOException;
+
+    Object decode(byte[] payload) throws IOException, ClassNotFoundException;
+}
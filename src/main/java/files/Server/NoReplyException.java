@@ -0,0 +1,25 @@
+// ✅ files/Server/NoReplyException.java
+package files.Server;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * The request was sent, but no reply came back (timed out, or the connection dropped while waiting).
+ *
+ * The server may still apply it (or already has). Don't repeat a write locally after this:
+ * that would apply it twice. Reload, or let the user try again.
+ */
+public class NoReplyException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public NoReplyException(String message) {
+        super(message);
+    }
+
+    public NoReplyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
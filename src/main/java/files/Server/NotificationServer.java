@@ -1,6 +1,9 @@
 // ✅ files/Server/NotificationServer.java
 package files.Server;
 
+import files.Classes.RecordTokenizer;
+import files.Storage.TableStorage;
+
 import java.io.*;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -86,12 +89,11 @@ public class NotificationServer {
         if (line == null || line.isBlank()) return;
 
         try {
-            File file = new File(ANNOUNCEMENT_FILE);
-            file.getParentFile().mkdirs();
-
-            try (FileWriter fw = new FileWriter(file, true)) {
-                fw.write(line.trim() + "\n");
-            }
+            // ✅ shared writer: announcements from many clients go out in one write;
+            // wait until it's in the file, since clients reload it when the broadcast arrives
+            GroupCommitWriter.await(GroupCommitWriter.forFile(Paths.get(ANNOUNCEMENT_FILE))
+                    .append(line.trim()).written());
+            TableStorage.shared().written(Paths.get(ANNOUNCEMENT_FILE), List.of(line.trim()));
         } catch (IOException e) {
             System.out.println("❌ Error saving announcement: " + e.getMessage());
         }
@@ -113,14 +115,11 @@ public class NotificationServer {
 
     private boolean saveDeadlineToFile(Deadline d) {
         try {
-            File file = new File(DEADLINE_FILE);
-            file.getParentFile().mkdirs();
-
-            synchronized (this) {
-                try (FileWriter fw = new FileWriter(file, true)) {
-                    fw.write(d.toString() + "\n");
-                }
-            }
+            // ✅ the ACK promises it's saved: wait for durable (a force in force mode)
+            GroupCommitWriter.Append append = GroupCommitWriter.forFile(Paths.get(DEADLINE_FILE)).append(d.toString());
+            GroupCommitWriter.await(append.written());
+            TableStorage.shared().written(Paths.get(DEADLINE_FILE), List.of(d.toString()));
+            GroupCommitWriter.await(append.durable());
             return true;
         } catch (IOException e) {
             System.out.println("❌ Error saving deadline: " + e.getMessage());
@@ -132,19 +131,17 @@ public class NotificationServer {
         String courseId = (courseIdRaw == null) ? "" : courseIdRaw.trim();
         List<Deadline> deadlines = new ArrayList<>();
 
-        File file = new File(DEADLINE_FILE);
-        if (!file.exists()) return deadlines;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(";", 4);
-                if (parts.length == 4 && parts[0].trim().equalsIgnoreCase(courseId)) {
+        // ✅ one key lookup: a prefix scan in the paged store, a file scan otherwise
+        RecordTokenizer t = new RecordTokenizer();
+        try {
+            for (String line : TableStorage.shared().lines(Paths.get(DEADLINE_FILE), courseId)) {
+                t.reset(line, ';');
+                if (t.fields() >= 4) {
                     deadlines.add(new Deadline(
-                            parts[0].trim(),
-                            parts[1].trim(),
-                            parts[2].trim(),
-                            LocalDate.parse(parts[3].trim())
+                            t.next(),
+                            t.next(),
+                            t.next(),
+                            LocalDate.parse(t.rest())
                     ));
                 }
             }
@@ -0,0 +1,128 @@
+// ✅ files/Server/ServerConnection.java
+package files.Server;
+
+import files.Request;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One long-lived, multiplexed client connection to RealServer (per host:port).
+ *
+ * Loader and Writer used to open a new socket for every call. Now they share this:
+ * each request gets an id, a background reader matches replies to ids, so callers
+ * can fire several requests (send) and wait for them later, or just call() and block.
+ *
+ * If the connection drops, pending calls fail and the next call reconnects.
+ *
+ * A call that was sent but got no reply (timeout, or the connection dropped while waiting)
+ * fails with NoReplyException: the server may still apply it, so callers must not redo the
+ * write locally. Any other IOException means the request never reached the server.
+ */
+public final class ServerConnection {
+
+    public static final long DEFAULT_TIMEOUT_MS = 15_000;
+
+    private static final Map<String, ServerConnection> SHARED = new ConcurrentHashMap<>();
+
+    private final SocketWrapper socket;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<Long, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private ServerConnection(String host, int port) throws IOException {
+        this.socket = new SocketWrapper(host, port);
+
+        Thread.ofVirtual().name("ServerConnectionReader").start(this::readLoop);
+    }
+
+    /** Shared connection for host:port, (re)connecting if needed. */
+    public static ServerConnection get(String host, int port) throws IOException {
+        String key = host + ":" + port;
+        synchronized (SHARED) {
+            ServerConnection c = SHARED.get(key);
+            if (c == null || c.closed) {
+                c = new ServerConnection(host, port);
+                SHARED.put(key, c);
+            }
+            return c;
+        }
+    }
+
+    /** Send without waiting (pipelining). The future completes with the server's reply. */
+    public CompletableFuture<Object> send(Request request) {
+        return send(nextId.getAndIncrement(), request);
+    }
+
+    private CompletableFuture<Object> send(long id, Request request) {
+        CompletableFuture<Object> reply = new CompletableFuture<>();
+        if (closed) {
+            reply.completeExceptionally(new IOException("Connection closed"));
+            return reply;
+        }
+
+        pending.put(id, reply);
+        try {
+            socket.write(id, request);
+        } catch (IOException e) {
+            pending.remove(id);
+            reply.completeExceptionally(e);
+            close();
+        }
+        return reply;
+    }
+
+    /** Send and block for the reply. */
+    public Object call(Request request) throws IOException {
+        return call(request, DEFAULT_TIMEOUT_MS);
+    }
+
+    public Object call(Request request, long timeoutMs) throws IOException {
+        long id = nextId.getAndIncrement();
+        try {
+            return send(id, request).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.remove(id);
+            throw new NoReplyException("Interrupted waiting for server", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException(cause);
+        } catch (TimeoutException e) {
+            // ✅ forget the id: a late reply is dropped, and the map doesn't grow with given-up calls
+            pending.remove(id);
+            throw new NoReplyException("Server did not reply in " + timeoutMs + " ms", e);
+        }
+    }
+
+    private void readLoop() {
+        try {
+            while (true) {
+                Frame frame = socket.readFrame();
+                CompletableFuture<Object> reply = pending.remove(frame.requestId());
+                if (reply != null) {
+                    reply.complete(frame.message());
+                } else {
+                    System.out.println("⚠️ Reply for unknown or timed-out request id " + frame.requestId());
+                }
+            }
+        } catch (Exception e) {
+            if (!closed) System.err.println("Server connection lost: " + e.getMessage());
+        } finally {
+            close();
+        }
+    }
+
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        try { socket.closeConnection(); } catch (IOException ignored) {}
+
+        IOException gone = new NoReplyException("Connection closed before the server replied");
+        pending.values().forEach(f -> f.completeExceptionally(gone));
+        pending.clear();
+    }
+}
@@ -1,45 +1,74 @@
 package files.Server;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.Socket;
 
+/**
+ * Blocking client/server socket that sends one object per length-prefixed frame
+ * (see Frames). Same format NioServer speaks, so either server works with any client.
+ * The payload codec is agreed on in a short hello when the socket opens (see Codecs).
+ */
 public class SocketWrapper implements AutoCloseable {
 
     private final Socket socket;
-    private final ObjectOutputStream oos;
-    private final ObjectInputStream ois;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final MessageCodec codec;
 
     // client-side
     public SocketWrapper(String host, int port) throws IOException {
-        this.socket = new Socket(host, port);
-        this.oos = new ObjectOutputStream(socket.getOutputStream());
-        this.oos.flush();
-        this.ois = new ObjectInputStream(socket.getInputStream());
+        this(new Socket(host, port));
     }
 
     // server-side
     public SocketWrapper(Socket socket) throws IOException {
         this.socket = socket;
-        this.oos = new ObjectOutputStream(socket.getOutputStream());
-        this.oos.flush();
-        this.ois = new ObjectInputStream(socket.getInputStream());
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        try {
+            this.codec = Codecs.handshake(out, in);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    public MessageCodec getCodec() {
+        return codec;
     }
 
     public Object read() throws IOException, ClassNotFoundException {
-        return ois.readObject();
+        return readFrame().message();
+    }
+
+    public Frame readFrame() throws IOException, ClassNotFoundException {
+        int length = in.readInt();
+        Frames.checkLength(length);
+        long requestId = in.readLong();
+
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(requestId, codec.decode(payload));
     }
 
     public void write(Object o) throws IOException {
-        oos.writeObject(o);
-        oos.flush();
+        write(Frames.NO_ID, o);
+    }
+
+    // ✅ synchronized: broadcasts, replies and pipelined requests may write from different threads
+    public synchronized void write(long requestId, Object o) throws IOException {
+        byte[] payload = CachedPayload.encode(codec, o); // ✅ shared bytes for cached replies
+        out.writeInt(payload.length);
+        out.writeLong(requestId);
+        out.write(payload);
+        out.flush();
     }
 
     public void closeConnection() throws IOException {
         // close streams first
-        try { ois.close(); } catch (IOException ignored) {}
-        try { oos.close(); } catch (IOException ignored) {}
+        try { in.close(); } catch (IOException ignored) {}
+        try { out.close(); } catch (IOException ignored) {}
         // then socket
         socket.close();
     }
@@ -1,22 +1,30 @@
 package files;
 
+import files.Server.Frame;
 import files.Server.SocketWrapper;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
 
 public class ServerReadThread implements Runnable {
 
+    // ✅ put on the queue when the client goes away, so the write loop can stop too
+    static final Object DISCONNECTED = new Object();
+
     private final SocketWrapper wrappedClientSocket;
-    private final Queue<Object> messageQueue;
+    private final BlockingQueue<Object> messageQueue;
+
+    public ServerReadThread(SocketWrapper socketWrapper, BlockingQueue<Object> messageQueue) {
+        this(socketWrapper, messageQueue, Thread.ofPlatform().name("ServerReadThread"));
+    }
 
-    public ServerReadThread(SocketWrapper socketWrapper, Queue<Object> messageQueue) {
+    public ServerReadThread(SocketWrapper socketWrapper, BlockingQueue<Object> messageQueue,
+                            Thread.Builder threadBuilder) {
         this.wrappedClientSocket = socketWrapper;
         this.messageQueue = messageQueue;
 
-        Thread t = new Thread(this, "ServerReadThread");
-        t.start(); // ✅ don't set daemon for a server thread
+        threadBuilder.start(this);
         System.out.println("✅ ServerReadThread started");
     }
 
@@ -24,10 +32,11 @@ public class ServerReadThread implements Runnable {
     public void run() {
         try {
             while (true) {
-                Object o = wrappedClientSocket.read();
+                Frame frame = wrappedClientSocket.readFrame();
+                Object o = frame.message();
 
-                if (o instanceof Request request) {
-                    enqueue(request);
+                if (o instanceof Request) {
+                    messageQueue.put(frame); // ✅ keep the id so the reply can echo it
                 } else {
                     System.out.println("⚠️ Unknown object from client: " +
                             (o == null ? "null" : o.getClass().getName()));
@@ -39,16 +48,13 @@ public class ServerReadThread implements Runnable {
             System.out.println("🔌 Client disconnected (read IO): " + e.getMessage());
         } catch (ClassNotFoundException e) {
             System.out.println("❌ Class not found in ServerReadThread: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             System.out.println("❌ ServerReadThread error: " + e.getMessage());
             e.printStackTrace();
-        }
-    }
-
-    private void enqueue(Object msg) {
-        synchronized (messageQueue) {
-            messageQueue.offer(msg);
-            messageQueue.notifyAll();
+        } finally {
+            messageQueue.offer(DISCONNECTED);
         }
     }
 }
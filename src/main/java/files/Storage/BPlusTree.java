@@ -0,0 +1,430 @@
+// ✅ files/Storage/BPlusTree.java
+package files.Storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A B+tree of byte[] keys (unsigned byte order) to byte[] values, one node per page.
+ *
+ * Page layout:
+ *   [byte type: 1 leaf, 2 inner][short count][int next leaf / first child]
+ *   leaf entry:  [short keyLen][key][short valueLen][value]
+ *   inner entry: [short keyLen][key][int child]      child i+1 holds keys >= key i
+ *
+ * Decoded nodes stay on their cached page and are encoded only when the page is written.
+ * Nodes split by bytes when they outgrow a page. remove() doesn't merge: a leaf may
+ * end up sparse or empty (scans skip it); rebuilding the table compacts it again.
+ * Callers hold PagedStore's lock.
+ */
+final class BPlusTree {
+
+    private static final byte LEAF = 1;
+    private static final byte INNER = 2;
+    private static final int HEADER = 7;
+
+    /** Largest key + value; with 4 KB pages any node that splits leaves two that fit. */
+    static final int MAX_ENTRY = (PageFile.PAGE_SIZE - HEADER) / 4 - 8;
+
+    /** How full build() packs a node: room left for a few inserts before the first split. */
+    private static final int FILL = PageFile.PAGE_SIZE * 9 / 10;
+
+    private static final class Node implements BufferPool.Node {
+        boolean leaf;
+        int next = BufferPool.NO_PAGE; // leaf: right sibling
+        final List<byte[]> keys = new ArrayList<>();
+        final List<byte[]> values = new ArrayList<>();  // leaf
+        final List<Integer> children = new ArrayList<>(); // inner: keys.size() + 1
+
+        int bytes() {
+            int n = HEADER;
+            for (int i = 0; i < keys.size(); i++) n += entryBytes(i);
+            return n;
+        }
+
+        int entryBytes(int i) {
+            return 2 + keys.get(i).length + (leaf ? 2 + values.get(i).length : 4);
+        }
+
+        @Override
+        public void encode(ByteBuffer data) {
+            ByteBuffer b = data.duplicate();
+            b.clear();
+            b.put(leaf ? LEAF : INNER);
+            b.putShort((short) keys.size());
+            b.putInt(leaf ? next : children.get(0));
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] k = keys.get(i);
+                b.putShort((short) k.length).put(k);
+                if (leaf) {
+                    byte[] v = values.get(i);
+                    b.putShort((short) v.length).put(v);
+                } else {
+                    b.putInt(children.get(i + 1));
+                }
+            }
+        }
+    }
+
+    private record Split(byte[] separator, int right) {}
+
+    private final BufferPool pool;
+    private int root;
+    private byte[] replaced; // old value of the last put/remove
+
+    BPlusTree(BufferPool pool, int root) {
+        this.pool = pool;
+        this.root = root;
+    }
+
+    /** A new empty tree; returns its root page. */
+    static int create(BufferPool pool) throws IOException {
+        BufferPool.Page p = pool.pinNew();
+        try {
+            Node n = new Node();
+            n.leaf = true;
+            encode(p, n);
+            return p.id;
+        } finally {
+            pool.unpin(p);
+        }
+    }
+
+    int root() {
+        return root;
+    }
+
+    // =========================
+    // READ
+    // =========================
+    byte[] get(byte[] key) throws IOException {
+        int id = root;
+        while (true) {
+            BufferPool.Page p = pool.pin(id);
+            try {
+                Node n = node(p);
+                if (n.leaf) {
+                    int i = search(n.keys, key);
+                    return i >= 0 ? n.values.get(i) : null;
+                }
+                id = n.children.get(childIndex(n.keys, key));
+            } finally {
+                pool.unpin(p);
+            }
+        }
+    }
+
+    /** Every entry whose key starts with prefix, in key order (empty prefix = all). */
+    void scan(byte[] prefix, PagedStore.Visitor v) throws IOException {
+        int id = leafFor(prefix);
+        boolean first = true;
+        while (id != BufferPool.NO_PAGE) {
+            BufferPool.Page p = pool.pin(id);
+            try {
+                Node n = node(p);
+                int i = 0;
+                if (first) {
+                    i = search(n.keys, prefix);
+                    if (i < 0) i = -i - 1;
+                    first = false;
+                }
+                for (; i < n.keys.size(); i++) {
+                    byte[] k = n.keys.get(i);
+                    if (!startsWith(k, prefix)) return;
+                    if (!v.visit(k, n.values.get(i))) return;
+                }
+                id = n.next;
+            } finally {
+                pool.unpin(p);
+            }
+        }
+    }
+
+    private int leafFor(byte[] key) throws IOException {
+        int id = root;
+        while (true) {
+            BufferPool.Page p = pool.pin(id);
+            try {
+                Node n = node(p);
+                if (n.leaf) return id;
+                id = n.children.get(childIndex(n.keys, key));
+            } finally {
+                pool.unpin(p);
+            }
+        }
+    }
+
+    // =========================
+    // WRITE
+    // =========================
+    /** Insert or replace; returns the old value (or null). */
+    byte[] put(byte[] key, byte[] value) throws IOException {
+        if (key.length + value.length > MAX_ENTRY) {
+            throw new IOException("Row too large for a page (" + (key.length + value.length) + " bytes)");
+        }
+        replaced = null;
+        Split s = insert(root, key, value);
+        if (s != null) {
+            BufferPool.Page p = pool.pinNew();
+            try {
+                Node n = new Node();
+                n.keys.add(s.separator());
+                n.children.add(root);
+                n.children.add(s.right());
+                encode(p, n);
+                root = p.id;
+            } finally {
+                pool.unpin(p);
+            }
+        }
+        return replaced;
+    }
+
+    /** Returns the removed value (or null). */
+    byte[] remove(byte[] key) throws IOException {
+        int id = leafFor(key);
+        BufferPool.Page p = pool.pin(id);
+        try {
+            Node n = node(p);
+            int i = search(n.keys, key);
+            if (i < 0) return null;
+            n.keys.remove(i);
+            byte[] old = n.values.remove(i);
+            encode(p, n);
+            return old;
+        } finally {
+            pool.unpin(p);
+        }
+    }
+
+    /**
+     * A new tree from entries already sorted by key (no duplicates), built bottom-up:
+     * leaves filled to FILL in one pass, then each level of inner nodes above them.
+     * Returns the root page.
+     */
+    static int build(BufferPool pool, List<byte[]> keys, List<byte[]> values) throws IOException {
+        if (keys.isEmpty()) return create(pool);
+
+        // leaves, each linked to the next
+        List<byte[]> firstKeys = new ArrayList<>();
+        List<Integer> pages = new ArrayList<>();
+        BufferPool.Page prev = null;
+        Node leaf = null;
+        int bytes = 0;
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                int entry = 4 + keys.get(i).length + values.get(i).length;
+                if (leaf == null || bytes + entry > FILL) {
+                    BufferPool.Page p = pool.pinNew();
+                    leaf = new Node();
+                    leaf.leaf = true;
+                    encode(p, leaf);
+                    if (prev != null) {
+                        ((Node) prev.node).next = p.id;
+                        prev.stale = true;
+                        pool.unpin(prev);
+                    }
+                    prev = p;
+                    firstKeys.add(keys.get(i));
+                    pages.add(p.id);
+                    bytes = HEADER;
+                }
+                leaf.keys.add(keys.get(i));
+                leaf.values.add(values.get(i));
+                bytes += entry;
+            }
+        } finally {
+            if (prev != null) pool.unpin(prev);
+        }
+
+        // inner levels: child i+1 is separated by its first key
+        while (pages.size() > 1) {
+            List<byte[]> upKeys = new ArrayList<>();
+            List<Integer> upPages = new ArrayList<>();
+            BufferPool.Page current = null;
+            Node inner = null;
+            try {
+                for (int i = 0; i < pages.size(); i++) {
+                    int entry = 6 + firstKeys.get(i).length;
+                    if (inner == null || bytes + entry > FILL) {
+                        if (current != null) pool.unpin(current);
+                        current = pool.pinNew();
+                        inner = new Node();
+                        encode(current, inner);
+                        inner.children.add(pages.get(i));
+                        upKeys.add(firstKeys.get(i));
+                        upPages.add(current.id);
+                        bytes = HEADER;
+                    } else {
+                        inner.keys.add(firstKeys.get(i));
+                        inner.children.add(pages.get(i));
+                        bytes += entry;
+                    }
+                }
+            } finally {
+                if (current != null) pool.unpin(current);
+            }
+            firstKeys = upKeys;
+            pages = upPages;
+        }
+        return pages.get(0);
+    }
+
+    /** Give every page of the tree back to the pool's free list. */
+    void destroy() throws IOException {
+        free(root);
+        root = BufferPool.NO_PAGE;
+    }
+
+    private void free(int id) throws IOException {
+        BufferPool.Page p = pool.pin(id);
+        List<Integer> children;
+        try {
+            Node n = node(p);
+            children = n.leaf ? List.of() : new ArrayList<>(n.children);
+        } finally {
+            pool.unpin(p);
+        }
+        for (int child : children) free(child);
+        pool.free(id);
+    }
+
+    private Split insert(int id, byte[] key, byte[] value) throws IOException {
+        BufferPool.Page p = pool.pin(id);
+        try {
+            Node n = node(p);
+            if (n.leaf) {
+                int i = search(n.keys, key);
+                if (i >= 0) {
+                    replaced = n.values.set(i, value);
+                } else {
+                    n.keys.add(-i - 1, key);
+                    n.values.add(-i - 1, value);
+                }
+            } else {
+                int c = childIndex(n.keys, key);
+                Split s = insert(n.children.get(c), key, value);
+                if (s == null) return null; // child absorbed it, this node didn't change
+                n.keys.add(c, s.separator());
+                n.children.add(c + 1, s.right());
+            }
+
+            if (n.bytes() <= PageFile.PAGE_SIZE) {
+                encode(p, n);
+                return null;
+            }
+            return split(p, n);
+        } finally {
+            pool.unpin(p);
+        }
+    }
+
+    // left keeps the first half (by bytes), a new page gets the rest
+    private Split split(BufferPool.Page left, Node n) throws IOException {
+        int total = n.bytes() - HEADER;
+        int mid = 0;
+        for (int acc = 0; mid < n.keys.size() - 1 && acc < total / 2; mid++) acc += n.entryBytes(mid);
+        mid = Math.max(1, mid);
+
+        Node r = new Node();
+        r.leaf = n.leaf;
+        byte[] separator;
+        if (n.leaf) {
+            r.keys.addAll(n.keys.subList(mid, n.keys.size()));
+            r.values.addAll(n.values.subList(mid, n.values.size()));
+            n.keys.subList(mid, n.keys.size()).clear();
+            n.values.subList(mid, n.values.size()).clear();
+            separator = r.keys.get(0);
+        } else {
+            // the middle key moves up; its right child starts the new node
+            separator = n.keys.get(mid);
+            r.keys.addAll(n.keys.subList(mid + 1, n.keys.size()));
+            r.children.addAll(n.children.subList(mid + 1, n.children.size()));
+            n.keys.subList(mid, n.keys.size()).clear();
+            n.children.subList(mid + 1, n.children.size()).clear();
+        }
+
+        BufferPool.Page right = pool.pinNew();
+        try {
+            if (n.leaf) {
+                r.next = n.next;
+                n.next = right.id;
+            }
+            encode(right, r);
+            encode(left, n);
+            return new Split(separator, right.id);
+        } finally {
+            pool.unpin(right);
+        }
+    }
+
+    // =========================
+    // NODE <-> PAGE
+    // =========================
+    private static Node node(BufferPool.Page p) throws IOException {
+        if (p.node instanceof Node n) return n;
+
+        ByteBuffer b = p.data.duplicate();
+        b.clear();
+        byte type = b.get();
+        if (type != LEAF && type != INNER) throw new IOException("Page " + p.id + " is not a tree node");
+
+        Node n = new Node();
+        n.leaf = type == LEAF;
+        int count = b.getShort() & 0xFFFF;
+        int link = b.getInt();
+        if (n.leaf) n.next = link;
+        else n.children.add(link);
+
+        for (int i = 0; i < count; i++) {
+            byte[] k = new byte[b.getShort() & 0xFFFF];
+            b.get(k);
+            n.keys.add(k);
+            if (n.leaf) {
+                byte[] v = new byte[b.getShort() & 0xFFFF];
+                b.get(v);
+                n.values.add(v);
+            } else {
+                n.children.add(b.getInt());
+            }
+        }
+        p.node = n;
+        return n;
+    }
+
+    // the bytes are written from the node when the pool writes the page out
+    private static void encode(BufferPool.Page p, Node n) {
+        p.node = n;
+        p.stale = true;
+        p.dirty = true;
+    }
+
+    // =========================
+    // KEYS
+    // =========================
+    private static int search(List<byte[]> keys, byte[] key) {
+        int lo = 0, hi = keys.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = Arrays.compareUnsigned(keys.get(mid), key);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // number of separators <= key
+    private static int childIndex(List<byte[]> keys, byte[] key) {
+        int i = search(keys, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length >= prefix.length
+                && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
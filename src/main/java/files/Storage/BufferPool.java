@@ -0,0 +1,154 @@
+// ✅ files/Storage/BufferPool.java
+package files.Storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Pages in memory, least recently used evicted first (dirty ones are written on the way out).
+ *
+ * - pin() a page while using it; pinned pages are never evicted (the pool can go over
+ *   capacity for a moment while a B+tree split holds a few of them)
+ * - freed pages go on a free list chained through the pages themselves and are reused
+ *   before the file grows
+ * - not thread-safe: PagedStore calls it under its lock
+ */
+final class BufferPool {
+
+    static final int NO_PAGE = -1;
+
+    /** A decoded page that is written back into its bytes only when the page goes to disk. */
+    interface Node {
+        void encode(ByteBuffer data);
+    }
+
+    static final class Page {
+        final int id;
+        final ByteBuffer data = ByteBuffer.allocate(PageFile.PAGE_SIZE);
+        boolean dirty;
+        int pins;
+        Node node;      // decoded form (BPlusTree), dropped with the page
+        boolean stale;  // node changed, data not encoded yet
+
+        Page(int id) {
+            this.id = id;
+        }
+    }
+
+    private final PageFile file;
+    private final int capacity;
+    private final LinkedHashMap<Integer, Page> pages = new LinkedHashMap<>(64, 0.75f, true);
+
+    private int freeHead = NO_PAGE;
+
+    long hits;
+    long misses;
+    long evictions;
+
+    BufferPool(PageFile file, int capacity) {
+        this.file = file;
+        this.capacity = Math.max(8, capacity);
+    }
+
+    Page pin(int id) throws IOException {
+        Page p = pages.get(id);
+        if (p != null) {
+            hits++;
+        } else {
+            misses++;
+            evictIfFull();
+            p = new Page(id);
+            file.read(id, p.data);
+            pages.put(id, p);
+        }
+        p.pins++;
+        return p;
+    }
+
+    /** A zeroed page (from the free list, or a new one at the end of the file), pinned and dirty. */
+    Page pinNew() throws IOException {
+        Page p;
+        if (freeHead != NO_PAGE) {
+            p = pin(freeHead);
+            freeHead = p.data.getInt(0);
+        } else {
+            evictIfFull();
+            p = new Page(file.allocate());
+            pages.put(p.id, p);
+            p.pins++;
+        }
+        Arrays.fill(p.data.array(), (byte) 0);
+        p.node = null;
+        p.stale = false;
+        p.dirty = true;
+        return p;
+    }
+
+    void unpin(Page p) {
+        p.pins--;
+    }
+
+    void free(int id) throws IOException {
+        Page p = pin(id);
+        Arrays.fill(p.data.array(), (byte) 0);
+        p.data.putInt(0, freeHead);
+        p.node = null;
+        p.stale = false;
+        p.dirty = true;
+        unpin(p);
+        freeHead = id;
+    }
+
+    int freeHead() {
+        return freeHead;
+    }
+
+    void setFreeHead(int id) {
+        freeHead = id;
+    }
+
+    /** Write every dirty page (in page order: mostly sequential on disk). */
+    void flush() throws IOException {
+        List<Page> dirty = new ArrayList<>();
+        for (Page p : pages.values()) {
+            if (p.dirty) dirty.add(p);
+        }
+        dirty.sort(Comparator.comparingInt(p -> p.id));
+        for (Page p : dirty) {
+            write(p);
+            p.dirty = false;
+        }
+    }
+
+    /** Forget everything cached (after PageFile.reset). */
+    void clear() {
+        pages.clear();
+        freeHead = NO_PAGE;
+    }
+
+    int cached() {
+        return pages.size();
+    }
+
+    private void write(Page p) throws IOException {
+        if (p.stale) {
+            p.node.encode(p.data);
+            p.stale = false;
+        }
+        file.write(p.id, p.data);
+    }
+
+    private void evictIfFull() throws IOException {
+        if (pages.size() < capacity) return;
+
+        Iterator<Page> it = pages.values().iterator(); // eldest first
+        while (it.hasNext() && pages.size() >= capacity) {
+            Page p = it.next();
+            if (p.pins > 0) continue;
+            if (p.dirty) write(p);
+            it.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// ✅ files/Storage/PageFile.java
+package files.Storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One file of fixed-size pages (page N at N * PAGE_SIZE). Page 0 is PagedStore's header.
+ * A new page only gets a place on disk when it is first written; reading past the end gives zeros.
+ */
+final class PageFile implements Closeable {
+
+    static final int PAGE_SIZE = 4096;
+
+    private final FileChannel ch;
+    private int pageCount;
+
+    PageFile(Path path) throws IOException {
+        this.ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pageCount = (int) ((ch.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    int pageCount() {
+        return pageCount;
+    }
+
+    /** A page id past the last one. */
+    int allocate() {
+        return pageCount++;
+    }
+
+    void read(int id, ByteBuffer into) throws IOException {
+        into.clear();
+        long pos = (long) id * PAGE_SIZE;
+        while (into.hasRemaining()) {
+            int n = ch.read(into, pos + into.position());
+            if (n < 0) break;
+        }
+        while (into.hasRemaining()) into.put((byte) 0);
+        into.flip();
+    }
+
+    void write(int id, ByteBuffer from) throws IOException {
+        ByteBuffer b = from.duplicate();
+        b.clear();
+        long pos = (long) id * PAGE_SIZE;
+        while (b.hasRemaining()) ch.write(b, pos + b.position());
+    }
+
+    /** Drop everything (the store is rebuilt from the text files). */
+    void reset() throws IOException {
+        ch.truncate(0);
+        pageCount = 0;
+    }
+
+    void force() throws IOException {
+        ch.force(false);
+    }
+
+    long sizeOnDisk() throws IOException {
+        return ch.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        ch.close();
+    }
+}
@@ -0,0 +1,364 @@
+// ✅ files/Storage/PagedStore.java
+package files.Storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferOverflowException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A single-file embedded store: named tables, each a B+tree keyed by its primary key,
+ * over fixed-size pages cached in an LRU BufferPool.
+ *
+ * Header (page 0): magic, version, page size, clean flag, free list head, then per table
+ *   [name][root page][rows][next sequence][source stamps: name, size, modified]
+ *
+ * Durability is by commit(): dirty pages, then the header with clean=1, then a force.
+ * The first change after a commit writes clean=0 first, so a store that was not closed or
+ * committed after its last change opens with wasClean() == false and must be rebuilt
+ * (PagedTableStorage imports the text files again).
+ */
+public final class PagedStore implements Closeable {
+
+    private static final int MAGIC = 0x43534442; // "CSDB"
+    private static final int VERSION = 1;
+
+    @FunctionalInterface
+    public interface Visitor {
+        /** @return false to stop */
+        boolean visit(byte[] key, byte[] value) throws IOException;
+    }
+
+    /** Size/mtime of a text file a table was built from (see PagedTableStorage). */
+    public record Stamp(long size, long modified) {}
+
+    private final PageFile file;
+    private final BufferPool pool;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+
+    private boolean wasClean;
+    private boolean dirty; // changed since the last commit (header says clean=0)
+
+    private PagedStore(PageFile file, int poolPages) {
+        this.file = file;
+        this.pool = new BufferPool(file, poolPages);
+    }
+
+    public static PagedStore open(Path path, int poolPages) throws IOException {
+        PagedStore s = new PagedStore(new PageFile(path), poolPages);
+        try {
+            s.readHeader();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠️ " + path.getFileName() + " unreadable (" + e.getMessage() + "), starting empty");
+            s.reset();
+        }
+        return s;
+    }
+
+    /** false if the store was changed and not committed before it was last closed (or is new). */
+    public boolean wasClean() {
+        return wasClean;
+    }
+
+    public Table table(String name) throws IOException {
+        lock.lock();
+        try {
+            Table t = tables.get(name);
+            if (t == null) {
+                markDirty();
+                t = new Table(name, BPlusTree.create(pool), 0, 0, new LinkedHashMap<>());
+                tables.put(name, t);
+            }
+            return t;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Throw everything away (the caller is about to rebuild it). */
+    public void reset() throws IOException {
+        lock.lock();
+        try {
+            pool.clear();
+            file.reset();
+            file.allocate(); // page 0: header
+            tables.clear();
+            wasClean = false;
+            dirty = false;
+            markDirty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void commit() throws IOException {
+        lock.lock();
+        try {
+            if (!dirty) return;
+            pool.flush();
+            file.force();
+            writeHeader(true);
+            file.force();
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String stats() throws IOException {
+        lock.lock();
+        try {
+            long total = pool.hits + pool.misses;
+            return String.format("pages=%d (%.1f MB) cached=%d hits=%.1f%% evictions=%d",
+                    file.pageCount(), file.sizeOnDisk() / 1e6, pool.cached(),
+                    total == 0 ? 100.0 : 100.0 * pool.hits / total, pool.evictions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            commit();
+            file.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // =========================
+    // TABLE
+    // =========================
+    /** One B+tree. Every method takes the store lock, so a Table can be shared between threads. */
+    public final class Table {
+        private final String name;
+        private BPlusTree tree;
+        private long rows;
+        private long nextSeq;
+        private final Map<String, Stamp> stamps;
+
+        private Table(String name, int root, long rows, long nextSeq, Map<String, Stamp> stamps) {
+            this.name = name;
+            this.tree = new BPlusTree(pool, root);
+            this.rows = rows;
+            this.nextSeq = nextSeq;
+            this.stamps = stamps;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public byte[] get(byte[] key) throws IOException {
+            lock.lock();
+            try {
+                return tree.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Insert or replace; returns the old value. */
+        public byte[] put(byte[] key, byte[] value) throws IOException {
+            lock.lock();
+            try {
+                markDirty();
+                byte[] old = tree.put(key, value);
+                if (old == null) rows++;
+                return old;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Insert only if the key is new; returns false if it was there. */
+        public boolean putIfAbsent(byte[] key, byte[] value) throws IOException {
+            lock.lock();
+            try {
+                if (tree.get(key) != null) return false;
+                put(key, value);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public byte[] remove(byte[] key) throws IOException {
+            lock.lock();
+            try {
+                markDirty();
+                byte[] old = tree.remove(key);
+                if (old != null) rows--;
+                return old;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Remove every key starting with prefix; returns how many. */
+        public int removePrefix(byte[] prefix) throws IOException {
+            lock.lock();
+            try {
+                List<byte[]> keys = new ArrayList<>();
+                tree.scan(prefix, (k, v) -> keys.add(k));
+                for (byte[] k : keys) remove(k);
+                return keys.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void scan(byte[] prefix, Visitor v) throws IOException {
+            lock.lock();
+            try {
+                tree.scan(prefix, v);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Next number of this table's sequence (for keys that keep insertion order). */
+        public long nextSeq() throws IOException {
+            lock.lock();
+            try {
+                markDirty();
+                return nextSeq++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public long rows() {
+            lock.lock();
+            try {
+                return rows;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Drop every row (pages go back to the free list). */
+        public void clear() throws IOException {
+            lock.lock();
+            try {
+                markDirty();
+                tree.destroy();
+                tree = new BPlusTree(pool, BPlusTree.create(pool));
+                rows = 0;
+                nextSeq = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Replace every row with these (sorted by key, no duplicates), built bottom-up in one pass. */
+        public void load(List<byte[]> keys, List<byte[]> values, long nextSeq) throws IOException {
+            lock.lock();
+            try {
+                markDirty();
+                tree.destroy();
+                tree = new BPlusTree(pool, BPlusTree.build(pool, keys, values));
+                rows = keys.size();
+                this.nextSeq = nextSeq;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public Stamp stamp(String source) {
+            lock.lock();
+            try {
+                return stamps.get(source);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void setStamp(String source, Stamp stamp) throws IOException {
+            lock.lock();
+            try {
+                markDirty();
+                stamps.put(source, stamp);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // =========================
+    // HEADER
+    // =========================
+    private void markDirty() throws IOException {
+        if (dirty) return;
+        dirty = true;
+        writeHeader(false);
+        file.force();
+    }
+
+    private void writeHeader(boolean clean) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(PageFile.PAGE_SIZE);
+        try {
+            b.putInt(MAGIC).putInt(VERSION).putInt(PageFile.PAGE_SIZE);
+            b.put((byte) (clean ? 1 : 0));
+            b.putInt(pool.freeHead());
+            b.putShort((short) tables.size());
+            for (Table t : tables.values()) {
+                putString(b, t.name);
+                b.putInt(t.tree.root()).putLong(t.rows).putLong(t.nextSeq);
+                b.putShort((short) t.stamps.size());
+                for (Map.Entry<String, Stamp> e : t.stamps.entrySet()) {
+                    putString(b, e.getKey());
+                    b.putLong(e.getValue().size()).putLong(e.getValue().modified());
+                }
+            }
+        } catch (BufferOverflowException e) {
+            throw new IOException("Too many tables for the header page");
+        }
+        file.write(0, b);
+    }
+
+    private void readHeader() throws IOException {
+        if (file.pageCount() == 0) {
+            reset();
+            return;
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(PageFile.PAGE_SIZE);
+        file.read(0, b);
+        if (b.getInt() != MAGIC) throw new IOException("not a store file");
+        if (b.getInt() != VERSION) throw new IOException("unknown version");
+        if (b.getInt() != PageFile.PAGE_SIZE) throw new IOException("other page size");
+        wasClean = b.get() == 1;
+        pool.setFreeHead(b.getInt());
+
+        int count = b.getShort();
+        for (int i = 0; i < count; i++) {
+            String name = getString(b);
+            int root = b.getInt();
+            long rows = b.getLong();
+            long seq = b.getLong();
+            Map<String, Stamp> stamps = new LinkedHashMap<>();
+            int n = b.getShort();
+            for (int j = 0; j < n; j++) stamps.put(getString(b), new Stamp(b.getLong(), b.getLong()));
+            tables.put(name, new Table(name, root, rows, seq, stamps));
+        }
+    }
+
+    private static void putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer b) {
+        byte[] bytes = new byte[b.getShort() & 0xFFFF];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,337 @@
+// ✅ files/Storage/PagedTableStorage.java
+package files.Storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The database/*.txt files as tables in one PagedStore file (database/coursesphere.db).
+ *
+ * - one table per text file, primary key = first field (lower case)
+ * - credentials / profiles: one row per id, a new line replaces the old one (like UpsertStorage)
+ * - Courses: one row per code, the first line wins (like the loader)
+ * - everything else: many rows per first field, key = first field + a sequence number, so a
+ *   lookup is one prefix scan and rows come back in the order they were written
+ *
+ * The text files stay authoritative: each table remembers the size/mtime of the file it was
+ * built from and is imported again when the file changed behind the server's back. A store
+ * that was not closed or committed after its last change is rebuilt from the text at open.
+ * Changes are committed every coursesphere.storage.commitMs (default 1000) and on close.
+ */
+public final class PagedTableStorage implements TableStorage {
+
+    public static final String DB_FILE = "coursesphere.db";
+
+    // ✅ -Dcoursesphere.storage.poolPages (4 KB each) / -Dcoursesphere.storage.commitMs
+    private static final int POOL_PAGES = Integer.getInteger("coursesphere.storage.poolPages", 2048);
+    private static final long COMMIT_MS = Long.getLong("coursesphere.storage.commitMs", 1000);
+
+    private enum Rule { REPLACE, FIRST, MANY }
+
+    private static final Map<String, Rule> FILES = new LinkedHashMap<>();
+    static {
+        FILES.put("StudentCredentials.txt", Rule.REPLACE);
+        FILES.put("TeacherCredentials.txt", Rule.REPLACE);
+        FILES.put("StudentProfiles.txt", Rule.REPLACE);
+        FILES.put("TeacherProfiles.txt", Rule.REPLACE);
+        FILES.put("Courses.txt", Rule.FIRST);
+        FILES.put("enrollments.txt", Rule.MANY);
+        FILES.put("StudentCourses.txt", Rule.MANY);
+        FILES.put("CourseApplications.txt", Rule.MANY);
+        FILES.put("PendingEnrollment.txt", Rule.MANY);
+        FILES.put("AssignedCoursesTeacher.txt", Rule.MANY);
+        FILES.put("CourseRequirement.txt", Rule.MANY);
+        FILES.put("CourseAnnouncements.txt", Rule.MANY);
+        FILES.put("deadlines.txt", Rule.MANY);
+        FILES.put("UploadedFiles.txt", Rule.MANY);
+    }
+
+    /** Reads a text file as it is now (the upsert storage may be ahead of the file). */
+    @FunctionalInterface
+    public interface Source {
+        List<String> lines(Path file) throws IOException;
+    }
+
+    private final Path dataDir;
+    private final PagedStore store;
+    private final Source source;
+    private final ScheduledExecutorService committer;
+
+    private PagedTableStorage(Path dataDir, PagedStore store, Source source, long commitMs) {
+        this.dataDir = dataDir.toAbsolutePath().normalize();
+        this.store = store;
+        this.source = source;
+
+        if (commitMs > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "table-storage-commit");
+                t.setDaemon(true);
+                return t;
+            });
+            committer.scheduleWithFixedDelay(this::commitQuietly, commitMs, commitMs, TimeUnit.MILLISECONDS);
+        } else {
+            committer = null;
+        }
+    }
+
+    public static PagedTableStorage open(Path dataDir, Source source) throws IOException {
+        return open(dataDir, source, POOL_PAGES, COMMIT_MS);
+    }
+
+    public static PagedTableStorage open(Path dataDir, Source source, int poolPages, long commitMs) throws IOException {
+        Files.createDirectories(dataDir);
+        boolean existed = Files.exists(dataDir.resolve(DB_FILE));
+        PagedStore store = PagedStore.open(dataDir.resolve(DB_FILE), poolPages);
+        PagedTableStorage s = new PagedTableStorage(dataDir, store, source, commitMs);
+
+        long start = System.nanoTime();
+        if (!store.wasClean()) {
+            if (existed) System.out.println("⚠️ " + DB_FILE + " was not closed cleanly, rebuilding it from the text files");
+            store.reset();
+        }
+        int imported = 0;
+        for (String file : FILES.keySet()) {
+            if (s.refresh(file)) imported++;
+        }
+        store.commit();
+        if (imported > 0) {
+            System.out.printf("✅ %s: %d table(s) imported in %d ms%n",
+                    DB_FILE, imported, (System.nanoTime() - start) / 1_000_000);
+        }
+        return s;
+    }
+
+    // =========================
+    // TableStorage
+    // =========================
+    @Override
+    public void written(Path file, List<String> lines) throws IOException {
+        String name = known(file);
+        if (name == null) return;
+
+        PagedStore.Table t = store.table(name);
+        synchronized (t) {
+            for (String line : lines) put(t, FILES.get(name), line);
+            restamp(t, name);
+        }
+    }
+
+    @Override
+    public void removed(Path file, String key) throws IOException {
+        String name = known(file);
+        if (name == null) return;
+
+        PagedStore.Table t = store.table(name);
+        synchronized (t) {
+            byte[] k = key(key);
+            if (FILES.get(name) == Rule.MANY) t.removePrefix(withSeparator(k));
+            else t.remove(k);
+            restamp(t, name);
+        }
+    }
+
+    @Override
+    public void replaced(Path file) throws IOException {
+        String name = known(file);
+        if (name != null) importTable(name);
+    }
+
+    @Override
+    public List<String> lines(Path file, String key) throws IOException {
+        String name = known(file);
+        if (name == null) return new TextTableStorage().lines(file, key);
+
+        refresh(name);
+        List<String> out = new ArrayList<>();
+        byte[] k = key(key);
+        PagedStore.Table t = store.table(name);
+        if (FILES.get(name) == Rule.MANY) {
+            t.scan(withSeparator(k), (rowKey, value) -> out.add(text(value)));
+        } else {
+            byte[] v = t.get(k);
+            if (v != null) out.add(text(v));
+        }
+        return out;
+    }
+
+    public String stats() throws IOException {
+        StringBuilder sb = new StringBuilder(store.stats());
+        for (String file : FILES.keySet()) {
+            sb.append(System.lineSeparator()).append("  ").append(file).append(": ")
+                    .append(store.table(file).rows()).append(" row(s)");
+        }
+        return sb.toString();
+    }
+
+    public void commit() throws IOException {
+        store.commit();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committer != null) committer.shutdownNow();
+        store.close();
+    }
+
+    // =========================
+    // IMPORT
+    // =========================
+    /** Imports the table again if its text file changed since it was built; true if it did. */
+    private boolean refresh(String name) throws IOException {
+        PagedStore.Table t = store.table(name);
+        synchronized (t) {
+            if (Objects.equals(t.stamp(name), stampOf(name))) return false;
+            importTable(name);
+            return true;
+        }
+    }
+
+    // sorted in memory, then loaded bottom-up: no random inserts into a tree bigger than the pool
+    private void importTable(String name) throws IOException {
+        PagedStore.Table t = store.table(name);
+        synchronized (t) {
+            Rule rule = FILES.get(name);
+            char sep = TableStorage.separator(name);
+            List<byte[][]> rows = new ArrayList<>();
+            long seq = 0;
+            for (String line : source.lines(dataDir.resolve(name))) {
+                if (line == null || line.isBlank()) continue;
+                byte[] k = key(TableStorage.firstField(line, sep));
+                if (rule == Rule.MANY) k = seqKey(k, seq++);
+                rows.add(new byte[][] { k, line.getBytes(StandardCharsets.UTF_8) });
+            }
+            rows.sort((a, b) -> Arrays.compareUnsigned(a[0], b[0])); // stable: file order within a key
+
+            List<byte[]> keys = new ArrayList<>(rows.size());
+            List<byte[]> values = new ArrayList<>(rows.size());
+            for (byte[][] row : rows) {
+                int last = keys.size() - 1;
+                if (last >= 0 && Arrays.equals(keys.get(last), row[0])) {
+                    if (rule == Rule.REPLACE) values.set(last, row[1]); // FIRST keeps the earlier line
+                    continue;
+                }
+                keys.add(row[0]);
+                values.add(row[1]);
+            }
+            t.load(keys, values, seq);
+            restamp(t, name);
+        }
+    }
+
+    private void put(PagedStore.Table t, Rule rule, String line) throws IOException {
+        if (line == null || line.isBlank()) return;
+
+        char sep = TableStorage.separator(t.name());
+        byte[] k = key(TableStorage.firstField(line, sep));
+        byte[] v = line.getBytes(StandardCharsets.UTF_8);
+        switch (rule) {
+            case REPLACE -> t.put(k, v);
+            case FIRST -> t.putIfAbsent(k, v);
+            case MANY -> t.put(seqKey(k, t.nextSeq()), v);
+        }
+    }
+
+    private void restamp(PagedStore.Table t, String name) throws IOException {
+        t.setStamp(name, stampOf(name));
+    }
+
+    private PagedStore.Stamp stampOf(String name) throws IOException {
+        Path p = dataDir.resolve(name);
+        if (!Files.exists(p)) return new PagedStore.Stamp(-1, -1);
+        return new PagedStore.Stamp(Files.size(p), Files.getLastModifiedTime(p).toMillis());
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+    // the table name for a file in the data dir, or null (anything else stays text only)
+    private String known(Path file) {
+        Path p = file.toAbsolutePath().normalize();
+        if (!dataDir.equals(p.getParent())) return null;
+        String fileName = p.getFileName().toString();
+        return FILES.containsKey(fileName) ? fileName : null;
+    }
+
+    private static byte[] key(String key) {
+        return (key == null ? "" : key.trim().toLowerCase()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // first field, 0, sequence number (big-endian, so rows of one key sort in write order)
+    private static byte[] seqKey(byte[] k, long seq) {
+        return ByteBuffer.allocate(k.length + 9).put(k).put((byte) 0).putLong(seq).array();
+    }
+
+    private static byte[] withSeparator(byte[] k) {
+        return Arrays.copyOf(k, k.length + 1); // trailing 0: "CSE 1" doesn't match "CSE 10"
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private void commitQuietly() {
+        try {
+            store.commit();
+        } catch (IOException e) {
+            System.out.println("❌ " + DB_FILE + " commit failed: " + e.getMessage());
+        }
+    }
+
+    /** The text files exactly as they are on disk. */
+    public static List<String> readText(Path file) throws IOException {
+        if (!Files.exists(file)) return List.of();
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = br.readLine()) != null) lines.add(line);
+        }
+        return lines;
+    }
+
+    // =========================
+    // IMPORTER / INSPECTOR
+    // =========================
+    /**
+     *   import [dataDir]            rebuild coursesphere.db from the text files
+     *   get <file.txt> <key> [dir]  the rows of one key
+     *   stats [dataDir]             pages, cache and rows per table
+     */
+    public static void main(String[] args) throws IOException {
+        String cmd = args.length > 0 ? args[0] : "stats";
+        switch (cmd) {
+            case "import" -> {
+                Path dir = Paths.get(args.length > 1 ? args[1] : "database");
+                Files.deleteIfExists(dir.resolve(DB_FILE));
+                try (PagedTableStorage s = open(dir, PagedTableStorage::readText, POOL_PAGES, 0)) {
+                    System.out.println(s.stats());
+                }
+            }
+            case "get" -> {
+                if (args.length < 3) {
+                    System.out.println("usage: get <file.txt> <key> [dataDir]");
+                    return;
+                }
+                Path dir = Paths.get(args.length > 3 ? args[3] : "database");
+                try (PagedTableStorage s = open(dir, PagedTableStorage::readText, POOL_PAGES, 0)) {
+                    s.lines(dir.resolve(args[1]), args[2]).forEach(System.out::println);
+                }
+            }
+            case "stats" -> {
+                Path dir = Paths.get(args.length > 1 ? args[1] : "database");
+                try (PagedTableStorage s = open(dir, PagedTableStorage::readText, POOL_PAGES, 0)) {
+                    System.out.println(s.stats());
+                }
+            }
+            default -> System.out.println("usage: import [dataDir] | get <file.txt> <key> [dataDir] | stats [dataDir]");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+// ✅ files/Storage/TableStorage.java
+package files.Storage;
+
+import files.UpsertStorage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Where the server keeps the database/*.txt records besides the text files themselves.
+ * RequestHandler (for ServerWriteThread / NioServer) and NotificationServer report every write here
+ * and read per-key lookups through it.
+ *
+ *   -Dcoursesphere.storage=text    the text files are all there is (default)
+ *   -Dcoursesphere.storage=paged   also kept in database/coursesphere.db: one table per kind of record,
+ *                                  B+tree primary keys, LRU page cache (see PagedTableStorage)
+ *
+ * The text files stay the source of truth in both modes: the JavaFX screens still read them.
+ */
+public interface TableStorage extends Closeable {
+
+    // ✅ -Dcoursesphere.storage=text|paged
+    String PROPERTY = "coursesphere.storage";
+
+    /** Lines the server just wrote to this file (appended, or upserted by id for the one-line-per-id files). */
+    void written(Path file, List<String> lines) throws IOException;
+
+    /** Every line of this file whose first field is key was removed. */
+    void removed(Path file, String key) throws IOException;
+
+    /** The file was rewritten as a whole (e.g. a cascading delete): take it again from the text. */
+    void replaced(Path file) throws IOException;
+
+    /** The lines of this file whose first field is key (ignoring case), in the order they were written. */
+    List<String> lines(Path file, String key) throws IOException;
+
+    @Override
+    default void close() throws IOException {}
+
+    /** ';' files: StudentCourses, CourseApplications, CourseAnnouncements, deadlines, UploadedFiles. */
+    static char separator(String fileName) {
+        return switch (fileName.toLowerCase()) {
+            case "studentcourses.txt", "courseapplications.txt", "courseannouncements.txt",
+                 "deadlines.txt", "uploadedfiles.txt" -> ';';
+            default -> ',';
+        };
+    }
+
+    static String firstField(String line, char separator) {
+        int i = line.indexOf(separator);
+        return (i < 0 ? line : line.substring(0, i)).trim();
+    }
+
+    // ✅ holder: one storage per process
+    final class Shared {
+        private Shared() {}
+
+        static final TableStorage INSTANCE = create(System.getProperty(PROPERTY, "text"));
+
+        private static TableStorage create(String mode) {
+            if (!"paged".equalsIgnoreCase(mode.trim())) return new TextTableStorage();
+
+            try {
+                // credentials / profiles are read through the upsert storage: its log may be ahead of the text
+                TableStorage s = PagedTableStorage.open(Paths.get("database"), file ->
+                        UpsertStorage.isUpsertFile(file.getFileName().toString())
+                                ? UpsertStorage.shared().lines(file)
+                                : PagedTableStorage.readText(file));
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        s.close();
+                    } catch (IOException e) {
+                        System.out.println("❌ Table storage close failed: " + e.getMessage());
+                    }
+                }, "table-storage-close"));
+                return s;
+            } catch (IOException e) {
+                System.out.println("❌ Can't open the paged store, using the text files only: " + e.getMessage());
+                return new TextTableStorage();
+            }
+        }
+    }
+
+    static TableStorage shared() {
+        return Shared.INSTANCE;
+    }
+}
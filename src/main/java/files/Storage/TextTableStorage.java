@@ -0,0 +1,38 @@
+// ✅ files/Storage/TextTableStorage.java
+package files.Storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/** The text files only: writes are already in them, lookups read the whole file. */
+public final class TextTableStorage implements TableStorage {
+
+    @Override
+    public void written(Path file, List<String> lines) {}
+
+    @Override
+    public void removed(Path file, String key) {}
+
+    @Override
+    public void replaced(Path file) {}
+
+    @Override
+    public List<String> lines(Path file, String key) throws IOException {
+        List<String> out = new ArrayList<>();
+        if (!Files.exists(file)) return out;
+
+        char sep = TableStorage.separator(file.getFileName().toString());
+        String k = key == null ? "" : key.trim();
+        try (BufferedReader br = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.isBlank() && TableStorage.firstField(line, sep).equalsIgnoreCase(k)) out.add(line);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,250 @@
+// ✅ files/StoreRecords.java
+package files;
+
+import files.Classes.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The records the data files hold (credentials, profiles, courses, links), the rules that turn
+ * them into the graph clients see, and how they are kept in database/coursesphere.ckpt.
+ *
+ * Shared by the DataStore (which writes the checkpoint and keeps these records in its State)
+ * and the client's Loader, which reads the checkpoint without starting a store.
+ */
+public final class StoreRecords {
+
+    public static final String CHECKPOINT_FILE = "coursesphere.ckpt";
+
+    static final String STUDENT_CRED = "studentcredentials.txt";
+    static final String TEACHER_CRED = "teachercredentials.txt";
+    static final String STUDENT_PROFILES = "studentprofiles.txt";
+    static final String TEACHER_PROFILES = "teacherprofiles.txt";
+    static final String COURSES = "courses.txt";
+    static final String ENROLLMENTS = "enrollments.txt";        // studentId,courseId
+    static final String STUDENT_COURSES = "studentcourses.txt"; // studentId;courseId
+    static final String ASSIGNMENTS = "assignedcoursesteacher.txt";
+
+    // files the graph is built from (lower-case names), in load order
+    static final List<String> LOAD_ORDER = List.of(STUDENT_CRED, TEACHER_CRED, STUDENT_PROFILES,
+            TEACHER_PROFILES, COURSES, ENROLLMENTS, STUDENT_COURSES, ASSIGNMENTS);
+    static final Set<String> DATA_FILES = Set.copyOf(LOAD_ORDER);
+
+    record Cred(String name, String password, boolean approved) {}
+
+    record Profile(String name, String password, String imagePath) {}
+
+    /** What a client sees of a person (credentials with the profile applied). */
+    record PersonView(String name, String password, String imagePath) {}
+
+    record CourseRec(String id, String name, double credit) {}
+
+    record Link(int personId, String courseId) {}
+
+    /** Everything read from the data files; course keys are lower-case ids, in file order. */
+    record Tables(Map<Integer, Cred> studentCreds, Map<Integer, Cred> teacherCreds,
+                  Map<Integer, Profile> studentProfiles, Map<Integer, Profile> teacherProfiles,
+                  Map<String, CourseRec> courses, Set<Link> enrollments, Set<Link> assignments) {
+
+        PersonView student(int id) {
+            return view(studentCreds.get(id), studentProfiles.get(id));
+        }
+
+        PersonView teacher(int id) {
+            return view(teacherCreds.get(id), teacherProfiles.get(id));
+        }
+
+        // same rules as the old per-request load in RequestHandler
+        DataSnapshot graph() {
+            StudentList sl = new StudentList();
+            TeacherList tl = new TeacherList();
+            CourseList cl = new CourseList();
+
+            for (int id : studentCreds.keySet()) {
+                PersonView v = student(id);
+                if (v == null) continue;
+                Student s = new Student(v.name(), id, v.password());
+                s.setImagePath(v.imagePath());
+                sl.addStudent(s);
+            }
+            for (int id : teacherCreds.keySet()) {
+                PersonView v = teacher(id);
+                if (v != null) tl.addTeacher(new Teacher(v.name(), id, v.password()));
+            }
+            for (CourseRec c : courses.values()) {
+                cl.addCourse(new Course(c.id(), c.name(), c.credit()));
+            }
+            for (Link l : enrollments) {
+                Student s = sl.searchStudent(l.personId());
+                if (s != null) cl.addStudentToCourse(l.courseId(), s);
+            }
+            for (Link l : assignments) {
+                Teacher t = tl.searchTeacher(l.personId());
+                if (t != null) cl.addTeacherToCourse(l.courseId(), t);
+            }
+            return new DataSnapshot(sl, tl, cl);
+        }
+    }
+
+    private StoreRecords() {}
+
+    /** null: not approved (or no credentials), so not in the graph. */
+    static PersonView view(Cred cred, Profile profile) {
+        if (cred == null || !cred.approved()) return null;
+        if (profile == null) return new PersonView(cred.name(), cred.password(), null);
+        return new PersonView(
+                profile.name().isBlank() ? cred.name() : profile.name(),
+                profile.password().isBlank() ? cred.password() : profile.password(),
+                profile.imagePath().isBlank() ? null : profile.imagePath());
+    }
+
+    // course ids are matched ignoring case
+    static String key(String courseId) {
+        return courseId.trim().toLowerCase();
+    }
+
+    // =========================
+    // CHECKPOINT
+    // =========================
+    /** The coordinated lists from the server's checkpoint, or null if it's missing or out of date. */
+    public static DataSnapshot loadCheckpoint(Path dataDir) {
+        if (!Checkpoint.enabled()) return null;
+        Tables t = readCheckpoint(dataDir);
+        return t == null ? null : t.graph();
+    }
+
+    static Tables readCheckpoint(Path dataDir) {
+        try {
+            return Checkpoint.read(dataDir.resolve(CHECKPOINT_FILE), checkpointSources(dataDir), StoreRecords::decode);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static void writeCheckpoint(Path dataDir, Tables t) throws IOException {
+        Checkpoint.write(dataDir.resolve(CHECKPOINT_FILE), checkpointSources(dataDir), out -> encode(t, out));
+    }
+
+    // the data files and what the upsert storages keep next to them (.wal log, mapped .dat / .idx)
+    private static List<Path> checkpointSources(Path dataDir) throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(dataDir)) {
+            for (Path p : dir) {
+                String name = p.getFileName().toString().toLowerCase();
+                for (String dataFile : DATA_FILES) {
+                    if (name.startsWith(dataFile.substring(0, dataFile.length() - ".txt".length()) + ".")) {
+                        out.add(p);
+                        break;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    private static void encode(Tables t, DataOutputStream out) throws IOException {
+        writeCreds(t.studentCreds(), out);
+        writeCreds(t.teacherCreds(), out);
+        writeProfiles(t.studentProfiles(), out);
+        writeProfiles(t.teacherProfiles(), out);
+
+        out.writeInt(t.courses().size());
+        for (CourseRec c : t.courses().values()) {
+            out.writeUTF(c.id());
+            out.writeUTF(c.name());
+            out.writeDouble(c.credit());
+        }
+
+        // ✅ links name a course by its number in this table: two ints each, one String per course id
+        Map<String, Integer> courseIds = new LinkedHashMap<>();
+        for (Link l : t.enrollments()) courseIds.putIfAbsent(l.courseId(), courseIds.size());
+        for (Link l : t.assignments()) courseIds.putIfAbsent(l.courseId(), courseIds.size());
+        out.writeInt(courseIds.size());
+        for (String id : courseIds.keySet()) out.writeUTF(id);
+
+        writeLinks(t.enrollments(), courseIds, out);
+        writeLinks(t.assignments(), courseIds, out);
+    }
+
+    private static Tables decode(DataInputStream in) throws IOException {
+        Map<Integer, Cred> studentCreds = readCreds(in);
+        Map<Integer, Cred> teacherCreds = readCreds(in);
+        Map<Integer, Profile> studentProfiles = readProfiles(in);
+        Map<Integer, Profile> teacherProfiles = readProfiles(in);
+
+        int n = in.readInt();
+        Map<String, CourseRec> courses = new LinkedHashMap<>(capacity(n));
+        for (int i = 0; i < n; i++) {
+            CourseRec c = new CourseRec(in.readUTF(), in.readUTF(), in.readDouble());
+            courses.put(key(c.id()), c);
+        }
+        String[] courseIds = new String[in.readInt()];
+        for (int i = 0; i < courseIds.length; i++) courseIds[i] = in.readUTF();
+
+        Set<Link> enrollments = readLinks(in, courseIds);
+        Set<Link> assignments = readLinks(in, courseIds);
+
+        return new Tables(
+                Collections.unmodifiableMap(studentCreds), Collections.unmodifiableMap(teacherCreds),
+                Collections.unmodifiableMap(studentProfiles), Collections.unmodifiableMap(teacherProfiles),
+                Collections.unmodifiableMap(courses),
+                Collections.unmodifiableSet(enrollments), Collections.unmodifiableSet(assignments));
+    }
+
+    private static void writeCreds(Map<Integer, Cred> creds, DataOutputStream out) throws IOException {
+        out.writeInt(creds.size());
+        for (Map.Entry<Integer, Cred> e : creds.entrySet()) {
+            out.writeInt(e.getKey());
+            out.writeUTF(e.getValue().name());
+            out.writeUTF(e.getValue().password());
+            out.writeBoolean(e.getValue().approved());
+        }
+    }
+
+    private static Map<Integer, Cred> readCreds(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        Map<Integer, Cred> out = new LinkedHashMap<>(capacity(n));
+        for (int i = 0; i < n; i++) out.put(in.readInt(), new Cred(in.readUTF(), in.readUTF(), in.readBoolean()));
+        return out;
+    }
+
+    private static void writeProfiles(Map<Integer, Profile> profiles, DataOutputStream out) throws IOException {
+        out.writeInt(profiles.size());
+        for (Map.Entry<Integer, Profile> e : profiles.entrySet()) {
+            out.writeInt(e.getKey());
+            out.writeUTF(e.getValue().name());
+            out.writeUTF(e.getValue().password());
+            out.writeUTF(e.getValue().imagePath());
+        }
+    }
+
+    private static Map<Integer, Profile> readProfiles(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        Map<Integer, Profile> out = new HashMap<>(capacity(n));
+        for (int i = 0; i < n; i++) out.put(in.readInt(), new Profile(in.readUTF(), in.readUTF(), in.readUTF()));
+        return out;
+    }
+
+    private static void writeLinks(Set<Link> links, Map<String, Integer> courseIds, DataOutputStream out) throws IOException {
+        out.writeInt(links.size());
+        for (Link l : links) {
+            out.writeInt(l.personId());
+            out.writeInt(courseIds.get(l.courseId()));
+        }
+    }
+
+    private static Set<Link> readLinks(DataInputStream in, String[] courseIds) throws IOException {
+        int n = in.readInt();
+        Set<Link> out = new LinkedHashSet<>(capacity(n));
+        for (int i = 0; i < n; i++) out.add(new Link(in.readInt(), courseIds[in.readInt()]));
+        return out;
+    }
+
+    private static int capacity(int size) {
+        return (int) Math.min(Integer.MAX_VALUE, size * 4L / 3 + 1);
+    }
+}
@@ -0,0 +1,92 @@
+// ✅ files/UpsertStorage.java
+package files;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * How the server writes the "one line per id" files (credentials, profiles):
+ * a line replaces the first line with the same first field, or is added at the end.
+ *
+ *   -Dcoursesphere.upsert.storage=rewrite  read + rewrite the whole file per write (default)
+ *   -Dcoursesphere.upsert.storage=log      append to a write-ahead log, compact in the background
+ *   -Dcoursesphere.upsert.storage=mapped   slots in a memory-mapped file + id index, exported in the background
+ *
+ * Callers that need the current content must use lines(): with the log, the text
+ * file only catches up at the next compaction.
+ */
+public interface UpsertStorage extends Closeable {
+
+    // ✅ -Dcoursesphere.upsert.storage=rewrite|log|mapped
+    String PROPERTY = "coursesphere.upsert.storage";
+
+    /** Upsert each line by its first field, in order. */
+    void upsert(Path file, List<String> lines) throws IOException;
+
+    /** Remove every line whose first field is this key. */
+    void delete(Path file, String key) throws IOException;
+
+    /** The file as it is now (text file + whatever was not written back yet). */
+    List<String> lines(Path file) throws IOException;
+
+    /** true if upserts of different ids in one file may run at the same time (see LockManager). */
+    default boolean perRecord() {
+        return true;
+    }
+
+    @Override
+    default void close() throws IOException {}
+
+    /** Runs a background rewrite of a text file so nobody takes it for an outside edit; false = try later. */
+    @FunctionalInterface
+    interface Guard {
+        boolean run(DataStore.FileWrite write) throws IOException;
+    }
+
+    static boolean isUpsertFile(String fileName) {
+        if (fileName == null) return false;
+        return fileName.equalsIgnoreCase("StudentProfiles.txt")
+                || fileName.equalsIgnoreCase("TeacherProfiles.txt")
+                || fileName.equalsIgnoreCase("StudentCredentials.txt")
+                || fileName.equalsIgnoreCase("TeacherCredentials.txt");
+    }
+
+    static String firstField(String line) {
+        if (line == null) return "";
+        int comma = line.indexOf(',');
+        return (comma < 0 ? line : line.substring(0, comma)).trim();
+    }
+
+    // ✅ holder: one storage per process (the log keeps per-file indexes in memory)
+    final class Shared {
+        private Shared() {}
+
+        static final UpsertStorage INSTANCE = create(System.getProperty(PROPERTY, "rewrite"));
+
+        private static UpsertStorage create(String mode) {
+            // background rewrites of data files: under the store lock so they aren't seen as outside edits
+            Guard guard = write -> DataStore.shared().rewriteQuietly(write);
+            UpsertStorage s = switch (mode.trim().toLowerCase()) {
+                case "log" -> new LogUpsertStorage(guard);
+                case "mapped" -> new MappedUpsertStorage(guard);
+                default -> null;
+            };
+            if (s == null) return new RewriteUpsertStorage();
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    s.close();
+                } catch (IOException e) {
+                    System.out.println("❌ Upsert storage close failed: " + e.getMessage());
+                }
+            }, "upsert-storage-close"));
+            return s;
+        }
+    }
+
+    static UpsertStorage shared() {
+        return Shared.INSTANCE;
+    }
+}
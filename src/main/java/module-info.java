@@ -9,6 +9,7 @@ module src.drimjavafxproject {
     exports files.Classes;
     exports files.Controllers;
     exports files.Server;     // ✅ only once
+    exports files.Storage;
 
     // ✅ FXMLLoader reflection (controllers)
     opens files to javafx.fxml;
@@ -0,0 +1,135 @@
+// ✅ files/CascadeDeleteTest.java
+package files;
+
+import files.Classes.Change;
+import files.Storage.TextTableStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CascadeDeleteTest {
+
+    @TempDir
+    Path dir;
+
+    private CascadeDelete cascade;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cascade = new CascadeDelete(dir, new RewriteUpsertStorage(), new TextTableStorage());
+
+        write("Courses.txt", "CSE 2101,Algorithms,3.0", "CSE 2102,Algorithms Lab,1.5");
+        write("enrollments.txt", "7,CSE 2101", "7,CSE 2102", "8,CSE 2101");
+        write("StudentCourses.txt", "7;CSE 2101", "8;CSE 2102");
+        write("CourseApplications.txt", "9;CSE 2101");
+        write("AssignedCoursesTeacher.txt", "100,CSE 2101", "100,CSE 2102");
+        write("PendingEnrollment.txt", "9,CSE 2101", "9,CSE 2102");
+        write("deadlines.txt", "CSE 2101;CT-1;CT;2025-08-01", "CSE 2102;Lab 1;Assignment;2025-08-02");
+        write("CourseAnnouncements.txt", "CSE 2101;100;No class today");
+        write("UploadedFiles.txt", "CSE 2101;notes.pdf", "CSE 2102;lab.pdf");
+        write("CourseRequirement.txt", "CSE 2102,CSE 2101", "CSE 2104,CSE 2103");
+        write("StudentCredentials.txt", "7,Ayesha,pw,true", "8,Rahim,pw,true");
+        write("StudentProfiles.txt", "7,ayesha@x", "8,rahim@x");
+    }
+
+    @Test
+    void deletedCourseLeavesEveryFile() throws IOException {
+        Map<String, Integer> removed = cascade.run(Change.Entity.COURSE, "cse 2101");
+
+        assertEquals(List.of("CSE 2102,Algorithms Lab,1.5"), read("Courses.txt"));
+        assertEquals(List.of("7,CSE 2102"), read("enrollments.txt"));
+        assertEquals(List.of("8;CSE 2102"), read("StudentCourses.txt"));
+        assertEquals(List.of(), read("CourseApplications.txt"));
+        assertEquals(List.of("100,CSE 2102"), read("AssignedCoursesTeacher.txt"));
+        assertEquals(List.of("9,CSE 2102"), read("PendingEnrollment.txt"));
+        assertEquals(List.of("CSE 2102;Lab 1;Assignment;2025-08-02"), read("deadlines.txt"));
+        assertEquals(List.of(), read("CourseAnnouncements.txt"));
+        assertEquals(List.of("CSE 2102;lab.pdf"), read("UploadedFiles.txt"));
+        // a prerequisite of another course goes too
+        assertEquals(List.of("CSE 2104,CSE 2103"), read("CourseRequirement.txt"));
+
+        assertEquals(2, removed.get("enrollments.txt"));
+        assertEquals(1, removed.get("CourseRequirement.txt"));
+        assertNoLeftovers();
+    }
+
+    @Test
+    void locksCoverEveryFileTheDeleteRewrites() {
+        List<LockManager.Request> locks = cascade.locks(Change.Entity.COURSE);
+        for (String file : List.of("Courses.txt", "PendingEnrollment.txt", "deadlines.txt",
+                "CourseAnnouncements.txt", "UploadedFiles.txt", "CourseRequirement.txt")) {
+            assertTrue(locks.contains(LockManager.Request.file(dir.resolve(file), LockManager.Mode.WRITE)), file);
+        }
+    }
+
+    @Test
+    void recoverRollsACommittedDeleteForward() throws IOException {
+        // crashed after the commit: enrollments.txt was swapped in, StudentCourses.txt not yet
+        write("enrollments.txt", "8,CSE 2101");
+        write("StudentCourses.txt.txn", "8;CSE 2102");
+        write(CascadeDelete.MARKER, "STUDENT", "7", "enrollments.txt", "StudentCourses.txt");
+
+        cascade.recover();
+
+        assertEquals(List.of("8,CSE 2101"), read("enrollments.txt"));
+        assertEquals(List.of("8;CSE 2102"), read("StudentCourses.txt"));
+        assertEquals(List.of("8,Rahim,pw,true"), read("StudentCredentials.txt"));
+        assertEquals(List.of("8,rahim@x"), read("StudentProfiles.txt"));
+        assertNoLeftovers();
+
+        // and once more: nothing left to do
+        cascade.recover();
+        assertEquals(List.of("8;CSE 2102"), read("StudentCourses.txt"));
+    }
+
+    @Test
+    void recoverDropsAnUncommittedDelete() throws IOException {
+        // crashed while preparing / writing the marker
+        write("enrollments.txt.txn", "8,CSE 2101");
+        write("Courses.txt.txn", "CSE 2102,Algorithms Lab,1.5");
+        write(CascadeDelete.MARKER + ".tmp", "COURSE");
+
+        cascade.recover();
+
+        assertEquals(3, read("enrollments.txt").size());
+        assertEquals(2, read("Courses.txt").size());
+        assertNoLeftovers();
+    }
+
+    @Test
+    void recoverDropsATornMarker() throws IOException {
+        write("enrollments.txt.txn", "8,CSE 2101");
+        write(CascadeDelete.MARKER, "STUDENT");
+
+        cascade.recover();
+
+        assertEquals(3, read("enrollments.txt").size());
+        assertEquals(2, read("StudentCredentials.txt").size());
+        assertNoLeftovers();
+    }
+
+    private void write(String file, String... lines) throws IOException {
+        Files.write(dir.resolve(file), List.of(lines));
+    }
+
+    private List<String> read(String file) throws IOException {
+        return Files.readAllLines(dir.resolve(file));
+    }
+
+    private void assertNoLeftovers() throws IOException {
+        try (var files = Files.list(dir)) {
+            List<String> left = files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.endsWith(".txn") || n.startsWith(CascadeDelete.MARKER))
+                    .toList();
+            assertEquals(List.of(), left);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// ✅ files/Classes/ChunkedFileReaderTest.java
+package files.Classes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedFileReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void linesComeBackInFileOrder() throws IOException {
+        Path file = dir.resolve("enrollments.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) lines.add(i + ",CSE " + (2100 + i % 7));
+        Files.write(file, lines);
+
+        List<String> got = new ArrayList<>();
+        for (List<String> range : ChunkedFileReader.<List<String>>read(file, ',', ArrayList::new,
+                (found, t) -> found.add(t.next() + "," + t.next()))) {
+            got.addAll(range);
+        }
+        assertEquals(lines, got);
+    }
+
+    @Test
+    void fileTruncatedWhileMappedIsReadAgain() throws IOException {
+        Path file = dir.resolve("enrollments.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) lines.add(i + ",CSE 2101"); // ~250 KB: one range, many pages
+        Files.write(file, lines);
+
+        // a client rewriting the file in place while the first range is being parsed
+        boolean[] rewritten = {false};
+        List<List<String>> ranges = ChunkedFileReader.read(file, ',', ArrayList::new, (found, t) -> {
+            if (!rewritten[0]) {
+                rewritten[0] = true;
+                try {
+                    Files.write(file, List.of("7,CSE 2102"));
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            found.add(t.next() + "," + t.next());
+        });
+
+        assertEquals(List.of(List.of("7,CSE 2102")), ranges);
+    }
+}
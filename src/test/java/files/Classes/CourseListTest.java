@@ -0,0 +1,64 @@
+// ✅ files/Classes/CourseListTest.java
+package files.Classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseListTest {
+
+    @Test
+    void renameMovesTheCourseInItsListsNameIndex() {
+        CourseList list = new CourseList();
+        Course algo = new Course("CSE 2101", "Algorithms", 3.0);
+        list.addCourse(algo);
+        assertSame(algo, list.searchCourseByName("algorithms"));
+
+        algo.setCourseName("Algorithm Design");
+        assertNull(list.searchCourseByName("Algorithms"));
+        assertSame(algo, list.searchCourseByName("algorithm design"));
+        assertTrue(list.addCourse(new Course("CSE 2102", "Algorithms", 1.5)), "the old name is free again");
+    }
+
+    @Test
+    void removedOrClearedCoursesStopTellingTheList() {
+        CourseList list = new CourseList();
+        Course a = new Course("CSE 2101", "Algorithms", 3.0);
+        Course b = new Course("CSE 2102", "Databases", 3.0);
+        list.addCourse(a);
+        list.addCourse(b);
+
+        list.removeCourseById("cse 2101");
+        a.setCourseName("Databases II");
+        assertSame(b, list.searchCourseByName("Databases"));
+        assertNull(list.searchCourseByName("Databases II"));
+
+        list.clearCourses();
+        b.setCourseName("Networks");
+        assertNull(list.searchCourseByName("Networks"));
+    }
+
+    @Test
+    void deserializedListWatchesItsCoursesAgain() throws Exception {
+        CourseList sent = new CourseList();
+        sent.addCourse(new Course("CSE 2101", "Algorithms", 3.0));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(sent);
+        }
+        CourseList got;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            got = (CourseList) in.readObject();
+        }
+
+        assertNotNull(got.searchCourseByName("Algorithms")); // builds the index, watches the course
+        Course c = got.searchCourse("CSE 2101");
+        c.setCourseName("Algorithm Design");
+        assertSame(c, got.searchCourseByName("Algorithm Design"));
+        assertEquals(List.of(c), got.getCourses());
+    }
+}
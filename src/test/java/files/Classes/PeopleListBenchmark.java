@@ -0,0 +1,95 @@
+// ✅ files/Classes/PeopleListBenchmark.java
+package files.Classes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * StudentList (IntObjectMap index) vs the old linear scan vs a boxed HashMap<Integer, Student>.
+ *
+ *   add     N students in id order, each checked for a duplicate first (loading the credentials)
+ *   lookup  random searchStudent(id), 1 in 10 missing (one per enrollment / profile line)
+ *
+ * The scan does far fewer lookups (it would take minutes); compare ns per lookup.
+ *
+ * Usage: java files.Classes.PeopleListBenchmark [students=100000] [lookups=2000000] [rounds=5]
+ */
+public final class PeopleListBenchmark {
+
+    private PeopleListBenchmark() {}
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        List<Student> people = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) people.add(new Student("Student " + i, 2023000000 + i, "pw"));
+
+        Random rnd = new Random(42);
+        int[] ids = new int[lookups];
+        for (int i = 0; i < lookups; i++) ids[i] = 2023000000 + rnd.nextInt(students + students / 10);
+        int scanLookups = Math.min(lookups, 2000);
+
+        System.out.printf("%,d students, %,d lookups (%,d for the scan)%n", students, lookups, scanLookups);
+
+        // ---- add ----
+        long t0 = System.nanoTime();
+        StudentList list = new StudentList();
+        for (Student s : people) list.addStudent(s);
+        System.out.printf("add     StudentList  %8.1f ms%n", ms(t0));
+
+        t0 = System.nanoTime();
+        Map<Integer, Student> boxed = new HashMap<>();
+        for (Student s : people) boxed.putIfAbsent(s.getId(), s);
+        System.out.printf("add     HashMap      %8.1f ms%n", ms(t0));
+
+        t0 = System.nanoTime();
+        List<Student> scanned = new ArrayList<>();
+        for (Student s : people) {
+            if (scan(scanned, s.getId()) == null) scanned.add(s);
+        }
+        System.out.printf("add     scan         %8.1f ms%n", ms(t0));
+
+        // ---- lookup ---- (first round is warm-up; the hit count keeps the JIT from dropping the work)
+        for (int r = 0; r <= rounds; r++) {
+            boolean warm = r == 0;
+
+            t0 = System.nanoTime();
+            int hits = 0;
+            for (int id : ids) if (list.searchStudent(id) != null) hits++;
+            report(warm, "StudentList", t0, lookups, hits);
+
+            t0 = System.nanoTime();
+            hits = 0;
+            for (int id : ids) if (boxed.get(id) != null) hits++;
+            report(warm, "HashMap", t0, lookups, hits);
+
+            t0 = System.nanoTime();
+            hits = 0;
+            for (int i = 0; i < scanLookups; i++) if (scan(scanned, ids[i]) != null) hits++;
+            report(warm, "scan", t0, scanLookups, hits);
+        }
+    }
+
+    // what StudentList.searchStudent() did before
+    private static Student scan(List<Student> students, int id) {
+        for (Student s : students) {
+            if (s.getId() == id) return s;
+        }
+        return null;
+    }
+
+    private static void report(boolean warm, String name, long t0, int n, int hits) {
+        long ns = System.nanoTime() - t0;
+        if (warm) return;
+        System.out.printf("lookup  %-12s %8.1f ms  %8.1f ns/lookup  (%,d hits)%n", name, ns / 1e6, (double) ns / n, hits);
+    }
+
+    private static double ms(long t0) {
+        return (System.nanoTime() - t0) / 1e6;
+    }
+}
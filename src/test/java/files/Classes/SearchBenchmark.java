@@ -0,0 +1,104 @@
+// ✅ files/Classes/SearchBenchmark.java
+package files.Classes;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * The admin search box over N people: TrigramIndex vs the old per-row filter.
+ *
+ *   filter   name.trim().toLowerCase().contains(q) || id.contains(q) on every row (what each keystroke did)
+ *   search   TrigramIndex.search(q) alone
+ *   index    search, then the predicate over every row (what the FilteredList does)
+ *
+ * Queries are 3+ chars (names, name parts, ids); shorter ones still check every stored text.
+ * Allocation is the whole search thread's, per query.
+ *
+ * Usage: java files.Classes.SearchBenchmark [people=200000] [queries=200] [rounds=5]
+ */
+public final class SearchBenchmark {
+
+    private static final String[] FIRST = {"Ayesha", "Rahim", "Nusrat", "Tanvir", "Farhana", "Imran",
+            "Sadia", "Karim", "Mehedi", "Lamia", "Arif", "Sumaiya", "Hasan", "Tasnim", "Rafiq", "Nabila"};
+    private static final String[] LAST = {"Rahman", "Hossain", "Ahmed", "Chowdhury", "Islam", "Khan",
+            "Sarkar", "Akter", "Uddin", "Begum", "Talukder", "Mahmud", "Siddique", "Haque"};
+
+    private SearchBenchmark() {}
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Random rnd = new Random(42);
+        List<Student> rows = new ArrayList<>(people);
+        for (int i = 0; i < people; i++) {
+            String name = FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)] + " " + i;
+            rows.add(new Student(name, 2023000000 + i, "pw"));
+        }
+
+        String[] qs = new String[queries];
+        for (int i = 0; i < queries; i++) {
+            switch (i % 4) {
+                case 0 -> qs[i] = String.valueOf(2023000000 + rnd.nextInt(people)); // one id
+                case 1 -> qs[i] = LAST[rnd.nextInt(LAST.length)].toLowerCase().substring(0, 4) + " " + rnd.nextInt(10);
+                case 2 -> qs[i] = FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)] + " " + rnd.nextInt(people);
+                default -> qs[i] = String.valueOf(rnd.nextInt(people)); // part of a name / id
+            }
+        }
+
+        long t0 = System.nanoTime();
+        TrigramIndex<Student> index = TrigramIndex.people();
+        index.addAll(rows);
+        System.out.printf("%,d people, %,d queries; index built in %.1f ms%n", people, queries, (System.nanoTime() - t0) / 1e6);
+
+        // first round is warm-up; the hit count keeps the JIT from dropping the work
+        for (int r = 0; r <= rounds; r++) {
+            boolean warm = r == 0;
+
+            long b0 = allocated();
+            t0 = System.nanoTime();
+            long hits = 0;
+            for (String q : qs) hits += count(rows, filter(q));
+            report(warm, "filter", t0, b0, queries, hits);
+
+            b0 = allocated();
+            t0 = System.nanoTime();
+            hits = 0;
+            for (String q : qs) hits += index.search(q).test(rows.get(0)) ? 1 : 0;
+            report(warm, "search", t0, b0, queries, hits);
+
+            b0 = allocated();
+            t0 = System.nanoTime();
+            hits = 0;
+            for (String q : qs) hits += count(rows, index.search(q));
+            report(warm, "index", t0, b0, queries, hits);
+        }
+    }
+
+    // what AdminDashboardController's student filter did before
+    private static Predicate<Student> filter(String query) {
+        String q = query.trim().toLowerCase();
+        return s -> s.getName().trim().toLowerCase().contains(q) || String.valueOf(s.getId()).contains(q);
+    }
+
+    private static long count(List<Student> rows, Predicate<Student> p) {
+        long n = 0;
+        for (Student s : rows) if (p.test(s)) n++;
+        return n;
+    }
+
+    private static long allocated() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static void report(boolean warm, String name, long t0, long b0, int n, long hits) {
+        long ns = System.nanoTime() - t0;
+        long bytes = allocated() - b0;
+        if (warm) return;
+        System.out.printf("%-7s %8.3f ms/query  %,12d bytes/query  (%,d hits)%n", name, ns / 1e6 / n, bytes / n, hits);
+    }
+}
@@ -0,0 +1,52 @@
+// ✅ files/Classes/StudentListTest.java
+package files.Classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentListTest {
+
+    @Test
+    void idChangeReKeysTheListsAndCoursesHoldingTheStudent() {
+        StudentList list = new StudentList();
+        Course algo = new Course("CSE 2101", "Algorithms", 3.0);
+        Student ayesha = new Student("Ayesha", 7, "pw");
+        list.addStudent(ayesha);
+        algo.addStudent(ayesha);
+
+        ayesha.setId(70);
+        assertNull(list.searchStudent(7));
+        assertSame(ayesha, list.searchStudent(70));
+        assertFalse(algo.addStudent(ayesha), "still enrolled under the new id");
+        assertTrue(list.addStudent(new Student("Rahim", 7, "pw")), "the old id is free again");
+    }
+
+    @Test
+    void removedStudentStopsTellingTheList() {
+        StudentList list = new StudentList();
+        Student ayesha = new Student("Ayesha", 7, "pw");
+        Student rahim = new Student("Rahim", 8, "pw");
+        list.addStudent(ayesha);
+        list.addStudent(rahim);
+
+        list.removeStudent(ayesha);
+        ayesha.setId(8);
+        assertSame(rahim, list.searchStudent(8));
+    }
+
+    @Test
+    void nameSearchFollowsARename() {
+        StudentList list = new StudentList();
+        Student ayesha = new Student("Ayesha", 7, "pw");
+        list.addStudent(ayesha);
+        list.addStudent(new Student("Rahim", 8, "pw"));
+        assertEquals(List.of(ayesha), list.searchByName("aye"));
+
+        ayesha.setName("Nusrat");
+        assertEquals(List.of(), list.searchByName("aye"));
+        assertEquals(List.of(ayesha), list.searchByName("nusr"));
+    }
+}
@@ -0,0 +1,160 @@
+// ✅ files/Classes/TokenizerBenchmark.java
+package files.Classes;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * split(",") + trim() + parseInt vs RecordTokenizer on a large enrollments.txt, in a scratch directory.
+ *
+ *   split      readLine, line.split(",", 2), trim both, Integer.parseInt
+ *   tokenizer  readLine, RecordTokenizer over the String
+ *   mapped     RecordTokenizer over the mapped file: no String per line at all
+ *   chunked    ChunkedFileReader: the mapped pass in newline-aligned ranges on every core
+ *   filter     one course's lines (the announcement / deadline pattern): split + equals vs nextEquals
+ *
+ * Usage: java files.Classes.TokenizerBenchmark [lines=1000000] [rounds=10]
+ */
+public final class TokenizerBenchmark {
+
+    private TokenizerBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Path dir = Files.createTempDirectory("coursesphere-tokenizer");
+        Path file = dir.resolve("enrollments.txt");
+        Random rnd = new Random(42);
+        try (BufferedWriter w = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < lines; i++) {
+                w.write((2023000000 + rnd.nextInt(50_000)) + ",CSE " + (1000 + rnd.nextInt(400)));
+                w.newLine();
+            }
+        }
+        System.out.printf("%,d lines, %.1f MB%n", lines, Files.size(file) / 1e6);
+
+        run("split", rounds, () -> split(file));
+        run("tokenizer", rounds, () -> tokenizer(file));
+        run("mapped", rounds, () -> mapped(file));
+        run("chunked", rounds, () -> chunked(file));
+        run("filter split", rounds, () -> filterSplit(file, "CSE 1200"));
+        run("filter tokens", rounds, () -> filterTokens(file, "CSE 1200"));
+
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @FunctionalInterface
+    private interface Pass {
+        long run() throws IOException;
+    }
+
+    // first round is warm-up; the checksum keeps the JIT from dropping the work
+    private static void run(String name, int rounds, Pass pass) throws IOException {
+        long checksum = pass.run();
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < rounds; i++) {
+            long t0 = System.nanoTime();
+            long c = pass.run();
+            long ns = System.nanoTime() - t0;
+            if (c != checksum) System.out.println("❌ " + name + ": checksum changed between rounds");
+            best = Math.min(best, ns);
+            total += ns;
+        }
+        System.out.printf("%-14s best %6.1f ms  avg %6.1f ms  (checksum %d)%n",
+                name, best / 1e6, total / 1e6 / rounds, checksum);
+    }
+
+    private static long split(Path file) throws IOException {
+        long sum = 0;
+        try (BufferedReader br = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",", 2);
+                if (parts.length != 2) continue;
+                sum += Integer.parseInt(parts[0].trim()) + parts[1].trim().length();
+            }
+        }
+        return sum;
+    }
+
+    private static long tokenizer(Path file) throws IOException {
+        long sum = 0;
+        RecordTokenizer t = new RecordTokenizer();
+        try (BufferedReader br = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                t.reset(line, ',');
+                if (t.fields() != 2) continue;
+                sum += t.nextInt() + t.rest().length();
+            }
+        }
+        return sum;
+    }
+
+    private static long mapped(Path file) throws IOException {
+        long sum = 0;
+        RecordTokenizer t = new RecordTokenizer();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            int end = buf.limit();
+            int from = 0;
+            for (int i = 0; i <= end; i++) {
+                if (i < end && buf.get(i) != '\n') continue;
+                int to = i > from && buf.get(i - 1) == '\r' ? i - 1 : i;
+                if (to > from) {
+                    t.reset(buf, from, to, ',');
+                    if (t.fields() == 2) sum += t.nextInt() + t.rest().length();
+                }
+                from = i + 1;
+            }
+        }
+        return sum;
+    }
+
+    private static long chunked(Path file) throws IOException {
+        long sum = 0;
+        for (long[] range : ChunkedFileReader.read(file, ',', () -> new long[1], (acc, t) -> {
+            if (t.fields() == 2) acc[0] += t.nextInt() + t.rest().length();
+        })) {
+            sum += range[0];
+        }
+        return sum;
+    }
+
+    private static long filterSplit(Path file, String courseId) throws IOException {
+        long n = 0;
+        try (BufferedReader br = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",", 2);
+                if (parts.length == 2 && parts[1].trim().equals(courseId)) n += Integer.parseInt(parts[0].trim());
+            }
+        }
+        return n;
+    }
+
+    private static long filterTokens(Path file, String courseId) throws IOException {
+        long n = 0;
+        RecordTokenizer t = new RecordTokenizer();
+        try (BufferedReader br = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                t.reset(line, ',');
+                if (t.fields() != 2) continue;
+                int id = t.nextInt();
+                if (t.nextEquals(courseId)) n += id;
+            }
+        }
+        return n;
+    }
+}
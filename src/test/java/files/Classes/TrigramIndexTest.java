@@ -0,0 +1,91 @@
+// ✅ files/Classes/TrigramIndexTest.java
+package files.Classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static List<Student> students(int n) {
+        List<Student> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) out.add(new Student("Student " + i, 2023000 + i, "pw"));
+        return out;
+    }
+
+    @Test
+    void renamedItemIsFoundByItsNewNameOnly() {
+        List<Student> all = students(200);
+        TrigramIndex<Student> index = TrigramIndex.people();
+        index.addAll(all);
+
+        Student s = all.get(42);
+        s.setName("Nusrat Jahan");
+        assertEquals(List.of(s), index.find("jahan"));
+        assertEquals(List.of(s), index.find("nu"));
+        assertEquals(List.of(), index.find("student 42"));
+        assertEquals(199, index.find("student").size());
+        assertEquals(all, index.find(""), "the renamed item keeps its place");
+    }
+
+    @Test
+    void renamingBackAndForthFindsTheLatestName() {
+        List<Student> all = students(50);
+        TrigramIndex<Student> index = TrigramIndex.people();
+        index.addAll(all);
+
+        Student s = all.get(7);
+        for (String name : List.of("Anika Rahman", "Student 7", "Rahman Anika", "Anika Rahman")) {
+            s.setName(name);
+            index.find(""); // each rename indexed before the next one
+        }
+        assertEquals(List.of(s), index.find("anika"));
+        assertEquals(List.of(s), index.find("rahman"));
+        assertEquals(List.of(), index.find("student 7"));
+        assertTrue(index.search("anika").test(s));
+        assertFalse(index.search("anika").test(all.get(8)));
+    }
+
+    @Test
+    void idChangeIsSearchable() {
+        List<Student> all = students(20);
+        TrigramIndex<Student> index = TrigramIndex.people();
+        index.addAll(all);
+
+        all.get(3).setId(9999999);
+        assertEquals(List.of(all.get(3)), index.find("9999"));
+        assertEquals(List.of(), index.find("2023003"));
+    }
+
+    @Test
+    void removedOrClearedItemsAreNotBroughtBack() {
+        List<Student> all = students(20);
+        TrigramIndex<Student> index = TrigramIndex.people();
+        index.addAll(all);
+
+        Student gone = all.get(5);
+        index.remove(gone);
+        gone.setName("Zubair");
+        assertEquals(List.of(), index.find("zubair"));
+
+        index.clear();
+        all.get(6).setName("Zubair");
+        assertEquals(List.of(), index.find("zubair"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void coursesFollowARename() {
+        Course algo = new Course("CSE 2101", "Algorithms", 3.0);
+        Course db = new Course("CSE 2102", "Databases", 3.0);
+        TrigramIndex<Course> index = TrigramIndex.courses();
+        index.addAll(List.of(algo, db));
+
+        algo.setCourseName("Algorithm Design");
+        assertEquals(List.of(algo), index.find("design"));
+        assertEquals(List.of(db), index.find("base"));
+    }
+}
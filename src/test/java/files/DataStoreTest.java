@@ -0,0 +1,71 @@
+// ✅ files/DataStoreTest.java
+package files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private long clock = System.currentTimeMillis();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("Courses.txt", "CSE 2101,Algorithms,3.0");
+        write("StudentCredentials.txt", "7,Ayesha,pw,true");
+        write("enrollments.txt", "7,CSE 2101");
+    }
+
+    // an outside edit: a new mtime even within the same millisecond
+    private void write(String file, String... lines) throws IOException {
+        Path p = dir.resolve(file);
+        Files.write(p, List.of(lines));
+        Files.setLastModifiedTime(p, FileTime.fromMillis(clock += 2000));
+    }
+
+    @Test
+    void unreadableFileKeepsItsOldDataUntilItCanBeRead() throws IOException {
+        DataStore store = new DataStore(dir);
+        assertNotNull(store.courseRoster("CSE 2101"));
+
+        // replaced by something that can't be read as a file
+        Path courses = dir.resolve("Courses.txt");
+        Files.delete(courses);
+        Files.createDirectory(courses);
+        assertNotNull(store.courseRoster("CSE 2101"), "a failed reread doesn't publish an empty course list");
+        assertEquals(1, store.student(7).getCourses().size());
+
+        Files.delete(courses);
+        write("Courses.txt", "CSE 2102,Databases,3.0");
+        write("enrollments.txt", "7,CSE 2102");
+        assertNull(store.courseRoster("CSE 2101"));
+        assertEquals("Databases", store.courseRoster("CSE 2102").getCourseName());
+        assertEquals(1, store.student(7).getCourses().size());
+    }
+
+    @Test
+    void readRightAfterAnOutsideEditSeesItWhileTheWatcherRuns() throws IOException {
+        DataStore store = new DataStore(dir);
+        // long debounce: the event comes well after the reads below
+        try (DatabaseWatcher w = DatabaseWatcher.start(dir, 60_000)) {
+            store.watch(w);
+            assertTrue(w.isRunning());
+
+            write("enrollments.txt"); // a withdrawal rewrites the file locally
+            assertEquals(0, store.student(7).getCourses().size());
+            write("enrollments.txt", "7,CSE 2101");
+            assertEquals(1, store.courseRoster("CSE 2101").getCourseStudents().size());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// ✅ files/LogUpsertStorageTest.java
+package files;
+
+import files.Server.GroupCommitWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogUpsertStorageTest {
+
+    // no background compaction: the records stay in the log
+    private static final long NEVER = 3_600_000L;
+
+    @TempDir
+    Path dir;
+
+    private static LogUpsertStorage storage(GroupCommitWriter.Durability durability) {
+        return new LogUpsertStorage(write -> {
+            write.run();
+            return true;
+        }, NEVER, Integer.MAX_VALUE, durability);
+    }
+
+    @Test
+    void tornLastRecordIsDroppedOnOpen() throws IOException {
+        Path file = dir.resolve("StudentCredentials.txt");
+        Files.write(file, List.of("1,old", "2,two"));
+
+        LogUpsertStorage before = storage(GroupCommitWriter.Durability.FORCE);
+        before.upsert(file, List.of("1,new"));
+        before.delete(file, "2");
+        before.upsert(file, List.of("3,three"));
+
+        // crash in the middle of the last record
+        Path wal = dir.resolve("StudentCredentials.txt.wal");
+        long complete = Files.size(wal) - (Integer.BYTES + 1 + "3,three".length());
+        truncate(wal, Files.size(wal) - 3);
+
+        LogUpsertStorage after = storage(GroupCommitWriter.Durability.FLUSH);
+        assertEquals(List.of("1,new"), after.lines(file));
+        assertEquals(complete, Files.size(wal), "torn bytes cut off the log");
+
+        // appends go after the last whole record
+        after.upsert(file, List.of("4,four"));
+        assertEquals(List.of("1,new", "4,four"), storage(GroupCommitWriter.Durability.FLUSH).lines(file));
+    }
+
+    @Test
+    void tornLengthPrefixIsDroppedOnOpen() throws IOException {
+        Path file = dir.resolve("TeacherProfiles.txt");
+        storage(GroupCommitWriter.Durability.FLUSH).upsert(file, List.of("7,a", "8,b"));
+
+        Path wal = dir.resolve("TeacherProfiles.txt.wal");
+        long complete = Files.size(wal);
+        try (FileChannel ch = FileChannel.open(wal, StandardOpenOption.APPEND)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0, 0}));
+        }
+
+        assertEquals(List.of("7,a", "8,b"), storage(GroupCommitWriter.Durability.FLUSH).lines(file));
+        assertEquals(complete, Files.size(wal));
+    }
+
+    @Test
+    void closeCompactsIntoTheTextFile() throws IOException {
+        Path file = dir.resolve("StudentProfiles.txt");
+        Files.write(file, List.of("1,a", "2,b"));
+
+        LogUpsertStorage s = storage(GroupCommitWriter.Durability.FORCE);
+        s.upsert(file, List.of("2,c", "3,d"));
+        s.delete(file, "1");
+        s.close();
+
+        assertEquals(List.of("2,c", "3,d"), Files.readAllLines(file));
+        assertFalse(Files.exists(dir.resolve("StudentProfiles.txt.wal")));
+    }
+
+    private static void truncate(Path p, long size) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.WRITE)) {
+            ch.truncate(size);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+// ✅ files/MappedRecordFileTest.java
+package files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedRecordFileTest {
+
+    @TempDir
+    Path dir;
+
+    private Path text(String... lines) throws IOException {
+        Path txt = dir.resolve("StudentCredentials.txt");
+        Files.write(txt, List.of(lines));
+        return txt;
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromTheSlots() throws IOException {
+        Path txt = text("1,a", "2,b", "3,c");
+        Path dat = MappedRecordFile.dataPath(txt);
+        try (MappedRecordFile f = MappedRecordFile.importText(txt, dat, 64)) {
+            f.put("4,d");
+            f.remove("2");
+            f.force();
+        }
+
+        Files.delete(dir.resolve("StudentCredentials.idx"));
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            assertEquals("4,d", f.get(4));
+            assertNull(f.get(2));
+            assertEquals(3, f.size());
+            assertEquals(List.of("1,a", "3,c", "4,d"), f.lines());
+        }
+    }
+
+    @Test
+    void staleIndexIsRebuilt() throws IOException {
+        Path txt = text("1,a", "2,b");
+        Path dat = MappedRecordFile.dataPath(txt);
+        Path idx = dir.resolve("StudentCredentials.idx");
+        try (MappedRecordFile f = MappedRecordFile.importText(txt, dat, 64)) {
+            f.force();
+        }
+        byte[] before = Files.readAllBytes(idx);
+
+        // a slot added after the index was saved (crash between the two maps reaching disk)
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            f.put("3,c");
+            f.force();
+        }
+        Files.write(idx, before);
+
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            assertEquals("3,c", f.get("3"));
+            assertEquals("1,a", f.get(1));
+            assertEquals(3, f.size());
+        }
+    }
+
+    @Test
+    void duplicateIdsKeepTheFirstIndexedAndRemoveAll() throws IOException {
+        Path txt = text("5,first", "6,x", "5,second", "name,y");
+        Path dat = MappedRecordFile.dataPath(txt);
+        try (MappedRecordFile f = MappedRecordFile.importText(txt, dat, 64)) {
+            assertEquals(4, f.size());
+            assertEquals("5,first", f.get(5));
+            assertEquals("name,y", f.get("name"));
+
+            // like the text rewrite: the first line with the id is replaced
+            f.put("5,third");
+            assertEquals(List.of("5,third", "6,x", "5,second", "name,y"), f.lines());
+
+            assertTrue(f.remove("5"));
+            assertEquals(List.of("6,x", "name,y"), f.lines());
+            assertNull(f.get(5));
+            assertEquals(2, f.size());
+            f.force();
+        }
+
+        // the rebuilt index sees the same thing
+        Files.delete(dir.resolve("StudentCredentials.idx"));
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            assertNull(f.get(5));
+            f.put("5,again");
+            assertEquals(List.of("6,x", "name,y", "5,again"), f.lines());
+        }
+    }
+
+    @Test
+    void compactDropsRemovedSlotsAndKeepsOrder() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) lines.add(i + ",p" + i);
+        Path txt = text(lines.toArray(String[]::new));
+        Path dat = MappedRecordFile.dataPath(txt);
+        long size;
+        try (MappedRecordFile f = MappedRecordFile.importText(txt, dat, 64)) {
+            size = Files.size(dat);
+            // churn: remove and re-add ids, more slots in total than the file has room for
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 2000; i += 5) f.remove(String.valueOf(i));
+                for (int i = 0; i < 2000; i += 5) f.put(i + ",r" + round);
+                assertFalse(f.compact(txt), "dirty: nothing is exported yet");
+
+                List<String> now = f.lines();
+                Files.write(txt, now);
+                f.setTextStamp(txt);
+                f.clearDirty();
+                assertTrue(f.compact(txt));
+                assertFalse(f.compact(txt));
+                assertEquals(now, f.lines());
+                assertTrue(f.matchesText(txt));
+            }
+            assertEquals("1995,r4", f.get(1995));
+            assertEquals("1999,p1999", f.get(1999));
+            f.force();
+        }
+        // slots are reused: the file didn't grow with the churn
+        assertEquals(size, Files.size(dat));
+
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            assertEquals(2000, f.size());
+            assertEquals(Files.readAllLines(txt), f.lines());
+        }
+    }
+
+    @Test
+    void reimportStartsFromFreshSlots() throws IOException {
+        Path txt = text("1,a", "2,b");
+        try (MappedRecordFile f = MappedRecordFile.importText(txt, MappedRecordFile.dataPath(txt), 64)) {
+            f.remove("1");
+            f.put("3,c");
+            Files.write(txt, List.of("2,b", "9,z"));
+            f.reimport(txt);
+            assertEquals(List.of("2,b", "9,z"), f.lines());
+            assertFalse(f.compact(txt), "no removed slots after a reimport");
+            assertNull(f.get(3));
+            assertTrue(f.matchesText(txt));
+        }
+    }
+
+    @Test
+    void longLinesGrowTheSlotsUpToWhatTheLengthHolds() throws IOException {
+        Path txt = text("1,a", "2,b");
+        Path dat = MappedRecordFile.dataPath(txt);
+        String longest = "3," + "x".repeat(MappedRecordFile.MAX_LINE - 2);
+        try (MappedRecordFile f = MappedRecordFile.importText(txt, dat, 64)) {
+            f.put(longest);
+            assertEquals(longest, f.get(3));
+
+            assertThrows(IOException.class, () -> f.put("4," + "x".repeat(MappedRecordFile.MAX_LINE)));
+            assertNull(f.get(4));
+            assertEquals(List.of("1,a", "2,b", longest), f.lines());
+            f.force();
+        }
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            assertEquals(longest, f.get(3));
+        }
+
+        Files.write(txt, List.of("1,a", "5," + "y".repeat(70_000)));
+        try (MappedRecordFile f = MappedRecordFile.open(dat)) {
+            assertThrows(IOException.class, () -> f.reimport(txt));
+            assertEquals(longest, f.get(3), "a refused reimport leaves the slots as they were");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// ✅ files/PersistentMapTest.java
+package files;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentMapTest {
+
+    /** Few distinct hashes: many keys share a whole 32-bit hash. */
+    private record Clash(int id) {
+        @Override
+        public int hashCode() {
+            return id % 7;
+        }
+    }
+
+    @Test
+    void behavesLikeALinkedHashMap() {
+        Random rnd = new Random(42);
+        for (int keys : new int[] {40, 5_000}) {
+            Map<Object, Integer> expected = new LinkedHashMap<>();
+            PersistentMap<Object, Integer> map = PersistentMap.empty();
+            List<PersistentMap<Object, Integer>> versions = new ArrayList<>();
+            List<Map<Object, Integer>> copies = new ArrayList<>();
+
+            for (int op = 0; op < 40_000; op++) {
+                int n = rnd.nextInt(keys);
+                Object key = rnd.nextInt(4) == 0 ? new Clash(n) : (Object) n;
+                if (rnd.nextInt(3) == 0) {
+                    expected.remove(key);
+                    map = map.without(key);
+                } else {
+                    int value = rnd.nextInt(100);
+                    expected.put(key, value);
+                    map = map.with(key, value);
+                }
+                if (op % 5_000 == 0) {
+                    versions.add(map);
+                    copies.add(new LinkedHashMap<>(expected));
+                }
+            }
+
+            assertEquals(expected, map);
+            assertEquals(List.copyOf(expected.entrySet()), List.copyOf(map.entrySet()), "insertion order");
+            for (Object k : expected.keySet()) assertTrue(map.containsKey(k));
+            // ✅ the old versions are untouched
+            for (int i = 0; i < versions.size(); i++) {
+                assertEquals(List.copyOf(copies.get(i).entrySet()), List.copyOf(versions.get(i).entrySet()));
+            }
+        }
+    }
+
+    @Test
+    void replacingAValueKeepsThePositionAndTheOldMap() {
+        PersistentMap<String, Integer> a = PersistentMap.<String, Integer>empty().with("x", 1).with("y", 2).with("z", 3);
+        PersistentMap<String, Integer> b = a.with("x", 9);
+        assertEquals(List.of("x", "y", "z"), List.copyOf(b.keySet()));
+        assertEquals(9, b.get("x"));
+        assertEquals(1, a.get("x"));
+        assertSame(b, b.with("x", b.get("x")));
+        assertSame(a, a.without("missing"));
+        assertThrows(UnsupportedOperationException.class, () -> a.put("w", 4));
+    }
+
+    @Test
+    void holesAreSqueezedOut() {
+        PersistentSet<Integer> set = PersistentSet.empty();
+        for (int i = 0; i < 10_000; i++) set = set.with(i);
+        for (int i = 0; i < 10_000; i += 2) set = set.without(i);
+        for (int i = 10_000; i < 10_100; i++) set = set.with(i);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i < 10_000; i += 2) expected.add(i);
+        for (int i = 10_000; i < 10_100; i++) expected.add(i);
+        assertEquals(expected, List.copyOf(set));
+        assertEquals(5_100, set.size());
+
+        PersistentSet<Integer> odd = set.withoutIf(i -> i >= 10_000);
+        assertEquals(5_000, odd.size());
+        assertSame(odd, odd.withoutIf(i -> false));
+        assertTrue(PersistentSet.copyOf(List.of(3, 1, 3)).containsAll(List.of(1, 3)));
+    }
+}
@@ -0,0 +1,66 @@
+// ✅ files/RelationIndexTest.java
+package files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static files.RelationIndex.Relation.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private long clock = System.currentTimeMillis();
+
+    // an outside edit: a new mtime even within the same millisecond
+    private void write(String file, String... lines) throws IOException {
+        Path p = dir.resolve(file);
+        Files.write(p, List.of(lines));
+        Files.setLastModifiedTime(p, FileTime.fromMillis(clock += 2000));
+    }
+
+    @Test
+    void serverWritesAndOutsideEditsAreBothSeen() throws IOException {
+        write("enrollments.txt", "7,CSE 2101");
+        write("StudentCourses.txt", "8;CSE 2101");
+        RelationIndex index = new RelationIndex(dir);
+        assertEquals(List.of("7", "8"), index.query(STUDENTS_OF_COURSE, "cse 2101"));
+
+        Path enrollments = dir.resolve("enrollments.txt");
+        Files.write(enrollments, List.of("7,CSE 2101", "9,CSE 2102"));
+        index.written(enrollments, List.of("9,CSE 2102"));
+        assertEquals(List.of("CSE 2102"), index.query(COURSES_OF_STUDENT, "9"));
+
+        write("enrollments.txt", "7,CSE 2102");
+        assertEquals(List.of("8"), index.query(STUDENTS_OF_COURSE, "CSE 2101"));
+        assertEquals(List.of("CSE 2102"), index.query(COURSES_OF_STUDENT, "7"));
+    }
+
+    @Test
+    void withdrawAndApplyAgainWhileTheWatcherRuns() throws IOException {
+        write("CourseApplications.txt", "7;CSE 2101", "8;CSE 2101");
+        RelationIndex index = new RelationIndex(dir);
+        // long debounce: the event comes well after the queries below
+        try (DatabaseWatcher w = DatabaseWatcher.start(dir, 60_000)) {
+            index.watch(w);
+            assertTrue(w.isRunning());
+            assertEquals(List.of("7", "8"), index.query(APPLICANTS_OF_COURSE, "CSE 2101"));
+
+            // the teacher rejects 7 (the controller rewrites the file), the list is refreshed
+            write("CourseApplications.txt", "8;CSE 2101");
+            assertEquals(List.of("8"), index.query(APPLICANTS_OF_COURSE, "CSE 2101"));
+            assertEquals(List.of(), index.query(APPLICATIONS_OF_STUDENT, "7"), "not 'already applied'");
+
+            write("CourseApplications.txt", "8;CSE 2101", "7;CSE 2101");
+            assertEquals(List.of("CSE 2101"), index.query(APPLICATIONS_OF_STUDENT, "7"));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+// ✅ files/Server/BinaryCodecTest.java
+package files.Server;
+
+import files.Classes.*;
+import files.Request;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    private final BinaryCodec codec = new BinaryCodec();
+
+    private Object roundTrip(Object message) throws Exception {
+        return codec.decode(codec.encode(message));
+    }
+
+    // =========================
+    // REQUESTS
+    // =========================
+    @Test
+    void everyRequestTypeRoundTrips() throws Exception {
+        for (Request.RequestType type : Request.RequestType.values()) {
+            Request sent = switch (type) {
+                case GET_ALL_COORDINATED_DATA -> new Request(type);
+                case WRITE_TO_FILE -> new Request("database/enrollments.txt", "7,CSE 2101");
+                case WRITE_BATCH -> new Request(List.of(
+                        new Request.WriteItem("database/enrollments.txt", "7,CSE 2101"),
+                        new Request.WriteItem("database/StudentCourses.txt", "7;CSE 2101")));
+                case GET_CHANGES_SINCE -> new Request(1_700_000_000_000L, 42L);
+                default -> new Request(type, "CSE 2101");
+            };
+            Request got = (Request) roundTrip(sent);
+
+            assertEquals(type, got.getRequestType());
+            assertEquals(sent.getPath(), got.getPath(), type.name());
+            assertEquals(sent.getLine(), got.getLine(), type.name());
+            assertEquals(sent.getItems(), got.getItems(), type.name());
+            assertEquals(sent.getEpoch(), got.getEpoch(), type.name());
+            assertEquals(sent.getVersion(), got.getVersion(), type.name());
+            assertEquals(sent.getKey(), got.getKey(), type.name());
+        }
+    }
+
+    @Test
+    void smallValuesRoundTrip() throws Exception {
+        assertNull(roundTrip(null));
+        assertEquals("ক্লাস নেই", roundTrip("ক্লাস নেই"));
+        assertEquals(Boolean.TRUE, roundTrip(true));
+        assertArrayEquals(new boolean[] { true, false, true }, (boolean[]) roundTrip(new boolean[] { true, false, true }));
+        assertEquals(List.of("7", "8"), roundTrip(List.of("7", "8")));
+        assertEquals(List.of(), roundTrip(new ArrayList<>()));
+
+        assertEquals("No class today", ((Notification) roundTrip(new Notification("No class today"))).getNotification());
+        assertEquals("CSE 2101", ((GetDeadlinesRequest) roundTrip(new GetDeadlinesRequest("CSE 2101"))).getCourseId());
+
+        Deadline d = (Deadline) roundTrip(new Deadline("CSE 2101", "CT-1", "CT", LocalDate.of(2025, 8, 1)));
+        assertEquals(List.of("CSE 2101", "CT-1", "CT"), List.of(d.getCourseId(), d.getTaskName(), d.getType()));
+        assertEquals(LocalDate.of(2025, 8, 1), d.getDueDate());
+        assertNull(((Deadline) roundTrip(new Deadline("CSE 2101", "CT-1", "CT", null))).getDueDate());
+
+        FilePacket p = (FilePacket) roundTrip(new FilePacket("CSE 2101", "notes.pdf", new byte[] { 1, 2, 3 }));
+        assertEquals("notes.pdf", p.getFileName());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, p.getFileData());
+        assertNull(((FilePacket) roundTrip(new FilePacket("CSE 2101", "empty", null))).getFileData());
+    }
+
+    // =========================
+    // GRAPH
+    // =========================
+    private static DataSnapshot snapshot() {
+        StudentList sl = new StudentList();
+        TeacherList tl = new TeacherList();
+        CourseList cl = new CourseList();
+        Course algo = new Course("CSE 2101", "Algorithms", 3.0);
+        Course lab = new Course("CSE 2102", "Algorithms Lab", 1.5);
+        cl.addCourse(algo);
+        cl.addCourse(lab);
+
+        Student ayesha = new Student("Ayesha", 7, "pw");
+        ayesha.setImagePath("img/7.png");
+        Student rahim = new Student("Rahim", 8, "pw2");
+        sl.addStudent(ayesha);
+        sl.addStudent(rahim);
+        Teacher karim = new Teacher("Karim", 100, "tpw");
+        tl.addTeacher(karim);
+
+        algo.addStudent(ayesha);
+        algo.addStudent(rahim);
+        lab.addStudent(ayesha);
+        algo.addTeacher(karim);
+        return new DataSnapshot(sl, tl, cl);
+    }
+
+    @Test
+    void snapshotKeepsLinksAndIdentity() throws Exception {
+        DataSnapshot got = (DataSnapshot) roundTrip(snapshot());
+
+        Student ayesha = got.getStudentList().searchStudent(7);
+        assertEquals("Ayesha", ayesha.getName());
+        assertEquals("pw", ayesha.getPassword());
+        assertEquals("img/7.png", ayesha.getImagePath());
+        assertNull(got.getStudentList().searchStudent(8).getImagePath());
+
+        Course algo = got.getCourseList().searchCourse("CSE 2101");
+        assertEquals("Algorithms", algo.getCourseName());
+        assertEquals(3.0, algo.getCredit());
+        assertEquals(List.of(7, 8), algo.getCourseStudents().stream().map(Person::getId).toList());
+        assertSame(ayesha, algo.getCourseStudents().get(0), "one object per student, as with Java serialization");
+        assertSame(got.getTeacherList().searchTeacher(100), algo.getCourseTeachers().get(0));
+        assertEquals(List.of("CSE 2101", "CSE 2102"), ayesha.getCourses().stream().map(Course::getCourseID).toList());
+        assertSame(algo, got.getTeacherList().searchTeacher(100).getCoursesAssigned().get(0));
+    }
+
+    @Test
+    void graphRootsRoundTrip() throws Exception {
+        DataSnapshot s = snapshot();
+        Course algo = s.getCourseList().searchCourse("CSE 2101");
+
+        assertEquals(2, ((StudentList) roundTrip(s.getStudentList())).getStudents().size());
+        assertEquals(1, ((TeacherList) roundTrip(s.getTeacherList())).getTeachers().size());
+        assertEquals(2, ((CourseList) roundTrip(s.getCourseList())).getCourses().size());
+        assertEquals(2, ((Student) roundTrip(s.getStudentList().searchStudent(7))).getCourses().size());
+        assertEquals("Karim", ((Teacher) roundTrip(s.getTeacherList().searchTeacher(100))).getName());
+        assertEquals(2, ((Course) roundTrip(algo)).getCourseStudents().size());
+
+        @SuppressWarnings("unchecked")
+        List<Course> courses = (List<Course>) roundTrip(List.of(algo, s.getCourseList().searchCourse("CSE 2102")));
+        assertEquals(2, courses.size());
+        assertSame(courses.get(0).getCourseStudents().get(0), courses.get(1).getCourseStudents().get(0));
+    }
+
+    @Test
+    void changeSetRoundTrips() throws Exception {
+        ChangeSet delta = new ChangeSet(5L, 12L, List.of(
+                new Change(11L, Change.Entity.STUDENT, Change.Op.UPSERT, "7", List.of("Ayesha", "pw", "")),
+                new Change(12L, Change.Entity.ENROLLMENT, Change.Op.DELETE, "7,CSE 2101", List.of("7", "CSE 2101"))), null);
+        ChangeSet got = (ChangeSet) roundTrip(delta);
+        assertEquals(5L, got.getEpoch());
+        assertEquals(12L, got.getVersion());
+        assertEquals(delta.getChanges(), got.getChanges());
+        assertNull(got.getSnapshot());
+
+        ChangeSet full = (ChangeSet) roundTrip(ChangeSet.full(5L, 12L, snapshot()));
+        assertEquals(List.of(), full.getChanges());
+        assertEquals(2, full.getSnapshot().getStudentList().getStudents().size());
+    }
+
+    // =========================
+    // JAVA FALLBACK
+    // =========================
+    @Test
+    void otherTypesGoAsJavaSerialization() throws Exception {
+        Map<String, Integer> m = new LinkedHashMap<>();
+        m.put("CSE 2101", 3);
+        assertEquals(m, roundTrip(m));
+        assertEquals(LocalDate.of(2025, 8, 1), roundTrip(LocalDate.of(2025, 8, 1)));
+    }
+
+    @Test
+    void javaFallbackRefusesClassesOffTheList() throws Exception {
+        byte[] payload = codec.encode(new TreeMap<>(Map.of("a", 1)));
+        assertThrows(InvalidClassException.class, () -> codec.decode(payload));
+    }
+
+    // =========================
+    // BAD INPUT
+    // =========================
+    @Test
+    void truncatedPayloadsAreRejected() throws Exception {
+        byte[] full = codec.encode(snapshot());
+        for (int len = 1; len < full.length; len++) {
+            byte[] cut = Arrays.copyOf(full, len);
+            assertThrows(IOException.class, () -> codec.decode(cut), "cut at " + len);
+        }
+    }
+
+    @Test
+    void hugeCountsAreRejectedBeforeAllocating() {
+        // a WRITE_BATCH claiming Integer.MAX_VALUE items in a few bytes
+        ByteArrayOutputStream batch = header(5);
+        string(batch, "WRITE_BATCH");
+        varint(batch, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> codec.decode(batch.toByteArray()));
+
+        ByteArrayOutputStream flags = header(3); // TAG_BOOLEAN_ARRAY
+        varint(flags, 50_000_000);
+        flags.write(1);
+        assertThrows(IOException.class, () -> codec.decode(flags.toByteArray()));
+
+        ByteArrayOutputStream list = header(4); // TAG_LIST
+        varint(list, 1_000_000);
+        assertThrows(IOException.class, () -> codec.decode(list.toByteArray()));
+
+        ByteArrayOutputStream graph = header(10); // TAG_GRAPH, 10M students
+        varint(graph, 10_000_000);
+        assertThrows(IOException.class, () -> codec.decode(graph.toByteArray()));
+
+        ByteArrayOutputStream str = header(1); // TAG_STRING of 60 MB
+        varint(str, 60_000_000);
+        assertThrows(IOException.class, () -> codec.decode(str.toByteArray()));
+    }
+
+    private static ByteArrayOutputStream header(int tag) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(3); // format version
+        out.write(tag);
+        return out;
+    }
+
+    private static void string(ByteArrayOutputStream out, String s) {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        varint(out, utf8.length + 1);
+        out.writeBytes(utf8);
+    }
+
+    private static void varint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
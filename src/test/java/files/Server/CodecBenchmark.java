@@ -0,0 +1,94 @@
+// ✅ files/Server/CodecBenchmark.java
+package files.Server;
+
+import files.Classes.*;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Encode/decode time and payload size of each codec for a GET_ALL reply.
+ *
+ * Usage: java files.Server.CodecBenchmark [students=2000] [courses=120] [coursesPerStudent=6] [iterations=200]
+ */
+public final class CodecBenchmark {
+
+    private CodecBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int courses = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int perStudent = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        DataSnapshot snapshot = sampleSnapshot(students, courses, perStudent);
+        System.out.println("Sample: " + snapshot);
+
+        List<MessageCodec> codecs = List.of(
+                new JavaSerializationCodec(),
+                new BinaryCodec(),
+                new DeflateCodec(new JavaSerializationCodec(), Deflater.BEST_SPEED, 0),
+                new DeflateCodec(new BinaryCodec(), Deflater.BEST_SPEED, 0),
+                new DeflateCodec(new BinaryCodec(), Deflater.BEST_COMPRESSION, 0));
+
+        for (MessageCodec codec : codecs) {
+            // warm-up
+            for (int i = 0; i < Math.max(10, iterations / 5); i++) codec.decode(codec.encode(snapshot));
+
+            byte[] payload = null;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) payload = codec.encode(snapshot);
+            long encodeNanos = (System.nanoTime() - t0) / iterations;
+
+            Object decoded = null;
+            t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) decoded = codec.decode(payload);
+            long decodeNanos = (System.nanoTime() - t0) / iterations;
+
+            System.out.printf("%-16s bytes=%,d encode=%.3fms decode=%.3fms roundTrip=%s%n",
+                    codec.name(), payload.length, encodeNanos / 1e6, decodeNanos / 1e6,
+                    sameShape(snapshot, (DataSnapshot) decoded) ? "ok" : "MISMATCH");
+        }
+        System.out.println("Deflate totals: " + DeflateCodec.stats());
+    }
+
+    static DataSnapshot sampleSnapshot(int studentCount, int courseCount, int perStudent) {
+        StudentList sl = new StudentList();
+        TeacherList tl = new TeacherList();
+        CourseList cl = new CourseList();
+
+        for (int c = 0; c < courseCount; c++) {
+            cl.addCourse(new Course("CSE " + (1000 + c), "Course Name Number " + c, 3.0));
+        }
+        for (int t = 0; t < Math.max(1, courseCount / 3); t++) {
+            Teacher teacher = new Teacher("Teacher " + t, 2000 + t, "pass" + t);
+            tl.addTeacher(teacher);
+            for (int k = 0; k < 3 && t * 3 + k < courseCount; k++) {
+                cl.getCourses().get(t * 3 + k).addTeacher(teacher);
+            }
+        }
+        for (int s = 0; s < studentCount; s++) {
+            Student student = new Student("Student " + s, 2023000000 + s, "pw" + s);
+            sl.addStudent(student);
+            for (int k = 0; k < perStudent; k++) {
+                cl.getCourses().get((s + k * 7) % courseCount).addStudent(student);
+            }
+        }
+        return new DataSnapshot(sl, tl, cl);
+    }
+
+    private static boolean sameShape(DataSnapshot a, DataSnapshot b) {
+        if (a.getStudentList().getStudents().size() != b.getStudentList().getStudents().size()) return false;
+        if (a.getTeacherList().getTeachers().size() != b.getTeacherList().getTeachers().size()) return false;
+        List<Course> ca = a.getCourseList().getCourses();
+        List<Course> cb = b.getCourseList().getCourses();
+        if (ca.size() != cb.size()) return false;
+        for (int i = 0; i < ca.size(); i++) {
+            if (!ca.get(i).equals(cb.get(i))) return false;
+            if (!ca.get(i).getCourseStudents().equals(cb.get(i).getCourseStudents())) return false;
+        }
+        // identity kept: a student in a roster is the same object as in the list
+        Student inRoster = cb.isEmpty() || cb.get(0).getCourseStudents().isEmpty() ? null : cb.get(0).getCourseStudents().get(0);
+        return inRoster == null || b.getStudentList().searchStudent(inRoster.getId()) == inRoster;
+    }
+}
@@ -0,0 +1,129 @@
+// ✅ files/Server/GroupCommitWriterTest.java
+package files.Server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private static void await(CompletableFuture<Void> f) throws Exception {
+        f.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void concurrentAppendsKeepEachCallersOrder() throws Exception {
+        Path file = dir.resolve("enrollments.txt");
+        int threads = 8, perThread = 500;
+        try (GroupCommitWriter w = new GroupCommitWriter(file, GroupCommitWriter.Durability.FLUSH, 10, 256)) {
+            List<Callable<List<GroupCommitWriter.Append>>> jobs = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                jobs.add(() -> {
+                    List<GroupCommitWriter.Append> out = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) out.add(w.append(id + "," + i));
+                    return out;
+                });
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                for (Future<List<GroupCommitWriter.Append>> f : pool.invokeAll(jobs)) {
+                    for (GroupCommitWriter.Append a : f.get()) await(a.written());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(threads * perThread, lines.size());
+        int[] next = new int[threads];
+        for (String line : lines) {
+            String[] f = line.split(",");
+            int t = Integer.parseInt(f[0]);
+            assertEquals(next[t]++, Integer.parseInt(f[1]), "thread " + t + " out of order");
+        }
+    }
+
+    @Test
+    void forceModeCompletesDurableAfterTheWrite() throws Exception {
+        Path file = dir.resolve("deadlines.txt");
+        // long interval / record count: with nothing else queued the force still happens right away
+        try (GroupCommitWriter w = new GroupCommitWriter(file, GroupCommitWriter.Durability.FORCE, 60_000, 1_000_000)) {
+            GroupCommitWriter.Append a = w.append(List.of("CSE 2101,CT-1", "CSE 2101,CT-2"));
+            await(a.durable());
+            assertTrue(a.written().isDone());
+            assertEquals(List.of("CSE 2101,CT-1", "CSE 2101,CT-2"), Files.readAllLines(file));
+
+            List<GroupCommitWriter.Append> many = new ArrayList<>();
+            for (int i = 0; i < 200; i++) many.add(w.append("line " + i));
+            for (GroupCommitWriter.Append m : many) await(m.durable());
+            assertEquals(202, Files.readAllLines(file).size());
+        }
+    }
+
+    @Test
+    void replacedFileIsReopened() throws Exception {
+        Path file = dir.resolve("CourseApplications.txt");
+        try (GroupCommitWriter w = new GroupCommitWriter(file, GroupCommitWriter.Durability.FLUSH, 10, 256)) {
+            await(w.append("7,CSE 2101").written());
+
+            // a controller rewriting the file through a temp file + move
+            Path tmp = dir.resolve("CourseApplications.tmp");
+            Files.write(tmp, List.of("8,CSE 2102"));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+
+            await(w.append("9,CSE 2103").written());
+        }
+        assertEquals(List.of("8,CSE 2102", "9,CSE 2103"), Files.readAllLines(file));
+    }
+
+    @Test
+    void appendsRacingCloseAllGetAnAnswer() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path file = dir.resolve("announcements" + round + ".txt");
+            GroupCommitWriter w = new GroupCommitWriter(file, GroupCommitWriter.Durability.FORCE, 1, 16);
+            Map<String, GroupCommitWriter.Append> sent = new ConcurrentHashMap<>();
+            CountDownLatch started = new CountDownLatch(4);
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                int id = t;
+                pool.execute(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 2000; i++) {
+                        String line = id + "," + i;
+                        sent.put(line, w.append(line));
+                    }
+                });
+            }
+            started.await();
+            w.close();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+            Set<String> onDisk = Files.exists(file) ? new HashSet<>(Files.readAllLines(file)) : Set.of();
+            for (Map.Entry<String, GroupCommitWriter.Append> e : sent.entrySet()) {
+                CompletableFuture<Void> durable = e.getValue().durable();
+                try {
+                    await(durable);
+                    assertTrue(onDisk.contains(e.getKey()), e.getKey() + " reported written but not in the file");
+                } catch (ExecutionException failed) {
+                    assertInstanceOf(IOException.class, failed.getCause());
+                    assertFalse(onDisk.contains(e.getKey()), e.getKey() + " reported failed but in the file");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+// ✅ files/Server/JavaSerializationCodecTest.java
+package files.Server;
+
+import files.Classes.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.InvalidClassException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaSerializationCodecTest {
+
+    private final JavaSerializationCodec codec = new JavaSerializationCodec();
+
+    @Test
+    void whatTheServerSendsIsAllowed() throws Exception {
+        StudentList sl = new StudentList();
+        CourseList cl = new CourseList();
+        Course algo = new Course("CSE 2101", "Algorithms", 3.0);
+        cl.addCourse(algo);
+        Student s = new Student("Ayesha", 7, "pw");
+        sl.addStudent(s);
+        algo.addStudent(s);
+        ChangeSet cs = new ChangeSet(1L, 2L,
+                List.of(new Change(2L, Change.Entity.COURSE, Change.Op.UPSERT, "CSE 2101", List.of("Algorithms", "3.0"))),
+                new DataSnapshot(sl, new TeacherList(), cl));
+
+        ChangeSet got = (ChangeSet) codec.decode(codec.encode(cs));
+        assertEquals(cs.getChanges(), got.getChanges());
+        assertEquals(1, got.getSnapshot().getCourseList().searchCourse("CSE 2101").getCourseStudents().size());
+
+        assertEquals(List.of("7"), codec.decode(codec.encode(new ArrayList<>(List.of("7")))));
+        assertEquals(Map.of("a", 1), codec.decode(codec.encode(new HashMap<>(Map.of("a", 1)))));
+        assertEquals(Set.of("a"), codec.decode(codec.encode(new LinkedHashSet<>(Set.of("a")))));
+    }
+
+    @Test
+    void otherJdkClassesAreRefused() throws Exception {
+        byte[] tree = codec.encode(new TreeSet<>(Set.of("a")));
+        assertThrows(InvalidClassException.class, () -> codec.decode(tree));
+        byte[] queue = codec.encode(new PriorityQueue<>(List.of(1)));
+        assertThrows(InvalidClassException.class, () -> codec.decode(queue));
+    }
+
+    @Test
+    void arraysLongerThanTheLimitAreRefused() throws Exception {
+        byte[] ok = codec.encode(new boolean[1_000]);
+        assertEquals(1_000, ((boolean[]) codec.decode(ok)).length);
+
+        byte[] huge = codec.encode(new boolean[Frames.MAX_FRAME_BYTES / 16 + 1]);
+        assertThrows(InvalidClassException.class, () -> codec.decode(huge));
+    }
+}
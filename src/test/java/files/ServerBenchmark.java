@@ -0,0 +1,98 @@
+// ✅ files/ServerBenchmark.java
+package files;
+
+import files.Server.SocketWrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small load generator for RealServer (run the server first, from the project root).
+ * Every round trip does what Loader.reloadAll() does: connect, GET_ALL_COORDINATED_DATA,
+ * read the snapshot, close.
+ *
+ * Usage: java files.ServerBenchmark [clients=200] [roundTripsPerClient=20] [host=127.0.0.1] [port=55555]
+ *
+ * Compare: start RealServer with -Dcoursesphere.server.mode=platform, run this, then restart with
+ * -Dcoursesphere.server.mode=virtual and run it again.
+ */
+public final class ServerBenchmark {
+
+    private ServerBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int perClient = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        String host = args.length > 2 ? args[2] : "127.0.0.1";
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : RealServer.PORT;
+
+        // warm-up so class loading / JIT doesn't count
+        run(host, port, Math.min(clients, 16), 5);
+
+        Result r = run(host, port, clients, perClient);
+        System.out.println(r);
+    }
+
+    static Result run(String host, int port, int clients, int perClient) throws Exception {
+        long[] latencies = new long[clients * perClient];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perClient; i++) {
+                        long t0 = System.nanoTime();
+                        if (roundTrip(host, port)) {
+                            latencies[next.getAndIncrement()] = System.nanoTime() - t0;
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] ok = Arrays.copyOf(latencies, next.get());
+        Arrays.sort(ok);
+        return new Result(ok.length, failures.get(), elapsed, percentile(ok, 50), percentile(ok, 99));
+    }
+
+    private static boolean roundTrip(String host, int port) {
+        try (SocketWrapper server = new SocketWrapper(host, port)) {
+            server.write(new Request(Request.RequestType.GET_ALL_COORDINATED_DATA));
+            server.read();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+
+    record Result(int completed, int failed, long elapsedNanos, long p50Nanos, long p99Nanos) {
+        double connectionsPerSecond() {
+            return completed / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("completed=%d failed=%d elapsed=%.2fs conn/s=%.1f p50=%.2fms p99=%.2fms",
+                    completed, failed, elapsedNanos / 1e9, connectionsPerSecond(),
+                    p50Nanos / 1e6, p99Nanos / 1e6);
+        }
+    }
+}
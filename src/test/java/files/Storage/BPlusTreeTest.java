@@ -0,0 +1,112 @@
+// ✅ files/Storage/BPlusTreeTest.java
+package files.Storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BPlusTreeTest {
+
+    @TempDir
+    Path dir;
+
+    private PageFile file;
+    private BufferPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = new PageFile(dir.resolve("tree.db"));
+        file.allocate(); // page 0 is the store header
+        pool = new BufferPool(file, 16);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        file.close();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> keys(BPlusTree tree, String prefix) throws IOException {
+        List<String> out = new ArrayList<>();
+        tree.scan(bytes(prefix), (k, v) -> out.add(new String(k, StandardCharsets.UTF_8)));
+        return out;
+    }
+
+    @Test
+    void fullLeafSplitsUnderANewRoot() throws IOException {
+        int firstRoot = BPlusTree.create(pool);
+        BPlusTree tree = new BPlusTree(pool, firstRoot);
+        byte[] value = new byte[200];
+
+        int n = 0;
+        while (tree.root() == firstRoot) {
+            assertNull(tree.put(bytes(String.format("key%05d", n++)), value));
+            assertTrue(n < 100, "a 4 KB leaf holds fewer than 100 rows of 200 bytes");
+        }
+        // the old root is now the left leaf, both halves still reachable
+        assertTrue(n > 2);
+        for (int i = 0; i < n; i++) assertNotNull(tree.get(bytes(String.format("key%05d", i))), "key " + i);
+        assertEquals(n, keys(tree, "").size());
+    }
+
+    @Test
+    void randomInsertsStaySortedThroughManyLevels() throws IOException {
+        BPlusTree tree = new BPlusTree(pool, BPlusTree.create(pool));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) ids.add(i);
+        Collections.shuffle(ids, new Random(7));
+
+        for (int id : ids) tree.put(bytes(String.format("%06d", id)), bytes("v" + id));
+        assertEquals("v123", new String(tree.get(bytes("000123")), StandardCharsets.UTF_8));
+        assertArrayEquals(bytes("v123"), tree.put(bytes("000123"), bytes("new")), "put returns the old value");
+        assertArrayEquals(bytes("new"), tree.get(bytes("000123")));
+
+        List<String> all = keys(tree, "");
+        assertEquals(20_000, all.size());
+        for (int i = 0; i < all.size(); i++) assertEquals(String.format("%06d", i), all.get(i));
+
+        // a prefix scan crosses leaf boundaries
+        List<String> some = keys(tree, "0123");
+        assertEquals(100, some.size());
+        assertEquals("012300", some.get(0));
+        assertEquals("012399", some.get(99));
+    }
+
+    @Test
+    void bottomUpBuildMatchesInserts() throws IOException {
+        List<byte[]> ks = new ArrayList<>();
+        List<byte[]> vs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            ks.add(bytes(String.format("b%05d", i)));
+            vs.add(bytes("row " + i));
+        }
+        BPlusTree built = new BPlusTree(pool, BPlusTree.build(pool, ks, vs));
+
+        assertEquals(5_000, keys(built, "b").size());
+        for (int i = 0; i < 5_000; i += 37) {
+            assertEquals("row " + i, new String(built.get(ks.get(i)), StandardCharsets.UTF_8));
+        }
+        assertNull(built.get(bytes("b99999")));
+
+        // and keeps working as a normal tree afterwards
+        built.put(bytes("b00000x"), bytes("x"));
+        assertEquals(List.of("b00000", "b00000x"), keys(built, "b00000"));
+    }
+
+    @Test
+    void tooLargeRowsAreRefused() throws IOException {
+        BPlusTree tree = new BPlusTree(pool, BPlusTree.create(pool));
+        assertThrows(IOException.class, () -> tree.put(bytes("k"), new byte[BPlusTree.MAX_ENTRY]));
+    }
+}
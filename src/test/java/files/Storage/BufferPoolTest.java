@@ -0,0 +1,118 @@
+// ✅ files/Storage/BufferPoolTest.java
+package files.Storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private PageFile file;
+    private BufferPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = new PageFile(dir.resolve("pool.db"));
+        pool = new BufferPool(file, 8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        file.close();
+    }
+
+    private int newPage(int mark) throws IOException {
+        BufferPool.Page p = pool.pinNew();
+        p.data.putInt(0, mark);
+        pool.unpin(p);
+        return p.id;
+    }
+
+    private int read(int id) throws IOException {
+        BufferPool.Page p = pool.pin(id);
+        try {
+            return p.data.getInt(0);
+        } finally {
+            pool.unpin(p);
+        }
+    }
+
+    @Test
+    void evictedDirtyPagesAreWrittenFirst() throws IOException {
+        for (int i = 0; i < 20; i++) assertEquals(i, newPage(1000 + i));
+        assertEquals(8, pool.cached());
+        assertEquals(12, pool.evictions);
+
+        // every page comes back with what was written, cached or not
+        for (int i = 0; i < 20; i++) assertEquals(1000 + i, read(i));
+    }
+
+    @Test
+    void leastRecentlyUsedGoesFirst() throws IOException {
+        for (int i = 0; i < 8; i++) newPage(i);
+        read(0); // 1 is now the eldest
+        newPage(8);
+
+        long misses = pool.misses;
+        read(0);
+        assertEquals(misses, pool.misses, "page 0 was used recently: still cached");
+        read(1);
+        assertEquals(misses + 1, pool.misses, "page 1 was evicted");
+    }
+
+    @Test
+    void pinnedPagesStay() throws IOException {
+        BufferPool.Page held = pool.pinNew();
+        held.data.putInt(0, 42);
+        for (int i = 0; i < 30; i++) newPage(i);
+
+        long misses = pool.misses;
+        BufferPool.Page again = pool.pin(held.id);
+        assertSame(held, again);
+        assertEquals(misses, pool.misses);
+        pool.unpin(again);
+        pool.unpin(held);
+    }
+
+    @Test
+    void freedPagesAreReusedBeforeTheFileGrows() throws IOException {
+        for (int i = 0; i < 10; i++) newPage(100 + i);
+        pool.free(3);
+        pool.free(5);
+        int pages = file.pageCount();
+
+        BufferPool.Page a = pool.pinNew();
+        BufferPool.Page b = pool.pinNew();
+        assertEquals(5, a.id, "free list is last in, first out");
+        assertEquals(3, b.id);
+        assertEquals(0, a.data.getInt(0), "a reused page starts zeroed");
+        assertEquals(BufferPool.NO_PAGE, pool.freeHead());
+        pool.unpin(a);
+        pool.unpin(b);
+        assertEquals(pages, file.pageCount());
+
+        assertEquals(10, pool.pinNew().id, "free list empty: a new page at the end");
+    }
+
+    @Test
+    void freeListSurvivesEviction() throws IOException {
+        for (int i = 0; i < 12; i++) newPage(i);
+        pool.free(1);
+        pool.free(2);
+        long evictions = pool.evictions;
+        for (int i = 3; i < 12; i++) read(i); // pushes the freed pages (and their links) out of the pool
+        assertTrue(pool.evictions > evictions);
+
+        assertEquals(2, pool.pinNew().id);
+        assertEquals(1, pool.pinNew().id);
+    }
+}
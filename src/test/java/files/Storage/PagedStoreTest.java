@@ -0,0 +1,136 @@
+// ✅ files/Storage/PagedStoreTest.java
+package files.Storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static TreeMap<byte[], byte[]> contents(PagedStore.Table t, String prefix) throws IOException {
+        TreeMap<byte[], byte[]> out = new TreeMap<>(Arrays::compareUnsigned);
+        t.scan(bytes(prefix), (k, v) -> {
+            assertNull(out.put(k, v), "key scanned twice");
+            return true;
+        });
+        return out;
+    }
+
+    private static void assertSameRows(TreeMap<byte[], byte[]> expected, TreeMap<byte[], byte[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        Iterator<Map.Entry<byte[], byte[]>> a = actual.entrySet().iterator();
+        for (Map.Entry<byte[], byte[]> e : expected.entrySet()) {
+            Map.Entry<byte[], byte[]> got = a.next();
+            assertArrayEquals(e.getKey(), got.getKey());
+            assertArrayEquals(e.getValue(), got.getValue());
+        }
+    }
+
+    // a small pool, so most operations read evicted pages back from the file
+    @Test
+    void randomOperationsMatchATreeMap() throws IOException {
+        Path path = dir.resolve("fuzz.db");
+        TreeMap<byte[], byte[]> model = new TreeMap<>(Arrays::compareUnsigned);
+        Random rnd = new Random(12345);
+
+        try (PagedStore store = PagedStore.open(path, 8)) {
+            PagedStore.Table t = store.table("t");
+            for (int op = 0; op < 30_000; op++) {
+                byte[] key = bytes("k" + rnd.nextInt(3_000));
+                switch (rnd.nextInt(10)) {
+                    case 0, 1, 2 -> assertArrayEquals(model.remove(key), t.remove(key));
+                    case 3 -> assertArrayEquals(model.get(key), t.get(key));
+                    default -> {
+                        byte[] value = new byte[rnd.nextInt(300)];
+                        rnd.nextBytes(value);
+                        assertArrayEquals(model.put(key, value), t.put(key, value));
+                    }
+                }
+                if (op % 5_000 == 0) store.commit();
+            }
+
+            assertEquals(model.size(), t.rows());
+            assertSameRows(model, contents(t, ""));
+            assertSameRows(new TreeMap<>(model.subMap(bytes("k12"), true, bytes("k13"), false)), contents(t, "k12"));
+        }
+
+        try (PagedStore store = PagedStore.open(path, 8)) {
+            assertTrue(store.wasClean());
+            PagedStore.Table t = store.table("t");
+            assertEquals(model.size(), t.rows());
+            assertSameRows(model, contents(t, ""));
+        }
+    }
+
+    @Test
+    void cleanFlagTellsACommittedStoreFromACrashedOne() throws IOException {
+        Path path = dir.resolve("flag.db");
+        try (PagedStore store = PagedStore.open(path, 16)) {
+            assertFalse(store.wasClean(), "a new store has nothing to trust");
+            store.table("t").put(bytes("a"), bytes("1"));
+        }
+
+        PagedStore crashed = PagedStore.open(path, 16);
+        assertTrue(crashed.wasClean());
+        assertArrayEquals(bytes("1"), crashed.table("t").get(bytes("a")));
+        crashed.commit(); // nothing changed: stays clean
+        crashed.table("t").put(bytes("b"), bytes("2"));
+        // no commit, no close: the process died here
+
+        try (PagedStore reopened = PagedStore.open(path, 16)) {
+            assertFalse(reopened.wasClean());
+        }
+        crashed.close();
+    }
+
+    @Test
+    void clearedTablesGiveTheirPagesBack() throws IOException {
+        Path path = dir.resolve("free.db");
+        try (PagedStore store = PagedStore.open(path, 32)) {
+            PagedStore.Table t = store.table("t");
+            List<byte[]> keys = new ArrayList<>();
+            List<byte[]> values = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                keys.add(bytes(String.format("r%05d", i)));
+                values.add(new byte[100]);
+            }
+            t.load(keys, values, 5_000);
+            store.commit();
+            long size = Files.size(path);
+
+            for (int round = 0; round < 3; round++) {
+                t.clear();
+                for (int i = 0; i < keys.size(); i++) t.put(keys.get(i), values.get(i));
+                t.load(keys, values, 5_000);
+                store.commit();
+            }
+            assertEquals(5_000, t.rows());
+            assertTrue(Files.size(path) <= size * 3,
+                    "rebuilt tables reuse freed pages (" + Files.size(path) + " vs " + size + " bytes)");
+        }
+    }
+
+    @Test
+    void unreadableFileStartsEmpty() throws IOException {
+        Path path = dir.resolve("junk.db");
+        Files.write(path, new byte[PageFile.PAGE_SIZE * 2]);
+        try (PagedStore store = PagedStore.open(path, 8)) {
+            assertFalse(store.wasClean());
+            assertEquals(0, store.table("t").rows());
+        }
+    }
+}
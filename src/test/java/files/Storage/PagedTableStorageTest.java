@@ -0,0 +1,78 @@
+// ✅ files/Storage/PagedTableStorageTest.java
+package files.Storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedTableStorageTest {
+
+    @TempDir
+    Path dir;
+
+    private PagedTableStorage open() throws IOException {
+        return PagedTableStorage.open(dir, PagedTableStorage::readText, 16, 0);
+    }
+
+    private Path enrollments() throws IOException {
+        Path file = dir.resolve("enrollments.txt");
+        Files.write(file, List.of("7,CSE 2101", "8,CSE 2101", "7,CSE 2102"));
+        return file;
+    }
+
+    @Test
+    void importsTheTextFilesAndAnswersPerKey() throws IOException {
+        Path file = enrollments();
+        try (PagedTableStorage s = open()) {
+            assertEquals(List.of("7,CSE 2101", "7,CSE 2102"), s.lines(file, "7"));
+            s.written(file, List.of("7,CSE 2103"));
+            s.removed(file, "8");
+            assertEquals(List.of("7,CSE 2101", "7,CSE 2102", "7,CSE 2103"), s.lines(file, "7"));
+            assertEquals(List.of(), s.lines(file, "8"));
+        }
+    }
+
+    @Test
+    void committedStoreIsKeptAcrossRestarts() throws IOException {
+        Path file = enrollments();
+        try (PagedTableStorage s = open()) {
+            // only in the store, not in the text: shows whether the store was rebuilt
+            s.written(file, List.of("9,CSE 2199"));
+        }
+        try (PagedTableStorage s = open()) {
+            assertEquals(List.of("9,CSE 2199"), s.lines(file, "9"));
+        }
+    }
+
+    @Test
+    void storeNotClosedCleanlyIsRebuiltFromTheText() throws IOException {
+        Path file = enrollments();
+        PagedTableStorage crashed = open();
+        crashed.written(file, List.of("9,CSE 2199"));
+        // no commit, no close: the process died here
+
+        try (PagedTableStorage s = open()) {
+            assertEquals(List.of(), s.lines(file, "9"));
+            assertEquals(List.of("7,CSE 2101", "7,CSE 2102"), s.lines(file, "7"));
+        }
+        crashed.close();
+    }
+
+    @Test
+    void textEditedWhileStoppedIsImportedAgain() throws IOException {
+        Path file = enrollments();
+        open().close();
+
+        Files.write(file, List.of("5,CSE 2101"));
+        try (PagedTableStorage s = open()) {
+            assertEquals(List.of("5,CSE 2101"), s.lines(file, "5"));
+            assertEquals(List.of(), s.lines(file, "7"));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+// ✅ files/Storage/StorageBenchmark.java
+package files.Storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Text files vs the paged store for a large enrollments.txt, in a scratch directory.
+ *
+ * Usage: java files.Storage.StorageBenchmark [enrollments=1000000] [students=50000] [lookups=2000] [poolPages=2048]
+ */
+public final class StorageBenchmark {
+
+    private StorageBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int poolPages = args.length > 3 ? Integer.parseInt(args[3]) : 2048;
+
+        Path dir = Files.createTempDirectory("coursesphere-bench");
+        Path enrollments = dir.resolve("enrollments.txt");
+        Random rnd = new Random(42);
+
+        // 1) the text file, written the way the server appends
+        long t0 = System.nanoTime();
+        try (BufferedWriter w = Files.newBufferedWriter(enrollments)) {
+            for (int i = 0; i < rows; i++) {
+                w.write((2023000000L + rnd.nextInt(students)) + "," + (1000 + rnd.nextInt(400)));
+                w.newLine();
+            }
+        }
+        System.out.printf("text write    %,d rows in %d ms (%.1f MB)%n",
+                rows, ms(t0), Files.size(enrollments) / 1e6);
+
+        // 2) import into the paged store
+        t0 = System.nanoTime();
+        try (PagedTableStorage imported = PagedTableStorage.open(dir, PagedTableStorage::readText, poolPages, 0)) {
+            System.out.printf("paged import  %d ms (%.1f MB on disk)%n",
+                    ms(t0), Files.size(dir.resolve(PagedTableStorage.DB_FILE)) / 1e6);
+            System.out.println("pool          " + imported.stats().lines().findFirst().orElse(""));
+        }
+
+        // 3) clean reopen: nothing to import
+        t0 = System.nanoTime();
+        PagedTableStorage paged = PagedTableStorage.open(dir, PagedTableStorage::readText, poolPages, 0);
+        System.out.printf("paged reopen  %d ms%n", ms(t0));
+
+        List<String> keys = new ArrayList<>(lookups);
+        for (int i = 0; i < lookups; i++) keys.add(String.valueOf(2023000000L + rnd.nextInt(students)));
+
+        // 4) lookups by student: a whole-file scan per key vs a prefix scan
+        TextTableStorage text = new TextTableStorage();
+        int textLookups = Math.max(1, Math.min(lookups, 20));
+        long found = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < textLookups; i++) found += text.lines(enrollments, keys.get(i)).size();
+        double textMs = ms(t0) / (double) textLookups;
+
+        long pagedFound = 0;
+        for (int i = 0; i < textLookups; i++) pagedFound += paged.lines(enrollments, keys.get(i)).size();
+        if (pagedFound != found) System.out.println("❌ MISMATCH: text " + found + " rows, paged " + pagedFound);
+
+        t0 = System.nanoTime();
+        for (String k : keys) paged.lines(enrollments, k);
+        double pagedMs = (System.nanoTime() - t0) / 1e6 / lookups;
+        System.out.printf("lookup        text %.3f ms/key (%d keys), paged %.4f ms/key (%d keys)%n",
+                textMs, textLookups, pagedMs, lookups);
+
+        // 5) appends through written(): text append + tree insert
+        int appends = Math.min(rows, 100_000);
+        List<String> batch = new ArrayList<>(1);
+        t0 = System.nanoTime();
+        try (BufferedWriter w = Files.newBufferedWriter(enrollments, java.nio.file.StandardOpenOption.APPEND)) {
+            for (int i = 0; i < appends; i++) {
+                String line = (2023000000L + rnd.nextInt(students)) + "," + (1000 + rnd.nextInt(400));
+                w.write(line);
+                w.newLine();
+                w.flush(); // in the file before written(), as with the server's appends
+                batch.clear();
+                batch.add(line);
+                paged.written(enrollments, batch);
+            }
+        }
+        paged.commit();
+        System.out.printf("append        %,d rows in %d ms (commit included)%n", appends, ms(t0));
+        System.out.println("pool          " + paged.stats().lines().findFirst().orElse(""));
+        paged.close();
+
+        // 6) a small pool: how often lookups still hit the cache
+        try (PagedTableStorage small = PagedTableStorage.open(dir, PagedTableStorage::readText, 64, 0)) {
+            for (String k : keys) small.lines(enrollments, k);
+            System.out.println("pool (64)     " + small.stats().lines().findFirst().orElse(""));
+        }
+
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static long ms(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}